@@ -0,0 +1,62 @@
+package software.coley.collections.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.coley.collections.bidi.AnyBiMap;
+import software.coley.collections.bidi.BiMap;
+import software.coley.collections.bidi.HashBiMap;
+
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link HashBiMap} and {@link AnyBiMap}.
+ *
+ * @author Matt Coley
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BiMapBenchmark {
+	@Param({"16", "1024", "65536"})
+	private int size;
+	@Param({"HASH", "TREE"})
+	private String type;
+	private List<Integer> keys;
+	private BiMap<Integer, Integer> populated;
+
+	@Setup
+	public void setup() {
+		// Bi-maps require unique values, so only the unique distribution applies
+		keys = Distribution.UNIQUE.values(size, 0, 1);
+		populated = newMap();
+		for (Integer key : keys) populated.put(key, -key);
+	}
+
+	private BiMap<Integer, Integer> newMap() {
+		if ("TREE".equals(type)) return new AnyBiMap<>(TreeMap::new);
+		return new HashBiMap<>();
+	}
+
+	@Benchmark
+	public BiMap<Integer, Integer> put() {
+		BiMap<Integer, Integer> map = newMap();
+		for (Integer key : keys) map.put(key, -key);
+		return map;
+	}
+
+	@Benchmark
+	public void get(Blackhole bh) {
+		for (Integer key : keys) bh.consume(populated.get(key));
+	}
+
+	@Benchmark
+	public void reversedGet(Blackhole bh) {
+		BiMap<Integer, Integer> reversed = populated.reversed();
+		for (Integer key : keys) bh.consume(reversed.get(-key));
+	}
+}
@@ -0,0 +1,106 @@
+package software.coley.collections.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import software.coley.collections.Sets;
+import software.coley.collections.primitive.IntBitmap;
+import software.coley.collections.primitive.MappedIntBitmap;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing {@link IntBitmap} against {@link HashSet} of boxed values, for a million member set of
+ * mostly consecutive ranges intersected with a scattered set.
+ *
+ * @author Matt Coley
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitmapBenchmark {
+	private IntBitmap rangesBitmap;
+	private IntBitmap scatteredBitmap;
+	private MappedIntBitmap mappedBitmap;
+	private Set<Integer> rangesSet;
+	private Set<Integer> scatteredSet;
+	private int[] probes;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(1);
+		rangesBitmap = new IntBitmap();
+		scatteredBitmap = new IntBitmap();
+		rangesSet = new HashSet<>();
+		scatteredSet = new HashSet<>();
+		for (int range = 0; range < 100; range++) {
+			int first = random.nextInt(1 << 24);
+			rangesBitmap.addRange(first, first + 9999);
+			for (int i = first; i < first + 10000; i++) rangesSet.add(i);
+		}
+		for (int i = 0; i < 100000; i++) {
+			int value = random.nextInt(1 << 24);
+			scatteredBitmap.add(value);
+			scatteredSet.add(value);
+		}
+		ByteBuffer buffer = ByteBuffer.allocateDirect(rangesBitmap.serializedSize());
+		rangesBitmap.serialize(buffer);
+		buffer.flip();
+		mappedBitmap = new MappedIntBitmap(buffer);
+		probes = new int[1024];
+		for (int i = 0; i < probes.length; i++) probes[i] = random.nextInt(1 << 24);
+	}
+
+	@TearDown
+	public void tearDown() {
+		System.out.println("\nSerialized bitmap sizes: " + rangesBitmap.serializedSize() + " bytes for "
+				+ rangesBitmap.cardinality() + " values in ranges, " + scatteredBitmap.serializedSize() + " bytes for "
+				+ scatteredBitmap.cardinality() + " scattered values");
+	}
+
+	@Benchmark
+	public IntBitmap andBitmap() {
+		return IntBitmap.and(rangesBitmap, scatteredBitmap);
+	}
+
+	@Benchmark
+	public Set<Integer> andHashSet() {
+		return Sets.union(rangesSet, scatteredSet);
+	}
+
+	@Benchmark
+	public IntBitmap orBitmap() {
+		return IntBitmap.or(rangesBitmap, scatteredBitmap);
+	}
+
+	@Benchmark
+	public Set<Integer> orHashSet() {
+		return Sets.combine(rangesSet, scatteredSet);
+	}
+
+	@Benchmark
+	public int containsBitmap() {
+		int found = 0;
+		for (int probe : probes) if (rangesBitmap.contains(probe)) found++;
+		return found;
+	}
+
+	@Benchmark
+	public int containsMapped() {
+		int found = 0;
+		for (int probe : probes) if (mappedBitmap.contains(probe)) found++;
+		return found;
+	}
+
+	@Benchmark
+	public int containsHashSet() {
+		int found = 0;
+		for (int probe : probes) if (rangesSet.contains(probe)) found++;
+		return found;
+	}
+}
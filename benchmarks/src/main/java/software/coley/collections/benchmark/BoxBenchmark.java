@@ -0,0 +1,52 @@
+package software.coley.collections.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import software.coley.collections.box.Box;
+import software.coley.collections.box.IntBox;
+import software.coley.collections.box.LongBox;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for box access and atomic updates.
+ *
+ * @author Matt Coley
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoxBenchmark {
+	private final IntBox intBox = new IntBox();
+	private final LongBox longBox = new LongBox();
+	private final Box<String> box = new Box<>("a");
+
+	@Benchmark
+	public int intSetGet() {
+		intBox.set(intBox.get() + 1);
+		return intBox.get();
+	}
+
+	@Benchmark
+	public int intAddAndGet() {
+		return intBox.addAndGet(1);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public int intAddAndGetContended() {
+		return intBox.addAndGet(1);
+	}
+
+	@Benchmark
+	public long longAddAndGet() {
+		return longBox.addAndGet(1);
+	}
+
+	@Benchmark
+	public String objectUpdateAndGet() {
+		return box.updateAndGet(s -> "a".equals(s) ? "b" : "a");
+	}
+}
@@ -0,0 +1,63 @@
+package software.coley.collections.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import software.coley.collections.cache.CacheMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing the W-TinyLFU cache against an LRU cache built on {@link LinkedHashMap},
+ * over a skewed workload where a small set of keys receives most lookups.
+ * Each benchmark returns the number of hits, so hit rates can be compared alongside the time taken.
+ *
+ * @author Matt Coley
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+	@Param({"1024"})
+	private int maximum;
+	private int[] keys;
+
+	@Setup
+	public void setup() {
+		// Skewed key popularity, rank squared favors low keys while still producing a long tail
+		Random random = new Random(1);
+		keys = new int[65536];
+		for (int i = 0; i < keys.length; i++) {
+			double r = random.nextDouble();
+			keys[i] = (int) (r * r * r * maximum * 32);
+		}
+	}
+
+	@Benchmark
+	public int tinyLfu() {
+		return run(new CacheMap<>(maximum));
+	}
+
+	@Benchmark
+	public int lru() {
+		return run(new LinkedHashMap<Integer, Integer>(maximum * 2, 0.75F, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+				return size() > maximum;
+			}
+		});
+	}
+
+	private int run(Map<Integer, Integer> cache) {
+		int hits = 0;
+		for (int key : keys) {
+			if (cache.get(key) != null) hits++;
+			else cache.put(key, key);
+		}
+		return hits;
+	}
+}
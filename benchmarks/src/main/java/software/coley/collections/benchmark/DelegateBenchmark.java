@@ -0,0 +1,57 @@
+package software.coley.collections.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.coley.collections.delegate.DelegatingList;
+import software.coley.collections.delegate.DelegatingMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing delegating collections against the raw collections they wrap.
+ *
+ * @author Matt Coley
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DelegateBenchmark {
+	@Param({"1024", "65536"})
+	private int size;
+	@Param({"false", "true"})
+	private boolean delegating;
+	private List<Integer> list;
+	private Map<Integer, Integer> map;
+
+	@Setup
+	public void setup() {
+		List<Integer> values = Distribution.UNIQUE.values(size, 0, 1);
+		Map<Integer, Integer> rawMap = new HashMap<>();
+		for (Integer value : values) rawMap.put(value, value);
+		List<Integer> rawList = new ArrayList<>(values);
+		list = delegating ? new DelegatingList<>(rawList) : rawList;
+		map = delegating ? new DelegatingMap<>(rawMap) : rawMap;
+	}
+
+	@Benchmark
+	public void listGet(Blackhole bh) {
+		for (int i = 0; i < size; i++) bh.consume(list.get(i));
+	}
+
+	@Benchmark
+	public void listIterate(Blackhole bh) {
+		for (Integer value : list) bh.consume(value);
+	}
+
+	@Benchmark
+	public void mapGet(Blackhole bh) {
+		for (int i = 0; i < size; i++) bh.consume(map.get(i));
+	}
+}
@@ -0,0 +1,59 @@
+package software.coley.collections.benchmark;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Value distributions for benchmark inputs.
+ *
+ * @author Matt Coley
+ */
+public enum Distribution {
+	/**
+	 * All values are distinct.
+	 */
+	UNIQUE,
+	/**
+	 * Values are drawn from a range half the size of the input, so most values appear about twice.
+	 */
+	HALF_DUPLICATES,
+	/**
+	 * Values are drawn from a small fixed range, so almost every value is a duplicate.
+	 */
+	MOSTLY_DUPLICATES;
+
+	private static final int FEW_VALUES = 16;
+
+	/**
+	 * @param size
+	 * 		Number of values.
+	 * @param offset
+	 * 		Offset added to each value, used to create partially overlapping inputs.
+	 * @param seed
+	 * 		Random seed, so inputs are the same across runs.
+	 *
+	 * @return Values in this distribution, in random order.
+	 */
+	@Nonnull
+	public List<Integer> values(int size, int offset, long seed) {
+		Random random = new Random(seed);
+		List<Integer> values = new ArrayList<>(size);
+		switch (this) {
+			case UNIQUE:
+				for (int i = 0; i < size; i++) values.add(offset + i);
+				Collections.shuffle(values, random);
+				break;
+			case HALF_DUPLICATES:
+				int range = Math.max(1, size / 2);
+				for (int i = 0; i < size; i++) values.add(offset + random.nextInt(range));
+				break;
+			case MOSTLY_DUPLICATES:
+				for (int i = 0; i < size; i++) values.add(offset + random.nextInt(FEW_VALUES));
+				break;
+		}
+		return values;
+	}
+}
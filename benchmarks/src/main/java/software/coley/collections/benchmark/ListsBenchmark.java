@@ -0,0 +1,83 @@
+package software.coley.collections.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import software.coley.collections.Lists;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Lists} utilities.
+ *
+ * @author Matt Coley
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListsBenchmark {
+	@Param({"16", "1024", "65536"})
+	private int size;
+	@Param
+	private Distribution distribution;
+	private List<Integer> list1;
+	private List<Integer> list2;
+	private List<Integer> sorted1;
+	private List<Integer> sorted2;
+	private Integer target;
+
+	@Setup
+	public void setup() {
+		list1 = distribution.values(size, 0, 1);
+		list2 = distribution.values(size, size / 2, 2);
+		sorted1 = new ArrayList<>(list1);
+		sorted2 = new ArrayList<>(list2);
+		Collections.sort(sorted1);
+		Collections.sort(sorted2);
+		target = list1.get(size / 3);
+	}
+
+	@Benchmark
+	public List<Integer> add() {
+		return Lists.add(list1, -1);
+	}
+
+	@Benchmark
+	public List<Integer> combine() {
+		return Lists.combine(list1, list2);
+	}
+
+	@Benchmark
+	public List<Integer> distinct() {
+		return Lists.distinct(list1);
+	}
+
+	@Benchmark
+	public List<Integer> union() {
+		return Lists.union(list1, list2);
+	}
+
+	@Benchmark
+	public List<Integer> disjoint() {
+		return Lists.disjoint(list1, list2);
+	}
+
+	@Benchmark
+	public int binarySearch() {
+		return Lists.binarySearch(sorted1, target);
+	}
+
+	@Benchmark
+	public List<Integer> sortedUnion() {
+		return Lists.sortedUnion(sorted1, sorted2);
+	}
+
+	@Benchmark
+	public List<Integer> sortedIntersection() {
+		return Lists.sortedIntersection(sorted1, sorted2);
+	}
+}
@@ -0,0 +1,99 @@
+package software.coley.collections.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import software.coley.collections.Maps;
+import software.coley.collections.persistent.PersistentMap;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Maps} utilities.
+ *
+ * @author Matt Coley
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapsBenchmark {
+	@Param({"16", "1024", "65536"})
+	private int size;
+	@Param
+	private Distribution distribution;
+	private Map<Integer, Integer> map1;
+	private Map<Integer, Integer> map2;
+
+	@Setup
+	public void setup() {
+		map1 = toMap(distribution.values(size, 0, 1));
+		map2 = toMap(distribution.values(size, size / 2, 2));
+	}
+
+	private static Map<Integer, Integer> toMap(List<Integer> keys) {
+		Map<Integer, Integer> map = new HashMap<>();
+		for (int i = 0; i < keys.size(); i++) map.put(keys.get(i), i);
+		return map;
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> add() {
+		return Maps.add(map1, -1, -1);
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> addLoop() {
+		// Capped, as the copying approach is quadratic
+		Map<Integer, Integer> map = null;
+		for (int i = 0, max = Math.min(size, 1024); i < max; i++) map = Maps.add(map, i, i);
+		return map;
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> addLoopPersistent() {
+		PersistentMap<Integer, Integer> map = PersistentMap.empty();
+		for (int i = 0, max = Math.min(size, 1024); i < max; i++) map = Maps.add(map, i, i);
+		return map;
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> combine() {
+		return Maps.combine(map1, map2);
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> distinct() {
+		return Maps.distinct(map1, map2);
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> union() {
+		return Maps.union(map1, map2);
+	}
+
+	@Benchmark
+	public Integer combineViewGet() {
+		// Typical use of a view, reading a few keys out of the combined inputs
+		Map<Integer, Integer> view = Maps.combineView(map1, map2);
+		return view.get(0);
+	}
+
+	@Benchmark
+	public Integer combineGet() {
+		return Maps.combine(map1, map2).get(0);
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> reverse() {
+		return Maps.reverse(map1);
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> immutableCopyOf() {
+		return Maps.immutableCopyOf(map1);
+	}
+}
@@ -0,0 +1,61 @@
+package software.coley.collections.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.coley.collections.observable.ObservableList;
+import software.coley.collections.observable.ObservableMap;
+import software.coley.collections.observable.ObservableSet;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for mutation of observable collections with varying listener counts.
+ *
+ * @author Matt Coley
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObservableBenchmark {
+	@Param({"1024"})
+	private int size;
+	@Param({"0", "1", "8"})
+	private int listeners;
+	private List<Integer> values;
+
+	@Setup
+	public void setup() {
+		values = Distribution.UNIQUE.values(size, 0, 1);
+	}
+
+	@Benchmark
+	public ObservableList<Integer> listAddRemove(Blackhole bh) {
+		ObservableList<Integer> list = new ObservableList<>();
+		for (int i = 0; i < listeners; i++) list.addChangeListener((source, change) -> bh.consume(change));
+		for (Integer value : values) list.add(value);
+		for (int i = values.size() - 1; i >= 0; i--) list.remove(i);
+		return list;
+	}
+
+	@Benchmark
+	public ObservableSet<Integer> setAddRemove(Blackhole bh) {
+		ObservableSet<Integer> set = new ObservableSet<>();
+		for (int i = 0; i < listeners; i++) set.addChangeListener((source, change) -> bh.consume(change));
+		for (Integer value : values) set.add(value);
+		for (Integer value : values) set.remove(value);
+		return set;
+	}
+
+	@Benchmark
+	public ObservableMap<Integer, Integer> mapPutRemove(Blackhole bh) {
+		ObservableMap<Integer, Integer> map = new ObservableMap<>();
+		for (int i = 0; i < listeners; i++) map.addChangeListener((source, change) -> bh.consume(change));
+		for (Integer value : values) map.put(value, value);
+		for (Integer value : values) map.remove(value);
+		return map;
+	}
+}
@@ -0,0 +1,111 @@
+package software.coley.collections.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.coley.collections.offheap.Codec;
+import software.coley.collections.offheap.MappedMap;
+import software.coley.collections.offheap.OffHeapMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing the off-heap map against {@link HashMap}.
+ * <br>
+ * The {@code get} benchmarks measure lookup latency. For footprint, run the {@code build} benchmarks with
+ * {@code -prof gc}, where {@code gc.alloc.rate.norm} is the heap allocated to build each map.
+ * The native memory held by the off-heap map is printed when each trial ends.
+ * <br>
+ * {@code reopenMapped} measures reopening a persisted {@link MappedMap} and reading from it,
+ * to compare against rebuilding a map from its source data with {@code buildHashMap}.
+ *
+ * @author Matt Coley
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OffHeapBenchmark {
+	@Param({"1024", "262144"})
+	private int size;
+	private long[] keys;
+	private long[] missingKeys;
+	private Map<Long, Long> hashMap;
+	private OffHeapMap<Long, Long> offHeapMap;
+	private Path mappedPath;
+
+	@Setup
+	public void setup() throws IOException {
+		List<Integer> values = Distribution.UNIQUE.values(size, 0, 1);
+		keys = values.stream().mapToLong(Integer::longValue).toArray();
+		missingKeys = Distribution.UNIQUE.values(size, size, 2).stream().mapToLong(Integer::longValue).toArray();
+		hashMap = buildHashMap();
+		offHeapMap = buildOffHeap();
+		mappedPath = Files.createTempFile("mapped", ".bin");
+		Files.delete(mappedPath);
+		try (MappedMap<Long, Long> map = MappedMap.open(mappedPath, Codec.longs(), Codec.longs(), size)) {
+			for (long key : keys) map.put(key, key);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		System.out.println("\nOff-heap native memory: " + offHeapMap.memoryUsage() + " bytes for " + size + " entries");
+		offHeapMap.close();
+		Files.deleteIfExists(mappedPath);
+	}
+
+	@Benchmark
+	public Long reopenMapped() throws IOException {
+		try (MappedMap<Long, Long> map = MappedMap.open(mappedPath, Codec.longs(), Codec.longs())) {
+			return map.get(keys[keys.length / 2]);
+		}
+	}
+
+	@Benchmark
+	public void getHashMap(Blackhole bh) {
+		for (long key : keys) bh.consume(hashMap.get(key));
+	}
+
+	@Benchmark
+	public void getOffHeap(Blackhole bh) {
+		for (long key : keys) bh.consume(offHeapMap.get(key));
+	}
+
+	@Benchmark
+	public void missHashMap(Blackhole bh) {
+		for (long key : missingKeys) bh.consume(hashMap.containsKey(key));
+	}
+
+	@Benchmark
+	public void missOffHeap(Blackhole bh) {
+		for (long key : missingKeys) bh.consume(offHeapMap.containsKey(key));
+	}
+
+	@Benchmark
+	public Map<Long, Long> buildHashMap() {
+		Map<Long, Long> map = new HashMap<>(size * 2);
+		for (long key : keys) map.put(key, key);
+		return map;
+	}
+
+	@Benchmark
+	public int buildOffHeapAndClose() {
+		try (OffHeapMap<Long, Long> map = buildOffHeap()) {
+			return map.size();
+		}
+	}
+
+	private OffHeapMap<Long, Long> buildOffHeap() {
+		OffHeapMap<Long, Long> map = new OffHeapMap<>(Codec.longs(), Codec.longs(), size);
+		for (long key : keys) map.put(key, key);
+		return map;
+	}
+}
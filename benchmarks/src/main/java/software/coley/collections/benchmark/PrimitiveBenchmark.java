@@ -0,0 +1,99 @@
+package software.coley.collections.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import software.coley.collections.Lists;
+import software.coley.collections.primitive.IntIntMap;
+import software.coley.collections.primitive.IntList;
+import software.coley.collections.primitive.IntObjectMap;
+import software.coley.collections.primitive.PrimitiveLists;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing primitive collections against boxed collections.
+ *
+ * @author Matt Coley
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveBenchmark {
+	@Param({"1024", "65536"})
+	private int size;
+	@Param
+	private Distribution distribution;
+	private int[] keys;
+	private List<Integer> boxedList;
+	private IntList intList;
+	private IntObjectMap<String> intObjectMap;
+	private Map<Integer, String> boxedMap;
+
+	@Setup
+	public void setup() {
+		List<Integer> values = distribution.values(size, 0, 1);
+		keys = values.stream().mapToInt(Integer::intValue).toArray();
+		boxedList = values;
+		intList = IntList.of(keys);
+		intObjectMap = new IntObjectMap<>();
+		boxedMap = new HashMap<>();
+		for (int key : keys) {
+			intObjectMap.put(key, "v");
+			boxedMap.put(key, "v");
+		}
+	}
+
+	@Benchmark
+	public IntObjectMap<String> intObjectPut() {
+		IntObjectMap<String> map = new IntObjectMap<>();
+		for (int key : keys) map.put(key, "v");
+		return map;
+	}
+
+	@Benchmark
+	public Map<Integer, String> boxedPut() {
+		Map<Integer, String> map = new HashMap<>();
+		for (int key : keys) map.put(key, "v");
+		return map;
+	}
+
+	@Benchmark
+	public void intObjectGet(Blackhole bh) {
+		for (int key : keys) bh.consume(intObjectMap.get(key));
+	}
+
+	@Benchmark
+	public void boxedGet(Blackhole bh) {
+		for (int key : keys) bh.consume(boxedMap.get(key));
+	}
+
+	@Benchmark
+	public IntList intListDistinct() {
+		return PrimitiveLists.distinct(intList);
+	}
+
+	@Benchmark
+	public List<Integer> boxedListDistinct() {
+		return Lists.distinct(boxedList);
+	}
+
+	@Benchmark
+	public IntIntMap intIntCount() {
+		IntIntMap counts = new IntIntMap();
+		for (int key : keys) counts.addTo(key, 1);
+		return counts;
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> boxedCount() {
+		Map<Integer, Integer> counts = new HashMap<>();
+		for (int key : keys) counts.merge(key, 1, Integer::sum);
+		return counts;
+	}
+}
@@ -0,0 +1,79 @@
+package software.coley.collections.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import software.coley.collections.Sets;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Sets} utilities.
+ *
+ * @author Matt Coley
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetsBenchmark {
+	@Param({"16", "1024", "65536"})
+	private int size;
+	@Param
+	private Distribution distribution;
+	private Set<Integer> set1;
+	private Set<Integer> set2;
+	private Set<Integer> filter;
+	private Integer[] values;
+
+	@Setup
+	public void setup() {
+		set1 = new HashSet<>(distribution.values(size, 0, 1));
+		set2 = new HashSet<>(distribution.values(size, size / 2, 2));
+		values = distribution.values(size, 0, 3).toArray(new Integer[0]);
+		filter = new HashSet<>(distribution.values(3, 0, 4));
+	}
+
+	@Benchmark
+	public Set<Integer> add() {
+		return Sets.add(set1, -1);
+	}
+
+	@Benchmark
+	public Set<Integer> combine() {
+		return Sets.combine(set1, set2);
+	}
+
+	@Benchmark
+	public Set<Integer> disjoint() {
+		return Sets.disjoint(set1, set2);
+	}
+
+	@Benchmark
+	public Set<Integer> union() {
+		return Sets.union(set1, set2);
+	}
+
+	@Benchmark
+	public Set<Integer> unionWithFilter() {
+		// Large set intersected with a tiny one, which should cost the size of the tiny set
+		return Sets.union(set1, filter);
+	}
+
+	@Benchmark
+	public int unionViewSize() {
+		return Sets.unionView(set1, set2).size();
+	}
+
+	@Benchmark
+	public Set<Integer> of() {
+		return Sets.of(values);
+	}
+
+	@Benchmark
+	public Set<Integer> immutableOf() {
+		return Sets.immutableOf(values);
+	}
+}
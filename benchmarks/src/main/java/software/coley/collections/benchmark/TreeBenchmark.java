@@ -0,0 +1,71 @@
+package software.coley.collections.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import software.coley.collections.tree.SortedTreeImpl;
+import software.coley.collections.tree.Tree;
+import software.coley.collections.tree.TreeImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link TreeImpl} and {@link SortedTreeImpl} construction and traversal.
+ *
+ * @author Matt Coley
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeBenchmark {
+	@Param({"2", "8"})
+	private int branching;
+	@Param({"3", "5"})
+	private int depth;
+	@Param({"HASH", "SORTED"})
+	private String type;
+	private Tree<Integer, Integer> tree;
+
+	@Setup
+	public void setup() {
+		tree = build();
+	}
+
+	private Tree<Integer, Integer> build() {
+		Tree<Integer, Integer> root = "SORTED".equals(type) ? new SortedTreeImpl<>(0) : new TreeImpl<>(0);
+		populate(root, depth);
+		return root;
+	}
+
+	private void populate(Tree<Integer, Integer> node, int remaining) {
+		if (remaining == 0) return;
+		for (int i = 0; i < branching; i++) {
+			Tree<Integer, Integer> child = node.createSubTree(remaining * branching + i);
+			node.put(i, child);
+			populate(child, remaining - 1);
+		}
+	}
+
+	@Benchmark
+	public Tree<Integer, Integer> construct() {
+		return build();
+	}
+
+	@Benchmark
+	public int countAllLeaves() {
+		return tree.getAllLeaves().size();
+	}
+
+	@Benchmark
+	public long traverse() {
+		return sum(tree);
+	}
+
+	private static long sum(Tree<Integer, Integer> node) {
+		long total = node.getValue();
+		for (Tree<Integer, Integer> child : node.values())
+			total += sum(child);
+		return total;
+	}
+}
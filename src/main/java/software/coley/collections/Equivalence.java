@@ -0,0 +1,186 @@
+package software.coley.collections;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Strategy for determining if two items should be treated as the same item.
+ * Used by utilities such as {@link Lists#distinct(java.util.List, Equivalence)} in place of
+ * {@link Object#equals(Object)} and {@link Object#hashCode()}.
+ *
+ * @param <T>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+public interface Equivalence<T> {
+	/**
+	 * @param a
+	 * 		Some item.
+	 * @param b
+	 * 		Another item.
+	 *
+	 * @return {@code true} when the items are to be treated as the same item.
+	 */
+	boolean equivalent(@Nullable T a, @Nullable T b);
+
+	/**
+	 * @param value
+	 * 		Some item.
+	 *
+	 * @return Hash of the item. Must be consistent with {@link #equivalent(Object, Object)}.
+	 */
+	int hash(@Nullable T value);
+
+	/**
+	 * @param value
+	 * 		Some item.
+	 *
+	 * @return Key object for the item which defines {@link Object#equals(Object)} and {@link Object#hashCode()}
+	 * in terms of this equivalence. Can be used as a key in standard hash based collections.
+	 */
+	@Nullable
+	default Object wrap(@Nullable T value) {
+		return new Wrapper<>(this, value);
+	}
+
+	/**
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Equivalence using {@link Object#equals(Object)} and {@link Object#hashCode()}.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	static <T> Equivalence<T> equality() {
+		return (Equivalence<T>) Standard.EQUALITY;
+	}
+
+	/**
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Equivalence using reference identity and {@link System#identityHashCode(Object)}.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	static <T> Equivalence<T> identity() {
+		return (Equivalence<T>) Standard.IDENTITY;
+	}
+
+	/**
+	 * @param hasher
+	 * 		Hash function for items.
+	 * @param equality
+	 * 		Equality check for items. Must be consistent with the hash function.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Equivalence using the given functions.
+	 */
+	@Nonnull
+	static <T> Equivalence<T> of(@Nonnull ToIntFunction<? super T> hasher,
+	                             @Nonnull BiPredicate<? super T, ? super T> equality) {
+		Objects.requireNonNull(hasher, "Hash function must not be null");
+		Objects.requireNonNull(equality, "Equality function must not be null");
+		return new Equivalence<T>() {
+			@Override
+			public boolean equivalent(T a, T b) {
+				return equality.test(a, b);
+			}
+
+			@Override
+			public int hash(T value) {
+				return hasher.applyAsInt(value);
+			}
+		};
+	}
+
+	/**
+	 * Built-in equivalence types.
+	 */
+	enum Standard implements Equivalence<Object> {
+		EQUALITY {
+			@Override
+			public boolean equivalent(Object a, Object b) {
+				return Objects.equals(a, b);
+			}
+
+			@Override
+			public int hash(Object value) {
+				return Objects.hashCode(value);
+			}
+
+			@Override
+			public Object wrap(Object value) {
+				// Items already define equality in the way we want, no need to wrap them.
+				return value;
+			}
+		},
+		IDENTITY {
+			@Override
+			public boolean equivalent(Object a, Object b) {
+				return a == b;
+			}
+
+			@Override
+			public int hash(Object value) {
+				return System.identityHashCode(value);
+			}
+		}
+	}
+
+	/**
+	 * Key wrapper which defines equality in terms of an {@link Equivalence}.
+	 *
+	 * @param <T>
+	 * 		Item type.
+	 */
+	final class Wrapper<T> {
+		private final Equivalence<T> equivalence;
+		private final T value;
+		private final int hash;
+
+		/**
+		 * @param equivalence
+		 * 		Equivalence to use for equality checks.
+		 * @param value
+		 * 		Wrapped item.
+		 */
+		public Wrapper(@Nonnull Equivalence<T> equivalence, @Nullable T value) {
+			this.equivalence = equivalence;
+			this.value = value;
+			this.hash = equivalence.hash(value);
+		}
+
+		/**
+		 * @return Wrapped item.
+		 */
+		@Nullable
+		public T get() {
+			return value;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Wrapper)) return false;
+			Wrapper<T> other = (Wrapper<T>) o;
+			return equivalence == other.equivalence && equivalence.equivalent(value, other.value);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(value);
+		}
+	}
+}
@@ -1,8 +1,18 @@
 package software.coley.collections;
 
+import software.coley.collections.compact.CompactCollections;
+import software.coley.collections.internal.Instrumentation;
+import software.coley.collections.parallel.ParallelLists;
+import software.coley.collections.parallel.ParallelSupport;
+import software.coley.collections.persistent.PersistentList;
+import software.coley.collections.view.ConcatListView;
+import software.coley.collections.view.ReversedListView;
+import software.coley.collections.view.SliceListView;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Utility for handling {@link java.util.List} types.
@@ -12,6 +22,17 @@
  * @author Matt Coley
  */
 public class Lists {
+	/**
+	 * Threshold under which {@link #distinct(List)} and similar operations use a linear scan for duplicate checks
+	 * rather than allocating a hash index. For tiny inputs the scan is cheaper than hashing.
+	 */
+	private static final int DISTINCT_SCAN_THRESHOLD = 8;
+	/**
+	 * Size ratio between two sorted inputs at which set operations such as {@link #sortedIntersection(List, List)}
+	 * switch from a plain linear merge to searching for each item of the smaller input in the larger input.
+	 */
+	private static final int SORTED_GALLOP_RATIO = 8;
+
 	/**
 	 * @param src
 	 * 		Original list.
@@ -24,6 +45,27 @@ public class Lists {
 	 */
 	@Nonnull
 	public static <T> List<T> add(@Nullable List<T> src, @Nullable T additional) {
+		return add(src, additional, Equivalence.equality());
+	}
+
+	/**
+	 * @param src
+	 * 		Original list.
+	 * @param additional
+	 * 		Item to add.
+	 * @param equivalence
+	 * 		Equivalence strategy for determining duplicate items.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return New list with additional item.
+	 * When the given list is an unmodified result of a previous call with the same equivalence, its items are known
+	 * to be distinct and its duplicate index is handed over to the new list, so only the new item is checked.
+	 * Building a list one item at a time then costs a copy of the list per call, but no repeated hashing.
+	 * The index is kept by the returned list for the next call, which takes some additional memory.
+	 */
+	@Nonnull
+	public static <T> List<T> add(@Nullable List<T> src, @Nullable T additional, @Nonnull Equivalence<T> equivalence) {
 		if (src == null) {
 			if (additional == null) return Collections.emptyList();
 			return Collections.singletonList(additional);
@@ -31,9 +73,68 @@ public static <T> List<T> add(@Nullable List<T> src, @Nullable T additional) {
 
 		if (src.isEmpty()) return Collections.singletonList(additional);
 
-		List<T> list = new ArrayList<>(src);
-		list.add(additional);
-		return distinct(list);
+		DistinctList<T> list = new DistinctList<>(src.size() + 1);
+		Set<Object> index;
+		if (src instanceof DistinctList && ((DistinctList<T>) src).isDistinct(equivalence)) {
+			// Items of a previous result are already distinct, so only the new item needs to be checked
+			list.addAll(src);
+			index = ((DistinctList<T>) src).takeIndex();
+			if (index == null && list.size() > DISTINCT_SCAN_THRESHOLD) {
+				index = new HashSet<>(hashCapacity(list.size() + 1));
+				for (T t : list) index.add(equivalence.wrap(t));
+			}
+		} else {
+			// The distinct copy of the source shares its duplicate index with the check for the additional item,
+			// so the new item does not require another pass over the list.
+			index = distinctInto(src, list, equivalence);
+		}
+		if (index == null ? !scanContains(list, additional, equivalence) : index.add(equivalence.wrap(additional)))
+			list.add(additional);
+		list.markDistinct(equivalence, index);
+		return list;
+	}
+
+	/**
+	 * Persistent variant of {@link #add(List, Object)} which shares structure with the original list
+	 * rather than copying it. Adding is {@code O(log n)}, but the duplicate check scans the list and so is
+	 * {@code O(n)}. Use {@link #append(PersistentList, Object)} to skip the check.
+	 *
+	 * @param src
+	 * 		Original list.
+	 * @param additional
+	 * 		Item to add.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return New list with additional item, or the original list if it already contains the item.
+	 */
+	@Nonnull
+	public static <T> PersistentList<T> persistentAdd(@Nullable PersistentList<T> src, @Nullable T additional) {
+		if (src == null) return PersistentList.<T>empty().with(additional);
+		if (src.contains(additional)) return src;
+		return src.with(additional);
+	}
+
+	/**
+	 * Variant of {@link #persistentAdd(PersistentList, Object)} which does not check for duplicates.
+	 * <br>
+	 * The duplicate check of {@link #persistentAdd(PersistentList, Object)} scans the list, so each call is
+	 * {@code O(n)} even though the list itself is shared. Use this when the caller already knows the item is new,
+	 * or does not need distinct items, to build lists one item at a time in {@code O(log n)} per item.
+	 *
+	 * @param src
+	 * 		Original list.
+	 * @param additional
+	 * 		Item to append.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return New list with additional item.
+	 */
+	@Nonnull
+	public static <T> PersistentList<T> append(@Nullable PersistentList<T> src, @Nullable T additional) {
+		if (src == null) return PersistentList.<T>empty().with(additional);
+		return src.with(additional);
 	}
 
 	/**
@@ -62,6 +163,41 @@ public static <T> List<T> combine(@Nullable List<T> src1, @Nullable List<T> src2
 		return list;
 	}
 
+	/**
+	 * Persistent variant of {@link #combine(List, List)} which shares structure with the original list
+	 * rather than copying it.
+	 *
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional items to add.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return New list with additional items.
+	 */
+	@Nonnull
+	public static <T> PersistentList<T> persistentCombine(@Nullable PersistentList<T> src1, @Nullable List<T> src2) {
+		if (src1 == null) return PersistentList.of(src2);
+		return src1.withAll(src2);
+	}
+
+	/**
+	 * Opts into structural sharing for later calls to {@link #persistentAdd(PersistentList, Object)}
+	 * and {@link #persistentCombine(PersistentList, List)}.
+	 *
+	 * @param src
+	 * 		Original list.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Persistent list of the same items.
+	 */
+	@Nonnull
+	public static <T> PersistentList<T> persistent(@Nullable List<T> src) {
+		return PersistentList.of(src);
+	}
+
 	/**
 	 * @param src
 	 * 		Original list.
@@ -72,17 +208,93 @@ public static <T> List<T> combine(@Nullable List<T> src1, @Nullable List<T> src2
 	 */
 	@Nonnull
 	public static <T> List<T> distinct(@Nullable List<T> src) {
+		return distinct(src, Equivalence.equality());
+	}
+
+	/**
+	 * @param src
+	 * 		Original list.
+	 * @param equivalence
+	 * 		Equivalence strategy for determining duplicate items.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return List with duplicates removed. Order of first occurrences is preserved.
+	 */
+	@Nonnull
+	public static <T> List<T> distinct(@Nullable List<T> src, @Nonnull Equivalence<T> equivalence) {
 		if (src == null || src.isEmpty()) return Collections.emptyList();
 
+		Instrumentation.Scope scope = Instrumentation.begin("Lists.distinct", src.size());
 		List<T> copy = new ArrayList<>();
-		for (T t : src) {
-			if (copy.contains(t))
-				continue;
-			copy.add(t);
-		}
+		distinctInto(src, copy, equivalence);
+		scope.end(copy.size());
 		return copy;
 	}
 
+	/**
+	 * @param src
+	 * 		Items to copy.
+	 * @param dest
+	 * 		Empty list to copy distinct items into.
+	 * @param equivalence
+	 * 		Equivalence strategy for determining duplicate items.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Index of {@link Equivalence#wrap(Object) wrapped} items in the destination list,
+	 * or {@code null} if the input was small enough to be handled with linear scans.
+	 */
+	@Nullable
+	private static <T> Set<Object> distinctInto(@Nonnull Collection<T> src, @Nonnull List<T> dest,
+	                                            @Nonnull Equivalence<T> equivalence) {
+		int size = src.size();
+		if (size <= DISTINCT_SCAN_THRESHOLD) {
+			for (T t : src)
+				if (!scanContains(dest, t, equivalence))
+					dest.add(t);
+			return null;
+		}
+
+		Set<Object> index = new HashSet<>(hashCapacity(size));
+		for (T t : src)
+			if (index.add(equivalence.wrap(t)))
+				dest.add(t);
+		return index;
+	}
+
+	/**
+	 * @param items
+	 * 		Items to search in.
+	 * @param target
+	 * 		Item to search for.
+	 * @param equivalence
+	 * 		Equivalence strategy for matching items.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return {@code true} when an item in the list is equivalent to the target.
+	 */
+	private static <T> boolean scanContains(@Nonnull List<T> items, @Nullable T target,
+	                                        @Nonnull Equivalence<T> equivalence) {
+		for (T t : items)
+			if (equivalence.equivalent(t, target))
+				return true;
+		return false;
+	}
+
+	/**
+	 * @param expectedSize
+	 * 		Expected number of items to hold.
+	 *
+	 * @return Initial capacity for a hash based collection to hold the given number of items without resizing.
+	 */
+	static int hashCapacity(int expectedSize) {
+		if (expectedSize < 3) return expectedSize + 1;
+		if (expectedSize >= 1 << 30) return Integer.MAX_VALUE;
+		return (int) (expectedSize / 0.75F + 1.0F);
+	}
+
 	/**
 	 * @param src1
 	 * 		Original list.
@@ -114,12 +326,43 @@ public static <T> List<T> disjoint(@Nullable List<T> src1, @Nullable List<T> src
 	 */
 	@Nonnull
 	public static <T> List<T> union(@Nullable List<T> src1, @Nullable List<T> src2) {
+		return union(src1, src2, Equivalence.equality());
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional list.
+	 * @param equivalence
+	 * 		Equivalence strategy for matching items between the lists.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return List of containing only the items shared by the two lists.
+	 */
+	@Nonnull
+	public static <T> List<T> union(@Nullable List<T> src1, @Nullable List<T> src2,
+	                                @Nonnull Equivalence<T> equivalence) {
 		if (src1 == null || src2 == null || src1.isEmpty() || src2.isEmpty())
 			return Collections.emptyList();
 
-		List<T> results = new ArrayList<>(src1);
-		results.retainAll(src2);
-		return distinct(results);
+		Instrumentation.Scope scope = Instrumentation.begin("Lists.union", src1.size() + src2.size());
+
+		// Index the second list so membership checks are constant time rather than a scan per item.
+		Set<Object> other = new HashSet<>(hashCapacity(src2.size()));
+		for (T t : src2)
+			other.add(equivalence.wrap(t));
+
+		List<T> results = new ArrayList<>();
+		Set<Object> seen = new HashSet<>();
+		for (T t : src1) {
+			Object key = equivalence.wrap(t);
+			if (other.contains(key) && seen.add(key))
+				results.add(t);
+		}
+		scope.end(results.size());
+		return results;
 	}
 
 	/**
@@ -135,11 +378,75 @@ public static <T> List<T> reversed(@Nonnull List<T> src) {
 		if (src.isEmpty() || src.size() == 1) return src;
 
 		List<T> copy = new ArrayList<>(src.size());
-		for (T t : src)
-			copy.add(0, t);
+		ListIterator<T> it = src.listIterator(src.size());
+		while (it.hasPrevious())
+			copy.add(it.previous());
 		return copy;
 	}
 
+	/**
+	 * @param src
+	 * 		Original list.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Read-only reverse ordered view of the list. Does not copy the list.
+	 */
+	@Nonnull
+	public static <T> List<T> reversedView(@Nonnull List<T> src) {
+		return ReversedListView.of(src);
+	}
+
+	/**
+	 * @param sources
+	 * 		Lists to join.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Read-only view of the lists joined end to end. Does not copy the lists.
+	 */
+	@Nonnull
+	@SafeVarargs
+	public static <T> List<T> combineView(@Nonnull List<? extends T>... sources) {
+		return ConcatListView.of(sources);
+	}
+
+	/**
+	 * @param src
+	 * 		Original list.
+	 * @param from
+	 * 		Start index, inclusive.
+	 * @param to
+	 * 		End index, exclusive.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Read-only view of the range of the list. Does not copy the list.
+	 */
+	@Nonnull
+	public static <T> List<T> sliceView(@Nonnull List<T> src, int from, int to) {
+		return SliceListView.of(src, from, to);
+	}
+
+	/**
+	 * @param src
+	 * 		Original list.
+	 * @param from
+	 * 		Start index, inclusive.
+	 * @param to
+	 * 		End index, exclusive.
+	 * @param stride
+	 * 		Distance between items in the view. A stride of {@code 2} includes every other item.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Read-only view of the range of the list. Does not copy the list.
+	 */
+	@Nonnull
+	public static <T> List<T> sliceView(@Nonnull List<T> src, int from, int to, int stride) {
+		return SliceListView.of(src, from, to, stride);
+	}
+
 	/**
 	 * @param value
 	 * 		List item.
@@ -185,6 +492,37 @@ public static <T> List<T> ofVar(T... values) {
 		return of(values);
 	}
 
+	/**
+	 * Unlike {@link #of(Object[])} the resulting list is immutable, and uses a field-specialized implementation
+	 * for small sizes which is far smaller than an {@link ArrayList}.
+	 * See {@link CompactCollections} for footprint details.
+	 *
+	 * @param values
+	 * 		List items.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Immutable list containing the items.
+	 */
+	@Nonnull
+	@SafeVarargs
+	public static <T> List<T> immutableOf(@Nonnull T... values) {
+		return CompactCollections.listOf(values);
+	}
+
+	/**
+	 * @param src
+	 * 		List items.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Immutable list containing the items. See {@link #immutableOf(Object[])}.
+	 */
+	@Nonnull
+	public static <T> List<T> immutableCopyOf(@Nonnull Collection<? extends T> src) {
+		return CompactCollections.listCopyOf(src);
+	}
+
 	/**
 	 * @param items
 	 * 		Item list to search in.
@@ -216,21 +554,267 @@ public static <T extends Comparable<T>> int binarySearch(@Nonnull List<T> items,
 	 * If the item is not in the list, the negative value of the index where it would appear in sorted order.
 	 */
 	public static <T extends Comparable<T>> int binarySearch(@Nonnull List<T> items, @Nonnull T target, int first, int last) {
-		if (first > last)
-			// Typically yield '-1' but with this, we will have it such that if 'target' is not in the list
-			// then the return value will be the negative value of the index where it would be inserted into
-			// while maintaining sorted order.
-			return (first == 0 && last == -1) ? last : -last;
-		else {
-			int middle = (first + last) / 2;
+		while (first <= last) {
+			int middle = (first + last) >>> 1;
 			int compResult = target.compareTo(items.get(middle));
 			if (compResult == 0)
 				return middle;
 			else if (compResult < 0)
-				return binarySearch(items, target, first, middle - 1);
+				last = middle - 1;
 			else
-				return binarySearch(items, target, middle + 1, last);
+				first = middle + 1;
+		}
+
+		// Typically yield '-1' but with this, we will have it such that if 'target' is not in the list
+		// then the return value will be the negative value of the index where it would be inserted into
+		// while maintaining sorted order.
+		return (first == 0 && last == -1) ? last : -last;
+	}
+
+	/**
+	 * @param array
+	 * 		Sorted array to search in.
+	 * @param target
+	 * 		Value to search for.
+	 *
+	 * @return Index of the value in the array.
+	 * If the value is not in the array, {@code (-(insertion point) - 1)} following the convention of
+	 * {@link Arrays#binarySearch(int[], int)}.
+	 */
+	public static int binarySearch(@Nonnull int[] array, int target) {
+		return binarySearch(array, target, 0, array.length);
+	}
+
+	/**
+	 * @param array
+	 * 		Sorted array to search in.
+	 * @param target
+	 * 		Value to search for.
+	 * @param from
+	 * 		Start index, inclusive.
+	 * @param to
+	 * 		End index, exclusive.
+	 *
+	 * @return Index of the value in the array, within the range.
+	 * If the value is not in the range, {@code (-(insertion point) - 1)} following the convention of
+	 * {@link Arrays#binarySearch(int[], int, int, int)}.
+	 */
+	public static int binarySearch(@Nonnull int[] array, int target, int from, int to) {
+		checkRange(array.length, from, to);
+		if (from == to) return -from - 1;
+
+		// Narrow down to the lower bound with a fixed number of steps.
+		// The select in the loop can compile to a conditional move rather than an unpredictable branch.
+		int base = from;
+		int n = to - from;
+		while (n > 1) {
+			int half = n >>> 1;
+			base = array[base + half] < target ? base + half : base;
+			n -= half;
+		}
+		if (array[base] < target) base++;
+		if (base < to && array[base] == target) return base;
+		return -base - 1;
+	}
+
+	/**
+	 * @param array
+	 * 		Sorted array to search in.
+	 * @param target
+	 * 		Value to search for.
+	 *
+	 * @return Index of the value in the array.
+	 * If the value is not in the array, {@code (-(insertion point) - 1)} following the convention of
+	 * {@link Arrays#binarySearch(long[], long)}.
+	 */
+	public static int binarySearch(@Nonnull long[] array, long target) {
+		return binarySearch(array, target, 0, array.length);
+	}
+
+	/**
+	 * @param array
+	 * 		Sorted array to search in.
+	 * @param target
+	 * 		Value to search for.
+	 * @param from
+	 * 		Start index, inclusive.
+	 * @param to
+	 * 		End index, exclusive.
+	 *
+	 * @return Index of the value in the array, within the range.
+	 * If the value is not in the range, {@code (-(insertion point) - 1)} following the convention of
+	 * {@link Arrays#binarySearch(long[], int, int, long)}.
+	 */
+	public static int binarySearch(@Nonnull long[] array, long target, int from, int to) {
+		checkRange(array.length, from, to);
+		if (from == to) return -from - 1;
+
+		int base = from;
+		int n = to - from;
+		while (n > 1) {
+			int half = n >>> 1;
+			base = array[base + half] < target ? base + half : base;
+			n -= half;
+		}
+		if (array[base] < target) base++;
+		if (base < to && array[base] == target) return base;
+		return -base - 1;
+	}
+
+	/**
+	 * @param array
+	 * 		Sorted array to search in.
+	 * @param target
+	 * 		Value to search for.
+	 *
+	 * @return Index of the value in the array.
+	 * If the value is not in the array, {@code (-(insertion point) - 1)} following the convention of
+	 * {@link Arrays#binarySearch(double[], double)}.
+	 */
+	public static int binarySearch(@Nonnull double[] array, double target) {
+		return binarySearch(array, target, 0, array.length);
+	}
+
+	/**
+	 * @param array
+	 * 		Sorted array to search in.
+	 * @param target
+	 * 		Value to search for.
+	 * @param from
+	 * 		Start index, inclusive.
+	 * @param to
+	 * 		End index, exclusive.
+	 *
+	 * @return Index of the value in the array, within the range.
+	 * If the value is not in the range, {@code (-(insertion point) - 1)} following the convention of
+	 * {@link Arrays#binarySearch(double[], int, int, double)}.
+	 */
+	public static int binarySearch(@Nonnull double[] array, double target, int from, int to) {
+		checkRange(array.length, from, to);
+		if (from == to) return -from - 1;
+
+		int base = from;
+		int n = to - from;
+		while (n > 1) {
+			int half = n >>> 1;
+			base = Double.compare(array[base + half], target) < 0 ? base + half : base;
+			n -= half;
 		}
+		if (Double.compare(array[base], target) < 0) base++;
+		if (base < to && Double.compare(array[base], target) == 0) return base;
+		return -base - 1;
+	}
+
+	/**
+	 * @param array
+	 * 		Sorted array to search in.
+	 * @param target
+	 * 		Value to search for.
+	 *
+	 * @return Index of the value in the array.
+	 * If the value is not in the array, {@code (-(insertion point) - 1)} following the convention of
+	 * {@link Arrays#binarySearch(char[], char)}.
+	 */
+	public static int binarySearch(@Nonnull char[] array, char target) {
+		return binarySearch(array, target, 0, array.length);
+	}
+
+	/**
+	 * @param array
+	 * 		Sorted array to search in.
+	 * @param target
+	 * 		Value to search for.
+	 * @param from
+	 * 		Start index, inclusive.
+	 * @param to
+	 * 		End index, exclusive.
+	 *
+	 * @return Index of the value in the array, within the range.
+	 * If the value is not in the range, {@code (-(insertion point) - 1)} following the convention of
+	 * {@link Arrays#binarySearch(char[], int, int, char)}.
+	 */
+	public static int binarySearch(@Nonnull char[] array, char target, int from, int to) {
+		checkRange(array.length, from, to);
+		if (from == to) return -from - 1;
+
+		int base = from;
+		int n = to - from;
+		while (n > 1) {
+			int half = n >>> 1;
+			base = array[base + half] < target ? base + half : base;
+			n -= half;
+		}
+		if (array[base] < target) base++;
+		if (base < to && array[base] == target) return base;
+		return -base - 1;
+	}
+
+	/**
+	 * @param array
+	 * 		Sorted array to search in.
+	 * @param target
+	 * 		Item to search for.
+	 * @param comparator
+	 * 		Comparator the array is sorted by.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Index of the item in the array.
+	 * If the item is not in the array, {@code (-(insertion point) - 1)} following the convention of
+	 * {@link Arrays#binarySearch(Object[], Object, Comparator)}.
+	 */
+	public static <T> int binarySearch(@Nonnull T[] array, T target, @Nonnull Comparator<? super T> comparator) {
+		return binarySearch(array, target, comparator, 0, array.length);
+	}
+
+	/**
+	 * @param array
+	 * 		Sorted array to search in.
+	 * @param target
+	 * 		Item to search for.
+	 * @param comparator
+	 * 		Comparator the array is sorted by.
+	 * @param from
+	 * 		Start index, inclusive.
+	 * @param to
+	 * 		End index, exclusive.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Index of the item in the array, within the range.
+	 * If the item is not in the range, {@code (-(insertion point) - 1)} following the convention of
+	 * {@link Arrays#binarySearch(Object[], int, int, Object, Comparator)}.
+	 */
+	public static <T> int binarySearch(@Nonnull T[] array, T target, @Nonnull Comparator<? super T> comparator,
+	                                   int from, int to) {
+		checkRange(array.length, from, to);
+		if (from == to) return -from - 1;
+
+		int base = from;
+		int n = to - from;
+		while (n > 1) {
+			int half = n >>> 1;
+			base = comparator.compare(array[base + half], target) < 0 ? base + half : base;
+			n -= half;
+		}
+		if (comparator.compare(array[base], target) < 0) base++;
+		if (base < to && comparator.compare(array[base], target) == 0) return base;
+		return -base - 1;
+	}
+
+	/**
+	 * @param length
+	 * 		Array length.
+	 * @param from
+	 * 		Start index, inclusive.
+	 * @param to
+	 * 		End index, exclusive.
+	 */
+	private static void checkRange(int length, int from, int to) {
+		if (from > to)
+			throw new IllegalArgumentException("from(" + from + ") > to(" + to + ")");
+		if (from < 0 || to > length)
+			throw new ArrayIndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + length);
 	}
 
 	/**
@@ -308,6 +892,320 @@ public static <T> int compare(@Nonnull Comparator<T> comparator, @Nonnull List<T
 		return 0;
 	}
 
+	/**
+	 * @param src1
+	 * 		Some list of comparable items. Assumed to be in sorted order.
+	 * @param src2
+	 * 		Another list of comparable items. Assumed to be in sorted order.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Sorted list containing items in either list.
+	 *
+	 * @see #sortedUnion(Comparator, List, List)
+	 */
+	@Nonnull
+	public static <T extends Comparable<T>> List<T> sortedUnion(@Nullable List<T> src1, @Nullable List<T> src2) {
+		return sortedUnion(Comparator.naturalOrder(), src1, src2);
+	}
+
+	/**
+	 * Computed in a single linear merge of the inputs. When one input is much smaller than the other,
+	 * the larger input is skipped through with exponential searches rather than being compared item by item.
+	 * <br>
+	 * Items which compare as equal are matched one-to-one between the lists, so duplicates within a list are
+	 * treated as separate occurrences. When an item is taken from a match between both lists, the instance from
+	 * the first list is used.
+	 *
+	 * @param comparator
+	 * 		Comparator the lists are sorted by.
+	 * @param src1
+	 * 		Some list of items. Assumed to be in sorted order.
+	 * @param src2
+	 * 		Another list of items. Assumed to be in sorted order.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Sorted list containing items in either list.
+	 */
+	@Nonnull
+	public static <T> List<T> sortedUnion(@Nonnull Comparator<? super T> comparator,
+	                                      @Nullable List<T> src1, @Nullable List<T> src2) {
+		return sortedMerge(comparator, src1, src2, true, true, true);
+	}
+
+	/**
+	 * @param src1
+	 * 		Some list of comparable items. Assumed to be in sorted order.
+	 * @param src2
+	 * 		Another list of comparable items. Assumed to be in sorted order.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Sorted list containing only the items in both lists.
+	 *
+	 * @see #sortedIntersection(Comparator, List, List)
+	 */
+	@Nonnull
+	public static <T extends Comparable<T>> List<T> sortedIntersection(@Nullable List<T> src1, @Nullable List<T> src2) {
+		return sortedIntersection(Comparator.naturalOrder(), src1, src2);
+	}
+
+	/**
+	 * Computed in a single linear merge of the inputs. When one input is much smaller than the other,
+	 * the larger input is skipped through with exponential searches rather than being compared item by item.
+	 * <br>
+	 * Items which compare as equal are matched one-to-one between the lists, so duplicates within a list are
+	 * treated as separate occurrences. When an item is taken from a match between both lists, the instance from
+	 * the first list is used.
+	 *
+	 * @param comparator
+	 * 		Comparator the lists are sorted by.
+	 * @param src1
+	 * 		Some list of items. Assumed to be in sorted order.
+	 * @param src2
+	 * 		Another list of items. Assumed to be in sorted order.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Sorted list containing only the items in both lists.
+	 */
+	@Nonnull
+	public static <T> List<T> sortedIntersection(@Nonnull Comparator<? super T> comparator,
+	                                             @Nullable List<T> src1, @Nullable List<T> src2) {
+		return sortedMerge(comparator, src1, src2, false, false, true);
+	}
+
+	/**
+	 * @param src1
+	 * 		Some list of comparable items. Assumed to be in sorted order.
+	 * @param src2
+	 * 		Another list of comparable items. Assumed to be in sorted order.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Sorted list containing only the items in the first list which are not in the second list.
+	 *
+	 * @see #sortedDifference(Comparator, List, List)
+	 */
+	@Nonnull
+	public static <T extends Comparable<T>> List<T> sortedDifference(@Nullable List<T> src1, @Nullable List<T> src2) {
+		return sortedDifference(Comparator.naturalOrder(), src1, src2);
+	}
+
+	/**
+	 * Computed in a single linear merge of the inputs. When one input is much smaller than the other,
+	 * the larger input is skipped through with exponential searches rather than being compared item by item.
+	 * <br>
+	 * Items which compare as equal are matched one-to-one between the lists, so duplicates within a list are
+	 * treated as separate occurrences. When an item is taken from a match between both lists, the instance from
+	 * the first list is used.
+	 *
+	 * @param comparator
+	 * 		Comparator the lists are sorted by.
+	 * @param src1
+	 * 		Some list of items. Assumed to be in sorted order.
+	 * @param src2
+	 * 		Another list of items. Assumed to be in sorted order.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Sorted list containing only the items in the first list which are not in the second list.
+	 */
+	@Nonnull
+	public static <T> List<T> sortedDifference(@Nonnull Comparator<? super T> comparator,
+	                                           @Nullable List<T> src1, @Nullable List<T> src2) {
+		return sortedMerge(comparator, src1, src2, true, false, false);
+	}
+
+	/**
+	 * @param src1
+	 * 		Some list of comparable items. Assumed to be in sorted order.
+	 * @param src2
+	 * 		Another list of comparable items. Assumed to be in sorted order.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Sorted list containing only the items which are in exactly one of the lists.
+	 *
+	 * @see #sortedSymmetricDifference(Comparator, List, List)
+	 */
+	@Nonnull
+	public static <T extends Comparable<T>> List<T> sortedSymmetricDifference(@Nullable List<T> src1, @Nullable List<T> src2) {
+		return sortedSymmetricDifference(Comparator.naturalOrder(), src1, src2);
+	}
+
+	/**
+	 * Computed in a single linear merge of the inputs. When one input is much smaller than the other,
+	 * the larger input is skipped through with exponential searches rather than being compared item by item.
+	 * <br>
+	 * Items which compare as equal are matched one-to-one between the lists, so duplicates within a list are
+	 * treated as separate occurrences. When an item is taken from a match between both lists, the instance from
+	 * the first list is used.
+	 *
+	 * @param comparator
+	 * 		Comparator the lists are sorted by.
+	 * @param src1
+	 * 		Some list of items. Assumed to be in sorted order.
+	 * @param src2
+	 * 		Another list of items. Assumed to be in sorted order.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Sorted list containing only the items which are in exactly one of the lists.
+	 */
+	@Nonnull
+	public static <T> List<T> sortedSymmetricDifference(@Nonnull Comparator<? super T> comparator,
+	                                                    @Nullable List<T> src1, @Nullable List<T> src2) {
+		return sortedMerge(comparator, src1, src2, true, true, false);
+	}
+
+	/**
+	 * @param comparator
+	 * 		Comparator the lists are sorted by.
+	 * @param src1
+	 * 		Some list of items. Assumed to be in sorted order.
+	 * @param src2
+	 * 		Another list of items. Assumed to be in sorted order.
+	 * @param keepOnly1
+	 * 		Include items which are only in the first list.
+	 * @param keepOnly2
+	 * 		Include items which are only in the second list.
+	 * @param keepBoth
+	 * 		Include items which are in both lists.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Sorted merge of the lists.
+	 */
+	@Nonnull
+	private static <T> List<T> sortedMerge(@Nonnull Comparator<? super T> comparator,
+	                                       @Nullable List<T> src1, @Nullable List<T> src2,
+	                                       boolean keepOnly1, boolean keepOnly2, boolean keepBoth) {
+		if (src1 == null) src1 = Collections.emptyList();
+		if (src2 == null) src2 = Collections.emptyList();
+		if (!(src1 instanceof RandomAccess)) src1 = new ArrayList<>(src1);
+		if (!(src2 instanceof RandomAccess)) src2 = new ArrayList<>(src2);
+
+		int size1 = src1.size();
+		int size2 = src2.size();
+		List<T> results = new ArrayList<>();
+
+		// Use galloping when one list is much smaller than the other
+		if ((long) size1 * SORTED_GALLOP_RATIO < size2) {
+			sortedGallopMerge(comparator, src1, src2, true, keepOnly1, keepOnly2, keepBoth, results);
+			return results;
+		} else if ((long) size2 * SORTED_GALLOP_RATIO < size1) {
+			sortedGallopMerge(comparator, src2, src1, false, keepOnly2, keepOnly1, keepBoth, results);
+			return results;
+		}
+
+		int i = 0;
+		int j = 0;
+		while (i < size1 && j < size2) {
+			T a = src1.get(i);
+			T b = src2.get(j);
+			int cmp = comparator.compare(a, b);
+			if (cmp < 0) {
+				if (keepOnly1) results.add(a);
+				i++;
+			} else if (cmp > 0) {
+				if (keepOnly2) results.add(b);
+				j++;
+			} else {
+				if (keepBoth) results.add(a);
+				i++;
+				j++;
+			}
+		}
+		if (keepOnly1 && i < size1) results.addAll(src1.subList(i, size1));
+		if (keepOnly2 && j < size2) results.addAll(src2.subList(j, size2));
+		return results;
+	}
+
+	/**
+	 * Merges a small list into a large list by searching for the position of each small item in the large list.
+	 * Runs of the large list between those positions are copied or skipped in bulk.
+	 *
+	 * @param comparator
+	 * 		Comparator the lists are sorted by.
+	 * @param small
+	 * 		Smaller sorted list.
+	 * @param large
+	 * 		Larger sorted list.
+	 * @param smallIsFirst
+	 * 		Whether the small list is the first list of the operation, which determines which item is kept on matches.
+	 * @param keepOnlySmall
+	 * 		Include items which are only in the small list.
+	 * @param keepOnlyLarge
+	 * 		Include items which are only in the large list.
+	 * @param keepBoth
+	 * 		Include items which are in both lists.
+	 * @param results
+	 * 		List to add results to.
+	 * @param <T>
+	 * 		Item type.
+	 */
+	private static <T> void sortedGallopMerge(@Nonnull Comparator<? super T> comparator,
+	                                          @Nonnull List<T> small, @Nonnull List<T> large, boolean smallIsFirst,
+	                                          boolean keepOnlySmall, boolean keepOnlyLarge, boolean keepBoth,
+	                                          @Nonnull List<T> results) {
+		int largeSize = large.size();
+		int position = 0;
+		for (T item : small) {
+			int next = gallop(comparator, large, item, position);
+			if (keepOnlyLarge && next > position) results.addAll(large.subList(position, next));
+			if (next < largeSize && comparator.compare(large.get(next), item) == 0) {
+				if (keepBoth) results.add(smallIsFirst ? item : large.get(next));
+				next++;
+			} else if (keepOnlySmall) {
+				results.add(item);
+			}
+			position = next;
+		}
+		if (keepOnlyLarge && position < largeSize) results.addAll(large.subList(position, largeSize));
+	}
+
+	/**
+	 * @param comparator
+	 * 		Comparator the list is sorted by.
+	 * @param list
+	 * 		Sorted list to search in.
+	 * @param target
+	 * 		Item to search for.
+	 * @param from
+	 * 		Index to begin searching from.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Index of the first item at or after {@code from} which does not compare as less than the target.
+	 */
+	private static <T> int gallop(@Nonnull Comparator<? super T> comparator, @Nonnull List<T> list,
+	                              T target, int from) {
+		int size = list.size();
+
+		// Exponential search to find a range containing the target
+		int low = from;
+		int step = 1;
+		int high = from;
+		while (high < size && comparator.compare(list.get(high), target) < 0) {
+			low = high + 1;
+			high = from + step;
+			step <<= 1;
+		}
+		if (high > size) high = size;
+
+		// Binary search within the range
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (comparator.compare(list.get(middle), target) < 0)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
 	/**
 	 * @param <T>
 	 * 		Inferred type.
@@ -348,4 +1246,97 @@ public int size() {
 			}
 		};
 	}
+
+	/**
+	 * @return Parallel variants of the bulk operations in this class, running on the
+	 * {@link ForkJoinPool#commonPool() common pool}.
+	 */
+	@Nonnull
+	public static ParallelLists parallel() {
+		return parallel(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool
+	 * 		Pool to run work on.
+	 *
+	 * @return Parallel variants of the bulk operations in this class, running on the given pool.
+	 */
+	@Nonnull
+	public static ParallelLists parallel(@Nonnull ForkJoinPool pool) {
+		return parallel(pool, ParallelSupport.DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * @param pool
+	 * 		Pool to run work on.
+	 * @param threshold
+	 * 		Minimum input size for work to be split across threads.
+	 * 		Smaller inputs are handled by the sequential operations.
+	 *
+	 * @return Parallel variants of the bulk operations in this class, running on the given pool.
+	 */
+	@Nonnull
+	public static ParallelLists parallel(@Nonnull ForkJoinPool pool, int threshold) {
+		return new ParallelLists(pool, threshold);
+	}
+
+	/**
+	 * List returned by {@link #add(List, Object, Equivalence)}, remembering that its items are distinct
+	 * along with the duplicate index used to build it, so that the next call can skip deduplicating it again.
+	 * Any modification of the list drops what it remembers.
+	 *
+	 * @param <T>
+	 * 		Type of content.
+	 */
+	private static final class DistinctList<T> extends ArrayList<T> {
+		private static final long serialVersionUID = 1L;
+		private transient Equivalence<T> equivalence;
+		private transient Set<Object> index;
+		private transient int distinctModCount;
+
+		private DistinctList(int capacity) {
+			super(capacity);
+		}
+
+		private void markDistinct(@Nonnull Equivalence<T> equivalence, @Nullable Set<Object> index) {
+			this.equivalence = equivalence;
+			this.index = index;
+			distinctModCount = modCount;
+		}
+
+		private boolean isDistinct(@Nonnull Equivalence<T> equivalence) {
+			return this.equivalence == equivalence && modCount == distinctModCount;
+		}
+
+		/**
+		 * @return Duplicate index of the list, which is removed from the list so that only one caller may extend it.
+		 */
+		@Nullable
+		private synchronized Set<Object> takeIndex() {
+			Set<Object> index = this.index;
+			this.index = null;
+			return index;
+		}
+
+		private void forget() {
+			equivalence = null;
+			index = null;
+		}
+
+		@Override
+		public T set(int index, T element) {
+			// Replacing items does not count as a structural modification
+			forget();
+			return super.set(index, element);
+		}
+
+		@Nonnull
+		@Override
+		public List<T> subList(int fromIndex, int toIndex) {
+			// Sub-lists can replace items without going through this list
+			forget();
+			return super.subList(fromIndex, toIndex);
+		}
+	}
 }
@@ -1,10 +1,20 @@
 package software.coley.collections;
 
+import software.coley.collections.compact.CompactCollections;
+import software.coley.collections.parallel.ParallelMaps;
+import software.coley.collections.parallel.ParallelSupport;
+import software.coley.collections.persistent.PersistentMap;
+import software.coley.collections.view.CombinedMapView;
+import software.coley.collections.view.DistinctMapView;
+import software.coley.collections.view.MapView;
+import software.coley.collections.view.UnionMapView;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 
 /**
@@ -67,6 +77,29 @@ public static <K, V> Map<K, V> add(@Nullable Map<K, V> map, K key, V value) {
 		return result;
 	}
 
+	/**
+	 * Persistent variant of {@link #add(Map, Object, Object)} which shares structure with the original map
+	 * rather than copying it.
+	 *
+	 * @param map
+	 * 		Input map.
+	 * @param key
+	 * 		Key to insert with.
+	 * @param value
+	 * 		Value to insert.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return New map with value inserted.
+	 */
+	@Nonnull
+	public static <K, V> PersistentMap<K, V> persistentAdd(@Nullable PersistentMap<K, V> map, K key, V value) {
+		if (map == null) return PersistentMap.<K, V>empty().with(key, value);
+		return map.with(key, value);
+	}
+
 	/**
 	 * @param resultMapSupplier
 	 * 		Result map supplier.
@@ -116,6 +149,46 @@ public static <K, V> Map<K, V> combine(@Nullable Map<K, V> src1, @Nullable Map<K
 		return map;
 	}
 
+	/**
+	 * Persistent variant of {@link #combine(Map, Map)} which shares structure with the original map
+	 * rather than copying it.
+	 *
+	 * @param src1
+	 * 		Original map.
+	 * @param src2
+	 * 		Additional entries to add.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return New map with additional entries.
+	 */
+	@Nonnull
+	public static <K, V> PersistentMap<K, V> persistentCombine(@Nullable PersistentMap<K, V> src1,
+	                                                          @Nullable Map<K, V> src2) {
+		if (src1 == null) return PersistentMap.of(src2);
+		return src1.withAll(src2);
+	}
+
+	/**
+	 * Opts into structural sharing for later calls to {@link #persistentAdd(PersistentMap, Object, Object)}
+	 * and {@link #persistentCombine(PersistentMap, Map)}.
+	 *
+	 * @param map
+	 * 		Original map.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Persistent map of the same entries.
+	 */
+	@Nonnull
+	public static <K, V> PersistentMap<K, V> persistent(@Nullable Map<K, V> map) {
+		return PersistentMap.of(map);
+	}
+
 	/**
 	 * @param resultMapSupplier
 	 * 		Result map supplier.
@@ -211,9 +284,7 @@ public static <K, V, M extends Map<K, V>> M union(@Nonnull Supplier<M> resultMap
 		if (src1 != null)
 			result.putAll(src1);
 		if (src2 != null)
-			for (K key : result.keySet())
-				if (!src2.containsKey(key))
-					result.remove(key);
+			result.keySet().retainAll(src2.keySet());
 		return result;
 	}
 
@@ -235,12 +306,61 @@ public static <K, V> Map<K, V> union(@Nullable Map<K, V> src1, @Nullable Map<K,
 			return Collections.emptyMap();
 
 		Map<K, V> result = new HashMap<>(src1);
-		for (K key : result.keySet())
-			if (!src2.containsKey(key))
-				result.remove(key);
+		result.keySet().retainAll(src2.keySet());
 		return result;
 	}
 
+	/**
+	 * @param src1
+	 * 		Original map.
+	 * @param src2
+	 * 		Additional entries, which replace those in the original map.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Read-only view with the content of {@link #combine(Map, Map)}, resolved lazily against the inputs.
+	 */
+	@Nonnull
+	public static <K, V> MapView<K, V> combineView(@Nullable Map<K, V> src1, @Nullable Map<K, V> src2) {
+		return new CombinedMapView<>(orEmpty(src1), orEmpty(src2));
+	}
+
+	/**
+	 * @param src1
+	 * 		Original map.
+	 * @param src2
+	 * 		Additional map.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Read-only view with the content of {@link #distinct(Map, Map)}, resolved lazily against the inputs.
+	 */
+	@Nonnull
+	public static <K, V> MapView<K, V> distinctView(@Nullable Map<K, V> src1, @Nullable Map<K, V> src2) {
+		return new DistinctMapView<>(orEmpty(src1), orEmpty(src2));
+	}
+
+	/**
+	 * @param src1
+	 * 		Original map.
+	 * @param src2
+	 * 		Additional map.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Read-only view with the content of {@link #union(Map, Map)}, resolved lazily against the inputs.
+	 */
+	@Nonnull
+	public static <K, V> MapView<K, V> unionView(@Nullable Map<K, V> src1, @Nullable Map<K, V> src2) {
+		return new UnionMapView<>(orEmpty(src1), orEmpty(src2));
+	}
+
 	/**
 	 * @param key
 	 * 		Map entry key.
@@ -258,6 +378,66 @@ public static <K, V> Map<K, V> of(K key, V value) {
 		return Collections.singletonMap(key, value);
 	}
 
+	/**
+	 * See {@link CompactCollections} for footprint details.
+	 *
+	 * @param key
+	 * 		Map entry key.
+	 * @param value
+	 * 		Map entry value.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Immutable map of one entry.
+	 */
+	@Nonnull
+	public static <K, V> Map<K, V> immutableOf(K key, V value) {
+		return CompactCollections.mapOf(key, value);
+	}
+
+	/**
+	 * See {@link CompactCollections} for footprint details.
+	 *
+	 * @param key1
+	 * 		First entry key.
+	 * @param value1
+	 * 		First entry value.
+	 * @param key2
+	 * 		Second entry key.
+	 * @param value2
+	 * 		Second entry value. Replaces the first value if the keys are equal.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Immutable map of the entries.
+	 */
+	@Nonnull
+	public static <K, V> Map<K, V> immutableOf(K key1, V value1, K key2, V value2) {
+		return CompactCollections.mapOf(key1, value1, key2, value2);
+	}
+
+	/**
+	 * Entries are stored in a single open-addressed array, which is far smaller than a {@link HashMap}.
+	 * See {@link CompactCollections} for footprint details.
+	 *
+	 * @param map
+	 * 		Map to copy.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Immutable copy of the map.
+	 */
+	@Nonnull
+	public static <K, V> Map<K, V> immutableCopyOf(@Nonnull Map<? extends K, ? extends V> map) {
+		return CompactCollections.mapCopyOf(map);
+	}
+
 	/**
 	 * @param map
 	 * 		Map input.
@@ -276,4 +456,43 @@ public static <K, V> Map<V, K> reverse(@Nullable Map<K, V> map) {
 		map.forEach((k, v) -> result.put(v, k));
 		return result;
 	}
+
+	/**
+	 * @return Parallel variants of the bulk operations in this class, running on the
+	 * {@link ForkJoinPool#commonPool() common pool}.
+	 */
+	@Nonnull
+	public static ParallelMaps parallel() {
+		return parallel(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool
+	 * 		Pool to run work on.
+	 *
+	 * @return Parallel variants of the bulk operations in this class, running on the given pool.
+	 */
+	@Nonnull
+	public static ParallelMaps parallel(@Nonnull ForkJoinPool pool) {
+		return parallel(pool, ParallelSupport.DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * @param pool
+	 * 		Pool to run work on.
+	 * @param threshold
+	 * 		Minimum input size for work to be split across threads.
+	 * 		Smaller inputs are handled by the sequential operations.
+	 *
+	 * @return Parallel variants of the bulk operations in this class, running on the given pool.
+	 */
+	@Nonnull
+	public static ParallelMaps parallel(@Nonnull ForkJoinPool pool, int threshold) {
+		return new ParallelMaps(pool, threshold);
+	}
+
+	@Nonnull
+	private static <K, V> Map<K, V> orEmpty(@Nullable Map<K, V> map) {
+		return map == null ? Collections.emptyMap() : map;
+	}
 }
@@ -0,0 +1,575 @@
+package software.coley.collections;
+
+import software.coley.collections.cache.CacheMap;
+import software.coley.collections.func.TriFunction;
+import software.coley.collections.func.UncheckedBiFunction;
+import software.coley.collections.func.UncheckedFunction;
+import software.coley.collections.func.UncheckedSupplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Memoization of the functional types, caching results by their inputs.
+ * <br>
+ * Memoized functions are thread safe. Results, including {@code null}, are cached per distinct input,
+ * compared by {@link Object#equals(Object)}. Exceptions are not cached, so failed calls are retried.
+ * Concurrent first calls with the same input may each compute the result, with one result being kept,
+ * so memoized functions should be pure. This also allows memoized functions to call themselves recursively.
+ * <br>
+ * Without a maximum size, results are held in a single concurrent map, and hits do not lock or allocate, even for
+ * functions of multiple arguments, which are looked up with a reused per-thread key holder. With a maximum size,
+ * results are held in a {@link CacheMap} behind a lock, which is looked up with a reused key holder. With weak keys,
+ * results of functions of multiple arguments are held in nested maps per argument, so each distinct leading argument
+ * costs a map of its own, and hits cost one lookup per argument.
+ *
+ * @author Matt Coley
+ * @see Options
+ */
+public final class Memo {
+	/**
+	 * Stored in place of {@code null} inputs and results.
+	 */
+	private static final Object NULL = new Object();
+
+	private Memo() {
+	}
+
+	/**
+	 * @return New set of options, defaulting to an unbounded cache with strong keys and no expiry.
+	 */
+	@Nonnull
+	public static Options options() {
+		return new Options();
+	}
+
+	/**
+	 * @param function
+	 * 		Function to memoize.
+	 * @param <T>
+	 * 		Input type.
+	 * @param <R>
+	 * 		Result type.
+	 *
+	 * @return Function caching results of the given function, without bounds.
+	 */
+	@Nonnull
+	public static <T, R> UncheckedFunction<T, R> function(@Nonnull UncheckedFunction<T, R> function) {
+		return function(function, options());
+	}
+
+	/**
+	 * @param function
+	 * 		Function to memoize.
+	 * @param options
+	 * 		Cache options.
+	 * @param <T>
+	 * 		Input type.
+	 * @param <R>
+	 * 		Result type.
+	 *
+	 * @return Function caching results of the given function.
+	 */
+	@Nonnull
+	public static <T, R> UncheckedFunction<T, R> function(@Nonnull UncheckedFunction<T, R> function,
+	                                                      @Nonnull Options options) {
+		Objects.requireNonNull(function);
+		Store store = options.createStore(1);
+		return t -> {
+			Object found = store.get(t, null, null);
+			if (found != null) return unmask(found);
+			R result = function.uncheckedApply(t);
+			store.put(t, null, null, result);
+			return result;
+		};
+	}
+
+	/**
+	 * @param function
+	 * 		Function to memoize.
+	 * @param <T>
+	 * 		First input type.
+	 * @param <U>
+	 * 		Second input type.
+	 * @param <R>
+	 * 		Result type.
+	 *
+	 * @return Function caching results of the given function, without bounds.
+	 */
+	@Nonnull
+	public static <T, U, R> UncheckedBiFunction<T, U, R> biFunction(@Nonnull UncheckedBiFunction<T, U, R> function) {
+		return biFunction(function, options());
+	}
+
+	/**
+	 * @param function
+	 * 		Function to memoize.
+	 * @param options
+	 * 		Cache options.
+	 * @param <T>
+	 * 		First input type.
+	 * @param <U>
+	 * 		Second input type.
+	 * @param <R>
+	 * 		Result type.
+	 *
+	 * @return Function caching results of the given function.
+	 */
+	@Nonnull
+	public static <T, U, R> UncheckedBiFunction<T, U, R> biFunction(@Nonnull UncheckedBiFunction<T, U, R> function,
+	                                                                @Nonnull Options options) {
+		Objects.requireNonNull(function);
+		Store store = options.createStore(2);
+		return (t, u) -> {
+			Object found = store.get(t, u, null);
+			if (found != null) return unmask(found);
+			R result = function.uncheckedApply(t, u);
+			store.put(t, u, null, result);
+			return result;
+		};
+	}
+
+	/**
+	 * @param function
+	 * 		Function to memoize.
+	 * @param <A>
+	 * 		First input type.
+	 * @param <B>
+	 * 		Second input type.
+	 * @param <C>
+	 * 		Third input type.
+	 * @param <R>
+	 * 		Result type.
+	 *
+	 * @return Function caching results of the given function, without bounds.
+	 */
+	@Nonnull
+	public static <A, B, C, R> TriFunction<A, B, C, R> triFunction(@Nonnull TriFunction<A, B, C, R> function) {
+		return triFunction(function, options());
+	}
+
+	/**
+	 * @param function
+	 * 		Function to memoize.
+	 * @param options
+	 * 		Cache options.
+	 * @param <A>
+	 * 		First input type.
+	 * @param <B>
+	 * 		Second input type.
+	 * @param <C>
+	 * 		Third input type.
+	 * @param <R>
+	 * 		Result type.
+	 *
+	 * @return Function caching results of the given function.
+	 */
+	@Nonnull
+	public static <A, B, C, R> TriFunction<A, B, C, R> triFunction(@Nonnull TriFunction<A, B, C, R> function,
+	                                                               @Nonnull Options options) {
+		Objects.requireNonNull(function);
+		Store store = options.createStore(3);
+		return (a, b, c) -> {
+			Object found = store.get(a, b, c);
+			if (found != null) return unmask(found);
+			R result = function.apply(a, b, c);
+			store.put(a, b, c, result);
+			return result;
+		};
+	}
+
+	/**
+	 * Unlike functions, the supplier is only called by one thread at a time.
+	 *
+	 * @param supplier
+	 * 		Supplier to memoize.
+	 * @param <T>
+	 * 		Supplied type.
+	 *
+	 * @return Supplier caching the first supplied value.
+	 */
+	@Nonnull
+	public static <T> UncheckedSupplier<T> supplier(@Nonnull UncheckedSupplier<T> supplier) {
+		return supplier(supplier, options());
+	}
+
+	/**
+	 * Unlike functions, the supplier is only called by one thread at a time.
+	 * Only the expiry options apply to suppliers.
+	 *
+	 * @param supplier
+	 * 		Supplier to memoize.
+	 * @param options
+	 * 		Cache options.
+	 * @param <T>
+	 * 		Supplied type.
+	 *
+	 * @return Supplier caching the supplied value until it expires.
+	 */
+	@Nonnull
+	public static <T> UncheckedSupplier<T> supplier(@Nonnull UncheckedSupplier<T> supplier, @Nonnull Options options) {
+		Objects.requireNonNull(supplier);
+		long ttlNanos = options.ttlNanos;
+		LongSupplier ticker = options.ticker;
+		return new UncheckedSupplier<T>() {
+			private volatile Object value;
+
+			@Override
+			public T uncheckedGet() throws Throwable {
+				Object found = value;
+				if (found == null || isExpired(found, ticker)) {
+					synchronized (this) {
+						found = value;
+						if (found == null || isExpired(found, ticker)) {
+							found = wrap(supplier.uncheckedGet(), ttlNanos, ticker);
+							value = found;
+						}
+					}
+				}
+				return unmask(unwrap(found));
+			}
+		};
+	}
+
+	@Nonnull
+	private static Object mask(@Nullable Object value) {
+		return value == null ? NULL : value;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private static <T> T unmask(@Nonnull Object value) {
+		return value == NULL ? null : (T) value;
+	}
+
+	/**
+	 * @return Stored form of the result, with an expiry time when the TTL is positive.
+	 */
+	@Nonnull
+	private static Object wrap(@Nullable Object result, long ttlNanos, @Nonnull LongSupplier ticker) {
+		Object masked = mask(result);
+		return ttlNanos > 0 ? new Timed(masked, ticker.getAsLong() + ttlNanos) : masked;
+	}
+
+	@Nonnull
+	private static Object unwrap(@Nonnull Object stored) {
+		return stored instanceof Timed ? ((Timed) stored).value : stored;
+	}
+
+	private static boolean isExpired(@Nonnull Object stored, @Nonnull LongSupplier ticker) {
+		return stored instanceof Timed && ticker.getAsLong() - ((Timed) stored).expiresAt >= 0;
+	}
+
+	/**
+	 * Options for memoized functions.
+	 */
+	public static final class Options {
+		private long maximumSize = -1;
+		private boolean weakKeys;
+		private long ttlNanos;
+		private LongSupplier ticker = System::nanoTime;
+
+		private Options() {
+		}
+
+		/**
+		 * @param maximumSize
+		 * 		Maximum number of cached results. Results are evicted by the W-TinyLFU policy of {@link CacheMap}.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Options maximumSize(long maximumSize) {
+			if (maximumSize < 0) throw new IllegalArgumentException("Maximum size must not be negative");
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * Holds inputs weakly, so results are dropped once their inputs are garbage collected.
+		 * For functions of multiple arguments, results are dropped once any of their inputs are collected.
+		 * Such results are held in a weak map per distinct leading argument, costing more memory and one lookup
+		 * per argument, so weak keys are best kept to functions of a single argument.
+		 * Inputs are still compared by {@link Object#equals(Object)}, as in {@link WeakHashMap}.
+		 * Cannot be combined with a maximum size.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Options weakKeys() {
+			weakKeys = true;
+			return this;
+		}
+
+		/**
+		 * Expired results are recomputed on their next use. Without a maximum size,
+		 * expired results of inputs which are not used again are not removed.
+		 *
+		 * @param duration
+		 * 		Time after which cached results expire. Zero disables expiry.
+		 * @param unit
+		 * 		Unit of the duration.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Options expireAfterWrite(long duration, @Nonnull TimeUnit unit) {
+			if (duration < 0) throw new IllegalArgumentException("Duration must not be negative");
+			ttlNanos = unit.toNanos(duration);
+			return this;
+		}
+
+		/**
+		 * @param ticker
+		 * 		Source of the current time in nanoseconds, used for expiry. Defaults to {@link System#nanoTime()}.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Options ticker(@Nonnull LongSupplier ticker) {
+			this.ticker = Objects.requireNonNull(ticker);
+			return this;
+		}
+
+		@Nonnull
+		private Store createStore(int arity) {
+			if (weakKeys && maximumSize >= 0)
+				throw new IllegalStateException("Weak keys cannot be combined with a maximum size");
+			if (maximumSize >= 0) return new BoundedStore(arity, maximumSize, ttlNanos, ticker);
+			if (weakKeys) return new NestedStore(arity, ttlNanos, ticker);
+			return new CompositeStore(arity, ttlNanos, ticker);
+		}
+	}
+
+	/**
+	 * Storage of results by up to three inputs. Unused inputs are passed as {@code null}.
+	 */
+	private static abstract class Store {
+		private final long ttlNanos;
+		private final LongSupplier ticker;
+
+		private Store(long ttlNanos, @Nonnull LongSupplier ticker) {
+			this.ttlNanos = ttlNanos;
+			this.ticker = ticker;
+		}
+
+		/**
+		 * @return Masked result, or {@code null} when there is no result or it has expired.
+		 */
+		@Nullable
+		abstract Object get(@Nullable Object a, @Nullable Object b, @Nullable Object c);
+
+		abstract void put(@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object result);
+
+		@Nonnull
+		Object wrap(@Nullable Object result) {
+			return Memo.wrap(result, ttlNanos, ticker);
+		}
+
+		boolean isExpired(@Nonnull Object stored) {
+			return Memo.isExpired(stored, ticker);
+		}
+	}
+
+	/**
+	 * Unbounded store, keyed by composite inputs.
+	 */
+	private static final class CompositeStore extends Store {
+		private final Map<Object, Object> map = new ConcurrentHashMap<>();
+		/**
+		 * Reused for lookups, one per thread so that hits do not allocate.
+		 */
+		private final ThreadLocal<Composite> probe = ThreadLocal.withInitial(Composite::new);
+		private final int arity;
+
+		private CompositeStore(int arity, long ttlNanos, @Nonnull LongSupplier ticker) {
+			super(ttlNanos, ticker);
+			this.arity = arity;
+		}
+
+		@Nullable
+		@Override
+		Object get(@Nullable Object a, @Nullable Object b, @Nullable Object c) {
+			Composite composite = arity == 1 ? null : probe.get();
+			Object key = composite == null ? mask(a) : composite.set(a, b, c);
+			try {
+				Object stored = map.get(key);
+				if (stored == null) return null;
+				if (isExpired(stored)) {
+					map.remove(key, stored);
+					return null;
+				}
+				return unwrap(stored);
+			} finally {
+				// Release the inputs, so the probe does not keep them reachable
+				if (composite != null) composite.set(null, null, null);
+			}
+		}
+
+		@Override
+		void put(@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object result) {
+			Object key = arity == 1 ? mask(a) : new Composite().set(a, b, c);
+			map.put(key, wrap(result));
+		}
+	}
+
+	/**
+	 * Unbounded store with weak keys, with one level of maps per input.
+	 * A composite key cannot be held weakly, so each distinct leading input has a map of its own.
+	 */
+	private static final class NestedStore extends Store {
+		private final int arity;
+		private final Map<Object, Object> root;
+
+		private NestedStore(int arity, long ttlNanos, @Nonnull LongSupplier ticker) {
+			super(ttlNanos, ticker);
+			this.arity = arity;
+			root = newLevel();
+		}
+
+		@Nonnull
+		private static Map<Object, Object> newLevel() {
+			return Collections.synchronizedMap(new WeakHashMap<>());
+		}
+
+		@Nullable
+		@Override
+		@SuppressWarnings("unchecked")
+		Object get(@Nullable Object a, @Nullable Object b, @Nullable Object c) {
+			Map<Object, Object> level = root;
+			if (arity > 1) {
+				level = (Map<Object, Object>) level.get(mask(a));
+				if (level == null) return null;
+				a = b;
+				if (arity > 2) {
+					level = (Map<Object, Object>) level.get(mask(b));
+					if (level == null) return null;
+					a = c;
+				}
+			}
+			Object key = mask(a);
+			Object stored = level.get(key);
+			if (stored == null) return null;
+			if (isExpired(stored)) {
+				level.remove(key, stored);
+				return null;
+			}
+			return unwrap(stored);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		void put(@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object result) {
+			Map<Object, Object> level = root;
+			if (arity > 1) {
+				level = (Map<Object, Object>) level.computeIfAbsent(mask(a), k -> newLevel());
+				a = b;
+				if (arity > 2) {
+					level = (Map<Object, Object>) level.computeIfAbsent(mask(b), k -> newLevel());
+					a = c;
+				}
+			}
+			level.put(mask(a), wrap(result));
+		}
+	}
+
+	/**
+	 * Size bounded store, keyed by composite inputs.
+	 */
+	private static final class BoundedStore extends Store {
+		private final CacheMap<Object, Object> cache;
+		private final int arity;
+		/**
+		 * Reused for lookups, guarded by the cache lock.
+		 */
+		private final Composite probe = new Composite();
+
+		private BoundedStore(int arity, long maximumSize, long ttlNanos, @Nonnull LongSupplier ticker) {
+			super(ttlNanos, ticker);
+			this.arity = arity;
+			cache = new CacheMap<>(maximumSize);
+		}
+
+		@Nullable
+		@Override
+		Object get(@Nullable Object a, @Nullable Object b, @Nullable Object c) {
+			synchronized (cache) {
+				Object key = arity == 1 ? mask(a) : probe.set(a, b, c);
+				try {
+					Object stored = cache.get(key);
+					if (stored == null) return null;
+					if (isExpired(stored)) {
+						cache.remove(key);
+						return null;
+					}
+					return unwrap(stored);
+				} finally {
+					// Release the inputs, so the probe does not keep them reachable
+					probe.set(null, null, null);
+				}
+			}
+		}
+
+		@Override
+		void put(@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object result) {
+			Object key = arity == 1 ? mask(a) : new Composite().set(a, b, c);
+			Object stored = wrap(result);
+			synchronized (cache) {
+				cache.put(key, stored);
+			}
+		}
+	}
+
+	/**
+	 * Key of up to three inputs.
+	 */
+	private static final class Composite {
+		private Object a;
+		private Object b;
+		private Object c;
+		private int hash;
+
+		@Nonnull
+		private Composite set(@Nullable Object a, @Nullable Object b, @Nullable Object c) {
+			this.a = a;
+			this.b = b;
+			this.c = c;
+			hash = (31 * Objects.hashCode(a) + Objects.hashCode(b)) * 31 + Objects.hashCode(c);
+			return this;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Composite)) return false;
+			Composite other = (Composite) o;
+			return hash == other.hash && Objects.equals(a, other.a)
+					&& Objects.equals(b, other.b) && Objects.equals(c, other.c);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * Result with an expiry time.
+	 */
+	private static final class Timed {
+		private final Object value;
+		private final long expiresAt;
+
+		private Timed(@Nonnull Object value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,219 @@
+package software.coley.collections;
+
+import software.coley.collections.multimap.HashListMultimap;
+import software.coley.collections.multimap.HashSetMultimap;
+import software.coley.collections.multimap.ListMultimap;
+import software.coley.collections.multimap.Multimap;
+import software.coley.collections.multimap.SetMultimap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.function.Supplier;
+
+/**
+ * Utility for handling {@link Multimap} types, mirroring the operations of {@link Maps}.
+ * <br>
+ * <b>Note:</b> All operations use {@link HashListMultimap} or {@link HashSetMultimap} as the implementation type
+ * if otherwise not configurable.
+ *
+ * @author Matt Coley
+ */
+public class Multimaps {
+	/**
+	 * @param resultSupplier
+	 * 		Result multimap supplier.
+	 * 		Should provide an empty multimap to store results in.
+	 * @param src1
+	 * 		Original multimap.
+	 * @param src2
+	 * 		Additional key-value pairs to add.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 * @param <M>
+	 * 		Returned multimap type.
+	 *
+	 * @return New multimap with the key-value pairs of both multimaps.
+	 */
+	@Nonnull
+	public static <K, V, M extends Multimap<K, V, ?>> M combine(@Nonnull Supplier<M> resultSupplier,
+	                                                            @Nullable Multimap<? extends K, ? extends V, ?> src1,
+	                                                            @Nullable Multimap<? extends K, ? extends V, ?> src2) {
+		M result = resultSupplier.get();
+		if (src1 != null) result.putAll(src1);
+		if (src2 != null) result.putAll(src2);
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original multimap.
+	 * @param src2
+	 * 		Additional key-value pairs to add.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return New multimap with the key-value pairs of both multimaps.
+	 * Values of keys in both multimaps are ordered with those of the original multimap first.
+	 */
+	@Nonnull
+	public static <K, V> ListMultimap<K, V> combine(@Nullable ListMultimap<K, V> src1,
+	                                                @Nullable ListMultimap<K, V> src2) {
+		return combine(HashListMultimap::new, src1, src2);
+	}
+
+	/**
+	 * @param src1
+	 * 		Original multimap.
+	 * @param src2
+	 * 		Additional key-value pairs to add.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return New multimap with the key-value pairs of both multimaps.
+	 */
+	@Nonnull
+	public static <K, V> SetMultimap<K, V> combine(@Nullable SetMultimap<K, V> src1,
+	                                               @Nullable SetMultimap<K, V> src2) {
+		return combine(HashSetMultimap::new, src1, src2);
+	}
+
+	/**
+	 * @param resultSupplier
+	 * 		Result multimap supplier.
+	 * 		Should provide an empty multimap to store results in.
+	 * @param src1
+	 * 		Original multimap.
+	 * @param src2
+	 * 		Additional multimap.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 * @param <M>
+	 * 		Returned multimap type.
+	 *
+	 * @return New multimap containing only the values of keys not shared by the two multimaps.
+	 */
+	@Nonnull
+	public static <K, V, M extends Multimap<K, V, ?>> M distinct(@Nonnull Supplier<M> resultSupplier,
+	                                                             @Nullable Multimap<K, V, ?> src1,
+	                                                             @Nullable Multimap<K, V, ?> src2) {
+		M result = resultSupplier.get();
+		if (src1 != null)
+			src1.forEach((key, value) -> {
+				if (src2 == null || !src2.containsKey(key)) result.put(key, value);
+			});
+		if (src2 != null)
+			src2.forEach((key, value) -> {
+				if (src1 == null || !src1.containsKey(key)) result.put(key, value);
+			});
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original multimap.
+	 * @param src2
+	 * 		Additional multimap.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return New multimap containing only the values of keys not shared by the two multimaps.
+	 */
+	@Nonnull
+	public static <K, V> ListMultimap<K, V> distinct(@Nullable ListMultimap<K, V> src1,
+	                                                 @Nullable ListMultimap<K, V> src2) {
+		return distinct(HashListMultimap::new, src1, src2);
+	}
+
+	/**
+	 * @param src1
+	 * 		Original multimap.
+	 * @param src2
+	 * 		Additional multimap.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return New multimap containing only the values of keys not shared by the two multimaps.
+	 */
+	@Nonnull
+	public static <K, V> SetMultimap<K, V> distinct(@Nullable SetMultimap<K, V> src1,
+	                                                @Nullable SetMultimap<K, V> src2) {
+		return distinct(HashSetMultimap::new, src1, src2);
+	}
+
+	/**
+	 * @param resultSupplier
+	 * 		Result multimap supplier.
+	 * 		Should provide an empty multimap to store results in.
+	 * @param src1
+	 * 		Original multimap.
+	 * @param src2
+	 * 		Additional multimap.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 * @param <M>
+	 * 		Returned multimap type.
+	 *
+	 * @return New multimap containing only the values of the original multimap for keys shared by the two multimaps.
+	 */
+	@Nonnull
+	public static <K, V, M extends Multimap<K, V, ?>> M union(@Nonnull Supplier<M> resultSupplier,
+	                                                          @Nullable Multimap<K, V, ?> src1,
+	                                                          @Nullable Multimap<K, V, ?> src2) {
+		M result = resultSupplier.get();
+		if (src1 != null && src2 != null)
+			src1.forEach((key, value) -> {
+				if (src2.containsKey(key)) result.put(key, value);
+			});
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original multimap.
+	 * @param src2
+	 * 		Additional multimap.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return New multimap containing only the values of the original multimap for keys shared by the two multimaps.
+	 */
+	@Nonnull
+	public static <K, V> ListMultimap<K, V> union(@Nullable ListMultimap<K, V> src1,
+	                                              @Nullable ListMultimap<K, V> src2) {
+		return union(HashListMultimap::new, src1, src2);
+	}
+
+	/**
+	 * @param src1
+	 * 		Original multimap.
+	 * @param src2
+	 * 		Additional multimap.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return New multimap containing only the values of the original multimap for keys shared by the two multimaps.
+	 */
+	@Nonnull
+	public static <K, V> SetMultimap<K, V> union(@Nullable SetMultimap<K, V> src1,
+	                                             @Nullable SetMultimap<K, V> src2) {
+		return union(HashSetMultimap::new, src1, src2);
+	}
+}
@@ -1,10 +1,24 @@
 package software.coley.collections;
 
+import software.coley.collections.compact.CompactCollections;
+import software.coley.collections.filter.BloomFilter;
+import software.coley.collections.filter.CuckooFilter;
+import software.coley.collections.filter.Funnel;
+import software.coley.collections.parallel.ParallelSets;
+import software.coley.collections.parallel.ParallelSupport;
+import software.coley.collections.view.CombinedSetView;
+import software.coley.collections.view.DisjointSetView;
+import software.coley.collections.view.SetView;
+import software.coley.collections.view.SymmetricDifferenceSetView;
+import software.coley.collections.view.UnionSetView;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Utility for handling {@link java.util.Set} types.
@@ -41,7 +55,8 @@ public static <T> Set<T> add(@Nonnull Set<T> src, @Nullable T additional) {
 	 * @return New set with additional items.
 	 */
 	public static <T> Set<T> combine(Set<T> src1, Set<T> src2) {
-		Set<T> set = new HashSet<>(src1);
+		Set<T> set = newSet(src1.size() + src2.size());
+		set.addAll(src1);
 		set.addAll(src2);
 		return set;
 	}
@@ -57,8 +72,19 @@ public static <T> Set<T> combine(Set<T> src1, Set<T> src2) {
 	 * @return Set of containing only the items not shared by the two sets.
 	 */
 	public static <T> Set<T> disjoint(Set<T> src1, Set<T> src2) {
-		Set<T> results = new HashSet<>(src1);
-		results.removeAll(src2);
+		Set<T> results;
+		if (src2.size() < src1.size()) {
+			// Cheaper to remove the few items of the second set from a copy than to check every item of the first
+			results = newSet(src1.size());
+			results.addAll(src1);
+			for (T item : src2)
+				results.remove(item);
+		} else {
+			results = newSet(src1.size());
+			for (T item : src1)
+				if (!src2.contains(item))
+					results.add(item);
+		}
 		return results;
 	}
 
@@ -71,13 +97,100 @@ public static <T> Set<T> disjoint(Set<T> src1, Set<T> src2) {
 	 * 		Type of content.
 	 *
 	 * @return Set containing only the items shared by the two sets.
+	 * The smaller set is iterated over, with each item checked against the larger set.
 	 */
 	public static <T> Set<T> union(Set<T> src1, Set<T> src2) {
-		Set<T> results = new HashSet<>(src1);
-		results.retainAll(src2);
+		Set<T> smaller = src1.size() <= src2.size() ? src1 : src2;
+		Set<T> larger = smaller == src1 ? src2 : src1;
+		Set<T> results = newSet(smaller.size());
+		for (T item : smaller)
+			if (larger.contains(item))
+				results.add(item);
+		return results;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Additional set.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Set containing only the items in exactly one of the two sets.
+	 */
+	public static <T> Set<T> symmetricDifference(Set<T> src1, Set<T> src2) {
+		Set<T> results = newSet(src1.size() + src2.size());
+		for (T item : src1)
+			if (!src2.contains(item))
+				results.add(item);
+		for (T item : src2)
+			if (!src1.contains(item))
+				results.add(item);
 		return results;
 	}
 
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Additional set.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Read-only view with the content of {@link #combine(Set, Set)}, resolved lazily against the inputs.
+	 */
+	@Nonnull
+	public static <T> SetView<T> combineView(@Nonnull Set<T> src1, @Nonnull Set<T> src2) {
+		return new CombinedSetView<>(src1, src2);
+	}
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Set of items to exclude.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Read-only view with the content of {@link #disjoint(Set, Set)}, resolved lazily against the inputs.
+	 */
+	@Nonnull
+	public static <T> SetView<T> disjointView(@Nonnull Set<T> src1, @Nonnull Set<T> src2) {
+		return new DisjointSetView<>(src1, src2);
+	}
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Additional set.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Read-only view with the content of {@link #union(Set, Set)}, resolved lazily against the inputs.
+	 */
+	@Nonnull
+	public static <T> SetView<T> unionView(@Nonnull Set<T> src1, @Nonnull Set<T> src2) {
+		return new UnionSetView<>(src1, src2);
+	}
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Additional set.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Read-only view with the content of {@link #symmetricDifference(Set, Set)},
+	 * resolved lazily against the inputs.
+	 */
+	@Nonnull
+	public static <T> SetView<T> symmetricDifferenceView(@Nonnull Set<T> src1, @Nonnull Set<T> src2) {
+		return new SymmetricDifferenceSetView<>(src1, src2);
+	}
+
 	/**
 	 * @param value
 	 * 		Set item.
@@ -118,4 +231,126 @@ public static <T> Set<T> of(T[] values) {
 	public static <T> Set<T> ofVar(T... values) {
 		return of(values);
 	}
+
+	/**
+	 * Unlike {@link #of(Object[])} the resulting set is immutable, and uses a field-specialized implementation
+	 * for small sizes, or a single open-addressed array for larger sizes, which is far smaller than a {@link HashSet}.
+	 * See {@link CompactCollections} for footprint details.
+	 *
+	 * @param values
+	 * 		Set items. Duplicates are collapsed.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Immutable set containing the items.
+	 */
+	@Nonnull
+	@SafeVarargs
+	public static <T> Set<T> immutableOf(@Nonnull T... values) {
+		return CompactCollections.setOf(values);
+	}
+
+	/**
+	 * @param src
+	 * 		Set items. Duplicates are collapsed.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Immutable set containing the items. See {@link #immutableOf(Object[])}.
+	 */
+	@Nonnull
+	public static <T> Set<T> immutableCopyOf(@Nonnull Collection<? extends T> src) {
+		return CompactCollections.setCopyOf(src);
+	}
+
+	/**
+	 * @param src
+	 * 		Set to build a filter of.
+	 * @param funnel
+	 * 		Funnel to read items with.
+	 * @param fpp
+	 * 		Desired false positive probability of the filter, between {@code 0} and {@code 1} exclusive.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Bloom filter of the items in the set, sized for the set.
+	 * Useful as a cheap check before looking up items in a large or remote set.
+	 */
+	@Nonnull
+	public static <T> BloomFilter<T> bloomFilter(@Nonnull Set<? extends T> src, @Nonnull Funnel<? super T> funnel,
+	                                             double fpp) {
+		BloomFilter<T> filter = BloomFilter.create(funnel, src.size(), fpp);
+		for (T item : src) filter.put(item);
+		return filter;
+	}
+
+	/**
+	 * @param src
+	 * 		Set to build a filter of.
+	 * @param funnel
+	 * 		Funnel to read items with.
+	 * @param fpp
+	 * 		Desired false positive probability of the filter, between {@code 0} and {@code 1} exclusive.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Cuckoo filter of the items in the set, sized for the set. Unlike {@link #bloomFilter(Set, Funnel, double)}
+	 * items can be removed from the filter as they are removed from the set.
+	 */
+	@Nonnull
+	public static <T> CuckooFilter<T> cuckooFilter(@Nonnull Set<? extends T> src, @Nonnull Funnel<? super T> funnel,
+	                                               double fpp) {
+		CuckooFilter<T> filter = CuckooFilter.create(funnel, src.size(), fpp);
+		for (T item : src)
+			if (!filter.put(item))
+				throw new IllegalStateException("Filter is full");
+		return filter;
+	}
+
+	/**
+	 * @return Parallel variants of the bulk operations in this class, running on the
+	 * {@link ForkJoinPool#commonPool() common pool}.
+	 */
+	@Nonnull
+	public static ParallelSets parallel() {
+		return parallel(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool
+	 * 		Pool to run work on.
+	 *
+	 * @return Parallel variants of the bulk operations in this class, running on the given pool.
+	 */
+	@Nonnull
+	public static ParallelSets parallel(@Nonnull ForkJoinPool pool) {
+		return parallel(pool, ParallelSupport.DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * @param pool
+	 * 		Pool to run work on.
+	 * @param threshold
+	 * 		Minimum input size for work to be split across threads.
+	 * 		Smaller inputs are handled by the sequential operations.
+	 *
+	 * @return Parallel variants of the bulk operations in this class, running on the given pool.
+	 */
+	@Nonnull
+	public static ParallelSets parallel(@Nonnull ForkJoinPool pool, int threshold) {
+		return new ParallelSets(pool, threshold);
+	}
+
+	/**
+	 * @param expectedSize
+	 * 		Number of items expected to be added.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Set sized to hold the expected number of items without resizing.
+	 */
+	@Nonnull
+	private static <T> Set<T> newSet(int expectedSize) {
+		return new HashSet<>(Math.max((int) (expectedSize / 0.75f) + 1, 16));
+	}
 }
@@ -2,13 +2,16 @@
 
 import software.coley.collections.func.ObjToIntFunction;
 import software.coley.collections.func.ObjToLongFunction;
+import software.coley.collections.internal.BoxAccess;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Comparator;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * Object box.
@@ -205,6 +208,40 @@ public boolean isSet() {
 		return value != null;
 	}
 
+	/**
+	 * Atomically sets the value if the current value is the expected value, compared by reference.
+	 * Atomic relative to other atomic operations on this box, but not to plain calls to {@link #set(Object)}.
+	 *
+	 * @param expected
+	 * 		Expected current value.
+	 * @param value
+	 * 		New value.
+	 *
+	 * @return {@code true} when the box held the expected value and was updated.
+	 */
+	public boolean compareAndSet(@Nullable T expected, @Nullable T value) {
+		return BoxAccess.compareAndSet(this, expected, value);
+	}
+
+	/**
+	 * Atomically updates the value. The function may be called multiple times when there is contention.
+	 *
+	 * @param function
+	 * 		Update function, should be free of side effects.
+	 *
+	 * @return Updated value.
+	 */
+	@Nullable
+	public T updateAndGet(@Nonnull UnaryOperator<T> function) {
+		T prior;
+		T next;
+		do {
+			prior = get();
+			next = function.apply(prior);
+		} while (!compareAndSet(prior, next));
+		return next;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
@@ -1,7 +1,10 @@
 package software.coley.collections.box;
 
+import software.coley.collections.internal.BoxAccess;
+
 import java.util.function.LongFunction;
 import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
 
 /**
  * {@code long} box.
@@ -129,6 +132,75 @@ public void setClamp(long min, long max) {
 		else if (oldValue > max) set(max);
 	}
 
+	/**
+	 * Atomically sets the value if the current value matches the expected value.
+	 * Atomic relative to other atomic operations on this box, but not to plain calls to {@link #set(long)}.
+	 *
+	 * @param expected
+	 * 		Expected current value.
+	 * @param value
+	 * 		New value.
+	 *
+	 * @return {@code true} when the box held the expected value and was updated.
+	 */
+	public boolean compareAndSet(long expected, long value) {
+		return BoxAccess.compareAndSet(this, expected, value);
+	}
+
+	/**
+	 * Atomically sets the value.
+	 *
+	 * @param value
+	 * 		New value.
+	 *
+	 * @return Prior value.
+	 */
+	public long getAndSet(long value) {
+		return BoxAccess.getAndSet(this, value);
+	}
+
+	/**
+	 * Atomically adds to the value.
+	 *
+	 * @param delta
+	 * 		Value to add.
+	 *
+	 * @return Prior value.
+	 */
+	public long getAndAdd(long delta) {
+		return BoxAccess.getAndAdd(this, delta);
+	}
+
+	/**
+	 * Atomically adds to the value.
+	 *
+	 * @param delta
+	 * 		Value to add.
+	 *
+	 * @return Updated value.
+	 */
+	public long addAndGet(long delta) {
+		return BoxAccess.getAndAdd(this, delta) + delta;
+	}
+
+	/**
+	 * Atomically updates the value. The function may be called multiple times when there is contention.
+	 *
+	 * @param function
+	 * 		Update function, should be free of side effects.
+	 *
+	 * @return Updated value.
+	 */
+	public long updateAndGet(LongUnaryOperator function) {
+		long prior;
+		long next;
+		do {
+			prior = get();
+			next = function.applyAsLong(prior);
+		} while (!compareAndSet(prior, next));
+		return next;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
@@ -0,0 +1,125 @@
+package software.coley.collections.cache;
+
+import software.coley.collections.delegate.DelegatingMap;
+import software.coley.collections.observable.MapChange;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Map type bounded by a maximum size or weight, which evicts entries using the W-TinyLFU policy.
+ * <br>
+ * A small admission window handles bursts of new keys, while the bulk of the cache only admits entries
+ * which are estimated to be accessed more often than those they would replace. Access frequencies are estimated
+ * with a compact count-min sketch, so the history of keys no longer in the cache is kept without storing the keys.
+ * This gives higher hit rates than plain LRU for most workloads, and resists scans of one-off keys.
+ * <br>
+ * Lookups through {@link #get(Object)} count towards the {@link #stats() statistics} and the eviction policy,
+ * while {@link #containsKey(Object)} does not. Neither keys nor values may be {@code null}. Not thread safe.
+ *
+ * @param <K>
+ * 		Map key type.
+ * @param <V>
+ * 		Map value type.
+ *
+ * @author Matt Coley
+ * @see RemovalListener
+ */
+public class CacheMap<K, V> extends DelegatingMap<K, V> {
+	private final List<RemovalListener<K, V>> listeners = new ArrayList<>();
+	private final CacheStore<K, V> store;
+
+	/**
+	 * @param maximumSize
+	 * 		Maximum number of entries.
+	 */
+	public CacheMap(long maximumSize) {
+		this(new CacheStore<>(maximumSize, null));
+	}
+
+	/**
+	 * @param maximumWeight
+	 * 		Maximum total weight of entries.
+	 * @param weigher
+	 * 		Function to compute the weight of entries. Weights must not be negative,
+	 * 		and are computed when an entry is inserted or its value is replaced.
+	 */
+	public CacheMap(long maximumWeight, @Nonnull ToIntBiFunction<? super K, ? super V> weigher) {
+		this(new CacheStore<>(maximumWeight, weigher));
+	}
+
+	private CacheMap(@Nonnull CacheStore<K, V> store) {
+		super(store);
+		this.store = store;
+		store.owner = this;
+	}
+
+	/**
+	 * @return Snapshot of the hit, miss and eviction statistics of the cache.
+	 */
+	@Nonnull
+	public CacheStats stats() {
+		return store.stats();
+	}
+
+	/**
+	 * @return Maximum total weight of entries. When no weigher is used, this is the maximum number of entries.
+	 */
+	public long maximum() {
+		return store.maximum();
+	}
+
+	/**
+	 * @return Total weight of entries. When no weigher is used, this is the number of entries.
+	 */
+	public long weightedSize() {
+		return store.weightedSize();
+	}
+
+	/**
+	 * Subscribe a listener to events about removed entries, including evictions.
+	 *
+	 * @param listener
+	 * 		Listener to add.
+	 */
+	public void addRemovalListener(@Nullable RemovalListener<K, V> listener) {
+		if (listener != null)
+			listeners.add(listener);
+	}
+
+	/**
+	 * Unsubscribe a listener from events about removed entries.
+	 *
+	 * @param listener
+	 * 		Listener to remove.
+	 *
+	 * @return {@code true} on removal success.
+	 */
+	public boolean removeRemovalListener(@Nullable RemovalListener<K, V> listener) {
+		return listeners.remove(listener);
+	}
+
+	/**
+	 * @return {@code true} when there are listeners to notify, so that changes only need to be built when used.
+	 */
+	boolean hasRemovalListeners() {
+		return !listeners.isEmpty();
+	}
+
+	/**
+	 * Called AFTER entries are removed.
+	 *
+	 * @param removed
+	 * 		Removed entries.
+	 * @param cause
+	 * 		Reason the entries were removed.
+	 */
+	void notifyRemoval(@Nonnull Map<K, V> removed, @Nonnull RemovalCause cause) {
+		MapChange<K, V> change = MapChange.removal(removed);
+		listeners.forEach(listener -> listener.onRemoval(this, change, cause));
+	}
+}
@@ -0,0 +1,106 @@
+package software.coley.collections.cache;
+
+/**
+ * Snapshot of the statistics of a {@link CacheMap}.
+ *
+ * @author Matt Coley
+ */
+public final class CacheStats {
+	private final long hitCount;
+	private final long missCount;
+	private final long evictionCount;
+	private final long evictionWeight;
+
+	/**
+	 * @param hitCount
+	 * 		Number of lookups which found a value.
+	 * @param missCount
+	 * 		Number of lookups which found no value.
+	 * @param evictionCount
+	 * 		Number of entries evicted.
+	 * @param evictionWeight
+	 * 		Total weight of entries evicted.
+	 */
+	public CacheStats(long hitCount, long missCount, long evictionCount, long evictionWeight) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.evictionWeight = evictionWeight;
+	}
+
+	/**
+	 * @return Number of lookups which found a value.
+	 */
+	public long hitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return Number of lookups which found no value.
+	 */
+	public long missCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return Number of lookups.
+	 */
+	public long requestCount() {
+		return hitCount + missCount;
+	}
+
+	/**
+	 * @return Ratio of lookups which found a value, or {@code 1} when there have been no lookups.
+	 */
+	public double hitRate() {
+		long requests = requestCount();
+		return requests == 0 ? 1.0 : (double) hitCount / requests;
+	}
+
+	/**
+	 * @return Ratio of lookups which found no value, or {@code 0} when there have been no lookups.
+	 */
+	public double missRate() {
+		long requests = requestCount();
+		return requests == 0 ? 0.0 : (double) missCount / requests;
+	}
+
+	/**
+	 * @return Number of entries evicted.
+	 */
+	public long evictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * @return Total weight of entries evicted.
+	 */
+	public long evictionWeight() {
+		return evictionWeight;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		CacheStats other = (CacheStats) o;
+		return hitCount == other.hitCount && missCount == other.missCount
+				&& evictionCount == other.evictionCount && evictionWeight == other.evictionWeight;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = Long.hashCode(hitCount);
+		result = 31 * result + Long.hashCode(missCount);
+		result = 31 * result + Long.hashCode(evictionCount);
+		result = 31 * result + Long.hashCode(evictionWeight);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats{hits=" + hitCount + ", misses=" + missCount +
+				", evictions=" + evictionCount + ", evictionWeight=" + evictionWeight + '}';
+	}
+}
@@ -0,0 +1,404 @@
+package software.coley.collections.cache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Map implementing the W-TinyLFU policy of {@link CacheMap}.
+ * <br>
+ * Entries are held in three access ordered queues. New entries go to the <i>window</i>, which holds about 1% of
+ * the maximum weight. Entries leaving the window must win admission into the <i>main</i> space against the least
+ * recently used entry of its <i>probation</i> queue, by having a higher estimated access frequency. Entries in
+ * probation which are accessed again move to the <i>protected</i> queue, which holds up to 80% of the main space
+ * and demotes its least recently used entries back into probation when full.
+ *
+ * @param <K>
+ * 		Map key type.
+ * @param <V>
+ * 		Map value type.
+ *
+ * @author Matt Coley
+ */
+final class CacheStore<K, V> extends AbstractMap<K, V> {
+	private static final byte WINDOW = 0;
+	private static final byte PROBATION = 1;
+	private static final byte PROTECTED = 2;
+	private final Map<K, Node<K, V>> data = new HashMap<>();
+	private final FrequencySketch sketch = new FrequencySketch();
+	private final AccessQueue<K, V> window = new AccessQueue<>();
+	private final AccessQueue<K, V> probation = new AccessQueue<>();
+	private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+	private final ToIntBiFunction<? super K, ? super V> weigher;
+	private final long maximum;
+	private final long windowMaximum;
+	private final long mainMaximum;
+	private final long protectedMaximum;
+	private long windowWeight;
+	private long mainWeight;
+	private long protectedWeight;
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+	private long evictionWeight;
+	/**
+	 * Set when an entry's weight grew through {@link WriteThroughEntry#setValue(Object)}, since evicting during
+	 * iteration would modify the map under the iterator. Eviction runs once the iterator is exhausted,
+	 * or on the next write otherwise.
+	 */
+	private boolean evictionPending;
+	private Set<Entry<K, V>> entrySet;
+	CacheMap<K, V> owner;
+
+	/**
+	 * @param maximum
+	 * 		Maximum total weight of entries.
+	 * @param weigher
+	 * 		Function to compute the weight of entries, or {@code null} for each entry to have a weight of one.
+	 */
+	CacheStore(long maximum, @Nullable ToIntBiFunction<? super K, ? super V> weigher) {
+		if (maximum < 0) throw new IllegalArgumentException("Maximum must not be negative");
+		this.maximum = maximum;
+		this.weigher = weigher;
+		// The window gets 1% of the maximum rounded up, so small caches still admit new entries through it
+		windowMaximum = maximum / 100 + (maximum % 100 == 0 ? 0 : 1);
+		mainMaximum = maximum - windowMaximum;
+		protectedMaximum = mainMaximum - mainMaximum / 5;
+		// Resizing the sketch discards its counts, so size it up front when the maximum is an entry count.
+		// Very large maximums grow lazily instead, to not allocate for entries which may never exist.
+		sketch.ensureCapacity(weigher == null ? Math.min(maximum, 1 << 16) : 16);
+	}
+
+	@Nonnull
+	CacheStats stats() {
+		return new CacheStats(hitCount, missCount, evictionCount, evictionWeight);
+	}
+
+	long maximum() {
+		return maximum;
+	}
+
+	long weightedSize() {
+		return windowWeight + mainWeight;
+	}
+
+	@Override
+	public int size() {
+		return data.size();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return data.containsKey(key);
+	}
+
+	@Override
+	public V get(Object key) {
+		if (key == null) return null;
+		sketch.increment(key);
+		Node<K, V> node = data.get(key);
+		if (node == null) {
+			missCount++;
+			return null;
+		}
+		hitCount++;
+		onAccess(node);
+		return node.value;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		Objects.requireNonNull(key, "Cache keys must not be null");
+		Objects.requireNonNull(value, "Cache values must not be null");
+		int weight = weigh(key, value);
+		sketch.increment(key);
+		Node<K, V> node = data.get(key);
+		if (node != null) {
+			V prior = node.value;
+			node.value = value;
+			addWeight(node, weight - node.weight);
+			node.weight = weight;
+			onAccess(node);
+			if (prior != value) notifyRemoval(key, prior, RemovalCause.REPLACED);
+			evict();
+			return prior;
+		}
+
+		node = new Node<>(key, value, weight);
+		data.put(key, node);
+		window.linkLast(node);
+		windowWeight += weight;
+		sketch.ensureCapacity(data.size());
+		evict();
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		Node<K, V> node = data.remove(key);
+		if (node == null) return null;
+		unlink(node);
+		notifyRemoval(node.key, node.value, RemovalCause.EXPLICIT);
+		return node.value;
+	}
+
+	@Override
+	public void clear() {
+		Map<K, V> removed = owner != null && owner.hasRemovalListeners() ? new HashMap<>(this) : null;
+		data.clear();
+		window.clear();
+		probation.clear();
+		protectedQueue.clear();
+		windowWeight = 0;
+		mainWeight = 0;
+		protectedWeight = 0;
+		if (removed != null && !removed.isEmpty()) owner.notifyRemoval(removed, RemovalCause.EXPLICIT);
+	}
+
+	@Nonnull
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Entry<K, V>>() {
+				@Override
+				public int size() {
+					return data.size();
+				}
+
+				@Override
+				public void clear() {
+					CacheStore.this.clear();
+				}
+
+				@Nonnull
+				@Override
+				public Iterator<Entry<K, V>> iterator() {
+					Iterator<Node<K, V>> it = data.values().iterator();
+					return new Iterator<Entry<K, V>>() {
+						private Node<K, V> current;
+
+						@Override
+						public boolean hasNext() {
+							if (it.hasNext()) return true;
+							if (evictionPending) evict();
+							return false;
+						}
+
+						@Override
+						public Entry<K, V> next() {
+							current = it.next();
+							return new WriteThroughEntry(current);
+						}
+
+						@Override
+						public void remove() {
+							if (current == null) throw new IllegalStateException();
+							it.remove();
+							unlink(current);
+							notifyRemoval(current.key, current.value, RemovalCause.EXPLICIT);
+							current = null;
+						}
+					};
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	private int weigh(@Nonnull K key, @Nonnull V value) {
+		if (weigher == null) return 1;
+		int weight = weigher.applyAsInt(key, value);
+		if (weight < 0) throw new IllegalArgumentException("Weight must not be negative: " + weight);
+		return weight;
+	}
+
+	/**
+	 * Moves the accessed entry to the most recently used position of its queue,
+	 * promoting it from probation to protected.
+	 */
+	private void onAccess(@Nonnull Node<K, V> node) {
+		if (node.queue == WINDOW) {
+			window.moveToLast(node);
+		} else if (node.queue == PROTECTED) {
+			protectedQueue.moveToLast(node);
+		} else {
+			probation.unlink(node);
+			node.queue = PROTECTED;
+			protectedQueue.linkLast(node);
+			protectedWeight += node.weight;
+
+			// Overflow of the protected queue is demoted back to probation
+			while (protectedWeight > protectedMaximum) {
+				Node<K, V> demoted = protectedQueue.head;
+				protectedQueue.unlink(demoted);
+				protectedWeight -= demoted.weight;
+				demoted.queue = PROBATION;
+				probation.linkLast(demoted);
+			}
+		}
+	}
+
+	/**
+	 * Moves overflow from the window into the main space, and evicts entries until the cache is within its maximum.
+	 */
+	private void evict() {
+		evictionPending = false;
+		while (windowWeight > windowMaximum) {
+			Node<K, V> candidate = window.head;
+			window.unlink(candidate);
+			windowWeight -= candidate.weight;
+			candidate.queue = PROBATION;
+			probation.linkLast(candidate);
+			mainWeight += candidate.weight;
+			admit(candidate);
+		}
+
+		// The main space can also overflow when the weight of an existing entry grows
+		while (mainWeight > mainMaximum) {
+			Node<K, V> victim = probation.head != null ? probation.head : protectedQueue.head;
+			if (victim == null) break;
+			evictNode(victim);
+		}
+	}
+
+	/**
+	 * Evicts either the candidate or the least recently used entries of the main space,
+	 * until the main space is within its maximum.
+	 *
+	 * @param candidate
+	 * 		Entry which just moved from the window to the end of the probation queue.
+	 */
+	private void admit(@Nonnull Node<K, V> candidate) {
+		if (candidate.weight > mainMaximum) {
+			evictNode(candidate);
+			return;
+		}
+		while (mainWeight > mainMaximum) {
+			Node<K, V> victim = probation.head;
+			if (victim == candidate) victim = protectedQueue.head;
+			if (victim == null || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+				evictNode(candidate);
+				return;
+			}
+			evictNode(victim);
+		}
+	}
+
+	private void evictNode(@Nonnull Node<K, V> node) {
+		data.remove(node.key);
+		unlink(node);
+		evictionCount++;
+		evictionWeight += node.weight;
+		notifyRemoval(node.key, node.value, RemovalCause.SIZE);
+	}
+
+	/**
+	 * Removes the node from its queue, updating the queue weights.
+	 */
+	private void unlink(@Nonnull Node<K, V> node) {
+		addWeight(node, -node.weight);
+		if (node.queue == WINDOW) window.unlink(node);
+		else if (node.queue == PROBATION) probation.unlink(node);
+		else protectedQueue.unlink(node);
+	}
+
+	private void addWeight(@Nonnull Node<K, V> node, long delta) {
+		if (node.queue == WINDOW) {
+			windowWeight += delta;
+		} else {
+			mainWeight += delta;
+			if (node.queue == PROTECTED) protectedWeight += delta;
+		}
+	}
+
+	private void notifyRemoval(@Nonnull K key, @Nonnull V value, @Nonnull RemovalCause cause) {
+		if (owner != null && owner.hasRemovalListeners())
+			owner.notifyRemoval(Collections.singletonMap(key, value), cause);
+	}
+
+	/**
+	 * Cache entry, linked into one of the access queues.
+	 */
+	private static final class Node<K, V> {
+		private final K key;
+		private V value;
+		private int weight;
+		private byte queue = WINDOW;
+		private Node<K, V> prev;
+		private Node<K, V> next;
+
+		private Node(@Nonnull K key, @Nonnull V value, int weight) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * Doubly linked queue of nodes, from least to most recently used.
+	 */
+	private static final class AccessQueue<K, V> {
+		private Node<K, V> head;
+		private Node<K, V> tail;
+
+		private void linkLast(@Nonnull Node<K, V> node) {
+			node.prev = tail;
+			node.next = null;
+			if (tail == null) head = node;
+			else tail.next = node;
+			tail = node;
+		}
+
+		private void unlink(@Nonnull Node<K, V> node) {
+			if (node.prev == null) head = node.next;
+			else node.prev.next = node.next;
+			if (node.next == null) tail = node.prev;
+			else node.next.prev = node.prev;
+			node.prev = null;
+			node.next = null;
+		}
+
+		private void moveToLast(@Nonnull Node<K, V> node) {
+			if (node != tail) {
+				unlink(node);
+				linkLast(node);
+			}
+		}
+
+		private void clear() {
+			head = null;
+			tail = null;
+		}
+	}
+
+	/**
+	 * Entry of the entry set, which writes value changes through to the cache.
+	 * The node is updated in place, so that setting values does not modify the map under the iterator.
+	 */
+	private final class WriteThroughEntry extends SimpleEntry<K, V> {
+		private final Node<K, V> node;
+
+		private WriteThroughEntry(@Nonnull Node<K, V> node) {
+			super(node.key, node.value);
+			this.node = node;
+		}
+
+		@Override
+		public V setValue(V value) {
+			Objects.requireNonNull(value, "Cache values must not be null");
+			V prior = super.setValue(value);
+
+			// Entries which have since been removed from the cache are no longer written through
+			if (data.get(node.key) != node) return prior;
+			int weight = weigh(node.key, value);
+			V replaced = node.value;
+			node.value = value;
+			addWeight(node, weight - node.weight);
+			if (weight > node.weight) evictionPending = true;
+			node.weight = weight;
+			if (replaced != value) notifyRemoval(node.key, replaced, RemovalCause.REPLACED);
+			return prior;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package software.coley.collections.cache;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Count-min sketch estimating how often keys are accessed, using 4-bit counters so that estimates saturate at 15.
+ * <br>
+ * Each key maps to four counters within a single {@code long}, and its frequency is the minimum of them.
+ * Once the number of recorded accesses reaches ten times the table capacity, all counters are halved, so that the
+ * sketch favors recent popularity over history.
+ *
+ * @author Matt Coley
+ */
+final class FrequencySketch {
+	private static final long[] SEEDS = {
+			0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L
+	};
+	private static final long RESET_MASK = 0x7777777777777777L;
+	private static final long ONE_MASK = 0x1111111111111111L;
+	private static final int MAX_TABLE_LENGTH = 1 << 26;
+	private long[] table = new long[0];
+	private int tableMask;
+	private int sampleSize;
+	private int additions;
+
+	/**
+	 * Resizes the sketch, discarding its counts, if it is too small for the given number of entries.
+	 *
+	 * @param entries
+	 * 		Number of entries expected to be tracked.
+	 */
+	void ensureCapacity(long entries) {
+		int length = (int) Math.min(Math.max(entries, 8), MAX_TABLE_LENGTH);
+		length = Integer.highestOneBit(length - 1) << 1;
+		if (table.length >= length) return;
+		table = new long[length];
+		tableMask = length - 1;
+		sampleSize = 10 * length;
+		additions = 0;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to look up.
+	 *
+	 * @return Estimated access frequency of the key, in the range {@code [0, 15]}.
+	 */
+	int frequency(@Nonnull Object key) {
+		int hash = spread(key.hashCode());
+		int start = (hash & 3) << 2;
+		int frequency = Integer.MAX_VALUE;
+		for (int i = 0; i < 4; i++) {
+			int index = indexOf(hash, i);
+			int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xF);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to record an access of.
+	 */
+	void increment(@Nonnull Object key) {
+		int hash = spread(key.hashCode());
+		int start = (hash & 3) << 2;
+		boolean added = false;
+		for (int i = 0; i < 4; i++)
+			added |= incrementAt(indexOf(hash, i), start + i);
+		if (added && ++additions == sampleSize)
+			reset();
+	}
+
+	private boolean incrementAt(int index, int counter) {
+		int offset = counter << 2;
+		long mask = 0xFL << offset;
+		if ((table[index] & mask) == mask) return false;
+		table[index] += 1L << offset;
+		return true;
+	}
+
+	/**
+	 * Halves all counters. Counters with odd values lose their remainder, which is subtracted from the addition count.
+	 */
+	private void reset() {
+		int odd = 0;
+		for (int i = 0; i < table.length; i++) {
+			odd += Long.bitCount(table[i] & ONE_MASK);
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		// Each addition increments four counters, and each odd counter loses half an increment when halved
+		additions = (additions - (odd >>> 2)) >>> 1;
+	}
+
+	private int indexOf(int hash, int i) {
+		long h = (hash + SEEDS[i]) * SEEDS[i];
+		h += h >>> 32;
+		return (int) h & tableMask;
+	}
+
+	private static int spread(int x) {
+		x = ((x >>> 16) ^ x) * 0x45D9F3B;
+		x = ((x >>> 16) ^ x) * 0x45D9F3B;
+		return (x >>> 16) ^ x;
+	}
+}
@@ -0,0 +1,594 @@
+package software.coley.collections.cache;
+
+import software.coley.collections.Unchecked;
+import software.coley.collections.func.UncheckedFunction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread safe map of values which are loaded on demand, where concurrent misses on the same key share a single load.
+ * <br>
+ * Each key maps to one {@link CompletableFuture}, so threads which miss on a key while it is being loaded wait on the
+ * same load rather than starting their own. Loads run on an executor, and failed loads or loads of {@code null} are
+ * not kept, so the next lookup tries again.
+ * <ul>
+ *     <li>With a bulk loader, misses arriving within a short window are collected and loaded together
+ *     in one call, which suits loaders backed by batch queries.</li>
+ *     <li>With refresh-ahead, lookups of values older than the refresh interval return the current value
+ *     right away and reload it in the background, so hot keys never block on reloads.</li>
+ * </ul>
+ *
+ * @param <K>
+ * 		Map key type.
+ * @param <V>
+ * 		Map value type.
+ *
+ * @author Matt Coley
+ */
+public class LoadingMap<K, V> {
+	private final ConcurrentHashMap<K, Slot<V>> entries = new ConcurrentHashMap<>();
+	private final UncheckedFunction<K, V> loader;
+	private final UncheckedFunction<Set<K>, Map<K, V>> bulkLoader;
+	private final Executor executor;
+	private final long batchWindowNanos;
+	private final int maxBatchSize;
+	private final long refreshNanos;
+	private final LongSupplier ticker;
+	private final Object batchLock = new Object();
+	private Map<K, CompletableFuture<V>> pendingBatch;
+	private Map<K, V> mapView;
+
+	private LoadingMap(@Nonnull Builder<K, V> builder) {
+		loader = builder.loader;
+		bulkLoader = builder.bulkLoader;
+		executor = builder.executor;
+		batchWindowNanos = builder.batchWindowNanos;
+		maxBatchSize = builder.maxBatchSize;
+		refreshNanos = builder.refreshNanos;
+		ticker = builder.ticker;
+	}
+
+	/**
+	 * @param <K>
+	 * 		Map key type.
+	 * @param <V>
+	 * 		Map value type.
+	 *
+	 * @return New builder to configure a map with.
+	 */
+	@Nonnull
+	public static <K, V> Builder<K, V> builder() {
+		return new Builder<>();
+	}
+
+	/**
+	 * @param key
+	 * 		Key to look up.
+	 *
+	 * @return Future of the value of the key, which is loaded if not yet present.
+	 * Completes exceptionally with the loader's exception when loading fails.
+	 */
+	@Nonnull
+	public CompletableFuture<V> getAsync(@Nonnull K key) {
+		Slot<V> entry = entries.get(key);
+		if (entry != null) {
+			refreshIfStale(key, entry);
+			return entry.future;
+		}
+
+		Slot<V> created = new Slot<>();
+		entry = entries.putIfAbsent(key, created);
+		if (entry != null) return entry.future;
+		track(key, created);
+		load(key, created.future);
+		return created.future;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to look up.
+	 *
+	 * @return Value of the key, which is loaded if not yet present. May be {@code null} if the loader provides none.
+	 * Exceptions thrown by the loader are rethrown as-is.
+	 */
+	@Nullable
+	public V get(@Nonnull K key) {
+		return join(getAsync(key));
+	}
+
+	/**
+	 * Misses among the keys are loaded together right away, without waiting for a batch window.
+	 *
+	 * @param keys
+	 * 		Keys to look up.
+	 *
+	 * @return Future of the values of the keys, without keys the loader provides no value for.
+	 */
+	@Nonnull
+	public CompletableFuture<Map<K, V>> getAllAsync(@Nonnull Collection<? extends K> keys) {
+		Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+		Map<K, CompletableFuture<V>> misses = new LinkedHashMap<>();
+		for (K key : keys) {
+			if (futures.containsKey(key)) continue;
+			Slot<V> entry = entries.get(key);
+			if (entry != null) {
+				refreshIfStale(key, entry);
+			} else {
+				Slot<V> created = new Slot<>();
+				entry = entries.putIfAbsent(key, created);
+				if (entry == null) {
+					entry = created;
+					track(key, created);
+					misses.put(key, created.future);
+				}
+			}
+			futures.put(key, entry.future);
+		}
+		if (!misses.isEmpty()) {
+			if (bulkLoader != null) runBatch(misses);
+			else misses.forEach(this::load);
+		}
+		return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).thenApply(ignored -> {
+			Map<K, V> result = new LinkedHashMap<>();
+			futures.forEach((key, future) -> {
+				V value = future.join();
+				if (value != null) result.put(key, value);
+			});
+			return result;
+		});
+	}
+
+	/**
+	 * @param keys
+	 * 		Keys to look up.
+	 *
+	 * @return Values of the keys, without keys the loader provides no value for.
+	 * Exceptions thrown by the loader are rethrown as-is.
+	 */
+	@Nonnull
+	public Map<K, V> getAll(@Nonnull Collection<? extends K> keys) {
+		return join(getAllAsync(keys));
+	}
+
+	/**
+	 * @param key
+	 * 		Key to look up.
+	 *
+	 * @return Value of the key if it is loaded, otherwise {@code null}. Never starts a load.
+	 */
+	@Nullable
+	public V getIfPresent(@Nonnull Object key) {
+		Slot<V> entry = entries.get(key);
+		if (entry == null || !entry.isLoaded()) return null;
+		return entry.future.join();
+	}
+
+	/**
+	 * @param key
+	 * 		Key to assign.
+	 * @param value
+	 * 		Value to assign, replacing any value or load in progress.
+	 */
+	public void put(@Nonnull K key, @Nonnull V value) {
+		Objects.requireNonNull(value, "Value must not be null");
+		Slot<V> entry = new Slot<>();
+		entry.loadedAt = ticker.getAsLong();
+		entry.future.complete(value);
+		entries.put(key, entry);
+	}
+
+	/**
+	 * Reloads the value of the key in the background. Lookups continue to see the current value until the reload
+	 * completes. If the key is not present, it is loaded as with {@link #getAsync(Object)}.
+	 *
+	 * @param key
+	 * 		Key to reload.
+	 *
+	 * @return Future of the reloaded value.
+	 */
+	@Nonnull
+	public CompletableFuture<V> refresh(@Nonnull K key) {
+		Slot<V> entry = entries.get(key);
+		if (entry == null || !entry.isLoaded()) return getAsync(key);
+		return reload(key, entry);
+	}
+
+	/**
+	 * Removes the key. Loads already in progress for the key still complete for those waiting on them,
+	 * but are not kept.
+	 *
+	 * @param key
+	 * 		Key to remove.
+	 */
+	public void invalidate(@Nonnull Object key) {
+		entries.remove(key);
+	}
+
+	/**
+	 * Removes all keys.
+	 */
+	public void invalidateAll() {
+		entries.clear();
+	}
+
+	/**
+	 * @return Number of keys, including those still loading.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return Read-only live view of the loaded values. Keys still loading are not included,
+	 * and lookups through the view never start a load.
+	 */
+	@Nonnull
+	public Map<K, V> asMap() {
+		if (mapView == null) mapView = new LoadedView();
+		return mapView;
+	}
+
+	/**
+	 * Starts loading a key, through the batch when there is a bulk loader.
+	 *
+	 * @param key
+	 * 		Key to load.
+	 * @param future
+	 * 		Future to complete with the loaded value.
+	 */
+	private void load(@Nonnull K key, @Nonnull CompletableFuture<V> future) {
+		if (bulkLoader != null) {
+			enqueue(key, future);
+			return;
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					future.complete(loader.uncheckedApply(key));
+				} catch (Throwable t) {
+					future.completeExceptionally(t);
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			future.completeExceptionally(ex);
+		}
+	}
+
+	/**
+	 * Records when the entry finishes loading, and drops it if the load failed or produced no value.
+	 */
+	private void track(@Nonnull K key, @Nonnull Slot<V> entry) {
+		entry.future.whenComplete((value, error) -> {
+			if (error != null || value == null) entries.remove(key, entry);
+			else entry.loadedAt = ticker.getAsLong();
+		});
+	}
+
+	private void refreshIfStale(@Nonnull K key, @Nonnull Slot<V> entry) {
+		if (refreshNanos > 0 && entry.isLoaded() && ticker.getAsLong() - entry.loadedAt >= refreshNanos)
+			reload(key, entry);
+	}
+
+	/**
+	 * @param key
+	 * 		Key to reload.
+	 * @param entry
+	 * 		Current loaded entry of the key.
+	 *
+	 * @return Future of the reloaded value. Only one reload of an entry runs at a time, further calls share it.
+	 */
+	@Nonnull
+	private CompletableFuture<V> reload(@Nonnull K key, @Nonnull Slot<V> entry) {
+		CompletableFuture<V> reload = new CompletableFuture<>();
+		if (!Slot.RELOAD.compareAndSet(entry, null, reload)) {
+			CompletableFuture<V> existing = entry.reload;
+			if (existing != null) return existing;
+			// The prior reload just finished, so there is a fresh entry now
+			return getAsync(key);
+		}
+		reload.whenComplete((value, error) -> {
+			if (error == null && value != null) {
+				Slot<V> refreshed = new Slot<>();
+				refreshed.loadedAt = ticker.getAsLong();
+				refreshed.future.complete(value);
+				entries.replace(key, entry, refreshed);
+			} else if (error == null) {
+				entries.remove(key, entry);
+			}
+			// Failed reloads keep the current value, and allow the next lookup to retry
+			entry.reload = null;
+		});
+		load(key, reload);
+		return reload;
+	}
+
+	/**
+	 * Adds a key to the pending batch, starting a new batch which is loaded once the window passes if there is none.
+	 */
+	private void enqueue(@Nonnull K key, @Nonnull CompletableFuture<V> future) {
+		Map<K, CompletableFuture<V>> ready = null;
+		synchronized (batchLock) {
+			if (pendingBatch == null) {
+				Map<K, CompletableFuture<V>> batch = new LinkedHashMap<>();
+				pendingBatch = batch;
+				Scheduler.INSTANCE.schedule(() -> flush(batch), batchWindowNanos, TimeUnit.NANOSECONDS);
+			}
+			CompletableFuture<V> prior = pendingBatch.putIfAbsent(key, future);
+			if (prior != null) {
+				// The same key was requested twice in one batch, such as by a miss and a refresh
+				prior.whenComplete((value, error) -> {
+					if (error != null) future.completeExceptionally(error);
+					else future.complete(value);
+				});
+			}
+			if (pendingBatch.size() >= maxBatchSize) {
+				ready = pendingBatch;
+				pendingBatch = null;
+			}
+		}
+		if (ready != null) runBatch(ready);
+	}
+
+	private void flush(@Nonnull Map<K, CompletableFuture<V>> batch) {
+		synchronized (batchLock) {
+			// Already dispatched early for reaching the maximum batch size
+			if (pendingBatch != batch) return;
+			pendingBatch = null;
+		}
+		runBatch(batch);
+	}
+
+	private void runBatch(@Nonnull Map<K, CompletableFuture<V>> batch) {
+		try {
+			executor.execute(() -> {
+				try {
+					Map<K, V> loaded = bulkLoader.uncheckedApply(Collections.unmodifiableSet(batch.keySet()));
+					batch.forEach((key, future) -> future.complete(loaded == null ? null : loaded.get(key)));
+				} catch (Throwable t) {
+					batch.values().forEach(future -> future.completeExceptionally(t));
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			batch.values().forEach(future -> future.completeExceptionally(ex));
+		}
+	}
+
+	/**
+	 * @param future
+	 * 		Future to wait on.
+	 * @param <T>
+	 * 		Result type.
+	 *
+	 * @return Future result. The cause of a failed future is rethrown as-is.
+	 */
+	private static <T> T join(@Nonnull CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException ex) {
+			Unchecked.propagate(ex.getCause() == null ? ex : ex.getCause());
+			return null;
+		}
+	}
+
+	/**
+	 * Value of a key, or its load in progress.
+	 */
+	private static final class Slot<V> {
+		@SuppressWarnings("rawtypes")
+		private static final AtomicReferenceFieldUpdater<Slot, CompletableFuture> RELOAD =
+				AtomicReferenceFieldUpdater.newUpdater(Slot.class, CompletableFuture.class, "reload");
+		private final CompletableFuture<V> future = new CompletableFuture<>();
+		private volatile long loadedAt;
+		private volatile CompletableFuture<V> reload;
+
+		private boolean isLoaded() {
+			return future.isDone() && !future.isCompletedExceptionally();
+		}
+	}
+
+	/**
+	 * Read-only map view of the loaded values.
+	 */
+	private final class LoadedView extends AbstractMap<K, V> {
+		private Set<Map.Entry<K, V>> entrySet;
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key != null && getIfPresent(key) != null;
+		}
+
+		@Override
+		public V get(Object key) {
+			return key == null ? null : getIfPresent(key);
+		}
+
+		@Nonnull
+		@Override
+		public Set<Map.Entry<K, V>> entrySet() {
+			if (entrySet == null) {
+				entrySet = new AbstractSet<Map.Entry<K, V>>() {
+					@Override
+					public int size() {
+						int size = 0;
+						for (Slot<V> entry : entries.values())
+							if (entry.isLoaded() && entry.future.join() != null) size++;
+						return size;
+					}
+
+					@Nonnull
+					@Override
+					public Iterator<Map.Entry<K, V>> iterator() {
+						Iterator<Map.Entry<K, Slot<V>>> it = entries.entrySet().iterator();
+						return new Iterator<Map.Entry<K, V>>() {
+							private Map.Entry<K, V> next = advance();
+
+							private Map.Entry<K, V> advance() {
+								while (it.hasNext()) {
+									Map.Entry<K, Slot<V>> entry = it.next();
+									Slot<V> value = entry.getValue();
+									if (value.isLoaded() && value.future.join() != null)
+										return new SimpleImmutableEntry<>(entry.getKey(), value.future.join());
+								}
+								return null;
+							}
+
+							@Override
+							public boolean hasNext() {
+								return next != null;
+							}
+
+							@Override
+							public Map.Entry<K, V> next() {
+								if (next == null) throw new NoSuchElementException();
+								Map.Entry<K, V> result = next;
+								next = advance();
+								return result;
+							}
+						};
+					}
+				};
+			}
+			return entrySet;
+		}
+	}
+
+	/**
+	 * Shared daemon thread which dispatches batches once their window passes. Loading itself runs on the executor.
+	 */
+	private static final class Scheduler {
+		private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "LoadingMap-batch-scheduler");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Builder for {@link LoadingMap}. Either a loader or a bulk loader must be given.
+	 *
+	 * @param <K>
+	 * 		Map key type.
+	 * @param <V>
+	 * 		Map value type.
+	 */
+	public static final class Builder<K, V> {
+		private UncheckedFunction<K, V> loader;
+		private UncheckedFunction<Set<K>, Map<K, V>> bulkLoader;
+		private Executor executor = ForkJoinPool.commonPool();
+		private long batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(5);
+		private int maxBatchSize = 256;
+		private long refreshNanos;
+		private LongSupplier ticker = System::nanoTime;
+
+		private Builder() {
+		}
+
+		/**
+		 * @param loader
+		 * 		Function to load the value of a single key. May return {@code null} when the key has no value.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder<K, V> loader(@Nonnull UncheckedFunction<K, V> loader) {
+			this.loader = Objects.requireNonNull(loader);
+			bulkLoader = null;
+			return this;
+		}
+
+		/**
+		 * @param bulkLoader
+		 * 		Function to load the values of multiple keys at once. Keys missing from the result have no value.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder<K, V> bulkLoader(@Nonnull UncheckedFunction<Set<K>, Map<K, V>> bulkLoader) {
+			this.bulkLoader = Objects.requireNonNull(bulkLoader);
+			loader = null;
+			return this;
+		}
+
+		/**
+		 * @param window
+		 * 		Time to collect misses for, before loading them with the bulk loader. Defaults to 5 milliseconds.
+		 * @param unit
+		 * 		Unit of the window.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder<K, V> batchWindow(long window, @Nonnull TimeUnit unit) {
+			if (window < 0) throw new IllegalArgumentException("Window must not be negative");
+			batchWindowNanos = unit.toNanos(window);
+			return this;
+		}
+
+		/**
+		 * @param maxBatchSize
+		 * 		Number of misses which loads a batch right away, before its window passes. Defaults to 256.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder<K, V> maxBatchSize(int maxBatchSize) {
+			if (maxBatchSize < 1) throw new IllegalArgumentException("Max batch size must be positive");
+			this.maxBatchSize = maxBatchSize;
+			return this;
+		}
+
+		/**
+		 * @param executor
+		 * 		Executor to run loads on. Defaults to {@link ForkJoinPool#commonPool()}.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder<K, V> executor(@Nonnull Executor executor) {
+			this.executor = Objects.requireNonNull(executor);
+			return this;
+		}
+
+		/**
+		 * @param duration
+		 * 		Age of values after which lookups reload them in the background. Zero disables refreshing.
+		 * @param unit
+		 * 		Unit of the duration.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder<K, V> refreshAfterWrite(long duration, @Nonnull TimeUnit unit) {
+			if (duration < 0) throw new IllegalArgumentException("Duration must not be negative");
+			refreshNanos = unit.toNanos(duration);
+			return this;
+		}
+
+		/**
+		 * @param ticker
+		 * 		Source of the current time in nanoseconds. Defaults to {@link System#nanoTime()}.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder<K, V> ticker(@Nonnull LongSupplier ticker) {
+			this.ticker = Objects.requireNonNull(ticker);
+			return this;
+		}
+
+		/**
+		 * @return New loading map.
+		 */
+		@Nonnull
+		public LoadingMap<K, V> build() {
+			if (loader == null && bulkLoader == null)
+				throw new IllegalStateException("A loader or bulk loader is required");
+			return new LoadingMap<>(this);
+		}
+	}
+}
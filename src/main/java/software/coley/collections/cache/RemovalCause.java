@@ -0,0 +1,28 @@
+package software.coley.collections.cache;
+
+/**
+ * Reason an entry was removed from a {@link CacheMap}.
+ *
+ * @author Matt Coley
+ */
+public enum RemovalCause {
+	/**
+	 * Removed by a call such as {@link CacheMap#remove(Object)} or {@link CacheMap#clear()}.
+	 */
+	EXPLICIT,
+	/**
+	 * Value replaced by a new value for the same key.
+	 */
+	REPLACED,
+	/**
+	 * Evicted to keep the cache within its maximum size or weight.
+	 */
+	SIZE;
+
+	/**
+	 * @return {@code true} when the cache removed the entry by its own policy, rather than by a user request.
+	 */
+	public boolean wasEvicted() {
+		return this == SIZE;
+	}
+}
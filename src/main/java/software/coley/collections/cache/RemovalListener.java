@@ -0,0 +1,27 @@
+package software.coley.collections.cache;
+
+import software.coley.collections.observable.MapChange;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Listener for receiving notifications of entries removed from a {@link CacheMap}.
+ *
+ * @param <K>
+ * 		Map key type.
+ * @param <V>
+ * 		Map value type.
+ *
+ * @author Matt Coley
+ */
+public interface RemovalListener<K, V> {
+	/**
+	 * @param source
+	 * 		Cache the entries were removed from.
+	 * @param change
+	 * 		Description of changes, holding the removed entries.
+	 * @param cause
+	 * 		Reason the entries were removed.
+	 */
+	void onRemoval(@Nonnull CacheMap<K, V> source, @Nonnull MapChange<K, V> change, @Nonnull RemovalCause cause);
+}
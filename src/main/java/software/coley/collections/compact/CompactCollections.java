@@ -0,0 +1,279 @@
+package software.coley.collections.compact;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Factories for immutable collections with field-specialized implementations for small sizes.
+ * <br>
+ * Tiny lists, sets and maps hold their items directly in fields rather than in a backing table of nodes,
+ * and larger sets and maps store items in a single open-addressed array. Approximate per-instance footprints
+ * on a 64-bit JVM with compressed references <i>(12 byte headers, 8 byte alignment)</i>:
+ * <ul>
+ *     <li>Empty list: Shared instance, no allocation.</li>
+ *     <li>List of 1 or 2 items: 24 bytes.</li>
+ *     <li>List of {@code n} items: 24 bytes + {@code 16 + 4n} byte array.</li>
+ *     <li>Set of 1 item: 16 bytes. Set of 2 items: 24 bytes.</li>
+ *     <li>Set of {@code n} items: 24 bytes + {@code 16 + 4c} byte array, where {@code c} is the smallest power of
+ *     two of at least {@code 2n}.</li>
+ *     <li>Map of 1 entry: 32 bytes.</li>
+ *     <li>Map of {@code n} entries: 32 bytes + {@code 16 + 8c} byte array, with {@code c} as above.</li>
+ * </ul>
+ * For comparison, a {@link HashSet} with one item is roughly 150 bytes once its backing {@link HashMap},
+ * table and node are counted.
+ * <br>
+ * All collections returned are immutable. Mutating methods throw {@link UnsupportedOperationException}.
+ * Unlike {@link List#of()} and similar JDK factories, {@code null} items, keys and values are permitted,
+ * and duplicate set items or map keys are collapsed rather than rejected <i>(the last value for a key wins)</i>.
+ *
+ * @author Matt Coley
+ */
+public final class CompactCollections {
+	/**
+	 * Placeholder for {@code null} items and keys in open-addressed tables, where {@code null} marks an empty slot.
+	 */
+	static final Object NULL_KEY = new Object();
+	/**
+	 * Largest item count supported by open-addressed tables, which are kept at most half full.
+	 */
+	private static final int MAX_TABLE_ITEMS = 1 << 29;
+
+	private CompactCollections() {
+	}
+
+	/**
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Empty immutable list.
+	 */
+	@Nonnull
+	public static <T> List<T> listOf() {
+		return List0.instance();
+	}
+
+	/**
+	 * @param items
+	 * 		List items.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Immutable list of the items. The array is copied.
+	 */
+	@Nonnull
+	@SafeVarargs
+	public static <T> List<T> listOf(@Nonnull T... items) {
+		switch (items.length) {
+			case 0:
+				return List0.instance();
+			case 1:
+				return new List1<>(items[0]);
+			case 2:
+				return new List2<>(items[0], items[1]);
+			default:
+				return new ListN<>(items.clone());
+		}
+	}
+
+	/**
+	 * @param items
+	 * 		List items.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Immutable list of the items. Returns the input as-is if it is already a compact list.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public static <T> List<T> listCopyOf(@Nonnull Collection<? extends T> items) {
+		if (items instanceof CompactList) return (List<T>) items;
+		Object[] array = items.toArray();
+		switch (array.length) {
+			case 0:
+				return List0.instance();
+			case 1:
+				return new List1<>((T) array[0]);
+			case 2:
+				return new List2<>((T) array[0], (T) array[1]);
+			default:
+				return new ListN<>(array);
+		}
+	}
+
+	/**
+	 * @param items
+	 * 		Set items.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Immutable set of the items.
+	 */
+	@Nonnull
+	@SafeVarargs
+	public static <T> Set<T> setOf(@Nonnull T... items) {
+		return setFromArray(items);
+	}
+
+	/**
+	 * @param items
+	 * 		Set items.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Immutable set of the items. Returns the input as-is if it is already a compact set.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public static <T> Set<T> setCopyOf(@Nonnull Collection<? extends T> items) {
+		if (items instanceof CompactSet) return (Set<T>) items;
+		return setFromArray(items.toArray());
+	}
+
+	/**
+	 * @param key
+	 * 		Map entry key.
+	 * @param value
+	 * 		Map entry value.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Immutable map of one entry.
+	 */
+	@Nonnull
+	public static <K, V> Map<K, V> mapOf(@Nullable K key, @Nullable V value) {
+		return new Map1<>(key, value);
+	}
+
+	/**
+	 * @param key1
+	 * 		First entry key.
+	 * @param value1
+	 * 		First entry value.
+	 * @param key2
+	 * 		Second entry key.
+	 * @param value2
+	 * 		Second entry value.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Immutable map of the entries.
+	 */
+	@Nonnull
+	public static <K, V> Map<K, V> mapOf(@Nullable K key1, @Nullable V value1,
+	                                     @Nullable K key2, @Nullable V value2) {
+		if (Objects.equals(key1, key2)) return new Map1<>(key1, value2);
+		return new MapN<>(new Object[]{key1, value1, key2, value2}, 2);
+	}
+
+	/**
+	 * @param map
+	 * 		Map to copy.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Immutable map of the entries. Returns the input as-is if it is already a compact map.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public static <K, V> Map<K, V> mapCopyOf(@Nonnull Map<? extends K, ? extends V> map) {
+		if (map instanceof CompactMap) return (Map<K, V>) map;
+		int size = map.size();
+		if (size == 0) return Collections.emptyMap();
+		if (size == 1) {
+			Map.Entry<? extends K, ? extends V> entry = map.entrySet().iterator().next();
+			return new Map1<>(entry.getKey(), entry.getValue());
+		}
+		Object[] pairs = new Object[size * 2];
+		int i = 0;
+		for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+			pairs[i++] = entry.getKey();
+			pairs[i++] = entry.getValue();
+		}
+		return new MapN<>(pairs, size);
+	}
+
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	private static <T> Set<T> setFromArray(@Nonnull Object[] items) {
+		switch (items.length) {
+			case 0:
+				return Collections.emptySet();
+			case 1:
+				return new Set1<>((T) items[0]);
+			case 2:
+				if (Objects.equals(items[0], items[1])) return new Set1<>((T) items[0]);
+				return new Set2<>((T) items[0], (T) items[1]);
+			default:
+				SetN<T> set = new SetN<>(items);
+
+				// Duplicates may have collapsed the set down to a size with a more compact representation
+				int size = set.size();
+				if (size == 1) return new Set1<>(set.iterator().next());
+				if (size == 2) {
+					Iterator<T> it = set.iterator();
+					return new Set2<>(it.next(), it.next());
+				}
+				return set;
+		}
+	}
+
+	/**
+	 * @param itemCount
+	 * 		Number of items to store.
+	 *
+	 * @return Open-addressed table length, keeping the table at most half full.
+	 */
+	static int tableLength(int itemCount) {
+		if (itemCount > MAX_TABLE_ITEMS)
+			throw new IllegalArgumentException("Too many items for a compact table: " + itemCount);
+		return Integer.highestOneBit(Math.max(itemCount, 1) * 2 - 1) << 1;
+	}
+
+	/**
+	 * @param key
+	 * 		Masked key, never {@code null}.
+	 * @param mask
+	 * 		Table slot mask.
+	 *
+	 * @return Initial slot to probe for the key.
+	 */
+	static int slot(@Nonnull Object key, int mask) {
+		int h = key.hashCode() * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	@Nonnull
+	static Object maskNull(@Nullable Object key) {
+		return key == null ? NULL_KEY : key;
+	}
+
+	@Nullable
+	static Object unmaskNull(@Nonnull Object key) {
+		return key == NULL_KEY ? null : key;
+	}
+
+	/**
+	 * Marker for compact list implementations.
+	 */
+	interface CompactList {
+	}
+
+	/**
+	 * Marker for compact set implementations.
+	 */
+	interface CompactSet {
+	}
+
+	/**
+	 * Marker for compact map implementations.
+	 */
+	interface CompactMap {
+	}
+}
@@ -0,0 +1,54 @@
+package software.coley.collections.compact;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.RandomAccess;
+
+/**
+ * Immutable empty list. A single shared instance is used.
+ *
+ * @param <T>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+final class List0<T> extends AbstractList<T> implements RandomAccess, CompactCollections.CompactList {
+	private static final List0<?> INSTANCE = new List0<>();
+
+	private List0() {
+	}
+
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	static <T> List0<T> instance() {
+		return (List0<T>) INSTANCE;
+	}
+
+	@Override
+	public T get(int index) {
+		throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+	}
+
+	@Override
+	public int size() {
+		return 0;
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<T> iterator() {
+		return Collections.emptyIterator();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return 1;
+	}
+}
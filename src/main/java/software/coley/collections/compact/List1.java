@@ -0,0 +1,42 @@
+package software.coley.collections.compact;
+
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of one item, held in a field.
+ *
+ * @param <T>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+final class List1<T> extends AbstractList<T> implements RandomAccess, CompactCollections.CompactList {
+	private final T e0;
+
+	List1(T e0) {
+		this.e0 = e0;
+	}
+
+	@Override
+	public T get(int index) {
+		if (index != 0) throw new IndexOutOfBoundsException("Index: " + index + ", Size: 1");
+		return e0;
+	}
+
+	@Override
+	public int size() {
+		return 1;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return Objects.equals(o, e0);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 + Objects.hashCode(e0);
+	}
+}
@@ -0,0 +1,45 @@
+package software.coley.collections.compact;
+
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of two items, held in fields.
+ *
+ * @param <T>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+final class List2<T> extends AbstractList<T> implements RandomAccess, CompactCollections.CompactList {
+	private final T e0;
+	private final T e1;
+
+	List2(T e0, T e1) {
+		this.e0 = e0;
+		this.e1 = e1;
+	}
+
+	@Override
+	public T get(int index) {
+		if (index == 0) return e0;
+		if (index == 1) return e1;
+		throw new IndexOutOfBoundsException("Index: " + index + ", Size: 2");
+	}
+
+	@Override
+	public int size() {
+		return 2;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return Objects.equals(o, e0) || Objects.equals(o, e1);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 + Objects.hashCode(e0)) + Objects.hashCode(e1);
+	}
+}
@@ -0,0 +1,50 @@
+package software.coley.collections.compact;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list backed by an exactly sized array.
+ *
+ * @param <T>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+final class ListN<T> extends AbstractList<T> implements RandomAccess, CompactCollections.CompactList {
+	private final Object[] items;
+
+	/**
+	 * @param items
+	 * 		Backing array, not copied. Must not be modified by the caller afterwards.
+	 */
+	ListN(@Nonnull Object[] items) {
+		this.items = items;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		if (index < 0 || index >= items.length)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + items.length);
+		return (T) items[index];
+	}
+
+	@Override
+	public int size() {
+		return items.length;
+	}
+
+	@Nonnull
+	@Override
+	public Object[] toArray() {
+		return items.clone();
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(items);
+	}
+}
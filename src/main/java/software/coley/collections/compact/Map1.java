@@ -0,0 +1,61 @@
+package software.coley.collections.compact;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map of one entry, held in fields.
+ *
+ * @param <K>
+ * 		Key type.
+ * @param <V>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+final class Map1<K, V> extends AbstractMap<K, V> implements CompactCollections.CompactMap {
+	private final K key;
+	private final V value;
+
+	Map1(K key, V value) {
+		this.key = key;
+		this.value = value;
+	}
+
+	@Override
+	public V get(Object key) {
+		return Objects.equals(key, this.key) ? value : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return Objects.equals(key, this.key);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return Objects.equals(value, this.value);
+	}
+
+	@Override
+	public int size() {
+		return 1;
+	}
+
+	@Override
+	public void forEach(@Nonnull BiConsumer<? super K, ? super V> action) {
+		action.accept(key, value);
+	}
+
+	@Nonnull
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return Collections.singleton(new SimpleImmutableEntry<>(key, value));
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(key) ^ Objects.hashCode(value);
+	}
+}
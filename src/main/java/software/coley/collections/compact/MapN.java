@@ -0,0 +1,135 @@
+package software.coley.collections.compact;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+import static software.coley.collections.compact.CompactCollections.*;
+
+/**
+ * Immutable map stored in a single open-addressed array of interleaved keys and values, probed linearly.
+ * The array is kept at most half full so probe sequences stay short.
+ *
+ * @param <K>
+ * 		Key type.
+ * @param <V>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+final class MapN<K, V> extends AbstractMap<K, V> implements CompactCollections.CompactMap {
+	private final Object[] table;
+	private final int size;
+
+	/**
+	 * @param pairs
+	 * 		Alternating keys and values. Later values replace earlier values for duplicate keys.
+	 * @param pairCount
+	 * 		Number of key-value pairs.
+	 */
+	MapN(@Nonnull Object[] pairs, int pairCount) {
+		table = new Object[tableLength(pairCount) * 2];
+		int count = 0;
+		for (int i = 0; i < pairCount * 2; i += 2) {
+			Object key = maskNull(pairs[i]);
+			int index = probe(key);
+			if (index < 0) {
+				index = -index - 1;
+				table[index] = key;
+				count++;
+			}
+			table[index + 1] = pairs[i + 1];
+		}
+		size = count;
+	}
+
+	/**
+	 * @param key
+	 * 		Masked key.
+	 *
+	 * @return Key index of the key if present, otherwise {@code -(insertion key index) - 1}.
+	 */
+	private int probe(@Nonnull Object key) {
+		int mask = (table.length >>> 1) - 1;
+		int slot = slot(key, mask);
+		while (true) {
+			Object existing = table[slot << 1];
+			if (existing == null) return -(slot << 1) - 1;
+			if (key.equals(existing)) return slot << 1;
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		int index = probe(maskNull(key));
+		return index < 0 ? null : (V) table[index + 1];
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return probe(maskNull(key)) >= 0;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		for (int i = 0; i < table.length; i += 2)
+			if (table[i] != null && Objects.equals(value, table[i + 1]))
+				return true;
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(@Nonnull BiConsumer<? super K, ? super V> action) {
+		for (int i = 0; i < table.length; i += 2) {
+			Object key = table[i];
+			if (key != null) action.accept((K) unmaskNull(key), (V) table[i + 1]);
+		}
+	}
+
+	@Nonnull
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new AbstractSet<Entry<K, V>>() {
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Nonnull
+			@Override
+			public Iterator<Entry<K, V>> iterator() {
+				return new Iterator<Entry<K, V>>() {
+					private int index = advance(0);
+
+					private int advance(int from) {
+						while (from < table.length && table[from] == null) from += 2;
+						return from;
+					}
+
+					@Override
+					public boolean hasNext() {
+						return index < table.length;
+					}
+
+					@Override
+					@SuppressWarnings("unchecked")
+					public Entry<K, V> next() {
+						if (index >= table.length) throw new NoSuchElementException();
+						K key = (K) unmaskNull(table[index]);
+						V value = (V) table[index + 1];
+						index = advance(index + 2);
+						return new SimpleImmutableEntry<>(key, value);
+					}
+				};
+			}
+		};
+	}
+}
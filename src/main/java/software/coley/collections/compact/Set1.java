@@ -0,0 +1,41 @@
+package software.coley.collections.compact;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+/**
+ * Immutable set of one item, held in a field.
+ *
+ * @param <T>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+final class Set1<T> extends AbstractSet<T> implements CompactCollections.CompactSet {
+	private final T e0;
+
+	Set1(T e0) {
+		this.e0 = e0;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return Objects.equals(o, e0);
+	}
+
+	@Override
+	public int size() {
+		return 1;
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<T> iterator() {
+		return Collections.singleton(e0).iterator();
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(e0);
+	}
+}
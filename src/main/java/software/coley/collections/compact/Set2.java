@@ -0,0 +1,71 @@
+package software.coley.collections.compact;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Immutable set of two distinct items, held in fields.
+ *
+ * @param <T>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+final class Set2<T> extends AbstractSet<T> implements CompactCollections.CompactSet {
+	private final T e0;
+	private final T e1;
+
+	/**
+	 * @param e0
+	 * 		First item.
+	 * @param e1
+	 * 		Second item, must not be equal to the first.
+	 */
+	Set2(T e0, T e1) {
+		this.e0 = e0;
+		this.e1 = e1;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return Objects.equals(o, e0) || Objects.equals(o, e1);
+	}
+
+	@Override
+	public int size() {
+		return 2;
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return index < 2;
+			}
+
+			@Override
+			public T next() {
+				switch (index++) {
+					case 0:
+						return e0;
+					case 1:
+						return e1;
+					default:
+						throw new NoSuchElementException();
+				}
+			}
+		};
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(e0) + Objects.hashCode(e1);
+	}
+}
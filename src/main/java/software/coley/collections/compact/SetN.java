@@ -0,0 +1,103 @@
+package software.coley.collections.compact;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static software.coley.collections.compact.CompactCollections.*;
+
+/**
+ * Immutable set stored in a single open-addressed array, probed linearly.
+ * The array is kept at most half full so probe sequences stay short.
+ *
+ * @param <T>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+final class SetN<T> extends AbstractSet<T> implements CompactCollections.CompactSet {
+	private final Object[] table;
+	private final int size;
+
+	/**
+	 * @param items
+	 * 		Items to store. Duplicates are collapsed.
+	 */
+	SetN(@Nonnull Object[] items) {
+		table = new Object[tableLength(items.length)];
+		int count = 0;
+		for (Object item : items) {
+			Object key = maskNull(item);
+			int index = probe(key);
+			if (index < 0) {
+				table[-index - 1] = key;
+				count++;
+			}
+		}
+		size = count;
+	}
+
+	/**
+	 * @param key
+	 * 		Masked key.
+	 *
+	 * @return Slot index of the key if present, otherwise {@code -(insertion slot) - 1}.
+	 */
+	private int probe(@Nonnull Object key) {
+		int mask = table.length - 1;
+		int index = slot(key, mask);
+		while (true) {
+			Object existing = table[index];
+			if (existing == null) return -index - 1;
+			if (key.equals(existing)) return index;
+			index = (index + 1) & mask;
+		}
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return probe(maskNull(o)) >= 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int index = advance(0);
+
+			private int advance(int from) {
+				while (from < table.length && table[from] == null) from++;
+				return from;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return index < table.length;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public T next() {
+				if (index >= table.length) throw new NoSuchElementException();
+				Object key = table[index];
+				index = advance(index + 1);
+				return (T) unmaskNull(key);
+			}
+		};
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (Object key : table)
+			if (key != null && key != NULL_KEY)
+				hash += key.hashCode();
+		return hash;
+	}
+}
@@ -0,0 +1,234 @@
+package software.coley.collections.filter;
+
+import javax.annotation.Nonnull;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Probabilistic set membership filter, which may report false positives but never false negatives.
+ * <br>
+ * Values are hashed once to 64 bits, and a second hash derived from it is combined with the first to pick each of
+ * the {@link #hashCount()} bits to set, so adding or checking a value costs one hash and a few bit operations.
+ * Bits are held in a {@code long[]}. Values cannot be removed, see {@link CuckooFilter} for a filter supporting
+ * removal. Lookups may run concurrently with each other, but not with modifications.
+ *
+ * @param <T>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+public class BloomFilter<T> {
+	private static final int MAGIC = 0x426C6F6D;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 10;
+	private static final double LN2 = Math.log(2);
+	private final Funnel<? super T> funnel;
+	private final long[] words;
+	private final long bitSize;
+	private final int hashCount;
+	private long bitCount;
+
+	private BloomFilter(@Nonnull Funnel<? super T> funnel, @Nonnull long[] words, int hashCount) {
+		this.funnel = funnel;
+		this.words = words;
+		this.hashCount = hashCount;
+		bitSize = (long) words.length * Long.SIZE;
+		for (long word : words) bitCount += Long.bitCount(word);
+	}
+
+	/**
+	 * @param funnel
+	 * 		Funnel to read values with.
+	 * @param expectedInsertions
+	 * 		Number of values expected to be added.
+	 * @param fpp
+	 * 		Desired false positive probability once the expected number of values are added,
+	 * 		between {@code 0} and {@code 1} exclusive.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return New filter sized for the expected number of values.
+	 */
+	@Nonnull
+	public static <T> BloomFilter<T> create(@Nonnull Funnel<? super T> funnel, long expectedInsertions, double fpp) {
+		Objects.requireNonNull(funnel, "Funnel must not be null");
+		if (expectedInsertions < 0) throw new IllegalArgumentException("Expected insertions must not be negative");
+		if (!(fpp > 0 && fpp < 1)) throw new IllegalArgumentException("False positive probability must be in (0, 1)");
+		long n = Math.max(expectedInsertions, 1);
+		long bits = (long) Math.ceil(-n * Math.log(fpp) / (LN2 * LN2));
+		long wordCount = Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+		if (wordCount > (Integer.MAX_VALUE - HEADER_SIZE) / Long.BYTES)
+			throw new IllegalArgumentException("Filter would be too large: " + bits + " bits");
+		int hashCount = (int) Math.max(1, Math.min(255, Math.round(wordCount * Long.SIZE / (double) n * LN2)));
+		return new BloomFilter<>(funnel, new long[(int) wordCount], hashCount);
+	}
+
+	/**
+	 * @param funnel
+	 * 		Funnel to read values with, which must be the funnel the filter was created with.
+	 * @param buffer
+	 * 		Buffer to read from, starting at its current position, which is advanced past the read filter.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return Filter read from the buffer.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the buffer does not hold a serialized filter.
+	 */
+	@Nonnull
+	public static <T> BloomFilter<T> deserialize(@Nonnull Funnel<? super T> funnel, @Nonnull ByteBuffer buffer) {
+		ByteBuffer in = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+		if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC)
+			throw new IllegalArgumentException("Buffer does not hold a serialized bloom filter");
+		int version = in.get();
+		if (version != VERSION) throw new IllegalArgumentException("Unsupported bloom filter version: " + version);
+		int hashCount = in.get() & 0xFF;
+		int wordCount = in.getInt();
+		if (hashCount == 0 || wordCount <= 0 || in.remaining() / Long.BYTES < wordCount)
+			throw new IllegalArgumentException("Buffer does not hold a valid bloom filter");
+		long[] words = new long[wordCount];
+		in.asLongBuffer().get(words);
+		buffer.position(buffer.position() + HEADER_SIZE + wordCount * Long.BYTES);
+		return new BloomFilter<>(Objects.requireNonNull(funnel, "Funnel must not be null"), words, hashCount);
+	}
+
+	/**
+	 * @param value
+	 * 		Value to add.
+	 *
+	 * @return {@code true} when any bits changed, meaning the value was definitely not present before.
+	 */
+	public boolean put(@Nonnull T value) {
+		long hash1 = FilterHasher.hash(funnel, value);
+		long hash2 = FilterHasher.mix(hash1);
+		boolean changed = false;
+		long combined = hash1;
+		for (int i = 0; i < hashCount; i++) {
+			long index = (combined & Long.MAX_VALUE) % bitSize;
+			int word = (int) (index >>> 6);
+			long bit = 1L << index;
+			if ((words[word] & bit) == 0) {
+				words[word] |= bit;
+				bitCount++;
+				changed = true;
+			}
+			combined += hash2;
+		}
+		return changed;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to check.
+	 *
+	 * @return {@code false} when the value is definitely not present,
+	 * {@code true} when it may be present, with the probability of a false positive given by {@link #expectedFpp()}.
+	 */
+	public boolean mightContain(@Nonnull T value) {
+		long hash1 = FilterHasher.hash(funnel, value);
+		long hash2 = FilterHasher.mix(hash1);
+		long combined = hash1;
+		for (int i = 0; i < hashCount; i++) {
+			long index = (combined & Long.MAX_VALUE) % bitSize;
+			if ((words[(int) (index >>> 6)] & (1L << index)) == 0) return false;
+			combined += hash2;
+		}
+		return true;
+	}
+
+	/**
+	 * @return Probability that {@link #mightContain(Object)} reports a value which was never added,
+	 * based on the current number of set bits.
+	 */
+	public double expectedFpp() {
+		return Math.pow((double) bitCount / bitSize, hashCount);
+	}
+
+	/**
+	 * @return Estimate of the number of distinct values added, based on the current number of set bits.
+	 */
+	public long approximateElementCount() {
+		double fractionSet = (double) bitCount / bitSize;
+		return Math.round(-Math.log1p(-fractionSet) * bitSize / hashCount);
+	}
+
+	/**
+	 * @return Number of bits in the filter.
+	 */
+	public long bitSize() {
+		return bitSize;
+	}
+
+	/**
+	 * @return Number of bits set per value.
+	 */
+	public int hashCount() {
+		return hashCount;
+	}
+
+	/**
+	 * @param other
+	 * 		Another filter.
+	 *
+	 * @return {@code true} when the filters have the same funnel, size and hash count, so they can be merged.
+	 */
+	public boolean isCompatible(@Nonnull BloomFilter<?> other) {
+		return funnel.equals(other.funnel) && bitSize == other.bitSize && hashCount == other.hashCount;
+	}
+
+	/**
+	 * Adds all values of another filter to this filter.
+	 *
+	 * @param other
+	 * 		Filter to merge into this filter.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the filters are not {@link #isCompatible(BloomFilter) compatible}.
+	 */
+	public void merge(@Nonnull BloomFilter<T> other) {
+		if (!isCompatible(other)) throw new IllegalArgumentException("Filters are not compatible");
+		long bitCount = 0;
+		for (int i = 0; i < words.length; i++)
+			bitCount += Long.bitCount(words[i] |= other.words[i]);
+		this.bitCount = bitCount;
+	}
+
+	/**
+	 * @return Copy of this filter.
+	 */
+	@Nonnull
+	public BloomFilter<T> copy() {
+		return new BloomFilter<>(funnel, words.clone(), hashCount);
+	}
+
+	/**
+	 * @return Number of bytes written by {@link #serialize(ByteBuffer)}.
+	 */
+	public int serializedSize() {
+		return HEADER_SIZE + words.length * Long.BYTES;
+	}
+
+	/**
+	 * Writes the filter in a big endian form, regardless of the buffer's byte order.
+	 * The funnel is not written, and must be given again to {@link #deserialize(Funnel, ByteBuffer)}.
+	 *
+	 * @param buffer
+	 * 		Buffer to write to, starting at its current position, which is advanced past the written filter.
+	 *
+	 * @throws BufferOverflowException
+	 * 		When the buffer has less than {@link #serializedSize()} bytes remaining.
+	 */
+	public void serialize(@Nonnull ByteBuffer buffer) {
+		if (buffer.remaining() < serializedSize()) throw new BufferOverflowException();
+		ByteBuffer out = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+		out.putInt(MAGIC);
+		out.put((byte) VERSION);
+		out.put((byte) hashCount);
+		out.putInt(words.length);
+		out.asLongBuffer().put(words);
+		buffer.position(buffer.position() + serializedSize());
+	}
+}
@@ -0,0 +1,319 @@
+package software.coley.collections.filter;
+
+import javax.annotation.Nonnull;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Approximate frequency counter, which may overestimate but never underestimate how often a value was added.
+ * <br>
+ * Each value maps to one counter in each of {@link #depth()} rows of {@link #width()} counters, and its frequency is
+ * the smallest of them. Additions use conservative update, raising only the counters which would otherwise fall
+ * below the new estimate, which reduces overestimation considerably compared to incrementing every counter. With a
+ * sketch created for an error of {@code epsilon} and a {@code confidence}, estimates exceed the true frequency by
+ * at most {@code epsilon * totalCount()} with at least that confidence.
+ * <br>
+ * Sketches may age their counts, halving all counters once a given amount has been added since the last aging, so
+ * that estimates follow recent frequencies rather than the full history. This makes the sketch suitable for hot key
+ * detection over an unbounded stream. Pair with {@link TopK} to find which values are the most frequent. Not thread
+ * safe.
+ *
+ * @param <T>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+public class CountMinSketch<T> {
+	private static final int MAGIC = 0x434D536B;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 34;
+	private static final int MAX_DEPTH = 32;
+	private static final int MAX_CELLS = 1 << 28;
+	private final Funnel<? super T> funnel;
+	private final int[] counters;
+	private final int width;
+	private final int depth;
+	private final long agingPeriod;
+	private long sinceAging;
+	private long totalCount;
+
+	private CountMinSketch(@Nonnull Funnel<? super T> funnel, int width, int depth, long agingPeriod) {
+		this.funnel = funnel;
+		this.width = width;
+		this.depth = depth;
+		this.agingPeriod = agingPeriod;
+		counters = new int[width * depth];
+	}
+
+	/**
+	 * @param funnel
+	 * 		Funnel to read values with.
+	 * @param epsilon
+	 * 		Error of estimates relative to the {@link #totalCount() total count}, between {@code 0} and {@code 1}
+	 * 		exclusive.
+	 * @param confidence
+	 * 		Probability that an estimate is within the error, between {@code 0} and {@code 1} exclusive.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return New sketch which does not age its counts.
+	 */
+	@Nonnull
+	public static <T> CountMinSketch<T> create(@Nonnull Funnel<? super T> funnel, double epsilon, double confidence) {
+		return create(funnel, epsilon, confidence, 0);
+	}
+
+	/**
+	 * @param funnel
+	 * 		Funnel to read values with.
+	 * @param epsilon
+	 * 		Error of estimates relative to the {@link #totalCount() total count}, between {@code 0} and {@code 1}
+	 * 		exclusive.
+	 * @param confidence
+	 * 		Probability that an estimate is within the error, between {@code 0} and {@code 1} exclusive.
+	 * @param agingPeriod
+	 * 		Total count to add between each {@link #age() aging} of the counts, or {@code 0} to never age them
+	 * 		automatically. A period of around ten times the {@link #width()} suits hot key detection.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return New sketch.
+	 */
+	@Nonnull
+	public static <T> CountMinSketch<T> create(@Nonnull Funnel<? super T> funnel, double epsilon, double confidence,
+	                                           long agingPeriod) {
+		Objects.requireNonNull(funnel, "Funnel must not be null");
+		if (!(epsilon > 0 && epsilon < 1)) throw new IllegalArgumentException("Epsilon must be in (0, 1)");
+		if (!(confidence > 0 && confidence < 1)) throw new IllegalArgumentException("Confidence must be in (0, 1)");
+		if (agingPeriod < 0) throw new IllegalArgumentException("Aging period must not be negative");
+
+		// Widths are rounded up to a power of two, which only tightens the error
+		long minWidth = (long) Math.ceil(Math.E / epsilon);
+		int depth = (int) Math.max(1, Math.min(MAX_DEPTH, Math.ceil(-Math.log(1 - confidence))));
+		if (minWidth * depth > MAX_CELLS) throw new IllegalArgumentException("Sketch would be too large: " + epsilon);
+		int width = Integer.highestOneBit((int) minWidth);
+		if (width < minWidth) width <<= 1;
+		return new CountMinSketch<>(funnel, width, depth, agingPeriod);
+	}
+
+	/**
+	 * @param funnel
+	 * 		Funnel to read values with, which must be the funnel the sketch was created with.
+	 * @param buffer
+	 * 		Buffer to read from, starting at its current position, which is advanced past the read sketch.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return Sketch read from the buffer.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the buffer does not hold a serialized sketch.
+	 */
+	@Nonnull
+	public static <T> CountMinSketch<T> deserialize(@Nonnull Funnel<? super T> funnel, @Nonnull ByteBuffer buffer) {
+		ByteBuffer in = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+		if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC)
+			throw new IllegalArgumentException("Buffer does not hold a serialized count-min sketch");
+		int version = in.get();
+		if (version != VERSION) throw new IllegalArgumentException("Unsupported count-min sketch version: " + version);
+		int depth = in.get();
+		int width = in.getInt();
+		long agingPeriod = in.getLong();
+		long sinceAging = in.getLong();
+		long totalCount = in.getLong();
+		if (depth <= 0 || depth > MAX_DEPTH || width <= 0 || Integer.bitCount(width) != 1
+				|| (long) width * depth > MAX_CELLS || agingPeriod < 0 || sinceAging < 0 || totalCount < 0
+				|| in.remaining() / 4 / depth < width)
+			throw new IllegalArgumentException("Buffer does not hold a valid count-min sketch");
+		CountMinSketch<T> sketch = new CountMinSketch<>(Objects.requireNonNull(funnel, "Funnel must not be null"),
+				width, depth, agingPeriod);
+		in.asIntBuffer().get(sketch.counters);
+		sketch.sinceAging = sinceAging;
+		sketch.totalCount = totalCount;
+		buffer.position(buffer.position() + sketch.serializedSize());
+		return sketch;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to add once.
+	 *
+	 * @return Estimated frequency of the value after adding it.
+	 */
+	public int add(@Nonnull T value) {
+		return add(value, 1);
+	}
+
+	/**
+	 * @param value
+	 * 		Value to add.
+	 * @param count
+	 * 		Number of times to add the value.
+	 *
+	 * @return Estimated frequency of the value after adding it.
+	 */
+	public int add(@Nonnull T value, int count) {
+		if (count < 0) throw new IllegalArgumentException("Count must not be negative");
+		long hash1 = FilterHasher.hash(funnel, value);
+		long hash2 = FilterHasher.mix(hash1);
+		int estimate = estimate(hash1, hash2);
+
+		// Conservative update, only raising counters below the new estimate
+		int updated = (int) Math.min(Integer.MAX_VALUE, (long) estimate + count);
+		long combined = hash1;
+		for (int row = 0; row < depth; row++) {
+			int index = row * width + ((int) combined & (width - 1));
+			if (counters[index] < updated) counters[index] = updated;
+			combined += hash2;
+		}
+		totalCount += count;
+		if (agingPeriod > 0 && (sinceAging += count) >= agingPeriod) {
+			age();
+			return updated >>> 1;
+		}
+		return updated;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to look up.
+	 *
+	 * @return Estimated frequency of the value, which is never less than the true frequency,
+	 * with additions made before each aging counted at half their weight.
+	 */
+	public int estimate(@Nonnull T value) {
+		long hash1 = FilterHasher.hash(funnel, value);
+		return estimate(hash1, FilterHasher.mix(hash1));
+	}
+
+	/**
+	 * Halves all counts, so older additions have less weight than newer ones.
+	 * This is done automatically if the sketch was created with an aging period.
+	 */
+	public void age() {
+		for (int i = 0; i < counters.length; i++)
+			counters[i] >>>= 1;
+		totalCount >>>= 1;
+		sinceAging = 0;
+	}
+
+	/**
+	 * Resets all counts to zero.
+	 */
+	public void clear() {
+		Arrays.fill(counters, 0);
+		totalCount = 0;
+		sinceAging = 0;
+	}
+
+	/**
+	 * @return Total of all added counts, halved on each aging.
+	 */
+	public long totalCount() {
+		return totalCount;
+	}
+
+	/**
+	 * @return Amount by which estimates may exceed the true frequency, at the confidence the sketch was created with.
+	 */
+	public long errorBound() {
+		return (long) Math.ceil(Math.E / width * totalCount);
+	}
+
+	/**
+	 * @return Number of counters per row.
+	 */
+	public int width() {
+		return width;
+	}
+
+	/**
+	 * @return Number of rows, each giving an independent estimate.
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	/**
+	 * @param other
+	 * 		Another sketch.
+	 *
+	 * @return {@code true} when the sketches have the same funnel, width and depth, so they can be merged.
+	 */
+	public boolean isCompatible(@Nonnull CountMinSketch<?> other) {
+		return funnel.equals(other.funnel) && width == other.width && depth == other.depth;
+	}
+
+	/**
+	 * Adds all counts of another sketch to this sketch.
+	 * Estimates of the merged sketch remain upper bounds of the combined frequencies.
+	 *
+	 * @param other
+	 * 		Sketch to merge into this sketch.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the sketches are not {@link #isCompatible(CountMinSketch) compatible}.
+	 */
+	public void merge(@Nonnull CountMinSketch<T> other) {
+		if (!isCompatible(other)) throw new IllegalArgumentException("Sketches are not compatible");
+		for (int i = 0; i < counters.length; i++)
+			counters[i] = (int) Math.min(Integer.MAX_VALUE, (long) counters[i] + other.counters[i]);
+		totalCount += other.totalCount;
+	}
+
+	/**
+	 * @return Copy of this sketch.
+	 */
+	@Nonnull
+	public CountMinSketch<T> copy() {
+		CountMinSketch<T> copy = new CountMinSketch<>(funnel, width, depth, agingPeriod);
+		System.arraycopy(counters, 0, copy.counters, 0, counters.length);
+		copy.sinceAging = sinceAging;
+		copy.totalCount = totalCount;
+		return copy;
+	}
+
+	/**
+	 * @return Number of bytes written by {@link #serialize(ByteBuffer)}.
+	 */
+	public int serializedSize() {
+		return HEADER_SIZE + counters.length * 4;
+	}
+
+	/**
+	 * Writes the sketch in a big endian form, regardless of the buffer's byte order.
+	 * The funnel is not written, and must be given again to {@link #deserialize(Funnel, ByteBuffer)}.
+	 *
+	 * @param buffer
+	 * 		Buffer to write to, starting at its current position, which is advanced past the written sketch.
+	 *
+	 * @throws BufferOverflowException
+	 * 		When the buffer has less than {@link #serializedSize()} bytes remaining.
+	 */
+	public void serialize(@Nonnull ByteBuffer buffer) {
+		if (buffer.remaining() < serializedSize()) throw new BufferOverflowException();
+		ByteBuffer out = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+		out.putInt(MAGIC);
+		out.put((byte) VERSION);
+		out.put((byte) depth);
+		out.putInt(width);
+		out.putLong(agingPeriod);
+		out.putLong(sinceAging);
+		out.putLong(totalCount);
+		out.asIntBuffer().put(counters);
+		buffer.position(buffer.position() + serializedSize());
+	}
+
+	private int estimate(long hash1, long hash2) {
+		int estimate = Integer.MAX_VALUE;
+		long combined = hash1;
+		for (int row = 0; row < depth; row++) {
+			estimate = Math.min(estimate, counters[row * width + ((int) combined & (width - 1))]);
+			combined += hash2;
+		}
+		return estimate;
+	}
+}
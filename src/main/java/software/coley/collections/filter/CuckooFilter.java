@@ -0,0 +1,367 @@
+package software.coley.collections.filter;
+
+import javax.annotation.Nonnull;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Probabilistic set membership filter supporting removal, which may report false positives but never false negatives
+ * for values which were added and not removed.
+ * <br>
+ * Each value is stored as a short fingerprint in one of two candidate buckets of four slots, where the second bucket
+ * is derived from the first and the fingerprint alone. When both buckets are full, existing fingerprints are moved to
+ * their alternate buckets to make room. Lookups check at most two buckets, so they cost one hash and eight slot reads.
+ * <br>
+ * Fingerprints are sized from the requested false positive probability, up to 16 bits, and each takes a 16 bit slot.
+ * Filters can be filled to about 95% of their {@link #capacity()}, past which {@link #put(Object)} reports the filter
+ * is full. Only values which were added may be removed, as removing any other value may remove the fingerprint of a
+ * different value. Lookups may run concurrently with each other, but not with modifications.
+ *
+ * @param <T>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+public class CuckooFilter<T> {
+	private static final int MAGIC = 0x4375636B;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 20;
+	private static final int BUCKET_SIZE = 4;
+	private static final int MAX_KICKS = 500;
+	private static final int MAX_BUCKETS = 1 << 28;
+	private final Funnel<? super T> funnel;
+	private final char[] slots;
+	private final int bucketMask;
+	private final int fingerprintBits;
+	private int size;
+	/**
+	 * Fingerprint which could not be placed during the last insertion, or {@code 0} if there is none.
+	 * While it is set, the filter is full.
+	 */
+	private int victim;
+	private int victimIndex;
+	private long kickSeed = 0x9E3779B97F4A7C15L;
+
+	private CuckooFilter(@Nonnull Funnel<? super T> funnel, @Nonnull char[] slots, int fingerprintBits) {
+		this.funnel = funnel;
+		this.slots = slots;
+		this.fingerprintBits = fingerprintBits;
+		bucketMask = slots.length / BUCKET_SIZE - 1;
+	}
+
+	/**
+	 * @param funnel
+	 * 		Funnel to read values with.
+	 * @param capacity
+	 * 		Number of values expected to be held.
+	 * @param fpp
+	 * 		Desired false positive probability, between {@code 0} and {@code 1} exclusive.
+	 * 		Probabilities below about {@code 0.0002} are capped by the 16 bit fingerprint size.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return New filter sized for the expected number of values.
+	 */
+	@Nonnull
+	public static <T> CuckooFilter<T> create(@Nonnull Funnel<? super T> funnel, long capacity, double fpp) {
+		Objects.requireNonNull(funnel, "Funnel must not be null");
+		if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative");
+		if (!(fpp > 0 && fpp < 1)) throw new IllegalArgumentException("False positive probability must be in (0, 1)");
+
+		// A lookup compares against up to 2 buckets of fingerprints, each with a 1 in 2^bits chance of matching
+		int fingerprintBits = (int) Math.ceil(Math.log(2 * BUCKET_SIZE / fpp) / Math.log(2));
+		fingerprintBits = Math.max(4, Math.min(16, fingerprintBits));
+		// Sized for a 90% load, leaving some room before insertions start to fail
+		long buckets = Math.max(1, (long) Math.ceil(capacity / (BUCKET_SIZE * 0.9)));
+		if (buckets > MAX_BUCKETS) throw new IllegalArgumentException("Filter would be too large: " + capacity);
+		int bucketCount = Integer.highestOneBit((int) buckets);
+		if (bucketCount < buckets) bucketCount <<= 1;
+		return new CuckooFilter<>(funnel, new char[bucketCount * BUCKET_SIZE], fingerprintBits);
+	}
+
+	/**
+	 * @param funnel
+	 * 		Funnel to read values with, which must be the funnel the filter was created with.
+	 * @param buffer
+	 * 		Buffer to read from, starting at its current position, which is advanced past the read filter.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return Filter read from the buffer.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the buffer does not hold a serialized filter.
+	 */
+	@Nonnull
+	public static <T> CuckooFilter<T> deserialize(@Nonnull Funnel<? super T> funnel, @Nonnull ByteBuffer buffer) {
+		ByteBuffer in = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+		if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC)
+			throw new IllegalArgumentException("Buffer does not hold a serialized cuckoo filter");
+		int version = in.get();
+		if (version != VERSION) throw new IllegalArgumentException("Unsupported cuckoo filter version: " + version);
+		int fingerprintBits = in.get();
+		int bucketCount = in.getInt();
+		int size = in.getInt();
+		int victim = in.getChar();
+		int victimIndex = in.getInt();
+		if (fingerprintBits < 4 || fingerprintBits > 16 || bucketCount <= 0 || bucketCount > MAX_BUCKETS
+				|| Integer.bitCount(bucketCount) != 1 || in.remaining() / 2 / BUCKET_SIZE < bucketCount)
+			throw new IllegalArgumentException("Buffer does not hold a valid cuckoo filter");
+		char[] slots = new char[bucketCount * BUCKET_SIZE];
+		in.asCharBuffer().get(slots);
+		buffer.position(buffer.position() + HEADER_SIZE + slots.length * 2);
+		CuckooFilter<T> filter =
+				new CuckooFilter<>(Objects.requireNonNull(funnel, "Funnel must not be null"), slots, fingerprintBits);
+		filter.size = size;
+		filter.victim = victim;
+		filter.victimIndex = victimIndex & filter.bucketMask;
+		return filter;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to add. The same value may be added multiple times, and must then be removed as many times.
+	 *
+	 * @return {@code true} when the value was added, {@code false} when the filter is full.
+	 */
+	public boolean put(@Nonnull T value) {
+		long hash = FilterHasher.hash(funnel, value);
+		return insert(indexOf(hash), fingerprintOf(hash));
+	}
+
+	/**
+	 * @param value
+	 * 		Value to check.
+	 *
+	 * @return {@code false} when the value is definitely not present, {@code true} when it may be present.
+	 */
+	public boolean mightContain(@Nonnull T value) {
+		long hash = FilterHasher.hash(funnel, value);
+		int fingerprint = fingerprintOf(hash);
+		int index = indexOf(hash);
+		int alternate = alternateIndex(index, fingerprint);
+		return bucketContains(index, fingerprint) || bucketContains(alternate, fingerprint)
+				|| (victim == fingerprint && (victimIndex == index || victimIndex == alternate));
+	}
+
+	/**
+	 * @param value
+	 * 		Value to remove, which must have been previously added.
+	 *
+	 * @return {@code true} when a fingerprint of the value was found and removed.
+	 */
+	public boolean remove(@Nonnull T value) {
+		long hash = FilterHasher.hash(funnel, value);
+		int fingerprint = fingerprintOf(hash);
+		int index = indexOf(hash);
+		int alternate = alternateIndex(index, fingerprint);
+		if (victim == fingerprint && (victimIndex == index || victimIndex == alternate)) {
+			victim = 0;
+			size--;
+			return true;
+		}
+		if (!removeFromBucket(index, fingerprint) && !removeFromBucket(alternate, fingerprint)) return false;
+		size--;
+
+		// There is now room for the fingerprint which could not be placed before
+		if (victim != 0) {
+			int pending = victim;
+			victim = 0;
+			size--;
+			insert(victimIndex, pending);
+		}
+		return true;
+	}
+
+	/**
+	 * @return Number of values held.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return Number of fingerprint slots. Insertions start to fail at about 95% of the capacity.
+	 */
+	public int capacity() {
+		return slots.length;
+	}
+
+	/**
+	 * @return Number of bits in each fingerprint.
+	 */
+	public int fingerprintBits() {
+		return fingerprintBits;
+	}
+
+	/**
+	 * @return Upper bound of the probability that {@link #mightContain(Object)} reports a value which was never added,
+	 * based on the current number of values.
+	 */
+	public double expectedFpp() {
+		double load = (double) size / slots.length;
+		return Math.min(1, 2 * BUCKET_SIZE * load / (1 << fingerprintBits));
+	}
+
+	/**
+	 * @param other
+	 * 		Another filter.
+	 *
+	 * @return {@code true} when the filters have the same funnel, size and fingerprint size, so they can be merged.
+	 */
+	public boolean isCompatible(@Nonnull CuckooFilter<?> other) {
+		return funnel.equals(other.funnel) && slots.length == other.slots.length
+				&& fingerprintBits == other.fingerprintBits;
+	}
+
+	/**
+	 * Adds all values of another filter to this filter.
+	 * Values held by both filters are held twice afterwards, as filters cannot tell values apart from collisions.
+	 *
+	 * @param other
+	 * 		Filter to merge into this filter.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the filters are not {@link #isCompatible(CuckooFilter) compatible}.
+	 * @throws IllegalStateException
+	 * 		When this filter became full before all values were merged, in which case only some values were merged.
+	 */
+	public void merge(@Nonnull CuckooFilter<T> other) {
+		if (!isCompatible(other) || other == this) throw new IllegalArgumentException("Filters are not compatible");
+		if ((long) size + other.size > slots.length) throw new IllegalStateException("Filter is full");
+		for (int i = 0; i < other.slots.length; i++) {
+			int fingerprint = other.slots[i];
+			if (fingerprint != 0 && !insert(i / BUCKET_SIZE, fingerprint))
+				throw new IllegalStateException("Filter is full");
+		}
+		if (other.victim != 0 && !insert(other.victimIndex, other.victim))
+			throw new IllegalStateException("Filter is full");
+	}
+
+	/**
+	 * @return Copy of this filter.
+	 */
+	@Nonnull
+	public CuckooFilter<T> copy() {
+		CuckooFilter<T> copy = new CuckooFilter<>(funnel, slots.clone(), fingerprintBits);
+		copy.size = size;
+		copy.victim = victim;
+		copy.victimIndex = victimIndex;
+		return copy;
+	}
+
+	/**
+	 * @return Number of bytes written by {@link #serialize(ByteBuffer)}.
+	 */
+	public int serializedSize() {
+		return HEADER_SIZE + slots.length * 2;
+	}
+
+	/**
+	 * Writes the filter in a big endian form, regardless of the buffer's byte order.
+	 * The funnel is not written, and must be given again to {@link #deserialize(Funnel, ByteBuffer)}.
+	 *
+	 * @param buffer
+	 * 		Buffer to write to, starting at its current position, which is advanced past the written filter.
+	 *
+	 * @throws BufferOverflowException
+	 * 		When the buffer has less than {@link #serializedSize()} bytes remaining.
+	 */
+	public void serialize(@Nonnull ByteBuffer buffer) {
+		if (buffer.remaining() < serializedSize()) throw new BufferOverflowException();
+		ByteBuffer out = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+		out.putInt(MAGIC);
+		out.put((byte) VERSION);
+		out.put((byte) fingerprintBits);
+		out.putInt(slots.length / BUCKET_SIZE);
+		out.putInt(size);
+		out.putChar((char) victim);
+		out.putInt(victimIndex);
+		out.asCharBuffer().put(slots);
+		buffer.position(buffer.position() + serializedSize());
+	}
+
+	/**
+	 * @param index
+	 * 		Either candidate bucket of the fingerprint.
+	 * @param fingerprint
+	 * 		Fingerprint to insert.
+	 *
+	 * @return {@code true} when the fingerprint was inserted, {@code false} when the filter is full.
+	 */
+	private boolean insert(int index, int fingerprint) {
+		if (victim != 0) return false;
+		size++;
+		if (insertIntoBucket(index, fingerprint)) return true;
+		if (insertIntoBucket(alternateIndex(index, fingerprint), fingerprint)) return true;
+
+		// Evict fingerprints to their alternate buckets until one lands in a bucket with room
+		long seed = kickSeed;
+		if ((seed & 1) == 0) index = alternateIndex(index, fingerprint);
+		for (int kick = 0; kick < MAX_KICKS; kick++) {
+			seed ^= seed << 13;
+			seed ^= seed >>> 7;
+			seed ^= seed << 17;
+			int slot = index * BUCKET_SIZE + (int) (seed >>> 62);
+			int evicted = slots[slot];
+			slots[slot] = (char) fingerprint;
+			fingerprint = evicted;
+			index = alternateIndex(index, fingerprint);
+			if (insertIntoBucket(index, fingerprint)) {
+				kickSeed = seed;
+				return true;
+			}
+		}
+		kickSeed = seed;
+
+		// The inserted value is held, but the last evicted fingerprint has no room, so the filter is now full
+		victim = fingerprint;
+		victimIndex = index;
+		return true;
+	}
+
+	private boolean insertIntoBucket(int index, int fingerprint) {
+		int start = index * BUCKET_SIZE;
+		for (int i = start; i < start + BUCKET_SIZE; i++) {
+			if (slots[i] == 0) {
+				slots[i] = (char) fingerprint;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean removeFromBucket(int index, int fingerprint) {
+		int start = index * BUCKET_SIZE;
+		for (int i = start; i < start + BUCKET_SIZE; i++) {
+			if (slots[i] == fingerprint) {
+				slots[i] = 0;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean bucketContains(int index, int fingerprint) {
+		int start = index * BUCKET_SIZE;
+		return slots[start] == fingerprint || slots[start + 1] == fingerprint
+				|| slots[start + 2] == fingerprint || slots[start + 3] == fingerprint;
+	}
+
+	private int indexOf(long hash) {
+		return (int) hash & bucketMask;
+	}
+
+	private int fingerprintOf(long hash) {
+		// Zero marks empty slots, so it is not a valid fingerprint
+		int fingerprint = (int) (hash >>> 32) & ((1 << fingerprintBits) - 1);
+		return fingerprint == 0 ? 1 : fingerprint;
+	}
+
+	private int alternateIndex(int index, int fingerprint) {
+		// Symmetric, so the alternate of the alternate is the original bucket
+		return (index ^ (int) FilterHasher.mix(fingerprint)) & bucketMask;
+	}
+}
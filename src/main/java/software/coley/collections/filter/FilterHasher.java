@@ -0,0 +1,120 @@
+package software.coley.collections.filter;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Sink computing a 64-bit hash of funneled data.
+ * <br>
+ * Data is gathered into 64-bit blocks, each mixed into the state with a multiply-rotate step,
+ * and the final state goes through the MurmurHash3 finalizer. Not cryptographic.
+ *
+ * @author Matt Coley
+ */
+final class FilterHasher implements Funnel.Sink {
+	private long state;
+	private long pending;
+	private int pendingBytes;
+	private long length;
+
+	private FilterHasher() {
+	}
+
+	/**
+	 * @param funnel
+	 * 		Funnel to read the value with.
+	 * @param value
+	 * 		Value to hash.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return Hash of the value.
+	 */
+	static <T> long hash(@Nonnull Funnel<? super T> funnel, @Nonnull T value) {
+		FilterHasher hasher = new FilterHasher();
+		funnel.funnel(value, hasher);
+		if (hasher.pendingBytes > 0) hasher.mixIn(hasher.pending);
+		return mix(hasher.state ^ hasher.length);
+	}
+
+	@Nonnull
+	@Override
+	public Funnel.Sink putByte(byte value) {
+		pending |= (value & 0xFFL) << (pendingBytes << 3);
+		length++;
+		if (++pendingBytes == 8) {
+			mixIn(pending);
+			pending = 0;
+			pendingBytes = 0;
+		}
+		return this;
+	}
+
+	@Nonnull
+	@Override
+	public Funnel.Sink putBytes(@Nonnull byte[] values) {
+		for (byte value : values) putByte(value);
+		return this;
+	}
+
+	@Nonnull
+	@Override
+	public Funnel.Sink putChar(char value) {
+		putByte((byte) value);
+		return putByte((byte) (value >>> 8));
+	}
+
+	@Nonnull
+	@Override
+	public Funnel.Sink putInt(int value) {
+		if (pendingBytes <= 4) {
+			pending |= (value & 0xFFFFFFFFL) << (pendingBytes << 3);
+			length += 4;
+			if ((pendingBytes += 4) == 8) {
+				mixIn(pending);
+				pending = 0;
+				pendingBytes = 0;
+			}
+			return this;
+		}
+		putChar((char) value);
+		return putChar((char) (value >>> 16));
+	}
+
+	@Nonnull
+	@Override
+	public Funnel.Sink putLong(long value) {
+		if (pendingBytes == 0) {
+			mixIn(value);
+			length += 8;
+			return this;
+		}
+		putInt((int) value);
+		return putInt((int) (value >>> 32));
+	}
+
+	@Nonnull
+	@Override
+	public Funnel.Sink putChars(@Nonnull CharSequence value) {
+		for (int i = 0, len = value.length(); i < len; i++) putChar(value.charAt(i));
+		return this;
+	}
+
+	private void mixIn(long block) {
+		state = Long.rotateLeft(state ^ (block * 0x87C37B91114253D5L), 31) * 0x4CF5AD432745937FL + 0x52DCE729;
+	}
+
+	/**
+	 * @param hash
+	 * 		Some hash.
+	 *
+	 * @return Hash with its bits spread by the MurmurHash3 finalizer.
+	 */
+	static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB9FE1A85EC53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
@@ -0,0 +1,127 @@
+package software.coley.collections.filter;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Describes how to feed the content of a value into a hash, for use by probabilistic filters and sketches.
+ * <br>
+ * Equal values must put the same data into the sink. Filters are only compatible with filters of the same funnel,
+ * so funnels should be kept as constants rather than created per use.
+ *
+ * @param <T>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+@FunctionalInterface
+public interface Funnel<T> {
+	/**
+	 * @param value
+	 * 		Value to read.
+	 * @param sink
+	 * 		Sink to put the content of the value into.
+	 */
+	void funnel(@Nonnull T value, @Nonnull Sink sink);
+
+	/**
+	 * @return Funnel of {@link Integer} values.
+	 */
+	@Nonnull
+	static Funnel<Integer> integers() {
+		return Funnels.INTEGERS;
+	}
+
+	/**
+	 * @return Funnel of {@link Long} values.
+	 */
+	@Nonnull
+	static Funnel<Long> longs() {
+		return Funnels.LONGS;
+	}
+
+	/**
+	 * @return Funnel of {@link CharSequence} values, by their UTF-16 chars.
+	 */
+	@Nonnull
+	static Funnel<CharSequence> strings() {
+		return Funnels.STRINGS;
+	}
+
+	/**
+	 * @return Funnel of {@code byte[]} values.
+	 */
+	@Nonnull
+	static Funnel<byte[]> bytes() {
+		return Funnels.BYTES;
+	}
+
+	/**
+	 * Funnel for arbitrary values, by their {@link Object#hashCode()}. Distinct values with colliding hash codes
+	 * always collide in filters, so the false positive rate is at least the hash code collision rate.
+	 *
+	 * @return Funnel of values by their hash code.
+	 */
+	@Nonnull
+	static Funnel<Object> hashCodes() {
+		return Funnels.HASH_CODES;
+	}
+
+	/**
+	 * Destination of funneled data.
+	 */
+	interface Sink {
+		/**
+		 * @param value
+		 * 		Value to put.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		Sink putByte(byte value);
+
+		/**
+		 * @param values
+		 * 		Values to put.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		Sink putBytes(@Nonnull byte[] values);
+
+		/**
+		 * @param value
+		 * 		Value to put.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		Sink putChar(char value);
+
+		/**
+		 * @param value
+		 * 		Value to put.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		Sink putInt(int value);
+
+		/**
+		 * @param value
+		 * 		Value to put.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		Sink putLong(long value);
+
+		/**
+		 * @param value
+		 * 		Value to put, by its UTF-16 chars.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		Sink putChars(@Nonnull CharSequence value);
+	}
+}
@@ -0,0 +1,17 @@
+package software.coley.collections.filter;
+
+/**
+ * Built-in {@link Funnel} implementations.
+ *
+ * @author Matt Coley
+ */
+final class Funnels {
+	static final Funnel<Integer> INTEGERS = (value, sink) -> sink.putInt(value);
+	static final Funnel<Long> LONGS = (value, sink) -> sink.putLong(value);
+	static final Funnel<CharSequence> STRINGS = (value, sink) -> sink.putChars(value);
+	static final Funnel<byte[]> BYTES = (value, sink) -> sink.putBytes(value);
+	static final Funnel<Object> HASH_CODES = (value, sink) -> sink.putInt(value.hashCode());
+
+	private Funnels() {
+	}
+}
@@ -0,0 +1,451 @@
+package software.coley.collections.filter;
+
+import javax.annotation.Nonnull;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collector;
+
+/**
+ * Approximate distinct counter, in the style of HyperLogLog++.
+ * <br>
+ * Values are hashed to 64 bits, and the leading bits of each hash pick one of {@code 2^precision} registers, which
+ * tracks the longest run of leading zeros seen in the remaining bits. The number of distinct values is estimated from
+ * the registers with a relative standard error of about {@code 1.04 / sqrt(2^precision)}, so the default precision of
+ * {@code 14} gives around 0.8% error in 16 KB, regardless of how many values are added.
+ * <br>
+ * Sketches start out sparse, holding only the registers which were touched at a higher internal precision, which
+ * keeps small sketches small and their estimates close to exact. Once the sparse form would take more memory than
+ * the full set of registers, the sketch switches to it. Sketches of the same funnel and precision can be
+ * {@link #merge(HyperLogLog) merged}, giving the estimate for the union of their values, and {@link #collector(Funnel)}
+ * builds sketches from streams. Not thread safe.
+ *
+ * @param <T>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+public class HyperLogLog<T> {
+	/**
+	 * Default precision, giving an error of about 0.8%.
+	 */
+	public static final int DEFAULT_PRECISION = 14;
+	private static final int MIN_PRECISION = 4;
+	private static final int MAX_PRECISION = 18;
+	private static final int SPARSE_PRECISION = 25;
+	private static final int MAGIC = 0x48594C4C;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 11;
+	private static final int FORMAT_SPARSE = 0;
+	private static final int FORMAT_DENSE = 1;
+	private final Funnel<? super T> funnel;
+	private final int precision;
+	/**
+	 * Register values, or {@code null} while the sketch is sparse.
+	 */
+	private byte[] registers;
+	/**
+	 * Sorted sparse entries, each holding a register index at {@link #SPARSE_PRECISION} in its upper bits
+	 * and the register value in its lower 6 bits. Indices are unique.
+	 */
+	private int[] sparse;
+	private int sparseCount;
+	/**
+	 * Unsorted sparse entries, which are merged into {@link #sparse} in batches.
+	 */
+	private int[] pending;
+	private int pendingCount;
+
+	private HyperLogLog(@Nonnull Funnel<? super T> funnel, int precision) {
+		this.funnel = funnel;
+		this.precision = precision;
+		sparse = new int[16];
+		pending = new int[Math.max(1, Math.min(256, sparseLimit() / 4))];
+	}
+
+	/**
+	 * @param funnel
+	 * 		Funnel to read values with.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return New sketch with the {@link #DEFAULT_PRECISION default precision}.
+	 */
+	@Nonnull
+	public static <T> HyperLogLog<T> create(@Nonnull Funnel<? super T> funnel) {
+		return create(funnel, DEFAULT_PRECISION);
+	}
+
+	/**
+	 * @param funnel
+	 * 		Funnel to read values with.
+	 * @param precision
+	 * 		Number of hash bits used to pick a register, between {@code 4} and {@code 18} inclusive.
+	 * 		Each additional bit doubles the size of the sketch and reduces the error by a factor of {@code sqrt(2)}.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return New sketch.
+	 */
+	@Nonnull
+	public static <T> HyperLogLog<T> create(@Nonnull Funnel<? super T> funnel, int precision) {
+		Objects.requireNonNull(funnel, "Funnel must not be null");
+		checkPrecision(precision);
+		return new HyperLogLog<>(funnel, precision);
+	}
+
+	/**
+	 * @param funnel
+	 * 		Funnel to read values with.
+	 * @param buffer
+	 * 		Buffer to read from, starting at its current position, which is advanced past the read sketch.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return Sketch read from the buffer.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the buffer does not hold a serialized sketch.
+	 */
+	@Nonnull
+	public static <T> HyperLogLog<T> deserialize(@Nonnull Funnel<? super T> funnel, @Nonnull ByteBuffer buffer) {
+		ByteBuffer in = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+		if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC)
+			throw new IllegalArgumentException("Buffer does not hold a serialized sketch");
+		int version = in.get();
+		if (version != VERSION) throw new IllegalArgumentException("Unsupported sketch version: " + version);
+		int precision = in.get();
+		int format = in.get();
+		int count = in.getInt();
+		if (precision < MIN_PRECISION || precision > MAX_PRECISION)
+			throw new IllegalArgumentException("Buffer does not hold a valid sketch");
+		HyperLogLog<T> sketch = create(funnel, precision);
+		if (format == FORMAT_SPARSE) {
+			if (count < 0 || count > sketch.sparseLimit() || in.remaining() / 4 < count)
+				throw new IllegalArgumentException("Buffer does not hold a valid sketch");
+			int[] sparse = new int[Math.max(16, count)];
+			in.asIntBuffer().get(sparse, 0, count);
+			for (int i = 0; i < count; i++)
+				if (sparse[i] < 0 || !validValue(sparse[i] & 0x3F, SPARSE_PRECISION)
+						|| (i > 0 && sparse[i] >>> 6 <= sparse[i - 1] >>> 6))
+					throw new IllegalArgumentException("Buffer does not hold a valid sketch");
+			sketch.sparse = sparse;
+			sketch.sparseCount = count;
+			buffer.position(buffer.position() + HEADER_SIZE + count * 4);
+		} else if (format == FORMAT_DENSE) {
+			if (count != 1 << precision || in.remaining() < count)
+				throw new IllegalArgumentException("Buffer does not hold a valid sketch");
+			byte[] registers = new byte[count];
+			in.get(registers);
+			for (byte register : registers)
+				if (register != 0 && !validValue(register, precision))
+					throw new IllegalArgumentException("Buffer does not hold a valid sketch");
+			sketch.toDense();
+			sketch.registers = registers;
+			buffer.position(buffer.position() + HEADER_SIZE + count);
+		} else {
+			throw new IllegalArgumentException("Buffer does not hold a valid sketch");
+		}
+		return sketch;
+	}
+
+	/**
+	 * @param funnel
+	 * 		Funnel to read values with.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return Collector of values into a sketch with the {@link #DEFAULT_PRECISION default precision}.
+	 */
+	@Nonnull
+	public static <T> Collector<T, ?, HyperLogLog<T>> collector(@Nonnull Funnel<? super T> funnel) {
+		return collector(funnel, DEFAULT_PRECISION);
+	}
+
+	/**
+	 * @param funnel
+	 * 		Funnel to read values with.
+	 * @param precision
+	 * 		Number of hash bits used to pick a register, between {@code 4} and {@code 18} inclusive.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return Collector of values into a sketch. Parallel streams build a sketch per thread and merge them.
+	 */
+	@Nonnull
+	public static <T> Collector<T, ?, HyperLogLog<T>> collector(@Nonnull Funnel<? super T> funnel, int precision) {
+		Objects.requireNonNull(funnel, "Funnel must not be null");
+		checkPrecision(precision);
+		return Collector.of(() -> create(funnel, precision), HyperLogLog::add, (a, b) -> {
+			a.merge(b);
+			return a;
+		}, Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+	/**
+	 * @param value
+	 * 		Value to add.
+	 */
+	public void add(@Nonnull T value) {
+		addHash(FilterHasher.hash(funnel, value));
+	}
+
+	/**
+	 * Adds a value by its hash, for callers which already have a well distributed 64-bit hash of their values.
+	 * Sketches built from hashes can only be merged with sketches built from the same kind of hashes.
+	 *
+	 * @param hash
+	 * 		Hash of the value to add.
+	 */
+	public void addHash(long hash) {
+		if (registers != null) {
+			int index = (int) (hash >>> (64 - precision));
+			int value = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+			if (value > registers[index]) registers[index] = (byte) value;
+		} else {
+			int index = (int) (hash >>> (64 - SPARSE_PRECISION));
+			int value = Long.numberOfLeadingZeros((hash << SPARSE_PRECISION) | (1L << (SPARSE_PRECISION - 1))) + 1;
+			addSparse(index << 6 | value);
+		}
+	}
+
+	/**
+	 * @return Estimated number of distinct values added.
+	 */
+	public long cardinality() {
+		if (registers != null) {
+			int[] counts = new int[66 - precision];
+			for (byte register : registers) counts[register]++;
+			return Math.round(estimate(counts, 1 << precision));
+		}
+		flushPending();
+		int[] counts = new int[66 - SPARSE_PRECISION];
+		for (int i = 0; i < sparseCount; i++) counts[sparse[i] & 0x3F]++;
+		counts[0] = (1 << SPARSE_PRECISION) - sparseCount;
+		return Math.round(estimate(counts, 1 << SPARSE_PRECISION));
+	}
+
+	/**
+	 * @return Number of hash bits used to pick a register.
+	 */
+	public int precision() {
+		return precision;
+	}
+
+	/**
+	 * @return Relative standard error of {@link #cardinality()} for large numbers of values.
+	 * Smaller numbers of values are estimated more accurately.
+	 */
+	public double standardError() {
+		return 1.04 / Math.sqrt(1 << precision);
+	}
+
+	/**
+	 * @param other
+	 * 		Another sketch.
+	 *
+	 * @return {@code true} when the sketches have the same funnel and precision, so they can be merged.
+	 */
+	public boolean isCompatible(@Nonnull HyperLogLog<?> other) {
+		return funnel.equals(other.funnel) && precision == other.precision;
+	}
+
+	/**
+	 * Adds all values of another sketch to this sketch.
+	 *
+	 * @param other
+	 * 		Sketch to merge into this sketch.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the sketches are not {@link #isCompatible(HyperLogLog) compatible}.
+	 */
+	public void merge(@Nonnull HyperLogLog<T> other) {
+		if (!isCompatible(other)) throw new IllegalArgumentException("Sketches are not compatible");
+		if (other == this) return;
+		if (other.registers == null) {
+			other.flushPending();
+			for (int i = 0; i < other.sparseCount; i++) {
+				if (registers == null) addSparse(other.sparse[i]);
+				else addSparseToDense(other.sparse[i]);
+			}
+		} else {
+			if (registers == null) toDense();
+			byte[] otherRegisters = other.registers;
+			for (int i = 0; i < registers.length; i++)
+				if (otherRegisters[i] > registers[i]) registers[i] = otherRegisters[i];
+		}
+	}
+
+	/**
+	 * @return Copy of this sketch.
+	 */
+	@Nonnull
+	public HyperLogLog<T> copy() {
+		HyperLogLog<T> copy = new HyperLogLog<>(funnel, precision);
+		if (registers != null) {
+			copy.toDense();
+			copy.registers = registers.clone();
+		} else {
+			flushPending();
+			copy.sparse = sparse.clone();
+			copy.sparseCount = sparseCount;
+		}
+		return copy;
+	}
+
+	/**
+	 * @return Number of bytes written by {@link #serialize(ByteBuffer)}.
+	 */
+	public int serializedSize() {
+		if (registers != null) return HEADER_SIZE + registers.length;
+		flushPending();
+		return HEADER_SIZE + sparseCount * 4;
+	}
+
+	/**
+	 * Writes the sketch in a big endian form, regardless of the buffer's byte order.
+	 * The funnel is not written, and must be given again to {@link #deserialize(Funnel, ByteBuffer)}.
+	 *
+	 * @param buffer
+	 * 		Buffer to write to, starting at its current position, which is advanced past the written sketch.
+	 *
+	 * @throws BufferOverflowException
+	 * 		When the buffer has less than {@link #serializedSize()} bytes remaining.
+	 */
+	public void serialize(@Nonnull ByteBuffer buffer) {
+		int size = serializedSize();
+		if (buffer.remaining() < size) throw new BufferOverflowException();
+		ByteBuffer out = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+		out.putInt(MAGIC);
+		out.put((byte) VERSION);
+		out.put((byte) precision);
+		if (registers != null) {
+			out.put((byte) FORMAT_DENSE);
+			out.putInt(registers.length);
+			out.put(registers);
+		} else {
+			out.put((byte) FORMAT_SPARSE);
+			out.putInt(sparseCount);
+			out.asIntBuffer().put(sparse, 0, sparseCount);
+		}
+		buffer.position(buffer.position() + size);
+	}
+
+	private static void checkPrecision(int precision) {
+		if (precision < MIN_PRECISION || precision > MAX_PRECISION)
+			throw new IllegalArgumentException("Precision must be in [" + MIN_PRECISION + ", " + MAX_PRECISION + "]");
+	}
+
+	private static boolean validValue(int value, int precision) {
+		return value >= 1 && value <= 65 - precision;
+	}
+
+	/**
+	 * @return Number of sparse entries taking the same memory as the full set of registers.
+	 */
+	private int sparseLimit() {
+		return (1 << precision) / 4;
+	}
+
+	private void addSparse(int entry) {
+		pending[pendingCount++] = entry;
+		if (pendingCount == pending.length) {
+			flushPending();
+			if (sparseCount > sparseLimit()) toDense();
+		}
+	}
+
+	private void flushPending() {
+		if (pendingCount == 0) return;
+		Arrays.sort(pending, 0, pendingCount);
+
+		// Merge the sorted runs from the back, so the result can be written in place
+		int total = sparseCount + pendingCount;
+		if (total > sparse.length) sparse = Arrays.copyOf(sparse, Math.max(total, sparse.length * 2));
+		int i = sparseCount - 1;
+		int j = pendingCount - 1;
+		int out = total;
+		while (j >= 0) {
+			int entry = i >= 0 && sparse[i] > pending[j] ? sparse[i--] : pending[j--];
+			// Entries of the same index sort by value, so the first one seen from the back is the largest
+			if (out == total || sparse[out] >>> 6 != entry >>> 6) sparse[--out] = entry;
+		}
+		while (i >= 0) {
+			int entry = sparse[i--];
+			if (out == total || sparse[out] >>> 6 != entry >>> 6) sparse[--out] = entry;
+		}
+		sparseCount = total - out;
+		System.arraycopy(sparse, out, sparse, 0, sparseCount);
+		pendingCount = 0;
+	}
+
+	private void toDense() {
+		flushPending();
+		registers = new byte[1 << precision];
+		for (int i = 0; i < sparseCount; i++) addSparseToDense(sparse[i]);
+		sparse = null;
+		pending = null;
+		sparseCount = 0;
+	}
+
+	private void addSparseToDense(int entry) {
+		// The bits past the register index in the sparse index make up the start of the register's bits
+		int extraBits = SPARSE_PRECISION - precision;
+		int sparseIndex = entry >>> 6;
+		int index = sparseIndex >>> extraBits;
+		int extra = sparseIndex & ((1 << extraBits) - 1);
+		int value = extra == 0 ? extraBits + (entry & 0x3F) : Integer.numberOfLeadingZeros(extra) - (32 - extraBits) + 1;
+		if (value > registers[index]) registers[index] = (byte) value;
+	}
+
+	/**
+	 * Estimates the cardinality from a histogram of register values, using the improved estimator from
+	 * <i>New cardinality estimation algorithms for HyperLogLog sketches</i> by Otmar Ertl, which is accurate over the
+	 * full range of cardinalities without the empirical bias correction of HyperLogLog++.
+	 *
+	 * @param counts
+	 * 		Number of registers holding each value, where the last value is the largest possible.
+	 * @param m
+	 * 		Number of registers.
+	 *
+	 * @return Estimated cardinality.
+	 */
+	private static double estimate(@Nonnull int[] counts, int m) {
+		if (counts[0] == m) return 0;
+		int q = counts.length - 2;
+		double z = m * tau(1 - (double) counts[q + 1] / m);
+		for (int k = q; k >= 1; k--)
+			z = 0.5 * (z + counts[k]);
+		z += m * sigma((double) counts[0] / m);
+		return m / (2 * Math.log(2)) * m / z;
+	}
+
+	private static double sigma(double x) {
+		double y = 1;
+		double z = x;
+		double previous;
+		do {
+			x *= x;
+			previous = z;
+			z += x * y;
+			y += y;
+		} while (z != previous);
+		return z;
+	}
+
+	private static double tau(double x) {
+		if (x == 0 || x == 1) return 0;
+		double y = 1;
+		double z = 1 - x;
+		double previous;
+		do {
+			x = Math.sqrt(x);
+			previous = z;
+			y *= 0.5;
+			z -= (1 - x) * (1 - x) * y;
+		} while (z != previous);
+		return z / 3;
+	}
+}
@@ -0,0 +1,305 @@
+package software.coley.collections.filter;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Tracker of the most frequent values in a stream, using the Space-Saving algorithm.
+ * <br>
+ * Up to {@link #capacity()} values are counted at once. When a new value arrives while the tracker is full, it takes
+ * over the counter of the least frequent tracked value, inheriting its count as a possible {@link Item#error() error}.
+ * Each reported count is therefore an upper bound of the true frequency, and the count less its error a lower bound.
+ * Any value with a true frequency above {@code totalCount() / capacity()} is guaranteed to be tracked, so a capacity
+ * a few times larger than the number of heavy hitters of interest gives tight bounds for them. Adding a value takes
+ * a hash lookup and a heap update of {@code O(log capacity)}. Values are compared by {@link Object#equals(Object)}.
+ * Not thread safe.
+ *
+ * @param <T>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ * @see CountMinSketch
+ */
+public class TopK<T> {
+	private static final Comparator<Item<?>> BY_COUNT = Comparator.<Item<?>>comparingLong(Item::count).reversed()
+			.thenComparingLong(Item::error);
+	private final Map<T, Counter<T>> counters;
+	/**
+	 * Min-heap of counters by count, so the least frequent value is at the root.
+	 */
+	private final Counter<T>[] heap;
+	private int size;
+	private long totalCount;
+
+	/**
+	 * @param capacity
+	 * 		Number of values to track.
+	 */
+	@SuppressWarnings("unchecked")
+	public TopK(int capacity) {
+		if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+		counters = new HashMap<>(Math.max(4, (int) (capacity / 0.75f) + 1));
+		heap = new Counter[capacity];
+	}
+
+	/**
+	 * @param value
+	 * 		Value to add once.
+	 *
+	 * @return Upper bound of the frequency of the value after adding it.
+	 */
+	public long add(@Nonnull T value) {
+		return add(value, 1);
+	}
+
+	/**
+	 * @param value
+	 * 		Value to add.
+	 * @param count
+	 * 		Number of times to add the value.
+	 *
+	 * @return Upper bound of the frequency of the value after adding it.
+	 */
+	public long add(@Nonnull T value, long count) {
+		Objects.requireNonNull(value, "Value must not be null");
+		if (count < 0) throw new IllegalArgumentException("Count must not be negative");
+		totalCount += count;
+		Counter<T> counter = counters.get(value);
+		if (counter == null && size < heap.length) {
+			// New counters start as a leaf, which may be smaller than its parents
+			counter = new Counter<>(value, size);
+			counter.count = count;
+			heap[size++] = counter;
+			counters.put(value, counter);
+			siftUp(counter.index);
+			return count;
+		} else if (counter == null) {
+			// Take over the counter of the least frequent value
+			counter = heap[0];
+			counters.remove(counter.value);
+			counter.value = value;
+			counter.error = counter.count;
+			counters.put(value, counter);
+		}
+		counter.count += count;
+		siftDown(counter.index);
+		return counter.count;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to look up.
+	 *
+	 * @return Upper bound of the frequency of the value. For values which are not tracked, this is the smallest
+	 * tracked count, since a value could have been added that many times before its counter was taken over.
+	 */
+	public long estimate(@Nonnull T value) {
+		Counter<T> counter = counters.get(value);
+		if (counter != null) return counter.count;
+		return size < heap.length ? 0 : heap[0].count;
+	}
+
+	/**
+	 * @param k
+	 * 		Maximum number of values to report.
+	 *
+	 * @return Up to {@code k} of the tracked values with the highest counts, in descending order of count.
+	 */
+	@Nonnull
+	public List<Item<T>> top(int k) {
+		if (k < 0) throw new IllegalArgumentException("K must not be negative");
+		List<Item<T>> items = items();
+		return items.size() > k ? new ArrayList<>(items.subList(0, k)) : items;
+	}
+
+	/**
+	 * @param fraction
+	 * 		Fraction of the {@link #totalCount() total count} a value must exceed to be reported,
+	 * 		between {@code 0} and {@code 1}.
+	 *
+	 * @return Tracked values whose count exceeds the fraction of the total count, in descending order of count.
+	 * No value whose true frequency exceeds the fraction is missed as long as the fraction is at least
+	 * {@code 1 / capacity()}. Values whose {@link Item#guaranteedCount() guaranteed count} also exceeds it
+	 * are certain to be heavy hitters, while others may be false positives.
+	 */
+	@Nonnull
+	public List<Item<T>> heavyHitters(double fraction) {
+		if (!(fraction >= 0 && fraction <= 1)) throw new IllegalArgumentException("Fraction must be in [0, 1]");
+		double threshold = fraction * totalCount;
+		List<Item<T>> items = items();
+		int end = 0;
+		while (end < items.size() && items.get(end).count() > threshold) end++;
+		return new ArrayList<>(items.subList(0, end));
+	}
+
+	/**
+	 * Removes all tracked values.
+	 */
+	public void clear() {
+		counters.clear();
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+		totalCount = 0;
+	}
+
+	/**
+	 * @return Total of all added counts.
+	 */
+	public long totalCount() {
+		return totalCount;
+	}
+
+	/**
+	 * @return Number of values currently tracked.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return Maximum number of values tracked at once.
+	 */
+	public int capacity() {
+		return heap.length;
+	}
+
+	@Nonnull
+	private List<Item<T>> items() {
+		List<Item<T>> items = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Counter<T> counter = heap[i];
+			items.add(new Item<>(counter.value, counter.count, counter.error));
+		}
+		items.sort(BY_COUNT);
+		return items;
+	}
+
+	private void siftUp(int index) {
+		Counter<T> counter = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (heap[parent].count <= counter.count) break;
+			heap[index] = heap[parent];
+			heap[index].index = index;
+			index = parent;
+		}
+		heap[index] = counter;
+		counter.index = index;
+	}
+
+	private void siftDown(int index) {
+		Counter<T> counter = heap[index];
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= size) break;
+			if (child + 1 < size && heap[child + 1].count < heap[child].count) child++;
+			if (heap[child].count >= counter.count) break;
+			heap[index] = heap[child];
+			heap[index].index = index;
+			index = child;
+		}
+		heap[index] = counter;
+		counter.index = index;
+	}
+
+	/**
+	 * Tracked value and its counts.
+	 *
+	 * @param <T>
+	 * 		Value type.
+	 */
+	private static final class Counter<T> {
+		private T value;
+		private long count;
+		private long error;
+		private int index;
+
+		private Counter(@Nonnull T value, int index) {
+			this.value = value;
+			this.index = index;
+		}
+	}
+
+	/**
+	 * Snapshot of a tracked value and the bounds of its frequency.
+	 *
+	 * @param <T>
+	 * 		Value type.
+	 */
+	public static final class Item<T> {
+		private final T value;
+		private final long count;
+		private final long error;
+
+		/**
+		 * @param value
+		 * 		Tracked value.
+		 * @param count
+		 * 		Upper bound of the frequency of the value.
+		 * @param error
+		 * 		Maximum amount by which the count exceeds the true frequency.
+		 */
+		public Item(@Nonnull T value, long count, long error) {
+			this.value = value;
+			this.count = count;
+			this.error = error;
+		}
+
+		/**
+		 * @return Tracked value.
+		 */
+		@Nonnull
+		public T value() {
+			return value;
+		}
+
+		/**
+		 * @return Upper bound of the frequency of the value.
+		 */
+		public long count() {
+			return count;
+		}
+
+		/**
+		 * @return Maximum amount by which the count exceeds the true frequency.
+		 */
+		public long error() {
+			return error;
+		}
+
+		/**
+		 * @return Lower bound of the frequency of the value.
+		 */
+		public long guaranteedCount() {
+			return count - error;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			Item<?> other = (Item<?>) o;
+			return count == other.count && error == other.error && value.equals(other.value);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = value.hashCode();
+			result = 31 * result + Long.hashCode(count);
+			result = 31 * result + Long.hashCode(error);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return "Item{value=" + value + ", count=" + count + ", error=" + error + '}';
+		}
+	}
+}
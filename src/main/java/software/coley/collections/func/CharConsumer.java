@@ -0,0 +1,14 @@
+package software.coley.collections.func;
+
+/**
+ * Consumer taking in a {@code char}.
+ *
+ * @author Matt Coley
+ */
+public interface CharConsumer {
+	/**
+	 * @param value
+	 * 		Input value.
+	 */
+	void accept(char value);
+}
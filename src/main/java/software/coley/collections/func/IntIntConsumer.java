@@ -0,0 +1,16 @@
+package software.coley.collections.func;
+
+/**
+ * Consumer taking in two {@code int} values.
+ *
+ * @author Matt Coley
+ */
+public interface IntIntConsumer {
+	/**
+	 * @param key
+	 * 		First input.
+	 * @param value
+	 * 		Second input.
+	 */
+	void accept(int key, int value);
+}
@@ -0,0 +1,19 @@
+package software.coley.collections.func;
+
+/**
+ * Consumer taking in an {@code int} and an object.
+ *
+ * @param <T>
+ * 		Object input type.
+ *
+ * @author Matt Coley
+ */
+public interface IntObjConsumer<T> {
+	/**
+	 * @param key
+	 * 		Primitive input.
+	 * @param value
+	 * 		Object input.
+	 */
+	void accept(int key, T value);
+}
@@ -0,0 +1,16 @@
+package software.coley.collections.func;
+
+/**
+ * Consumer taking in two {@code long} values.
+ *
+ * @author Matt Coley
+ */
+public interface LongLongConsumer {
+	/**
+	 * @param key
+	 * 		First input.
+	 * @param value
+	 * 		Second input.
+	 */
+	void accept(long key, long value);
+}
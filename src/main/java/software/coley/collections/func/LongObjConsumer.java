@@ -0,0 +1,19 @@
+package software.coley.collections.func;
+
+/**
+ * Consumer taking in a {@code long} and an object.
+ *
+ * @param <T>
+ * 		Object input type.
+ *
+ * @author Matt Coley
+ */
+public interface LongObjConsumer<T> {
+	/**
+	 * @param key
+	 * 		Primitive input.
+	 * @param value
+	 * 		Object input.
+	 */
+	void accept(long key, T value);
+}
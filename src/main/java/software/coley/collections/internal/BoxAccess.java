@@ -0,0 +1,143 @@
+package software.coley.collections.internal;
+
+import software.coley.collections.box.Box;
+import software.coley.collections.box.IntBox;
+import software.coley.collections.box.LongBox;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Atomic access to box values.
+ * <br>
+ * This baseline implementation locks on the box. On Java 11+ it is replaced by a multi-release overlay
+ * which uses {@code VarHandle} operations on the box fields, avoiding locks entirely.
+ * In both cases operations are only atomic relative to other atomic operations on the same box,
+ * not to plain calls to {@code set}.
+ * <br>
+ * <b>Internal:</b> Not part of the public API, and may change without notice.
+ *
+ * @author Matt Coley
+ */
+public final class BoxAccess {
+	private BoxAccess() {}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param expected
+	 * 		Expected current value.
+	 * @param value
+	 * 		New value.
+	 *
+	 * @return {@code true} when the box held the expected value and was updated.
+	 */
+	public static boolean compareAndSet(@Nonnull IntBox box, int expected, int value) {
+		synchronized (box) {
+			if (box.get() != expected) return false;
+			box.set(value);
+			return true;
+		}
+	}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param value
+	 * 		New value.
+	 *
+	 * @return Prior value.
+	 */
+	public static int getAndSet(@Nonnull IntBox box, int value) {
+		synchronized (box) {
+			int prior = box.get();
+			box.set(value);
+			return prior;
+		}
+	}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param delta
+	 * 		Value to add.
+	 *
+	 * @return Prior value.
+	 */
+	public static int getAndAdd(@Nonnull IntBox box, int delta) {
+		synchronized (box) {
+			int prior = box.get();
+			box.set(prior + delta);
+			return prior;
+		}
+	}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param expected
+	 * 		Expected current value.
+	 * @param value
+	 * 		New value.
+	 *
+	 * @return {@code true} when the box held the expected value and was updated.
+	 */
+	public static boolean compareAndSet(@Nonnull LongBox box, long expected, long value) {
+		synchronized (box) {
+			if (box.get() != expected) return false;
+			box.set(value);
+			return true;
+		}
+	}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param value
+	 * 		New value.
+	 *
+	 * @return Prior value.
+	 */
+	public static long getAndSet(@Nonnull LongBox box, long value) {
+		synchronized (box) {
+			long prior = box.get();
+			box.set(value);
+			return prior;
+		}
+	}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param delta
+	 * 		Value to add.
+	 *
+	 * @return Prior value.
+	 */
+	public static long getAndAdd(@Nonnull LongBox box, long delta) {
+		synchronized (box) {
+			long prior = box.get();
+			box.set(prior + delta);
+			return prior;
+		}
+	}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param expected
+	 * 		Expected current value, compared by reference.
+	 * @param value
+	 * 		New value.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return {@code true} when the box held the expected value and was updated.
+	 */
+	public static <T> boolean compareAndSet(@Nonnull Box<T> box, T expected, T value) {
+		synchronized (box) {
+			if (box.get() != expected) return false;
+			box.set(value);
+			return true;
+		}
+	}
+}
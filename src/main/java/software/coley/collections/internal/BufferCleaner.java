@@ -0,0 +1,62 @@
+package software.coley.collections.internal;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the native memory of direct buffers eagerly, rather than waiting for them to be garbage collected.
+ * <br>
+ * Uses {@code sun.misc.Unsafe#invokeCleaner} on Java 9+ and the buffer's own cleaner on Java 8.
+ * If neither is accessible the buffer is left for the garbage collector to release.
+ *
+ * @author Matt Coley
+ */
+public final class BufferCleaner {
+	private static final Cleaner CLEANER = lookup();
+
+	private BufferCleaner() {
+	}
+
+	/**
+	 * @param buffer
+	 * 		Direct buffer to release. Must not be used afterwards, nor may any views of it.
+	 */
+	public static void clean(@Nonnull ByteBuffer buffer) {
+		if (!buffer.isDirect()) return;
+		try {
+			CLEANER.clean(buffer);
+		} catch (Throwable ignored) {
+			// Leave it to the garbage collector
+		}
+	}
+
+	@Nonnull
+	private static Cleaner lookup() {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			Object unsafe = theUnsafe.get(null);
+			return buffer -> invokeCleaner.invoke(unsafe, buffer);
+		} catch (Throwable ignored) {
+			// Not Java 9+
+		}
+		try {
+			Method cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+			Method cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+			return buffer -> {
+				Object cleaner = cleanerMethod.invoke(buffer);
+				if (cleaner != null) cleanMethod.invoke(cleaner);
+			};
+		} catch (Throwable ignored) {
+			return buffer -> {};
+		}
+	}
+
+	private interface Cleaner {
+		void clean(@Nonnull ByteBuffer buffer) throws Throwable;
+	}
+}
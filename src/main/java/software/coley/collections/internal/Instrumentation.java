@@ -0,0 +1,53 @@
+package software.coley.collections.internal;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Hooks for recording bulk collection operations.
+ * <br>
+ * This baseline implementation does nothing. On Java 11+ it is replaced by a multi-release overlay which records
+ * operations as <i>Java Flight Recorder</i> events, visible in recordings as {@code software.coley.collections.Operation}.
+ * <br>
+ * <b>Internal:</b> Not part of the public API, and may change without notice.
+ *
+ * @author Matt Coley
+ */
+public final class Instrumentation {
+	private static final Scope NO_OP = new Scope();
+
+	private Instrumentation() {}
+
+	/**
+	 * @param operation
+	 * 		Name of the operation, such as {@code "Lists.distinct"}.
+	 * @param inputSize
+	 * 		Number of items in the operation input.
+	 *
+	 * @return Scope to {@link Scope#end(int) end} when the operation completes.
+	 */
+	@Nonnull
+	public static Scope begin(@Nonnull String operation, int inputSize) {
+		return NO_OP;
+	}
+
+	/**
+	 * @return {@code true} when operations are recorded as flight recorder events, when enabled in a recording.
+	 * Always {@code false} for this baseline implementation.
+	 */
+	public static boolean isJfrAvailable() {
+		return false;
+	}
+
+	/**
+	 * Handle of an operation in progress.
+	 */
+	public static class Scope {
+		/**
+		 * @param resultSize
+		 * 		Number of items in the operation result.
+		 */
+		public void end(int resultSize) {
+			// no-op
+		}
+	}
+}
@@ -0,0 +1,488 @@
+package software.coley.collections.multimap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Base implementation of {@link Multimap}, which stores the first value of each key inline.
+ * <br>
+ * Keys map directly to their value until a second value arrives, at which point the values are promoted
+ * to a collection. Most keys in typical multimaps only ever have one value, so this avoids allocating a
+ * collection per key. Keys are removed once they have no values left.
+ *
+ * @param <K>
+ * 		Map key type.
+ * @param <V>
+ * 		Map value type.
+ * @param <C>
+ * 		Collection type holding the values of a key.
+ *
+ * @author Matt Coley
+ */
+public abstract class AbstractMultimap<K, V, C extends Collection<V>> implements Multimap<K, V, C> {
+	/**
+	 * Stored in place of inline {@code null} values, so that a {@code null} lookup result means an absent key.
+	 */
+	private static final Object NULL = new Object();
+	private final Map<K, Object> storage;
+	private int size;
+	private Set<K> keySet;
+	private Collection<V> values;
+	private Collection<Map.Entry<K, V>> entries;
+	private Map<K, C> mapView;
+
+	/**
+	 * @param storage
+	 * 		Empty map to store keys in. Values are either a single inline value,
+	 * 		or a collection provided by {@link #promote(int)}.
+	 */
+	protected AbstractMultimap(@Nonnull Map<K, Object> storage) {
+		this.storage = storage;
+	}
+
+	/**
+	 * @param raw
+	 * 		Stored value of a key.
+	 *
+	 * @return {@code true} when the stored value is a collection provided by {@link #promote(int)}.
+	 * Must never be {@code true} for values given to the multimap.
+	 */
+	protected abstract boolean isPromoted(@Nonnull Object raw);
+
+	/**
+	 * @param expectedSize
+	 * 		Number of values expected to be held.
+	 *
+	 * @return New empty collection for the values of a key, of a private type to tell it apart from inline values.
+	 */
+	@Nonnull
+	protected abstract Collection<V> promote(int expectedSize);
+
+	/**
+	 * @param key
+	 * 		Key to view.
+	 *
+	 * @return Live view of the values of the key.
+	 */
+	@Nonnull
+	protected abstract C view(@Nullable K key);
+
+	/**
+	 * @param values
+	 * 		Values to copy.
+	 *
+	 * @return Detached copy of the values.
+	 */
+	@Nonnull
+	protected abstract C copy(@Nonnull Collection<V> values);
+
+	/**
+	 * @param key
+	 * 		Key to look up.
+	 *
+	 * @return Stored value of the key, or {@code null} when the key is absent.
+	 */
+	@Nullable
+	protected final Object raw(@Nullable Object key) {
+		return storage.get(key);
+	}
+
+	/**
+	 * @param key
+	 * 		Key to update.
+	 * @param raw
+	 * 		New stored value of the key, or {@code null} to remove the key.
+	 * @param sizeDelta
+	 * 		Change in the number of key-value pairs.
+	 */
+	protected final void store(@Nullable K key, @Nullable Object raw, int sizeDelta) {
+		if (raw == null) storage.remove(key);
+		else storage.put(key, raw);
+		size += sizeDelta;
+	}
+
+	/**
+	 * @param sizeDelta
+	 * 		Change in the number of key-value pairs, made directly to a promoted collection.
+	 */
+	protected final void sizeChanged(int sizeDelta) {
+		size += sizeDelta;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to store inline.
+	 *
+	 * @return Stored form of the value.
+	 */
+	@Nonnull
+	protected static Object mask(@Nullable Object value) {
+		return value == null ? NULL : value;
+	}
+
+	/**
+	 * @param raw
+	 * 		Stored form of an inline value.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Inline value.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	protected static <V> V unmask(@Nonnull Object raw) {
+		return raw == NULL ? null : (V) raw;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Collection<V> promoted(@Nonnull Object raw) {
+		return (Collection<V>) raw;
+	}
+
+	private int rawSize(@Nonnull Object raw) {
+		return isPromoted(raw) ? promoted(raw).size() : 1;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(@Nullable Object key) {
+		return storage.containsKey(key);
+	}
+
+	@Override
+	public boolean containsValue(@Nullable Object value) {
+		for (Object raw : storage.values())
+			if (isPromoted(raw) ? promoted(raw).contains(value) : Objects.equals(unmask(raw), value))
+				return true;
+		return false;
+	}
+
+	@Override
+	public boolean containsEntry(@Nullable Object key, @Nullable Object value) {
+		Object raw = storage.get(key);
+		if (raw == null) return false;
+		return isPromoted(raw) ? promoted(raw).contains(value) : Objects.equals(unmask(raw), value);
+	}
+
+	@Nonnull
+	@Override
+	public C get(@Nullable K key) {
+		return view(key);
+	}
+
+	@Override
+	public boolean put(@Nullable K key, @Nullable V value) {
+		Object raw = storage.get(key);
+		if (raw == null) {
+			store(key, mask(value), 1);
+			return true;
+		}
+		if (isPromoted(raw)) {
+			if (!promoted(raw).add(value)) return false;
+			size++;
+			return true;
+		}
+		Collection<V> values = promote(2);
+		values.add(unmask(raw));
+		if (!values.add(value)) return false;
+		store(key, values, 1);
+		return true;
+	}
+
+	@Override
+	public boolean putAll(@Nullable K key, @Nonnull Iterable<? extends V> values) {
+		Iterator<? extends V> it = values.iterator();
+		if (!it.hasNext()) return false;
+
+		Object raw = storage.get(key);
+		if (raw == null) {
+			V first = it.next();
+			if (!it.hasNext()) {
+				store(key, mask(first), 1);
+				return true;
+			}
+
+			// Multiple values for a new key are placed into a collection sized up front
+			int expectedSize = values instanceof Collection ? ((Collection<?>) values).size() : 2;
+			Collection<V> promoted = promote(expectedSize);
+			promoted.add(first);
+			while (it.hasNext()) promoted.add(it.next());
+			store(key, promoted.size() == 1 ? mask(first) : promoted, promoted.size());
+			return true;
+		}
+
+		boolean changed = false;
+		while (it.hasNext())
+			changed |= put(key, it.next());
+		return changed;
+	}
+
+	@Override
+	public boolean putAll(@Nonnull Multimap<? extends K, ? extends V, ?> multimap) {
+		int before = size;
+		multimap.forEach(this::put);
+		return size != before;
+	}
+
+	@Override
+	public boolean remove(@Nullable Object key, @Nullable Object value) {
+		Object raw = storage.get(key);
+		if (raw == null) return false;
+		if (isPromoted(raw)) {
+			Collection<V> values = promoted(raw);
+			if (!values.remove(value)) return false;
+			size--;
+			if (values.isEmpty()) storage.remove(key);
+			return true;
+		}
+		if (!Objects.equals(unmask(raw), value)) return false;
+		storage.remove(key);
+		size--;
+		return true;
+	}
+
+	@Nonnull
+	@Override
+	public C removeAll(@Nullable Object key) {
+		Object raw = storage.remove(key);
+		if (raw == null) return copy(Collections.emptyList());
+		size -= rawSize(raw);
+		return copy(isPromoted(raw) ? promoted(raw) : Collections.singletonList(unmask(raw)));
+	}
+
+	@Override
+	public void clear() {
+		storage.clear();
+		size = 0;
+	}
+
+	@Nonnull
+	@Override
+	public Set<K> keySet() {
+		if (keySet == null) keySet = asMap().keySet();
+		return keySet;
+	}
+
+	@Nonnull
+	@Override
+	public Collection<V> values() {
+		if (values == null) {
+			values = new AbstractCollection<V>() {
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public boolean contains(Object o) {
+					return containsValue(o);
+				}
+
+				@Override
+				public void clear() {
+					AbstractMultimap.this.clear();
+				}
+
+				@Nonnull
+				@Override
+				public Iterator<V> iterator() {
+					Iterator<Map.Entry<K, V>> it = entries().iterator();
+					return new Iterator<V>() {
+						@Override
+						public boolean hasNext() {
+							return it.hasNext();
+						}
+
+						@Override
+						public V next() {
+							return it.next().getValue();
+						}
+					};
+				}
+			};
+		}
+		return values;
+	}
+
+	@Nonnull
+	@Override
+	public Collection<Map.Entry<K, V>> entries() {
+		if (entries == null) {
+			entries = new AbstractCollection<Map.Entry<K, V>>() {
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public boolean contains(Object o) {
+					if (!(o instanceof Map.Entry)) return false;
+					Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+					return containsEntry(entry.getKey(), entry.getValue());
+				}
+
+				@Override
+				public void clear() {
+					AbstractMultimap.this.clear();
+				}
+
+				@Nonnull
+				@Override
+				public Iterator<Map.Entry<K, V>> iterator() {
+					return new EntryIterator();
+				}
+			};
+		}
+		return entries;
+	}
+
+	@Nonnull
+	@Override
+	public Map<K, C> asMap() {
+		if (mapView == null) mapView = new AsMap();
+		return mapView;
+	}
+
+	@Override
+	public void forEach(@Nonnull BiConsumer<? super K, ? super V> action) {
+		for (Map.Entry<K, Object> entry : storage.entrySet()) {
+			K key = entry.getKey();
+			Object raw = entry.getValue();
+			if (isPromoted(raw))
+				for (V value : promoted(raw))
+					action.accept(key, value);
+			else
+				action.accept(key, unmask(raw));
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof Multimap)) return false;
+		return asMap().equals(((Multimap<?, ?, ?>) o).asMap());
+	}
+
+	@Override
+	public int hashCode() {
+		return asMap().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return asMap().toString();
+	}
+
+	/**
+	 * Iterator over all key-value pairs. Removal is not supported, use {@link #remove(Object, Object)} instead.
+	 */
+	private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+		private final Iterator<Map.Entry<K, Object>> keys = storage.entrySet().iterator();
+		private K key;
+		private Iterator<V> values = Collections.emptyIterator();
+
+		@Override
+		public boolean hasNext() {
+			return values.hasNext() || keys.hasNext();
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (!values.hasNext()) {
+				Map.Entry<K, Object> entry = keys.next();
+				key = entry.getKey();
+				Object raw = entry.getValue();
+				if (!isPromoted(raw)) return new AbstractMap.SimpleImmutableEntry<>(key, unmask(raw));
+				values = promoted(raw).iterator();
+			}
+			return new AbstractMap.SimpleImmutableEntry<>(key, values.next());
+		}
+	}
+
+	/**
+	 * Map view of the outer multimap.
+	 */
+	private final class AsMap extends AbstractMap<K, C> {
+		private Set<Entry<K, C>> entrySet;
+
+		@Override
+		public int size() {
+			return storage.size();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return storage.containsKey(key);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public C get(Object key) {
+			return storage.containsKey(key) ? view((K) key) : null;
+		}
+
+		@Override
+		public C remove(Object key) {
+			return storage.containsKey(key) ? removeAll(key) : null;
+		}
+
+		@Override
+		public void clear() {
+			AbstractMultimap.this.clear();
+		}
+
+		@Nonnull
+		@Override
+		public Set<Entry<K, C>> entrySet() {
+			if (entrySet == null) {
+				entrySet = new AbstractSet<Entry<K, C>>() {
+					@Override
+					public int size() {
+						return storage.size();
+					}
+
+					@Nonnull
+					@Override
+					public Iterator<Entry<K, C>> iterator() {
+						Iterator<Entry<K, Object>> it = storage.entrySet().iterator();
+						return new Iterator<Entry<K, C>>() {
+							private Entry<K, Object> current;
+
+							@Override
+							public boolean hasNext() {
+								return it.hasNext();
+							}
+
+							@Override
+							public Entry<K, C> next() {
+								current = it.next();
+								K key = current.getKey();
+								return new SimpleImmutableEntry<>(key, view(key));
+							}
+
+							@Override
+							public void remove() {
+								if (current == null) throw new IllegalStateException();
+								size -= rawSize(current.getValue());
+								it.remove();
+								current = null;
+							}
+						};
+					}
+				};
+			}
+			return entrySet;
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package software.coley.collections.multimap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * A {@link ListMultimap} using {@link HashMap} underneath.
+ * <br>
+ * Single values are stored inline, and are promoted to an {@link ArrayList} when a second value arrives.
+ *
+ * @param <K>
+ * 		Map key type.
+ * @param <V>
+ * 		Map value type.
+ *
+ * @author Matt Coley
+ */
+public class HashListMultimap<K, V> extends AbstractMultimap<K, V, List<V>> implements ListMultimap<K, V> {
+	/**
+	 * Empty multimap.
+	 */
+	public HashListMultimap() {
+		super(new HashMap<>());
+	}
+
+	/**
+	 * @param expectedKeys
+	 * 		Number of keys expected to be held, used to size the multimap so that it does not need to grow.
+	 */
+	public HashListMultimap(int expectedKeys) {
+		super(new HashMap<>(Math.max(16, (int) (expectedKeys / 0.75F) + 1)));
+	}
+
+	/**
+	 * Pre-populated multimap.
+	 *
+	 * @param multimap
+	 * 		Multimap to copy all key-value pairs from.
+	 */
+	public HashListMultimap(@Nonnull Multimap<? extends K, ? extends V, ?> multimap) {
+		this(multimap.keySet().size());
+		putAll(multimap);
+	}
+
+	@Override
+	protected boolean isPromoted(@Nonnull Object raw) {
+		return raw instanceof Values;
+	}
+
+	@Nonnull
+	@Override
+	protected Collection<V> promote(int expectedSize) {
+		return new Values<>(Math.max(expectedSize, 4));
+	}
+
+	@Nonnull
+	@Override
+	protected List<V> view(@Nullable K key) {
+		return new ValuesView(key);
+	}
+
+	@Nonnull
+	@Override
+	protected List<V> copy(@Nonnull Collection<V> values) {
+		return new ArrayList<>(values);
+	}
+
+	/**
+	 * Promoted storage of the values of a key.
+	 */
+	private static final class Values<V> extends ArrayList<V> {
+		private Values(int initialCapacity) {
+			super(initialCapacity);
+		}
+	}
+
+	/**
+	 * Live view of the values of a key.
+	 */
+	private final class ValuesView extends AbstractList<V> implements RandomAccess {
+		private final K key;
+
+		private ValuesView(@Nullable K key) {
+			this.key = key;
+		}
+
+		@Override
+		public int size() {
+			Object raw = raw(key);
+			if (raw == null) return 0;
+			return raw instanceof Values ? ((Values<?>) raw).size() : 1;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V get(int index) {
+			Object raw = raw(key);
+			if (raw instanceof Values) return ((Values<V>) raw).get(index);
+			if (raw == null || index != 0) throw outOfBounds(index, raw);
+			return unmask(raw);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V set(int index, V value) {
+			Object raw = raw(key);
+			if (raw instanceof Values) return ((Values<V>) raw).set(index, value);
+			if (raw == null || index != 0) throw outOfBounds(index, raw);
+			store(key, mask(value), 0);
+			return unmask(raw);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void add(int index, V value) {
+			Object raw = raw(key);
+			if (raw instanceof Values) {
+				((Values<V>) raw).add(index, value);
+				sizeChanged(1);
+			} else if (raw == null) {
+				if (index != 0) throw outOfBounds(index, null);
+				store(key, mask(value), 1);
+			} else {
+				Values<V> values = new Values<>(4);
+				values.add(unmask(raw));
+				values.add(index, value);
+				store(key, values, 1);
+			}
+			modCount++;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V remove(int index) {
+			Object raw = raw(key);
+			V removed;
+			if (raw instanceof Values) {
+				Values<V> values = (Values<V>) raw;
+				removed = values.remove(index);
+				if (values.isEmpty()) store(key, null, -1);
+				else sizeChanged(-1);
+			} else {
+				if (raw == null || index != 0) throw outOfBounds(index, raw);
+				removed = unmask(raw);
+				store(key, null, -1);
+			}
+			modCount++;
+			return removed;
+		}
+
+		@Nonnull
+		private IndexOutOfBoundsException outOfBounds(int index, @Nullable Object raw) {
+			return new IndexOutOfBoundsException("Index: " + index + ", Size: " + (raw == null ? 0 : 1));
+		}
+	}
+}
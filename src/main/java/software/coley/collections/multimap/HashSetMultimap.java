@@ -0,0 +1,162 @@
+package software.coley.collections.multimap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * A {@link SetMultimap} using {@link HashMap} underneath.
+ * <br>
+ * Single values are stored inline, and are promoted to a {@link HashSet} when a second distinct value arrives.
+ *
+ * @param <K>
+ * 		Map key type.
+ * @param <V>
+ * 		Map value type.
+ *
+ * @author Matt Coley
+ */
+public class HashSetMultimap<K, V> extends AbstractMultimap<K, V, Set<V>> implements SetMultimap<K, V> {
+	/**
+	 * Empty multimap.
+	 */
+	public HashSetMultimap() {
+		super(new HashMap<>());
+	}
+
+	/**
+	 * @param expectedKeys
+	 * 		Number of keys expected to be held, used to size the multimap so that it does not need to grow.
+	 */
+	public HashSetMultimap(int expectedKeys) {
+		super(new HashMap<>(Math.max(16, (int) (expectedKeys / 0.75F) + 1)));
+	}
+
+	/**
+	 * Pre-populated multimap.
+	 *
+	 * @param multimap
+	 * 		Multimap to copy all key-value pairs from.
+	 */
+	public HashSetMultimap(@Nonnull Multimap<? extends K, ? extends V, ?> multimap) {
+		this(multimap.keySet().size());
+		putAll(multimap);
+	}
+
+	@Override
+	protected boolean isPromoted(@Nonnull Object raw) {
+		return raw instanceof Values;
+	}
+
+	@Nonnull
+	@Override
+	protected Collection<V> promote(int expectedSize) {
+		return new Values<>(Math.max(4, (int) (expectedSize / 0.75F) + 1));
+	}
+
+	@Nonnull
+	@Override
+	protected Set<V> view(@Nullable K key) {
+		return new ValuesView(key);
+	}
+
+	@Nonnull
+	@Override
+	protected Set<V> copy(@Nonnull Collection<V> values) {
+		return new HashSet<>(values);
+	}
+
+	/**
+	 * Promoted storage of the values of a key.
+	 */
+	private static final class Values<V> extends HashSet<V> {
+		private Values(int initialCapacity) {
+			super(initialCapacity);
+		}
+	}
+
+	/**
+	 * Live view of the values of a key.
+	 */
+	private final class ValuesView extends AbstractSet<V> {
+		private final K key;
+
+		private ValuesView(@Nullable K key) {
+			this.key = key;
+		}
+
+		@Override
+		public int size() {
+			Object raw = raw(key);
+			if (raw == null) return 0;
+			return raw instanceof Values ? ((Values<?>) raw).size() : 1;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return containsEntry(key, o);
+		}
+
+		@Override
+		public boolean add(V value) {
+			return put(key, value);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			return HashSetMultimap.this.remove(key, o);
+		}
+
+		@Nonnull
+		@Override
+		@SuppressWarnings("unchecked")
+		public Iterator<V> iterator() {
+			Object raw = raw(key);
+			if (raw == null) return Collections.emptyIterator();
+			if (raw instanceof Values) {
+				Values<V> values = (Values<V>) raw;
+				Iterator<V> it = values.iterator();
+				return new Iterator<V>() {
+					@Override
+					public boolean hasNext() {
+						return it.hasNext();
+					}
+
+					@Override
+					public V next() {
+						return it.next();
+					}
+
+					@Override
+					public void remove() {
+						it.remove();
+						if (values.isEmpty()) store(key, null, -1);
+						else sizeChanged(-1);
+					}
+				};
+			}
+			return new Iterator<V>() {
+				private int state;
+
+				@Override
+				public boolean hasNext() {
+					return state == 0;
+				}
+
+				@Override
+				public V next() {
+					if (state != 0) throw new NoSuchElementException();
+					state = 1;
+					return unmask(raw);
+				}
+
+				@Override
+				public void remove() {
+					if (state != 1) throw new IllegalStateException();
+					state = 2;
+					store(key, null, -1);
+				}
+			};
+		}
+	}
+}
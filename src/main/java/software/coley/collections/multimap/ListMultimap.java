@@ -0,0 +1,16 @@
+package software.coley.collections.multimap;
+
+import java.util.List;
+
+/**
+ * Outline of a multimap which keeps the values of each key in insertion order and allows duplicate values.
+ *
+ * @param <K>
+ * 		Map key type.
+ * @param <V>
+ * 		Map value type.
+ *
+ * @author Matt Coley
+ */
+public interface ListMultimap<K, V> extends Multimap<K, V, List<V>> {
+}
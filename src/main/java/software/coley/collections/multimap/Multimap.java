@@ -0,0 +1,150 @@
+package software.coley.collections.multimap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Outline of a map which associates each key with a collection of values.
+ *
+ * @param <K>
+ * 		Map key type.
+ * @param <V>
+ * 		Map value type.
+ * @param <C>
+ * 		Collection type holding the values of a key.
+ *
+ * @author Matt Coley
+ */
+public interface Multimap<K, V, C extends Collection<V>> {
+	/**
+	 * @return Number of key-value pairs, not the number of keys.
+	 */
+	int size();
+
+	/**
+	 * @return {@code true} when there are no key-value pairs.
+	 */
+	boolean isEmpty();
+
+	/**
+	 * @param key
+	 * 		Key to check.
+	 *
+	 * @return {@code true} when the key has at least one value.
+	 */
+	boolean containsKey(@Nullable Object key);
+
+	/**
+	 * @param value
+	 * 		Value to check.
+	 *
+	 * @return {@code true} when any key has the value.
+	 */
+	boolean containsValue(@Nullable Object value);
+
+	/**
+	 * @param key
+	 * 		Key to check.
+	 * @param value
+	 * 		Value to check.
+	 *
+	 * @return {@code true} when the key has the value.
+	 */
+	boolean containsEntry(@Nullable Object key, @Nullable Object value);
+
+	/**
+	 * @param key
+	 * 		Key to look up.
+	 *
+	 * @return Live view of the values of the key, empty if there are none.
+	 * Changes to the view are written through to this multimap.
+	 */
+	@Nonnull
+	C get(@Nullable K key);
+
+	/**
+	 * @param key
+	 * 		Key to add a value to.
+	 * @param value
+	 * 		Value to add.
+	 *
+	 * @return {@code true} when the multimap changed.
+	 */
+	boolean put(@Nullable K key, @Nullable V value);
+
+	/**
+	 * @param key
+	 * 		Key to add values to.
+	 * @param values
+	 * 		Values to add.
+	 *
+	 * @return {@code true} when the multimap changed.
+	 */
+	boolean putAll(@Nullable K key, @Nonnull Iterable<? extends V> values);
+
+	/**
+	 * @param multimap
+	 * 		Multimap to copy all key-value pairs from.
+	 *
+	 * @return {@code true} when the multimap changed.
+	 */
+	boolean putAll(@Nonnull Multimap<? extends K, ? extends V, ?> multimap);
+
+	/**
+	 * @param key
+	 * 		Key to remove a value from.
+	 * @param value
+	 * 		Value to remove.
+	 *
+	 * @return {@code true} when the multimap changed.
+	 */
+	boolean remove(@Nullable Object key, @Nullable Object value);
+
+	/**
+	 * @param key
+	 * 		Key to remove.
+	 *
+	 * @return Copy of the values the key had, empty if there were none.
+	 */
+	@Nonnull
+	C removeAll(@Nullable Object key);
+
+	/**
+	 * Removes all key-value pairs.
+	 */
+	void clear();
+
+	/**
+	 * @return Live view of the keys with at least one value.
+	 */
+	@Nonnull
+	Set<K> keySet();
+
+	/**
+	 * @return Live view of all values of all keys. Values appear once for each key they are associated with.
+	 */
+	@Nonnull
+	Collection<V> values();
+
+	/**
+	 * @return Live view of all key-value pairs.
+	 */
+	@Nonnull
+	Collection<Map.Entry<K, V>> entries();
+
+	/**
+	 * @return Live view of the multimap as a map of keys to their values.
+	 */
+	@Nonnull
+	Map<K, C> asMap();
+
+	/**
+	 * @param action
+	 * 		Action to run on each key-value pair.
+	 */
+	void forEach(@Nonnull BiConsumer<? super K, ? super V> action);
+}
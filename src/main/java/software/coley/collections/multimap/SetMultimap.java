@@ -0,0 +1,16 @@
+package software.coley.collections.multimap;
+
+import java.util.Set;
+
+/**
+ * Outline of a multimap which holds each value at most once per key.
+ *
+ * @param <K>
+ * 		Map key type.
+ * @param <V>
+ * 		Map value type.
+ *
+ * @author Matt Coley
+ */
+public interface SetMultimap<K, V> extends Multimap<K, V, Set<V>> {
+}
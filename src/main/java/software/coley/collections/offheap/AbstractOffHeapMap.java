@@ -0,0 +1,605 @@
+package software.coley.collections.offheap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Base hash map of fixed width keys and values, stored in {@link ByteBuffer}s outside the Java heap.
+ * <br>
+ * Each entry occupies a single slot of {@code 1 + keyWidth + valueWidth} bytes, holding a used flag and the encoded
+ * key and value. Slots are probed linearly, and removal shifts later entries back so there are no tombstones.
+ * Keys are hashed and compared by their encoded bytes, so key codecs must produce canonical encodings.
+ * The table is split across multiple buffers when it exceeds the size of a single buffer.
+ * Implementations decide where the table buffers come from and how they are released.
+ * <br>
+ * Neither keys nor values may be {@code null}. Values are decoded into new objects on every read.
+ * Use {@link #asMap()} for a {@link Map} view when interacting with APIs that expect a map. Not thread safe.
+ *
+ * @param <K>
+ * 		Map key type.
+ * @param <V>
+ * 		Map value type.
+ *
+ * @author Matt Coley
+ */
+public abstract class AbstractOffHeapMap<K, V> implements Closeable {
+	private static final int MAX_SEGMENT_BYTES = 1 << 30;
+	private static final int MAX_CAPACITY = 1 << 30;
+	private static final byte EMPTY = 0;
+	private static final byte USED = 1;
+	private final Codec<K> keyCodec;
+	private final Codec<V> valueCodec;
+	private final int keyWidth;
+	private final int slotWidth;
+	private final int segmentShift;
+	private final int segmentMask;
+	/**
+	 * Holds the encoding of the key currently being looked up.
+	 */
+	private final ByteBuffer scratch;
+	private ByteBuffer[] segments;
+	private int capacity;
+	private int size;
+	private int mask;
+	private int resizeAt;
+	private Map<K, V> mapView;
+
+	/**
+	 * Subclasses must call {@link #init(ByteBuffer[], int, int)} before the map is used.
+	 *
+	 * @param keyCodec
+	 * 		Codec for keys.
+	 * @param valueCodec
+	 * 		Codec for values.
+	 */
+	protected AbstractOffHeapMap(@Nonnull Codec<K> keyCodec, @Nonnull Codec<V> valueCodec) {
+		this.keyCodec = Objects.requireNonNull(keyCodec, "Key codec must not be null");
+		this.valueCodec = Objects.requireNonNull(valueCodec, "Value codec must not be null");
+		if (keyCodec.width() <= 0)
+			throw new IllegalArgumentException("Key codec must have a positive width");
+		if (valueCodec.width() < 0)
+			throw new IllegalArgumentException("Value codec must not have a negative width");
+		keyWidth = keyCodec.width();
+		slotWidth = 1 + keyWidth + valueCodec.width();
+		if (slotWidth > MAX_SEGMENT_BYTES)
+			throw new IllegalArgumentException("Entries of " + slotWidth + " bytes are too large");
+		segmentShift = 31 - Integer.numberOfLeadingZeros(MAX_SEGMENT_BYTES / slotWidth);
+		segmentMask = (1 << segmentShift) - 1;
+		scratch = ByteBuffer.allocate(keyWidth);
+	}
+
+	/**
+	 * @param capacity
+	 * 		Number of slots to allocate, a power of two.
+	 *
+	 * @return Zero filled table buffers, each holding {@link #segmentSlots(int)} slots.
+	 */
+	@Nonnull
+	protected abstract ByteBuffer[] allocateTable(int capacity);
+
+	/**
+	 * Called once the map has grown, and entries were moved from the old table to the current one.
+	 *
+	 * @param oldTable
+	 * 		Prior table buffers, no longer used by the map.
+	 */
+	protected abstract void tableGrown(@Nonnull ByteBuffer[] oldTable);
+
+	/**
+	 * Called by {@link #close()} to release the table.
+	 *
+	 * @param table
+	 * 		Current table buffers.
+	 */
+	protected abstract void releaseTable(@Nonnull ByteBuffer[] table);
+
+	/**
+	 * Called before any change is made to the contents of the table.
+	 */
+	protected void beforeModify() {
+	}
+
+	/**
+	 * @param table
+	 * 		Table buffers to use.
+	 * @param capacity
+	 * 		Number of slots in the table, a power of two.
+	 * @param size
+	 * 		Number of entries already in the table.
+	 */
+	protected final void init(@Nonnull ByteBuffer[] table, int capacity, int size) {
+		segments = table;
+		this.capacity = capacity;
+		this.size = size;
+		mask = capacity - 1;
+		// Denser than the heap maps, since every empty slot costs a full entry of memory
+		resizeAt = capacity - (capacity >>> 2);
+	}
+
+	/**
+	 * @return Current table buffers.
+	 */
+	@Nonnull
+	protected final ByteBuffer[] table() {
+		ensureOpen();
+		return segments;
+	}
+
+	/**
+	 * @return Number of bytes in each encoded key.
+	 */
+	protected final int keyWidth() {
+		return keyWidth;
+	}
+
+	/**
+	 * @return Number of bytes in each slot.
+	 */
+	protected final int slotWidth() {
+		return slotWidth;
+	}
+
+	/**
+	 * @param capacity
+	 * 		Number of slots in a table.
+	 *
+	 * @return Number of slots in each buffer of the table.
+	 */
+	protected final int segmentSlots(int capacity) {
+		return Math.min(capacity, segmentMask + 1);
+	}
+
+	/**
+	 * @return Number of entries, counted by scanning the table.
+	 */
+	protected final int countEntries() {
+		int count = 0;
+		for (int slot = 0; slot < capacity; slot++)
+			if (segment(slot).get(offset(slot)) == USED) count++;
+		return count;
+	}
+
+	/**
+	 * @return Number of entries.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return {@code true} when there are no entries.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return Number of slots in the table.
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return Number of bytes of memory held by the table.
+	 */
+	public long memoryUsage() {
+		return (long) capacity * slotWidth;
+	}
+
+	/**
+	 * @return {@code true} when {@link #close()} has been called.
+	 */
+	public boolean isClosed() {
+		return segments == null;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to check.
+	 *
+	 * @return {@code true} when the key is in the map.
+	 */
+	public boolean containsKey(@Nonnull K key) {
+		return find(key) >= 0;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to look up.
+	 *
+	 * @return Value associated with the key, or {@code null} if the key is not in the map.
+	 */
+	@Nullable
+	public V get(@Nonnull K key) {
+		int slot = find(key);
+		if (slot < 0) return null;
+		return valueCodec.read(segment(slot), offset(slot) + 1 + keyWidth);
+	}
+
+	/**
+	 * @param key
+	 * 		Key to look up.
+	 * @param defaultValue
+	 * 		Value to return if the key is not in the map.
+	 *
+	 * @return Value associated with the key, or the default value if the key is not in the map.
+	 */
+	public V getOrDefault(@Nonnull K key, V defaultValue) {
+		V value = get(key);
+		return value == null ? defaultValue : value;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to insert.
+	 * @param value
+	 * 		Value to associate with the key.
+	 *
+	 * @return Prior value associated with the key, or {@code null} if the key was not in the map.
+	 */
+	@Nullable
+	public V put(@Nonnull K key, @Nonnull V value) {
+		Objects.requireNonNull(value, "Value must not be null");
+		int slot = find(key);
+		if (slot >= 0) {
+			ByteBuffer segment = segment(slot);
+			int valueOffset = offset(slot) + 1 + keyWidth;
+			V prior = valueCodec.read(segment, valueOffset);
+			beforeModify();
+			valueCodec.write(segment, valueOffset, value);
+			return prior;
+		}
+		if (size >= resizeAt) {
+			beforeModify();
+			grow();
+			slot = find(key);
+		}
+		beforeModify();
+		slot = -slot - 1;
+		ByteBuffer segment = segment(slot);
+		int offset = offset(slot);
+		valueCodec.write(segment, offset + 1 + keyWidth, value);
+		for (int i = 0; i < keyWidth; i++)
+			segment.put(offset + 1 + i, scratch.get(i));
+		segment.put(offset, USED);
+		size++;
+		return null;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to remove.
+	 *
+	 * @return Value that was associated with the key, or {@code null} if the key was not in the map.
+	 */
+	@Nullable
+	public V remove(@Nonnull K key) {
+		int slot = find(key);
+		if (slot < 0) return null;
+		V prior = valueCodec.read(segment(slot), offset(slot) + 1 + keyWidth);
+		beforeModify();
+		shiftRemove(slot);
+		size--;
+		return prior;
+	}
+
+	/**
+	 * Removes all entries. The table keeps its current capacity.
+	 */
+	public void clear() {
+		ensureOpen();
+		beforeModify();
+		for (int slot = 0; slot < capacity; slot++)
+			segment(slot).put(offset(slot), EMPTY);
+		size = 0;
+	}
+
+	/**
+	 * @param action
+	 * 		Action to run on each key and value.
+	 */
+	public void forEach(@Nonnull BiConsumer<? super K, ? super V> action) {
+		ensureOpen();
+		for (int slot = 0; slot < capacity; slot++) {
+			ByteBuffer segment = segment(slot);
+			int offset = offset(slot);
+			if (segment.get(offset) == USED)
+				action.accept(keyCodec.read(segment, offset + 1),
+						valueCodec.read(segment, offset + 1 + keyWidth));
+		}
+	}
+
+	/**
+	 * @return Map view of this map. Changes to the view are written through to this map and vice versa,
+	 * the same way a {@link software.coley.collections.delegate.DelegatingMap} passes through to its delegate.
+	 * Removal through the view's iterators is not supported, use {@link Map#remove(Object)} instead.
+	 */
+	@Nonnull
+	public Map<K, V> asMap() {
+		if (mapView == null) mapView = new MapView();
+		return mapView;
+	}
+
+	/**
+	 * Releases the table of the map. Any further use of the map, other than closing it again,
+	 * throws {@link IllegalStateException}.
+	 */
+	@Override
+	public void close() {
+		ByteBuffer[] segments = this.segments;
+		if (segments == null) return;
+		this.segments = null;
+		capacity = 0;
+		size = 0;
+		releaseTable(segments);
+	}
+
+	@Override
+	public String toString() {
+		return isClosed() ? getClass().getSimpleName() + "[closed]" : asMap().toString();
+	}
+
+	/**
+	 * Encodes the key into {@link #scratch} and probes for it.
+	 *
+	 * @param key
+	 * 		Key to look up.
+	 *
+	 * @return Slot holding the key, or {@code -slot - 1} where {@code slot} is the empty slot ending its probe sequence
+	 * if the key is not present.
+	 */
+	private int find(@Nonnull K key) {
+		Objects.requireNonNull(key, "Key must not be null");
+		ensureOpen();
+		keyCodec.write(scratch, 0, key);
+		int slot = hash(scratch, 0) & mask;
+		while (true) {
+			ByteBuffer segment = segment(slot);
+			int offset = offset(slot);
+			if (segment.get(offset) == EMPTY) return -slot - 1;
+			if (keyEquals(segment, offset + 1)) return slot;
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/**
+	 * @param buffer
+	 * 		Buffer holding an encoded key.
+	 * @param offset
+	 * 		Offset of the key in the buffer.
+	 *
+	 * @return Hash of the encoded key bytes.
+	 */
+	private int hash(@Nonnull ByteBuffer buffer, int offset) {
+		long h = keyWidth;
+		int i = 0;
+		for (; i + Long.BYTES <= keyWidth; i += Long.BYTES)
+			h = (h ^ buffer.getLong(offset + i)) * 0x9E3779B97F4A7C15L;
+		for (; i < keyWidth; i++)
+			h = (h ^ (buffer.get(offset + i) & 0xFF)) * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return (int) h;
+	}
+
+	/**
+	 * @param buffer
+	 * 		Buffer holding an encoded key.
+	 * @param offset
+	 * 		Offset of the key in the buffer.
+	 *
+	 * @return {@code true} when the key matches the one in {@link #scratch}.
+	 */
+	private boolean keyEquals(@Nonnull ByteBuffer buffer, int offset) {
+		int i = 0;
+		for (; i + Long.BYTES <= keyWidth; i += Long.BYTES)
+			if (buffer.getLong(offset + i) != scratch.getLong(i)) return false;
+		for (; i < keyWidth; i++)
+			if (buffer.get(offset + i) != scratch.get(i)) return false;
+		return true;
+	}
+
+	/**
+	 * Clears the given slot, shifting later entries of the same probe sequence back so lookups need no tombstones.
+	 */
+	private void shiftRemove(int gap) {
+		int slot = gap;
+		while (true) {
+			slot = (slot + 1) & mask;
+			ByteBuffer segment = segment(slot);
+			int offset = offset(slot);
+			if (segment.get(offset) == EMPTY) break;
+
+			// The entry can fill the gap if the gap lies between its home slot and its current slot
+			int home = hash(segment, offset + 1) & mask;
+			if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+				copySlot(segment, offset, segment(gap), offset(gap));
+				gap = slot;
+			}
+		}
+		segment(gap).put(offset(gap), EMPTY);
+	}
+
+	private void copySlot(@Nonnull ByteBuffer from, int fromOffset, @Nonnull ByteBuffer to, int toOffset) {
+		int i = 0;
+		for (; i + Long.BYTES <= slotWidth; i += Long.BYTES)
+			to.putLong(toOffset + i, from.getLong(fromOffset + i));
+		for (; i < slotWidth; i++)
+			to.put(toOffset + i, from.get(fromOffset + i));
+	}
+
+	@Nonnull
+	private ByteBuffer segment(int slot) {
+		return segments[slot >>> segmentShift];
+	}
+
+	private int offset(int slot) {
+		return (slot & segmentMask) * slotWidth;
+	}
+
+	/**
+	 * @throws IllegalStateException
+	 * 		When the map is closed.
+	 */
+	protected final void ensureOpen() {
+		if (segments == null) throw new IllegalStateException("Map is closed");
+	}
+
+	private void grow() {
+		if (capacity == MAX_CAPACITY)
+			throw new IllegalStateException("Map is at maximum capacity");
+		ByteBuffer[] oldSegments = segments;
+		int oldSegmentSlots = segmentSlots(capacity);
+		int newCapacity = capacity << 1;
+		init(allocateTable(newCapacity), newCapacity, size);
+		for (ByteBuffer oldSegment : oldSegments) {
+			for (int i = 0; i < oldSegmentSlots; i++) {
+				int oldOffset = i * slotWidth;
+				if (oldSegment.get(oldOffset) == EMPTY) continue;
+				int slot = hash(oldSegment, oldOffset + 1) & mask;
+				while (segment(slot).get(offset(slot)) != EMPTY)
+					slot = (slot + 1) & mask;
+				copySlot(oldSegment, oldOffset, segment(slot), offset(slot));
+			}
+		}
+		tableGrown(oldSegments);
+	}
+
+	/**
+	 * @param expectedSize
+	 * 		Number of entries expected to be held.
+	 *
+	 * @return Table capacity which holds the expected number of entries without growing.
+	 */
+	protected static int capacityFor(int expectedSize) {
+		if (expectedSize < 0) throw new IllegalArgumentException("Expected size must not be negative");
+		long required = Math.max(4L, (long) expectedSize * 4 / 3 + 1);
+		if (required >= MAX_CAPACITY) return MAX_CAPACITY;
+		return Integer.highestOneBit((int) required - 1) << 1;
+	}
+
+	/**
+	 * Map view of the outer map.
+	 */
+	private final class MapView extends AbstractMap<K, V> {
+		private Set<Entry<K, V>> entrySet;
+
+		@Override
+		public int size() {
+			return AbstractOffHeapMap.this.size();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean containsKey(Object key) {
+			if (key == null) return false;
+			try {
+				return AbstractOffHeapMap.this.containsKey((K) key);
+			} catch (ClassCastException ex) {
+				return false;
+			}
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V get(Object key) {
+			if (key == null) return null;
+			try {
+				return AbstractOffHeapMap.this.get((K) key);
+			} catch (ClassCastException ex) {
+				return null;
+			}
+		}
+
+		@Override
+		public V put(K key, V value) {
+			return AbstractOffHeapMap.this.put(key, value);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V remove(Object key) {
+			if (key == null) return null;
+			try {
+				return AbstractOffHeapMap.this.remove((K) key);
+			} catch (ClassCastException ex) {
+				return null;
+			}
+		}
+
+		@Override
+		public void clear() {
+			AbstractOffHeapMap.this.clear();
+		}
+
+		@Override
+		public void forEach(BiConsumer<? super K, ? super V> action) {
+			AbstractOffHeapMap.this.forEach(action);
+		}
+
+		@Nonnull
+		@Override
+		public Set<Entry<K, V>> entrySet() {
+			if (entrySet == null) {
+				entrySet = new AbstractSet<Entry<K, V>>() {
+					@Override
+					public int size() {
+						return AbstractOffHeapMap.this.size();
+					}
+
+					@Nonnull
+					@Override
+					public Iterator<Entry<K, V>> iterator() {
+						ensureOpen();
+						return new Iterator<Entry<K, V>>() {
+							private int slot = advance(0);
+
+							private int advance(int from) {
+								while (from < capacity && segment(from).get(offset(from)) == EMPTY) from++;
+								return from;
+							}
+
+							@Override
+							public boolean hasNext() {
+								return slot < capacity;
+							}
+
+							@Override
+							public Entry<K, V> next() {
+								if (slot >= capacity) throw new NoSuchElementException();
+								ByteBuffer segment = segment(slot);
+								int offset = offset(slot);
+								K key = keyCodec.read(segment, offset + 1);
+								V value = valueCodec.read(segment, offset + 1 + keyWidth);
+								slot = advance(slot + 1);
+								return new WriteThroughEntry(key, value);
+							}
+						};
+					}
+				};
+			}
+			return entrySet;
+		}
+	}
+
+	/**
+	 * Entry of the map view, which writes value changes through to the outer map.
+	 */
+	private final class WriteThroughEntry extends AbstractMap.SimpleEntry<K, V> {
+		private WriteThroughEntry(K key, V value) {
+			super(key, value);
+		}
+
+		@Override
+		public V setValue(V value) {
+			put(getKey(), value);
+			return super.setValue(value);
+		}
+	}
+}
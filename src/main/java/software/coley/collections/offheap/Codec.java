@@ -0,0 +1,81 @@
+package software.coley.collections.offheap;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed width binary encoding of values, used to store them outside the Java heap.
+ * <br>
+ * Encodings must be canonical: equal values must always produce the same bytes, since stored keys are hashed and
+ * compared by their encoded bytes rather than by {@link Object#equals(Object)}.
+ *
+ * @param <T>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+public interface Codec<T> {
+	/**
+	 * @return Number of bytes every encoded value occupies.
+	 */
+	int width();
+
+	/**
+	 * @param buffer
+	 * 		Buffer to write to.
+	 * @param offset
+	 * 		Absolute offset to write at. There are always {@link #width()} bytes available.
+	 * @param value
+	 * 		Value to encode.
+	 */
+	void write(@Nonnull ByteBuffer buffer, int offset, @Nonnull T value);
+
+	/**
+	 * @param buffer
+	 * 		Buffer to read from.
+	 * @param offset
+	 * 		Absolute offset to read at.
+	 *
+	 * @return Decoded value.
+	 */
+	@Nonnull
+	T read(@Nonnull ByteBuffer buffer, int offset);
+
+	/**
+	 * @return Codec for {@code int} values, 4 bytes wide.
+	 */
+	@Nonnull
+	static Codec<Integer> ints() {
+		return Codecs.INT;
+	}
+
+	/**
+	 * @return Codec for {@code long} values, 8 bytes wide.
+	 */
+	@Nonnull
+	static Codec<Long> longs() {
+		return Codecs.LONG;
+	}
+
+	/**
+	 * Values are encoded by {@link Double#doubleToLongBits(double)}, so matching follows {@link Double#equals(Object)}.
+	 *
+	 * @return Codec for {@code double} values, 8 bytes wide.
+	 */
+	@Nonnull
+	static Codec<Double> doubles() {
+		return Codecs.DOUBLE;
+	}
+
+	/**
+	 * @param maxBytes
+	 * 		Maximum length of encoded strings, in UTF-8 bytes.
+	 *
+	 * @return Codec for strings, {@code maxBytes + 2} bytes wide.
+	 * Writing a string which is longer than the maximum length throws {@link IllegalArgumentException}.
+	 */
+	@Nonnull
+	static Codec<String> utf8(int maxBytes) {
+		return new Codecs.Utf8(maxBytes);
+	}
+}
@@ -0,0 +1,107 @@
+package software.coley.collections.offheap;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Built-in {@link Codec} implementations.
+ *
+ * @author Matt Coley
+ */
+final class Codecs {
+	static final Codec<Integer> INT = new Codec<Integer>() {
+		@Override
+		public int width() {
+			return Integer.BYTES;
+		}
+
+		@Override
+		public void write(@Nonnull ByteBuffer buffer, int offset, @Nonnull Integer value) {
+			buffer.putInt(offset, value);
+		}
+
+		@Nonnull
+		@Override
+		public Integer read(@Nonnull ByteBuffer buffer, int offset) {
+			return buffer.getInt(offset);
+		}
+	};
+	static final Codec<Long> LONG = new Codec<Long>() {
+		@Override
+		public int width() {
+			return Long.BYTES;
+		}
+
+		@Override
+		public void write(@Nonnull ByteBuffer buffer, int offset, @Nonnull Long value) {
+			buffer.putLong(offset, value);
+		}
+
+		@Nonnull
+		@Override
+		public Long read(@Nonnull ByteBuffer buffer, int offset) {
+			return buffer.getLong(offset);
+		}
+	};
+	static final Codec<Double> DOUBLE = new Codec<Double>() {
+		@Override
+		public int width() {
+			return Double.BYTES;
+		}
+
+		@Override
+		public void write(@Nonnull ByteBuffer buffer, int offset, @Nonnull Double value) {
+			// Canonical NaN encoding, so all NaN keys match each other
+			buffer.putLong(offset, Double.doubleToLongBits(value));
+		}
+
+		@Nonnull
+		@Override
+		public Double read(@Nonnull ByteBuffer buffer, int offset) {
+			return Double.longBitsToDouble(buffer.getLong(offset));
+		}
+	};
+
+	private Codecs() {
+	}
+
+	/**
+	 * Length prefixed UTF-8 strings, zero padded to a fixed width.
+	 */
+	static final class Utf8 implements Codec<String> {
+		private final int maxBytes;
+
+		Utf8(int maxBytes) {
+			if (maxBytes < 0 || maxBytes > Short.MAX_VALUE)
+				throw new IllegalArgumentException("Max bytes must be in the range [0, " + Short.MAX_VALUE + "]");
+			this.maxBytes = maxBytes;
+		}
+
+		@Override
+		public int width() {
+			return Short.BYTES + maxBytes;
+		}
+
+		@Override
+		public void write(@Nonnull ByteBuffer buffer, int offset, @Nonnull String value) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			if (bytes.length > maxBytes)
+				throw new IllegalArgumentException("String is " + bytes.length + " bytes, max is " + maxBytes);
+			buffer.putShort(offset, (short) bytes.length);
+			offset += Short.BYTES;
+			for (int i = 0; i < maxBytes; i++)
+				buffer.put(offset + i, i < bytes.length ? bytes[i] : 0);
+		}
+
+		@Nonnull
+		@Override
+		public String read(@Nonnull ByteBuffer buffer, int offset) {
+			byte[] bytes = new byte[buffer.getShort(offset)];
+			offset += Short.BYTES;
+			for (int i = 0; i < bytes.length; i++)
+				bytes[i] = buffer.get(offset + i);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	}
+}
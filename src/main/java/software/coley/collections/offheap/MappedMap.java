@@ -0,0 +1,296 @@
+package software.coley.collections.offheap;
+
+import software.coley.collections.internal.BufferCleaner;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Hash map of fixed width keys and values, stored in a memory-mapped file.
+ * <br>
+ * The table is used in place from the file, so reopening an existing map does not read or decode any entries.
+ * Pages are loaded by the operating system as they are accessed. See {@link AbstractOffHeapMap} for the table layout.
+ * <br>
+ * The file starts with two header copies. Each holds the codec widths, the table location, capacity and size,
+ * a sequence number and a CRC32 checksum. Headers are written alternately, so a torn header write leaves the
+ * other copy intact, and the valid copy with the highest sequence number is used on open.
+ * <ul>
+ *     <li>The first change after opening or {@link #flush() flushing} marks the header as dirty.
+ *     Opening a dirty map recounts its entries, so a process crash loses at most the change in progress.</li>
+ *     <li>{@link #flush()} forces the table to storage and then writes a clean header. Changes made after the
+ *     last flush may be partially lost if the machine itself fails.</li>
+ *     <li>Growing rehashes into a new table region at the end of the file and only switches the header over to it
+ *     once the new table is forced, so a crash while growing leaves the prior table in use. Regions of earlier
+ *     tables are not reclaimed, so the file is at most about twice the size of the current table.</li>
+ * </ul>
+ * The file is locked while open. Not thread safe.
+ *
+ * @param <K>
+ * 		Map key type.
+ * @param <V>
+ * 		Map value type.
+ *
+ * @author Matt Coley
+ */
+public class MappedMap<K, V> extends AbstractOffHeapMap<K, V> {
+	private static final int MAGIC = 0x58434D4D;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 64;
+	private static final int HEADER_CHECKSUM = 48;
+	private static final long TABLE_ALIGNMENT = 4096;
+	private static final int STATE_CLEAN = 0;
+	private static final int STATE_DIRTY = 1;
+	private final FileChannel channel;
+	private final FileLock lock;
+	private final MappedByteBuffer header;
+	private long sequence;
+	private int headerIndex;
+	private boolean dirty;
+	private long tableOffset;
+	private long pendingOffset;
+
+	private MappedMap(@Nonnull Codec<K> keyCodec, @Nonnull Codec<V> valueCodec,
+					  @Nonnull FileChannel channel, @Nonnull FileLock lock, @Nonnull MappedByteBuffer header) {
+		super(keyCodec, valueCodec);
+		this.channel = channel;
+		this.lock = lock;
+		this.header = header;
+	}
+
+	/**
+	 * Opens a map with a default initial capacity.
+	 *
+	 * @param path
+	 * 		File to store the map in. Created if it does not exist.
+	 * @param keyCodec
+	 * 		Codec for keys.
+	 * @param valueCodec
+	 * 		Codec for values.
+	 * @param <K>
+	 * 		Map key type.
+	 * @param <V>
+	 * 		Map value type.
+	 *
+	 * @return Map backed by the file.
+	 *
+	 * @throws IOException
+	 * 		When the file cannot be opened, is locked by another map, or is not a valid map file.
+	 */
+	@Nonnull
+	public static <K, V> MappedMap<K, V> open(@Nonnull Path path, @Nonnull Codec<K> keyCodec,
+											  @Nonnull Codec<V> valueCodec) throws IOException {
+		return open(path, keyCodec, valueCodec, 16);
+	}
+
+	/**
+	 * @param path
+	 * 		File to store the map in. Created if it does not exist.
+	 * @param keyCodec
+	 * 		Codec for keys.
+	 * @param valueCodec
+	 * 		Codec for values.
+	 * @param expectedSize
+	 * 		Number of entries expected to be held, used to size a new map so that it does not need to grow.
+	 * 		Ignored when opening an existing map.
+	 * @param <K>
+	 * 		Map key type.
+	 * @param <V>
+	 * 		Map value type.
+	 *
+	 * @return Map backed by the file.
+	 *
+	 * @throws IOException
+	 * 		When the file cannot be opened, is locked by another map, or is not a valid map file.
+	 * @throws IllegalArgumentException
+	 * 		When the codecs widths do not match those the existing map was created with.
+	 */
+	@Nonnull
+	public static <K, V> MappedMap<K, V> open(@Nonnull Path path, @Nonnull Codec<K> keyCodec,
+											  @Nonnull Codec<V> valueCodec, int expectedSize) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			FileLock lock;
+			try {
+				lock = channel.tryLock();
+			} catch (OverlappingFileLockException ex) {
+				lock = null;
+			}
+			if (lock == null) throw new IOException("Map file is locked: " + path);
+			boolean created = channel.size() == 0;
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, 2 * HEADER_SIZE);
+			MappedMap<K, V> map = new MappedMap<>(keyCodec, valueCodec, channel, lock, header);
+			if (created) map.create(capacityFor(expectedSize));
+			else map.load(path);
+			return map;
+		} catch (IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Forces all changes to storage, and marks the map as clean.
+	 */
+	public void flush() {
+		ensureOpen();
+		if (!dirty) return;
+		for (ByteBuffer segment : table())
+			((MappedByteBuffer) segment).force();
+		writeHeader(STATE_CLEAN, tableOffset, capacity(), size());
+		dirty = false;
+	}
+
+	/**
+	 * Flushes the map, unmaps the file and releases the file lock.
+	 * Any further use of the map, other than closing it again, throws {@link IllegalStateException}.
+	 *
+	 * @throws UncheckedIOException
+	 * 		When the file cannot be closed.
+	 */
+	@Override
+	public void close() {
+		if (isClosed()) return;
+		flush();
+		super.close();
+		BufferCleaner.clean(header);
+		try {
+			lock.release();
+			channel.close();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@Override
+	protected void beforeModify() {
+		if (!dirty) {
+			writeHeader(STATE_DIRTY, tableOffset, capacity(), size());
+			dirty = true;
+		}
+	}
+
+	@Nonnull
+	@Override
+	protected ByteBuffer[] allocateTable(int capacity) {
+		// New tables go after the current one, so the current table stays intact until the header points elsewhere
+		long offset = isClosed() ? 2 * HEADER_SIZE : tableOffset + (long) capacity() * slotWidth();
+		offset = (offset + TABLE_ALIGNMENT - 1) / TABLE_ALIGNMENT * TABLE_ALIGNMENT;
+		try {
+			// Truncate anything past the new table's start so it is zero filled when extended
+			if (channel.size() > offset) channel.truncate(offset);
+			pendingOffset = offset;
+			return map(offset, capacity);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@Override
+	protected void tableGrown(@Nonnull ByteBuffer[] oldTable) {
+		for (ByteBuffer segment : table())
+			((MappedByteBuffer) segment).force();
+		tableOffset = pendingOffset;
+		writeHeader(STATE_DIRTY, tableOffset, capacity(), size());
+		releaseTable(oldTable);
+	}
+
+	@Override
+	protected void releaseTable(@Nonnull ByteBuffer[] table) {
+		for (ByteBuffer segment : table)
+			BufferCleaner.clean(segment);
+	}
+
+	private void create(int capacity) {
+		init(allocateTable(capacity), capacity, 0);
+		tableOffset = pendingOffset;
+		writeHeader(STATE_CLEAN, tableOffset, capacity, 0);
+	}
+
+	private void load(@Nonnull Path path) throws IOException {
+		int current = -1;
+		long best = -1;
+		for (int i = 0; i < 2; i++) {
+			int base = i * HEADER_SIZE;
+			if (header.getInt(base) != MAGIC || header.getLong(base + HEADER_CHECKSUM) != checksum(base)) continue;
+			if (header.getInt(base + 4) != VERSION)
+				throw new IOException("Unsupported map file version " + header.getInt(base + 4) + ": " + path);
+			long headerSequence = header.getLong(base + 8);
+			if (headerSequence > best) {
+				best = headerSequence;
+				current = i;
+			}
+		}
+		if (current < 0) throw new IOException("Not a valid map file: " + path);
+
+		int base = current * HEADER_SIZE;
+		int keyWidth = header.getInt(base + 16);
+		int valueWidth = header.getInt(base + 20);
+		if (keyWidth() != keyWidth || slotWidth() != 1 + keyWidth + valueWidth)
+			throw new IllegalArgumentException("Codecs do not match the map file, which has key width " + keyWidth
+					+ " and value width " + valueWidth);
+		int capacity = header.getInt(base + 24);
+		int size = header.getInt(base + 28);
+		long offset = header.getLong(base + 32);
+		int state = header.getInt(base + 40);
+		if (Integer.bitCount(capacity) != 1 || offset < 2 * HEADER_SIZE
+				|| channel.size() < offset + (long) capacity * slotWidth())
+			throw new IOException("Map file is truncated or corrupt: " + path);
+
+		sequence = best;
+		headerIndex = current;
+		tableOffset = offset;
+		init(map(offset, capacity), capacity, size);
+		if (state == STATE_DIRTY) {
+			// Not closed cleanly, so the recorded size may be stale
+			init(table(), capacity, countEntries());
+			writeHeader(STATE_CLEAN, offset, capacity, size());
+		}
+	}
+
+	@Nonnull
+	private ByteBuffer[] map(long offset, int capacity) throws IOException {
+		int segmentSlots = segmentSlots(capacity);
+		long segmentBytes = (long) segmentSlots * slotWidth();
+		ByteBuffer[] table = new ByteBuffer[capacity / segmentSlots];
+		for (int i = 0; i < table.length; i++)
+			table[i] = channel.map(FileChannel.MapMode.READ_WRITE, offset + i * segmentBytes, segmentBytes);
+		return table;
+	}
+
+	/**
+	 * Writes the header copy not currently in use, so the prior header survives a torn write.
+	 */
+	private void writeHeader(int state, long offset, int capacity, int size) {
+		int index = 1 - headerIndex;
+		int base = index * HEADER_SIZE;
+		header.putInt(base, MAGIC);
+		header.putInt(base + 4, VERSION);
+		header.putLong(base + 8, ++sequence);
+		header.putInt(base + 16, keyWidth());
+		header.putInt(base + 20, slotWidth() - 1 - keyWidth());
+		header.putInt(base + 24, capacity);
+		header.putInt(base + 28, size);
+		header.putLong(base + 32, offset);
+		header.putInt(base + 40, state);
+		header.putLong(base + HEADER_CHECKSUM, checksum(base));
+		header.force();
+		headerIndex = index;
+	}
+
+	private long checksum(int base) {
+		CRC32 crc = new CRC32();
+		for (int i = 0; i < HEADER_CHECKSUM; i++)
+			crc.update(header.get(base + i));
+		return crc.getValue();
+	}
+}
@@ -0,0 +1,68 @@
+package software.coley.collections.offheap;
+
+import software.coley.collections.internal.BufferCleaner;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+
+/**
+ * Hash map of fixed width keys and values, stored outside the Java heap in direct {@link ByteBuffer}s.
+ * <br>
+ * Entries do not add to the heap size or garbage collection work. Native memory is released by {@link #close()},
+ * after which the map can no longer be used. See {@link AbstractOffHeapMap} for the table layout.
+ *
+ * @param <K>
+ * 		Map key type.
+ * @param <V>
+ * 		Map value type.
+ *
+ * @author Matt Coley
+ */
+public class OffHeapMap<K, V> extends AbstractOffHeapMap<K, V> {
+	/**
+	 * New map with a default initial capacity.
+	 *
+	 * @param keyCodec
+	 * 		Codec for keys.
+	 * @param valueCodec
+	 * 		Codec for values.
+	 */
+	public OffHeapMap(@Nonnull Codec<K> keyCodec, @Nonnull Codec<V> valueCodec) {
+		this(keyCodec, valueCodec, 16);
+	}
+
+	/**
+	 * @param keyCodec
+	 * 		Codec for keys.
+	 * @param valueCodec
+	 * 		Codec for values.
+	 * @param expectedSize
+	 * 		Number of entries expected to be held, used to size the map so that it does not need to grow.
+	 */
+	public OffHeapMap(@Nonnull Codec<K> keyCodec, @Nonnull Codec<V> valueCodec, int expectedSize) {
+		super(keyCodec, valueCodec);
+		int capacity = capacityFor(expectedSize);
+		init(allocateTable(capacity), capacity, 0);
+	}
+
+	@Nonnull
+	@Override
+	protected ByteBuffer[] allocateTable(int capacity) {
+		int segmentSlots = segmentSlots(capacity);
+		ByteBuffer[] table = new ByteBuffer[capacity / segmentSlots];
+		for (int i = 0; i < table.length; i++)
+			table[i] = ByteBuffer.allocateDirect(segmentSlots * slotWidth());
+		return table;
+	}
+
+	@Override
+	protected void tableGrown(@Nonnull ByteBuffer[] oldTable) {
+		releaseTable(oldTable);
+	}
+
+	@Override
+	protected void releaseTable(@Nonnull ByteBuffer[] table) {
+		for (ByteBuffer segment : table)
+			BufferCleaner.clean(segment);
+	}
+}
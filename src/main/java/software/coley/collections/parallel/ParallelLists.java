@@ -0,0 +1,240 @@
+package software.coley.collections.parallel;
+
+import software.coley.collections.Equivalence;
+import software.coley.collections.Lists;
+import software.coley.collections.internal.Instrumentation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel variants of {@link Lists} bulk operations.
+ * Results, including their order, match the sequential operations in {@link Lists}.
+ * Inputs smaller than the {@link #getThreshold() threshold} are handled by the sequential operations.
+ *
+ * @author Matt Coley
+ * @see Lists#parallel()
+ */
+public class ParallelLists extends ParallelSupport {
+	/**
+	 * @param pool
+	 * 		Pool to run work on.
+	 * @param threshold
+	 * 		Minimum input size for work to be split across threads.
+	 */
+	public ParallelLists(@Nonnull ForkJoinPool pool, int threshold) {
+		super(pool, threshold);
+	}
+
+	/**
+	 * Concatenation is bound by memory bandwidth rather than computation, so it is not split across threads.
+	 * This exists so that code using the parallel operations does not need to switch back to {@link Lists}.
+	 *
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional items to add.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return New list with additional items.
+	 *
+	 * @see Lists#combine(List, List)
+	 */
+	@Nonnull
+	public <T> List<T> combine(@Nullable List<T> src1, @Nullable List<T> src2) {
+		return Lists.combine(src1, src2);
+	}
+
+	/**
+	 * @param src
+	 * 		Original list.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return List with duplicates removed.
+	 *
+	 * @see Lists#distinct(List)
+	 */
+	@Nonnull
+	public <T> List<T> distinct(@Nullable List<T> src) {
+		return distinct(src, Equivalence.equality());
+	}
+
+	/**
+	 * @param src
+	 * 		Original list.
+	 * @param equivalence
+	 * 		Equivalence strategy for determining duplicate items.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return List with duplicates removed. Order of first occurrences is preserved.
+	 *
+	 * @see Lists#distinct(List, Equivalence)
+	 */
+	@Nonnull
+	public <T> List<T> distinct(@Nullable List<T> src, @Nonnull Equivalence<T> equivalence) {
+		if (src == null || !isParallel(src.size())) return Lists.distinct(src, equivalence);
+		List<T> items = randomAccess(src);
+		int size = items.size();
+		Instrumentation.Scope scope = Instrumentation.begin("ParallelLists.distinct", size);
+
+		// Record the first index of each item. Taking the minimum index keeps this independent of thread timing.
+		Map<Object, Integer> firstIndices = new ConcurrentHashMap<>(hashCapacity(size));
+		forEachRange(size, (from, to) -> {
+			for (int i = from; i < to; i++)
+				firstIndices.merge(key(equivalence, items.get(i)), i, Math::min);
+		});
+
+		// Keep only the items at their first index
+		List<T> results = collectRanges(size, (from, to) -> {
+			List<T> part = new ArrayList<>();
+			for (int i = from; i < to; i++) {
+				T item = items.get(i);
+				if (firstIndices.get(key(equivalence, item)) == i)
+					part.add(item);
+			}
+			return part;
+		});
+		scope.end(results.size());
+		return results;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional list.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return New list containing only the items not shared by the two lists.
+	 *
+	 * @see Lists#disjoint(List, List)
+	 */
+	@Nonnull
+	public <T> List<T> disjoint(@Nullable List<T> src1, @Nullable List<T> src2) {
+		if (src1 == null || src2 == null || !isParallel(src1.size() + src2.size()))
+			return Lists.disjoint(src1, src2);
+
+		Instrumentation.Scope scope = Instrumentation.begin("ParallelLists.disjoint", src1.size() + src2.size());
+		List<T> items1 = randomAccess(src1);
+		List<T> items2 = randomAccess(src2);
+		Set<Object> keys1 = keySet(items1, Equivalence.equality());
+		Set<Object> keys2 = keySet(items2, Equivalence.equality());
+		List<T> results1 = filter(items1, Equivalence.equality(), keys2, false);
+		List<T> results2 = filter(items2, Equivalence.equality(), keys1, false);
+		List<T> results = Lists.combine(results1, results2);
+		scope.end(results.size());
+		return results;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional list.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return List of containing only the items shared by the two lists.
+	 *
+	 * @see Lists#union(List, List)
+	 */
+	@Nonnull
+	public <T> List<T> union(@Nullable List<T> src1, @Nullable List<T> src2) {
+		return union(src1, src2, Equivalence.equality());
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional list.
+	 * @param equivalence
+	 * 		Equivalence strategy for matching items between the lists.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return List of containing only the items shared by the two lists.
+	 *
+	 * @see Lists#union(List, List, Equivalence)
+	 */
+	@Nonnull
+	public <T> List<T> union(@Nullable List<T> src1, @Nullable List<T> src2, @Nonnull Equivalence<T> equivalence) {
+		if (src1 == null || src2 == null || !isParallel(src1.size() + src2.size()))
+			return Lists.union(src1, src2, equivalence);
+		if (src1.isEmpty() || src2.isEmpty())
+			return Collections.emptyList();
+
+		Instrumentation.Scope scope = Instrumentation.begin("ParallelLists.union", src1.size() + src2.size());
+		Set<Object> keys2 = keySet(randomAccess(src2), equivalence);
+		List<T> shared = filter(randomAccess(src1), equivalence, keys2, true);
+		List<T> results = distinct(shared, equivalence);
+		scope.end(results.size());
+		return results;
+	}
+
+	/**
+	 * @param items
+	 * 		Items to index.
+	 * @param equivalence
+	 * 		Equivalence strategy for the items.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Concurrent set of keys of the items.
+	 */
+	@Nonnull
+	private <T> Set<Object> keySet(@Nonnull List<T> items, @Nonnull Equivalence<T> equivalence) {
+		int size = items.size();
+		Set<Object> keys = ConcurrentHashMap.newKeySet(hashCapacity(size));
+		forEachRange(size, (from, to) -> {
+			for (int i = from; i < to; i++)
+				keys.add(key(equivalence, items.get(i)));
+		});
+		return keys;
+	}
+
+	/**
+	 * @param items
+	 * 		Items to filter.
+	 * @param equivalence
+	 * 		Equivalence strategy for the items.
+	 * @param keys
+	 * 		Keys to check for.
+	 * @param keepContained
+	 * 		{@code true} to keep items in the key set, {@code false} to keep items not in the key set.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Filtered items, in their original order.
+	 */
+	@Nonnull
+	private <T> List<T> filter(@Nonnull List<T> items, @Nonnull Equivalence<T> equivalence,
+	                           @Nonnull Set<Object> keys, boolean keepContained) {
+		return collectRanges(items.size(), (from, to) -> {
+			List<T> part = new ArrayList<>();
+			for (int i = from; i < to; i++) {
+				T item = items.get(i);
+				if (keys.contains(key(equivalence, item)) == keepContained)
+					part.add(item);
+			}
+			return part;
+		});
+	}
+
+	@Nonnull
+	private static <T> Object key(@Nonnull Equivalence<T> equivalence, @Nullable T item) {
+		return nullSafe(equivalence.wrap(item));
+	}
+
+	@Nonnull
+	private static <T> List<T> randomAccess(@Nonnull List<T> list) {
+		return list instanceof RandomAccess ? list : new ArrayList<>(list);
+	}
+}
@@ -0,0 +1,142 @@
+package software.coley.collections.parallel;
+
+import software.coley.collections.Maps;
+import software.coley.collections.internal.Instrumentation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel variants of {@link Maps} bulk operations.
+ * Results match the sequential operations in {@link Maps}.
+ * Inputs smaller than the {@link #getThreshold() threshold} are handled by the sequential operations.
+ * <br>
+ * Key checks are split across threads. The final result map is populated on the calling thread
+ * since {@link HashMap} does not support concurrent insertion.
+ *
+ * @author Matt Coley
+ * @see Maps#parallel()
+ */
+public class ParallelMaps extends ParallelSupport {
+	/**
+	 * @param pool
+	 * 		Pool to run work on.
+	 * @param threshold
+	 * 		Minimum input size for work to be split across threads.
+	 */
+	public ParallelMaps(@Nonnull ForkJoinPool pool, int threshold) {
+		super(pool, threshold);
+	}
+
+	/**
+	 * Insertion into a {@link HashMap} cannot be split across threads, so this is not split across threads.
+	 * This exists so that code using the parallel operations does not need to switch back to {@link Maps}.
+	 *
+	 * @param src1
+	 * 		Original map.
+	 * @param src2
+	 * 		Additional entries to add.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return New map with additional entries.
+	 *
+	 * @see Maps#combine(Map, Map)
+	 */
+	@Nonnull
+	public <K, V> Map<K, V> combine(@Nullable Map<K, V> src1, @Nullable Map<K, V> src2) {
+		return Maps.combine(src1, src2);
+	}
+
+	/**
+	 * @param src1
+	 * 		Original map.
+	 * @param src2
+	 * 		Additional map.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return New map containing only the entries <i>(by keys)</i> not shared by the two maps.
+	 *
+	 * @see Maps#distinct(Map, Map)
+	 */
+	@Nonnull
+	public <K, V> Map<K, V> distinct(@Nullable Map<K, V> src1, @Nullable Map<K, V> src2) {
+		if (src1 == null || src2 == null || !isParallel(src1.size() + src2.size()))
+			return Maps.distinct(src1, src2);
+
+		Instrumentation.Scope scope = Instrumentation.begin("ParallelMaps.distinct", src1.size() + src2.size());
+		List<Map.Entry<K, V>> entries1 = filter(src1, src2, false);
+		List<Map.Entry<K, V>> entries2 = filter(src2, src1, false);
+		Map<K, V> result = new HashMap<>(hashCapacity(entries1.size() + entries2.size()));
+		for (Map.Entry<K, V> entry : entries1) result.put(entry.getKey(), entry.getValue());
+		for (Map.Entry<K, V> entry : entries2) result.put(entry.getKey(), entry.getValue());
+		scope.end(result.size());
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original map.
+	 * @param src2
+	 * 		Additional map.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return New map containing only the entries <i>(by keys)</i> shared by the two maps.
+	 *
+	 * @see Maps#union(Map, Map)
+	 */
+	@Nonnull
+	public <K, V> Map<K, V> union(@Nullable Map<K, V> src1, @Nullable Map<K, V> src2) {
+		if (src1 == null || src1.isEmpty() || src2 == null || src2.isEmpty())
+			return Collections.emptyMap();
+		if (!isParallel(src1.size()))
+			return Maps.union(src1, src2);
+
+		Instrumentation.Scope scope = Instrumentation.begin("ParallelMaps.union", src1.size());
+		List<Map.Entry<K, V>> entries = filter(src1, src2, true);
+		Map<K, V> result = new HashMap<>(hashCapacity(entries.size()));
+		for (Map.Entry<K, V> entry : entries) result.put(entry.getKey(), entry.getValue());
+		scope.end(result.size());
+		return result;
+	}
+
+	/**
+	 * @param map
+	 * 		Map to filter entries of.
+	 * @param other
+	 * 		Map to check for keys in.
+	 * @param keepContained
+	 * 		{@code true} to keep entries with keys in the other map, {@code false} to keep entries whose keys are not.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Filtered entries.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	private <K, V> List<Map.Entry<K, V>> filter(@Nonnull Map<K, V> map, @Nonnull Map<K, V> other,
+	                                            boolean keepContained) {
+		Object[] entries = map.entrySet().toArray();
+		return collectRanges(entries.length, (from, to) -> {
+			List<Map.Entry<K, V>> part = new ArrayList<>();
+			for (int i = from; i < to; i++) {
+				Map.Entry<K, V> entry = (Map.Entry<K, V>) entries[i];
+				if (other.containsKey(entry.getKey()) == keepContained)
+					part.add(entry);
+			}
+			return part;
+		});
+	}
+}
@@ -0,0 +1,127 @@
+package software.coley.collections.parallel;
+
+import software.coley.collections.Sets;
+import software.coley.collections.internal.Instrumentation;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel variants of {@link Sets} bulk operations.
+ * Results match the sequential operations in {@link Sets}.
+ * Inputs smaller than the {@link #getThreshold() threshold} are handled by the sequential operations.
+ * <br>
+ * Membership checks are split across threads. The final result set is populated on the calling thread
+ * since {@link HashSet} does not support concurrent insertion.
+ *
+ * @author Matt Coley
+ * @see Sets#parallel()
+ */
+public class ParallelSets extends ParallelSupport {
+	/**
+	 * @param pool
+	 * 		Pool to run work on.
+	 * @param threshold
+	 * 		Minimum input size for work to be split across threads.
+	 */
+	public ParallelSets(@Nonnull ForkJoinPool pool, int threshold) {
+		super(pool, threshold);
+	}
+
+	/**
+	 * Insertion into a {@link HashSet} cannot be split across threads, so this is not split across threads.
+	 * This exists so that code using the parallel operations does not need to switch back to {@link Sets}.
+	 *
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Additional items to add.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return New set with additional items.
+	 *
+	 * @see Sets#combine(Set, Set)
+	 */
+	@Nonnull
+	public <T> Set<T> combine(@Nonnull Set<T> src1, @Nonnull Set<T> src2) {
+		return Sets.combine(src1, src2);
+	}
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Additional set.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Set of containing only the items not shared by the two sets.
+	 *
+	 * @see Sets#disjoint(Set, Set)
+	 */
+	@Nonnull
+	public <T> Set<T> disjoint(@Nonnull Set<T> src1, @Nonnull Set<T> src2) {
+		if (!isParallel(src1.size())) return Sets.disjoint(src1, src2);
+		Instrumentation.Scope scope = Instrumentation.begin("ParallelSets.disjoint", src1.size());
+		Set<T> results = toSet(filter(src1, src2, false));
+		scope.end(results.size());
+		return results;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Additional set.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Set containing only the items shared by the two sets.
+	 *
+	 * @see Sets#union(Set, Set)
+	 */
+	@Nonnull
+	public <T> Set<T> union(@Nonnull Set<T> src1, @Nonnull Set<T> src2) {
+		if (!isParallel(src1.size())) return Sets.union(src1, src2);
+		Instrumentation.Scope scope = Instrumentation.begin("ParallelSets.union", src1.size());
+		Set<T> results = toSet(filter(src1, src2, true));
+		scope.end(results.size());
+		return results;
+	}
+
+	/**
+	 * @param items
+	 * 		Items to filter.
+	 * @param other
+	 * 		Set to check membership in.
+	 * @param keepContained
+	 * 		{@code true} to keep items in the other set, {@code false} to keep items not in the other set.
+	 * @param <T>
+	 * 		Type of content.
+	 *
+	 * @return Filtered items.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	private <T> List<T> filter(@Nonnull Set<T> items, @Nonnull Set<T> other, boolean keepContained) {
+		Object[] array = items.toArray();
+		return collectRanges(array.length, (from, to) -> {
+			List<T> part = new ArrayList<>();
+			for (int i = from; i < to; i++) {
+				T item = (T) array[i];
+				if (other.contains(item) == keepContained)
+					part.add(item);
+			}
+			return part;
+		});
+	}
+
+	@Nonnull
+	private static <T> Set<T> toSet(@Nonnull List<T> items) {
+		Set<T> set = new HashSet<>(hashCapacity(items.size()));
+		set.addAll(items);
+		return set;
+	}
+}
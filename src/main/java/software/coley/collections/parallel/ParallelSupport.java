@@ -0,0 +1,185 @@
+package software.coley.collections.parallel;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Common base for parallel execution of bulk collection operations.
+ * Work is split into contiguous index ranges which are processed on a {@link ForkJoinPool}.
+ * Partial results are concatenated in range order, so results are the same as processing the ranges sequentially.
+ *
+ * @author Matt Coley
+ */
+public abstract class ParallelSupport {
+	/**
+	 * Default minimum input size for work to be split across threads.
+	 */
+	public static final int DEFAULT_THRESHOLD = 1 << 15;
+	/**
+	 * Minimum number of items in a split range.
+	 */
+	private static final int MIN_CHUNK_SIZE = 1 << 10;
+	/**
+	 * Number of ranges to create per thread of the pool, so that uneven ranges can be balanced by work-stealing.
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+	/**
+	 * Stand-in for {@code null} items in concurrent hash structures, which do not accept {@code null}.
+	 */
+	protected static final Object NULL_KEY = new Object();
+	protected final ForkJoinPool pool;
+	protected final int threshold;
+
+	/**
+	 * @param pool
+	 * 		Pool to run work on.
+	 * @param threshold
+	 * 		Minimum input size for work to be split across threads.
+	 * 		Smaller inputs are handled by the sequential implementations.
+	 */
+	protected ParallelSupport(@Nonnull ForkJoinPool pool, int threshold) {
+		this.pool = Objects.requireNonNull(pool, "Pool must not be null");
+		if (threshold < 1) throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+		this.threshold = threshold;
+	}
+
+	/**
+	 * @return Pool work is run on.
+	 */
+	@Nonnull
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * @return Minimum input size for work to be split across threads.
+	 */
+	public int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * @param size
+	 * 		Input size.
+	 *
+	 * @return {@code true} when the input is large enough to split across threads.
+	 */
+	protected boolean isParallel(int size) {
+		return size >= threshold && pool.getParallelism() > 1;
+	}
+
+	/**
+	 * @param size
+	 * 		Number of items to process.
+	 * @param action
+	 * 		Action to run on each range of items.
+	 */
+	protected void forEachRange(int size, @Nonnull RangeAction action) {
+		int chunkSize = chunkSize(size);
+		List<ForkJoinTask<?>> tasks = new ArrayList<>(size / chunkSize + 1);
+		for (int from = 0; from < size; from += chunkSize) {
+			int start = from;
+			int end = Math.min(size, from + chunkSize);
+			tasks.add(new RecursiveAction() {
+				@Override
+				protected void compute() {
+					action.run(start, end);
+				}
+			});
+		}
+		pool.invoke(new RecursiveAction() {
+			@Override
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
+	}
+
+	/**
+	 * @param size
+	 * 		Number of items to process.
+	 * @param function
+	 * 		Function to compute partial results of each range of items.
+	 * @param <R>
+	 * 		Result item type.
+	 *
+	 * @return Partial results concatenated in range order.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	protected <R> List<R> collectRanges(int size, @Nonnull RangeFunction<R> function) {
+		int chunkSize = chunkSize(size);
+		List<R>[] parts = new List[(size + chunkSize - 1) / chunkSize];
+		forEachRange(size, (from, to) -> parts[from / chunkSize] = function.apply(from, to));
+
+		int total = 0;
+		for (List<R> part : parts) total += part.size();
+		List<R> results = new ArrayList<>(total);
+		for (List<R> part : parts) results.addAll(part);
+		return results;
+	}
+
+	/**
+	 * @param value
+	 * 		Some value, possibly {@code null}.
+	 *
+	 * @return Value safe for use as a key in concurrent hash structures.
+	 */
+	@Nonnull
+	protected static Object nullSafe(Object value) {
+		return value == null ? NULL_KEY : value;
+	}
+
+	/**
+	 * @param expectedSize
+	 * 		Expected number of items to hold.
+	 *
+	 * @return Initial capacity for a hash based collection to hold the given number of items without resizing.
+	 */
+	protected static int hashCapacity(int expectedSize) {
+		if (expectedSize >= 1 << 30) return Integer.MAX_VALUE;
+		return (int) (expectedSize / 0.75F + 1.0F);
+	}
+
+	private int chunkSize(int size) {
+		int chunks = pool.getParallelism() * CHUNKS_PER_THREAD;
+		return Math.max(MIN_CHUNK_SIZE, (size + chunks - 1) / chunks);
+	}
+
+	/**
+	 * Action over a range of items.
+	 */
+	protected interface RangeAction {
+		/**
+		 * @param from
+		 * 		Start index, inclusive.
+		 * @param to
+		 * 		End index, exclusive.
+		 */
+		void run(int from, int to);
+	}
+
+	/**
+	 * Function computing partial results over a range of items.
+	 *
+	 * @param <R>
+	 * 		Result item type.
+	 */
+	protected interface RangeFunction<R> {
+		/**
+		 * @param from
+		 * 		Start index, inclusive.
+		 * @param to
+		 * 		End index, exclusive.
+		 *
+		 * @return Results of the range, in order.
+		 */
+		@Nonnull
+		List<R> apply(int from, int to);
+	}
+}
@@ -0,0 +1,334 @@
+package software.coley.collections.persistent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Immutable list which shares structure between versions. Items are stored in a 32-way trie with a separate tail
+ * buffer for the last 32 items, so creating a new list with one more item only copies a path of at most
+ * {@code log32(n)} nodes, rather than the whole list.
+ * <br>
+ * Standard {@link List} mutation methods throw {@link UnsupportedOperationException}.
+ * Use {@link #with(Object)}, {@link #withAll(Collection)}, {@link #withSet(int, Object)} and {@link #withoutLast()}
+ * to create modified copies.
+ *
+ * @param <T>
+ * 		List item type.
+ *
+ * @author Matt Coley
+ */
+public final class PersistentList<T> extends AbstractList<T> implements RandomAccess {
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+	private static final Object[] EMPTY_NODE = new Object[WIDTH];
+	private static final Object[] EMPTY_TAIL = new Object[0];
+	private static final PersistentList<?> EMPTY = new PersistentList<>(0, BITS, EMPTY_NODE, EMPTY_TAIL);
+	private final int size;
+	private final int shift;
+	private final Object[] root;
+	private final Object[] tail;
+
+	private PersistentList(int size, int shift, @Nonnull Object[] root, @Nonnull Object[] tail) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+
+	/**
+	 * @param <T>
+	 * 		List item type.
+	 *
+	 * @return Empty list.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public static <T> PersistentList<T> empty() {
+		return (PersistentList<T>) EMPTY;
+	}
+
+	/**
+	 * @param items
+	 * 		Items to populate the list with.
+	 * @param <T>
+	 * 		List item type.
+	 *
+	 * @return List containing the items. If the input is already a persistent list, it is returned as-is.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public static <T> PersistentList<T> of(@Nullable Collection<? extends T> items) {
+		if (items instanceof PersistentList) return (PersistentList<T>) items;
+		return PersistentList.<T>empty().withAll(items);
+	}
+
+	/**
+	 * @param items
+	 * 		Items to populate the list with.
+	 * @param <T>
+	 * 		List item type.
+	 *
+	 * @return List containing the items.
+	 */
+	@Nonnull
+	@SafeVarargs
+	public static <T> PersistentList<T> ofVar(T... items) {
+		return of(Arrays.asList(items));
+	}
+
+	/**
+	 * @param item
+	 * 		Item to append.
+	 *
+	 * @return New list with the item added to the end.
+	 */
+	@Nonnull
+	public PersistentList<T> with(@Nullable T item) {
+		int tailSize = size - tailOffset();
+		if (tailSize < WIDTH) {
+			Object[] newTail = Arrays.copyOf(tail, tailSize + 1);
+			newTail[tailSize] = item;
+			return new PersistentList<>(size + 1, shift, root, newTail);
+		}
+		return withChunk(new Object[]{item});
+	}
+
+	/**
+	 * Structure is shared with this list. When the given items are also a persistent list and this list is empty,
+	 * the given list is returned as-is.
+	 *
+	 * @param items
+	 * 		Items to append.
+	 *
+	 * @return New list with the items added to the end.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public PersistentList<T> withAll(@Nullable Collection<? extends T> items) {
+		if (items == null || items.isEmpty()) return this;
+		if (size == 0 && items instanceof PersistentList) return (PersistentList<T>) items;
+
+		Iterator<? extends T> it = items.iterator();
+		int remaining = items.size();
+
+		// Fill up the existing tail buffer with a single copy
+		PersistentList<T> result = this;
+		int tailSize = size - tailOffset();
+		if (tailSize < WIDTH) {
+			int count = Math.min(WIDTH - tailSize, remaining);
+			Object[] newTail = Arrays.copyOf(tail, tailSize + count);
+			for (int i = 0; i < count; i++)
+				newTail[tailSize + i] = it.next();
+			remaining -= count;
+			result = new PersistentList<>(size + count, shift, root, newTail);
+		}
+
+		// Push the remaining items in chunks the size of a full leaf node
+		while (remaining > 0) {
+			int count = Math.min(WIDTH, remaining);
+			Object[] chunk = new Object[count];
+			for (int i = 0; i < count; i++)
+				chunk[i] = it.next();
+			remaining -= count;
+			result = result.withChunk(chunk);
+		}
+		return result;
+	}
+
+	/**
+	 * @param index
+	 * 		Index to replace an item at.
+	 * @param item
+	 * 		Item to place.
+	 *
+	 * @return New list with the item at the given index replaced.
+	 */
+	@Nonnull
+	public PersistentList<T> withSet(int index, @Nullable T item) {
+		checkIndex(index);
+		if (index >= tailOffset()) {
+			Object[] newTail = tail.clone();
+			newTail[index & MASK] = item;
+			return new PersistentList<>(size, shift, root, newTail);
+		}
+		return new PersistentList<>(size, shift, assoc(shift, root, index, item), tail);
+	}
+
+	/**
+	 * @return New list with the last item removed.
+	 *
+	 * @throws NoSuchElementException
+	 * 		When the list is empty.
+	 */
+	@Nonnull
+	public PersistentList<T> withoutLast() {
+		if (size == 0) throw new NoSuchElementException("List is empty");
+		if (size == 1) return empty();
+
+		int tailSize = size - tailOffset();
+		if (tailSize > 1) {
+			Object[] newTail = Arrays.copyOf(tail, tailSize - 1);
+			return new PersistentList<>(size - 1, shift, root, newTail);
+		}
+
+		// Tail is emptied, so the last leaf in the trie becomes the new tail
+		Object[] newTail = leafFor(size - 2);
+		Object[] newRoot = popTail(shift, root);
+		int newShift = shift;
+		if (newRoot == null) newRoot = EMPTY_NODE;
+		if (shift > BITS && newRoot[1] == null) {
+			newRoot = (Object[]) newRoot[0];
+			newShift -= BITS;
+		}
+		return new PersistentList<>(size - 1, newShift, newRoot, newTail);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		checkIndex(index);
+		return (T) leafFor(index)[index & MASK];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int index;
+			private int leafStart;
+			private Object[] leaf = size == 0 ? EMPTY_TAIL : leafFor(0);
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public T next() {
+				if (index >= size) throw new NoSuchElementException();
+				if (index - leafStart == WIDTH) {
+					leaf = leafFor(index);
+					leafStart = index;
+				}
+				return (T) leaf[index++ - leafStart];
+			}
+		};
+	}
+
+	/**
+	 * @return Index of the first item in the tail buffer.
+	 */
+	private int tailOffset() {
+		if (size < WIDTH) return 0;
+		return ((size - 1) >>> BITS) << BITS;
+	}
+
+	/**
+	 * @param index
+	 * 		Item index.
+	 *
+	 * @return Leaf array holding the item.
+	 */
+	@Nonnull
+	private Object[] leafFor(int index) {
+		if (index >= tailOffset()) return tail;
+		Object[] node = root;
+		for (int level = shift; level > 0; level -= BITS)
+			node = (Object[]) node[(index >>> level) & MASK];
+		return node;
+	}
+
+	/**
+	 * Pushes the current full tail into the trie and uses the given chunk as the new tail.
+	 *
+	 * @param chunk
+	 * 		New tail contents.
+	 *
+	 * @return New list with the chunk appended.
+	 */
+	@Nonnull
+	private PersistentList<T> withChunk(@Nonnull Object[] chunk) {
+		if (size == 0) return new PersistentList<>(chunk.length, shift, root, chunk);
+
+		// The tail must be full to push, which is the case for all callers.
+		Object[] newRoot;
+		int newShift = shift;
+		if ((size >>> BITS) > (1 << shift)) {
+			// Root overflow, add another level
+			newRoot = new Object[WIDTH];
+			newRoot[0] = root;
+			newRoot[1] = newPath(shift, tail);
+			newShift += BITS;
+		} else {
+			newRoot = pushTail(shift, root, tail);
+		}
+		return new PersistentList<>(size + chunk.length, newShift, newRoot, chunk);
+	}
+
+	@Nonnull
+	private Object[] pushTail(int level, @Nonnull Object[] parent, @Nonnull Object[] tailNode) {
+		int subIndex = ((size - 1) >>> level) & MASK;
+		Object[] result = parent.clone();
+		Object[] insert;
+		if (level == BITS) {
+			insert = tailNode;
+		} else {
+			Object[] child = (Object[]) parent[subIndex];
+			insert = child != null ?
+					pushTail(level - BITS, child, tailNode) :
+					newPath(level - BITS, tailNode);
+		}
+		result[subIndex] = insert;
+		return result;
+	}
+
+	@Nullable
+	private Object[] popTail(int level, @Nonnull Object[] node) {
+		int subIndex = ((size - 2) >>> level) & MASK;
+		if (level > BITS) {
+			Object[] newChild = popTail(level - BITS, (Object[]) node[subIndex]);
+			if (newChild == null && subIndex == 0) return null;
+			Object[] result = node.clone();
+			result[subIndex] = newChild;
+			return result;
+		} else if (subIndex == 0) {
+			return null;
+		}
+		Object[] result = node.clone();
+		result[subIndex] = null;
+		return result;
+	}
+
+	@Nonnull
+	private static Object[] assoc(int level, @Nonnull Object[] node, int index, @Nullable Object item) {
+		Object[] result = node.clone();
+		if (level == 0) {
+			result[index & MASK] = item;
+		} else {
+			int subIndex = (index >>> level) & MASK;
+			result[subIndex] = assoc(level - BITS, (Object[]) node[subIndex], index, item);
+		}
+		return result;
+	}
+
+	@Nonnull
+	private static Object[] newPath(int level, @Nonnull Object[] node) {
+		if (level == 0) return node;
+		Object[] result = new Object[WIDTH];
+		result[0] = newPath(level - BITS, node);
+		return result;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+}
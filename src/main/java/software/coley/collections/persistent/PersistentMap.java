@@ -0,0 +1,705 @@
+package software.coley.collections.persistent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map which shares structure between versions. Entries are stored in a hash array mapped trie
+ * <i>(using the compressed CHAMP layout)</i> of 32-way nodes, so creating a new map with one more or one fewer
+ * entry only copies a path of at most {@code log32(n)} nodes, rather than the whole map.
+ * <br>
+ * Standard {@link Map} mutation methods throw {@link UnsupportedOperationException}.
+ * Use {@link #with(Object, Object)}, {@link #withAll(Map)} and {@link #without(Object)} to create modified copies,
+ * or a {@link Builder} to efficiently load many entries at once.
+ * <br>
+ * {@code null} keys and values are permitted.
+ *
+ * @param <K>
+ * 		Key type.
+ * @param <V>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	private static final int MAX_DEPTH = 8;
+	private static final Object NOT_FOUND = new Object();
+	private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(BitmapNode.EMPTY, 0);
+	private final Node root;
+	private final int size;
+	private Set<Entry<K, V>> entrySet;
+
+	private PersistentMap(@Nonnull Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Empty map.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentMap<K, V> empty() {
+		return (PersistentMap<K, V>) EMPTY;
+	}
+
+	/**
+	 * @param map
+	 * 		Entries to populate the map with.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Map containing the entries. If the input is already a persistent map, it is returned as-is.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentMap<K, V> of(@Nullable Map<? extends K, ? extends V> map) {
+		if (map instanceof PersistentMap) return (PersistentMap<K, V>) map;
+		return PersistentMap.<K, V>empty().withAll(map);
+	}
+
+	/**
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return New builder starting from an empty map.
+	 */
+	@Nonnull
+	public static <K, V> Builder<K, V> builder() {
+		return new Builder<>(EMPTY.root, 0);
+	}
+
+	/**
+	 * @return New builder starting from the entries of this map. This map is not affected by changes to the builder.
+	 */
+	@Nonnull
+	public Builder<K, V> toBuilder() {
+		return new Builder<>(root, size);
+	}
+
+	/**
+	 * @param key
+	 * 		Key to insert with.
+	 * @param value
+	 * 		Value to insert.
+	 *
+	 * @return New map with the entry added or replaced, or this map if it already holds the exact same value.
+	 */
+	@Nonnull
+	public PersistentMap<K, V> with(@Nullable K key, @Nullable V value) {
+		Change change = new Change();
+		Node newRoot = root.put(null, key, value, Objects.hashCode(key), 0, change);
+		if (newRoot == root) return this;
+		return new PersistentMap<>(newRoot, change.added ? size + 1 : size);
+	}
+
+	/**
+	 * @param map
+	 * 		Entries to add, replacing entries of this map with the same key.
+	 *
+	 * @return New map with the entries added. Structure is shared with this map.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public PersistentMap<K, V> withAll(@Nullable Map<? extends K, ? extends V> map) {
+		if (map == null || map.isEmpty()) return this;
+		if (size == 0 && map instanceof PersistentMap) return (PersistentMap<K, V>) map;
+		Builder<K, V> builder = toBuilder();
+		builder.putAll(map);
+		return builder.build();
+	}
+
+	/**
+	 * @param key
+	 * 		Key to remove.
+	 *
+	 * @return New map without the key, or this map if it does not contain the key.
+	 */
+	@Nonnull
+	public PersistentMap<K, V> without(@Nullable Object key) {
+		Change change = new Change();
+		Node newRoot = root.remove(null, key, Objects.hashCode(key), 0, change);
+		if (!change.removed) return this;
+		return new PersistentMap<>(newRoot, size - 1);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		Object value = root.find(key, Objects.hashCode(key), 0);
+		return value == NOT_FOUND ? null : (V) value;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return root.find(key, Objects.hashCode(key), 0) != NOT_FOUND;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(@Nonnull BiConsumer<? super K, ? super V> action) {
+		root.forEach((BiConsumer<Object, Object>) action);
+	}
+
+	@Nonnull
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Entry<K, V>>() {
+				@Nonnull
+				@Override
+				public Iterator<Entry<K, V>> iterator() {
+					return new EntryIterator<>(root);
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public boolean contains(Object o) {
+					if (!(o instanceof Entry)) return false;
+					Entry<?, ?> entry = (Entry<?, ?>) o;
+					Object value = root.find(entry.getKey(), Objects.hashCode(entry.getKey()), 0);
+					return value != NOT_FOUND && Objects.equals(value, entry.getValue());
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	/**
+	 * Mutable builder for a {@link PersistentMap}. Nodes created by the builder are updated in place until
+	 * {@link #build()} is called, which avoids copying a path of nodes for every entry during bulk loads.
+	 * <br>
+	 * The builder remains usable after {@link #build()}, but later changes copy nodes so that built maps are never
+	 * affected. Builders are not thread safe.
+	 *
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 */
+	public static final class Builder<K, V> {
+		private Object owner = new Object();
+		private Node root;
+		private int size;
+
+		private Builder(@Nonnull Node root, int size) {
+			this.root = root;
+			this.size = size;
+		}
+
+		/**
+		 * @param key
+		 * 		Key to insert with.
+		 * @param value
+		 * 		Value to insert.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder<K, V> put(@Nullable K key, @Nullable V value) {
+			Change change = new Change();
+			root = root.put(owner, key, value, Objects.hashCode(key), 0, change);
+			if (change.added) size++;
+			return this;
+		}
+
+		/**
+		 * @param map
+		 * 		Entries to insert.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder<K, V> putAll(@Nonnull Map<? extends K, ? extends V> map) {
+			map.forEach(this::put);
+			return this;
+		}
+
+		/**
+		 * @param key
+		 * 		Key to remove.
+		 *
+		 * @return Self.
+		 */
+		@Nonnull
+		public Builder<K, V> remove(@Nullable Object key) {
+			Change change = new Change();
+			root = root.remove(owner, key, Objects.hashCode(key), 0, change);
+			if (change.removed) size--;
+			return this;
+		}
+
+		/**
+		 * @param key
+		 * 		Key to look up.
+		 *
+		 * @return Associated value, or {@code null} if the key is not present.
+		 */
+		@Nullable
+		@SuppressWarnings("unchecked")
+		public V get(@Nullable Object key) {
+			Object value = root.find(key, Objects.hashCode(key), 0);
+			return value == NOT_FOUND ? null : (V) value;
+		}
+
+		/**
+		 * @return Current number of entries.
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * @return Persistent map of the current entries.
+		 */
+		@Nonnull
+		public PersistentMap<K, V> build() {
+			// Nodes handed out in the built map must never be edited again
+			owner = new Object();
+			if (size == 0) return empty();
+			return new PersistentMap<>(root, size);
+		}
+	}
+
+	/**
+	 * Outcome of a single put or remove operation.
+	 */
+	private static final class Change {
+		private boolean added;
+		private boolean removed;
+	}
+
+	/**
+	 * Base trie node.
+	 */
+	private static abstract class Node {
+		/**
+		 * Builder which may edit this node in place, or {@code null} if the node is frozen.
+		 */
+		protected Object owner;
+
+		@Nullable
+		abstract Object find(@Nullable Object key, int hash, int shift);
+
+		@Nonnull
+		abstract Node put(@Nullable Object owner, @Nullable Object key, @Nullable Object value,
+		                  int hash, int shift, @Nonnull Change change);
+
+		@Nonnull
+		abstract Node remove(@Nullable Object owner, @Nullable Object key, int hash, int shift, @Nonnull Change change);
+
+		abstract void forEach(@Nonnull BiConsumer<Object, Object> action);
+
+		/**
+		 * @return Number of entries held directly in this node.
+		 */
+		abstract int payloadArity();
+
+		/**
+		 * @return Number of child nodes.
+		 */
+		abstract int nodeArity();
+
+		@Nullable
+		abstract Object keyAt(int index);
+
+		@Nullable
+		abstract Object valueAt(int index);
+
+		@Nonnull
+		abstract Node nodeAt(int index);
+
+		protected boolean isEditable(@Nullable Object owner) {
+			return owner != null && this.owner == owner;
+		}
+	}
+
+	/**
+	 * Node of up to 32 slots, each holding either an inline entry or a child node. Inline entries are stored as
+	 * key-value pairs at the start of the array, and child nodes are stored at the end of the array in reverse order.
+	 */
+	private static final class BitmapNode extends Node {
+		private static final BitmapNode EMPTY = new BitmapNode(null, 0, 0, new Object[0]);
+		private int dataMap;
+		private int nodeMap;
+		private Object[] array;
+
+		private BitmapNode(@Nullable Object owner, int dataMap, int nodeMap, @Nonnull Object[] array) {
+			this.owner = owner;
+			this.dataMap = dataMap;
+			this.nodeMap = nodeMap;
+			this.array = array;
+		}
+
+		private static int bit(int hash, int shift) {
+			return 1 << ((hash >>> shift) & MASK);
+		}
+
+		private static int index(int bitmap, int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		@Override
+		Object find(Object key, int hash, int shift) {
+			int bit = bit(hash, shift);
+			if ((dataMap & bit) != 0) {
+				int index = index(dataMap, bit) << 1;
+				return Objects.equals(key, array[index]) ? array[index + 1] : NOT_FOUND;
+			}
+			if ((nodeMap & bit) != 0)
+				return nodeAt(index(nodeMap, bit)).find(key, hash, shift + BITS);
+			return NOT_FOUND;
+		}
+
+		@Override
+		Node put(Object owner, Object key, Object value, int hash, int shift, Change change) {
+			int bit = bit(hash, shift);
+			if ((dataMap & bit) != 0) {
+				int index = index(dataMap, bit) << 1;
+				Object existingKey = array[index];
+				Object existingValue = array[index + 1];
+				if (Objects.equals(key, existingKey)) {
+					if (existingValue == value) return this;
+					BitmapNode editable = editable(owner);
+					editable.array[index + 1] = value;
+					return editable;
+				}
+
+				// Slot is taken by a different key, push both down into a new child node
+				change.added = true;
+				Node child = merge(owner, existingKey, existingValue, Objects.hashCode(existingKey),
+						key, value, hash, shift + BITS);
+				return migrateInlineToNode(owner, bit, child);
+			}
+			if ((nodeMap & bit) != 0) {
+				int nodeIndex = index(nodeMap, bit);
+				Node child = nodeAt(nodeIndex);
+				Node newChild = child.put(owner, key, value, hash, shift + BITS, change);
+				if (newChild == child) return this;
+				BitmapNode editable = editable(owner);
+				editable.array[array.length - 1 - nodeIndex] = newChild;
+				return editable;
+			}
+			change.added = true;
+			return insertInline(owner, bit, key, value);
+		}
+
+		@Override
+		Node remove(Object owner, Object key, int hash, int shift, Change change) {
+			int bit = bit(hash, shift);
+			if ((dataMap & bit) != 0) {
+				int index = index(dataMap, bit) << 1;
+				if (!Objects.equals(key, array[index])) return this;
+				change.removed = true;
+				return removeInline(owner, bit);
+			}
+			if ((nodeMap & bit) != 0) {
+				int nodeIndex = index(nodeMap, bit);
+				Node child = nodeAt(nodeIndex);
+				Node newChild = child.remove(owner, key, hash, shift + BITS, change);
+				if (newChild == child) return this;
+				if (newChild.nodeArity() == 0 && newChild.payloadArity() == 1) {
+					// Child has a single entry left, which is pulled up towards the root to keep the trie canonical.
+					// If this node would be left with only that child it is collapsed into the child as well.
+					if (shift > 0 && payloadArity() == 0 && nodeArity() == 1) return newChild;
+					return migrateNodeToInline(owner, bit, newChild.keyAt(0), newChild.valueAt(0));
+				}
+				BitmapNode editable = editable(owner);
+				editable.array[array.length - 1 - nodeIndex] = newChild;
+				return editable;
+			}
+			return this;
+		}
+
+		@Override
+		void forEach(BiConsumer<Object, Object> action) {
+			int dataLength = payloadArity() << 1;
+			for (int i = 0; i < dataLength; i += 2)
+				action.accept(array[i], array[i + 1]);
+			for (int i = dataLength; i < array.length; i++)
+				((Node) array[i]).forEach(action);
+		}
+
+		@Override
+		int payloadArity() {
+			return Integer.bitCount(dataMap);
+		}
+
+		@Override
+		int nodeArity() {
+			return Integer.bitCount(nodeMap);
+		}
+
+		@Override
+		Object keyAt(int index) {
+			return array[index << 1];
+		}
+
+		@Override
+		Object valueAt(int index) {
+			return array[(index << 1) + 1];
+		}
+
+		@Override
+		Node nodeAt(int index) {
+			return (Node) array[array.length - 1 - index];
+		}
+
+		@Nonnull
+		private BitmapNode editable(@Nullable Object owner) {
+			if (isEditable(owner)) return this;
+			return new BitmapNode(owner, dataMap, nodeMap, array.clone());
+		}
+
+		@Nonnull
+		private Node insertInline(@Nullable Object owner, int bit, @Nullable Object key, @Nullable Object value) {
+			int index = index(dataMap, bit) << 1;
+			Object[] newArray = new Object[array.length + 2];
+			System.arraycopy(array, 0, newArray, 0, index);
+			newArray[index] = key;
+			newArray[index + 1] = value;
+			System.arraycopy(array, index, newArray, index + 2, array.length - index);
+			return update(owner, dataMap | bit, nodeMap, newArray);
+		}
+
+		@Nonnull
+		private Node removeInline(@Nullable Object owner, int bit) {
+			int index = index(dataMap, bit) << 1;
+			Object[] newArray = new Object[array.length - 2];
+			System.arraycopy(array, 0, newArray, 0, index);
+			System.arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+			return update(owner, dataMap ^ bit, nodeMap, newArray);
+		}
+
+		@Nonnull
+		private Node migrateInlineToNode(@Nullable Object owner, int bit, @Nonnull Node child) {
+			int dataIndex = index(dataMap, bit) << 1;
+			int nodeIndex = array.length - 2 - index(nodeMap, bit);
+			Object[] newArray = new Object[array.length - 1];
+
+			// Copy data before the removed entry, data and nodes between it and the new node, then the rest
+			System.arraycopy(array, 0, newArray, 0, dataIndex);
+			System.arraycopy(array, dataIndex + 2, newArray, dataIndex, nodeIndex - dataIndex);
+			newArray[nodeIndex] = child;
+			System.arraycopy(array, nodeIndex + 2, newArray, nodeIndex + 1, array.length - nodeIndex - 2);
+			return update(owner, dataMap ^ bit, nodeMap | bit, newArray);
+		}
+
+		@Nonnull
+		private Node migrateNodeToInline(@Nullable Object owner, int bit, @Nullable Object key, @Nullable Object value) {
+			int nodeIndex = array.length - 1 - index(nodeMap, bit);
+			int dataIndex = index(dataMap, bit) << 1;
+			Object[] newArray = new Object[array.length + 1];
+
+			// Copy data before the new entry, then data and nodes up to the removed node, then the rest
+			System.arraycopy(array, 0, newArray, 0, dataIndex);
+			newArray[dataIndex] = key;
+			newArray[dataIndex + 1] = value;
+			System.arraycopy(array, dataIndex, newArray, dataIndex + 2, nodeIndex - dataIndex);
+			System.arraycopy(array, nodeIndex + 1, newArray, nodeIndex + 2, array.length - nodeIndex - 1);
+			return update(owner, dataMap | bit, nodeMap ^ bit, newArray);
+		}
+
+		@Nonnull
+		private Node update(@Nullable Object owner, int dataMap, int nodeMap, @Nonnull Object[] array) {
+			if (isEditable(owner)) {
+				this.dataMap = dataMap;
+				this.nodeMap = nodeMap;
+				this.array = array;
+				return this;
+			}
+			return new BitmapNode(owner, dataMap, nodeMap, array);
+		}
+
+		@Nonnull
+		private static Node merge(@Nullable Object owner,
+		                          @Nullable Object key1, @Nullable Object value1, int hash1,
+		                          @Nullable Object key2, @Nullable Object value2, int hash2, int shift) {
+			if (shift >= Integer.SIZE)
+				return new CollisionNode(owner, hash1, new Object[]{key1, value1, key2, value2});
+
+			int bit1 = bit(hash1, shift);
+			int bit2 = bit(hash2, shift);
+			if (bit1 == bit2) {
+				Node child = merge(owner, key1, value1, hash1, key2, value2, hash2, shift + BITS);
+				return new BitmapNode(owner, 0, bit1, new Object[]{child});
+			}
+			Object[] array = Integer.compareUnsigned(bit1, bit2) < 0 ?
+					new Object[]{key1, value1, key2, value2} :
+					new Object[]{key2, value2, key1, value1};
+			return new BitmapNode(owner, bit1 | bit2, 0, array);
+		}
+	}
+
+	/**
+	 * Node holding entries whose keys have the same full hash, searched linearly.
+	 */
+	private static final class CollisionNode extends Node {
+		private final int hash;
+		private Object[] array;
+
+		private CollisionNode(@Nullable Object owner, int hash, @Nonnull Object[] array) {
+			this.owner = owner;
+			this.hash = hash;
+			this.array = array;
+		}
+
+		private int indexOf(@Nullable Object key) {
+			for (int i = 0; i < array.length; i += 2)
+				if (Objects.equals(key, array[i]))
+					return i;
+			return -1;
+		}
+
+		@Override
+		Object find(Object key, int hash, int shift) {
+			if (hash != this.hash) return NOT_FOUND;
+			int index = indexOf(key);
+			return index < 0 ? NOT_FOUND : array[index + 1];
+		}
+
+		@Override
+		Node put(Object owner, Object key, Object value, int hash, int shift, Change change) {
+			int index = indexOf(key);
+			Object[] newArray;
+			if (index >= 0) {
+				if (array[index + 1] == value) return this;
+				newArray = isEditable(owner) ? array : array.clone();
+				newArray[index + 1] = value;
+			} else {
+				change.added = true;
+				newArray = Arrays.copyOf(array, array.length + 2);
+				newArray[array.length] = key;
+				newArray[array.length + 1] = value;
+			}
+			return update(owner, newArray);
+		}
+
+		@Override
+		Node remove(Object owner, Object key, int hash, int shift, Change change) {
+			if (hash != this.hash) return this;
+			int index = indexOf(key);
+			if (index < 0) return this;
+			change.removed = true;
+			Object[] newArray = new Object[array.length - 2];
+			System.arraycopy(array, 0, newArray, 0, index);
+			System.arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+			return update(owner, newArray);
+		}
+
+		@Override
+		void forEach(BiConsumer<Object, Object> action) {
+			for (int i = 0; i < array.length; i += 2)
+				action.accept(array[i], array[i + 1]);
+		}
+
+		@Override
+		int payloadArity() {
+			return array.length >> 1;
+		}
+
+		@Override
+		int nodeArity() {
+			return 0;
+		}
+
+		@Override
+		Object keyAt(int index) {
+			return array[index << 1];
+		}
+
+		@Override
+		Object valueAt(int index) {
+			return array[(index << 1) + 1];
+		}
+
+		@Override
+		Node nodeAt(int index) {
+			throw new IndexOutOfBoundsException("Collision nodes have no child nodes");
+		}
+
+		@Nonnull
+		private Node update(@Nullable Object owner, @Nonnull Object[] newArray) {
+			if (isEditable(owner)) {
+				array = newArray;
+				return this;
+			}
+			return new CollisionNode(owner, hash, newArray);
+		}
+	}
+
+	/**
+	 * Depth first iterator over trie entries, visiting the inline entries of each node before its children.
+	 *
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 */
+	private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+		private final Node[] nodes = new Node[MAX_DEPTH];
+		private final int[] nodeCursors = new int[MAX_DEPTH];
+		private int depth;
+		private Node current;
+		private int payloadCursor;
+		private int payloadLength;
+
+		private EntryIterator(@Nonnull Node root) {
+			nodes[0] = root;
+			current = root;
+			payloadLength = root.payloadArity();
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (payloadCursor >= payloadLength) {
+				// Descend into the next unvisited child, or go back up when all children are visited
+				Node node = nodes[depth];
+				if (nodeCursors[depth] < node.nodeArity()) {
+					Node child = node.nodeAt(nodeCursors[depth]++);
+					depth++;
+					nodes[depth] = child;
+					nodeCursors[depth] = 0;
+					current = child;
+					payloadCursor = 0;
+					payloadLength = child.payloadArity();
+				} else if (depth > 0) {
+					depth--;
+				} else {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Entry<K, V> next() {
+			if (!hasNext()) throw new NoSuchElementException();
+			int index = payloadCursor++;
+			return new SimpleImmutableEntry<>((K) current.keyAt(index), (V) current.valueAt(index));
+		}
+	}
+}
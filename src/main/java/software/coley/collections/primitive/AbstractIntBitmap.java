@@ -0,0 +1,459 @@
+package software.coley.collections.primitive;
+
+import javax.annotation.Nonnull;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Common read operations of compressed {@code int} bitmaps.
+ * <br>
+ * Values are split by their high 16 bits into containers holding the low 16 bits, where each container is a sorted
+ * array when sparse, a bitset when dense, or a list of runs when made of long consecutive ranges. Values are ordered
+ * as signed integers, so iteration, {@link #rank(int)} and {@link #select(long)} start from the most negative value.
+ * <br>
+ * The serialized form written by {@link #serialize(ByteBuffer)} is the portable format shared by other Roaring
+ * bitmap implementations, and can be read in place with {@link MappedIntBitmap}.
+ *
+ * @author Matt Coley
+ * @see IntBitmap
+ * @see MappedIntBitmap
+ */
+public abstract class AbstractIntBitmap {
+	static final int SERIAL_COOKIE_NO_RUNS = 12346;
+	static final int SERIAL_COOKIE = 12347;
+	/**
+	 * Serialized bitmaps with run containers only include container offsets when they have at least this many.
+	 */
+	static final int NO_OFFSET_THRESHOLD = 4;
+	private Set<Integer> setView;
+
+	AbstractIntBitmap() {
+	}
+
+	/**
+	 * @return Number of containers.
+	 */
+	abstract int containerCount();
+
+	/**
+	 * @param index
+	 * 		Container index.
+	 *
+	 * @return Key of the container, being its high 16 bits with the sign bit flipped so keys sort as signed values.
+	 */
+	abstract int keyAt(int index);
+
+	/**
+	 * @param index
+	 * 		Container index.
+	 *
+	 * @return Container at the index, which must not be modified.
+	 */
+	@Nonnull
+	abstract RoaringContainer containerAt(int index);
+
+	/**
+	 * @param index
+	 * 		Container index.
+	 *
+	 * @return Copy of the container at the index, which may be modified.
+	 */
+	@Nonnull
+	RoaringContainer containerCopyAt(int index) {
+		return containerAt(index).copy();
+	}
+
+	/**
+	 * @param index
+	 * 		Container index.
+	 *
+	 * @return Number of values in the container.
+	 */
+	int cardinalityAt(int index) {
+		return containerAt(index).cardinality();
+	}
+
+	/**
+	 * @param key
+	 * 		Container key.
+	 *
+	 * @return Index of the container, or {@code -(insertion point) - 1} if there is none.
+	 */
+	int indexOfKey(int key) {
+		int min = 0;
+		int max = containerCount() - 1;
+		while (min <= max) {
+			int mid = (min + max) >>> 1;
+			int midKey = keyAt(mid);
+			if (midKey < key) min = mid + 1;
+			else if (midKey > key) max = mid - 1;
+			else return mid;
+		}
+		return -(min + 1);
+	}
+
+	/**
+	 * Adds a value through the {@link #asSet() set view}.
+	 */
+	boolean addFromView(int value) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Removes a value through the {@link #asSet() set view}.
+	 */
+	boolean removeFromView(int value) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Clears values through the {@link #asSet() set view}.
+	 */
+	void clearFromView() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @param value
+	 * 		Some value.
+	 *
+	 * @return Key of the container the value belongs in.
+	 */
+	static int keyOf(int value) {
+		return (value >>> 16) ^ 0x8000;
+	}
+
+	/**
+	 * @param key
+	 * 		Container key.
+	 *
+	 * @return High 16 bits of the values in the container.
+	 */
+	static int baseOf(int key) {
+		return (key ^ 0x8000) << 16;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to check.
+	 *
+	 * @return {@code true} when the value is present.
+	 */
+	public boolean contains(int value) {
+		int index = indexOfKey(keyOf(value));
+		return index >= 0 && containerAt(index).contains(value & 0xFFFF);
+	}
+
+	/**
+	 * @return Number of values.
+	 */
+	public long cardinality() {
+		long cardinality = 0;
+		for (int i = 0, count = containerCount(); i < count; i++)
+			cardinality += cardinalityAt(i);
+		return cardinality;
+	}
+
+	/**
+	 * @return {@code true} when there are no values.
+	 */
+	public boolean isEmpty() {
+		return containerCount() == 0;
+	}
+
+	/**
+	 * @return Smallest value.
+	 *
+	 * @throws NoSuchElementException
+	 * 		When the bitmap is empty.
+	 */
+	public int first() {
+		if (isEmpty()) throw new NoSuchElementException();
+		return baseOf(keyAt(0)) | containerAt(0).first();
+	}
+
+	/**
+	 * @return Largest value.
+	 *
+	 * @throws NoSuchElementException
+	 * 		When the bitmap is empty.
+	 */
+	public int last() {
+		if (isEmpty()) throw new NoSuchElementException();
+		int index = containerCount() - 1;
+		return baseOf(keyAt(index)) | containerAt(index).last();
+	}
+
+	/**
+	 * @param value
+	 * 		Some value.
+	 *
+	 * @return Number of values less than or equal to the given value.
+	 */
+	public long rank(int value) {
+		int key = keyOf(value);
+		long rank = 0;
+		int count = containerCount();
+		int i = 0;
+		for (; i < count && keyAt(i) < key; i++)
+			rank += cardinalityAt(i);
+		if (i < count && keyAt(i) == key)
+			rank += containerAt(i).rank(value & 0xFFFF);
+		return rank;
+	}
+
+	/**
+	 * @param index
+	 * 		Index of a value, in ascending order.
+	 *
+	 * @return Value at the index, such that {@code rank(select(index)) == index + 1}.
+	 *
+	 * @throws IndexOutOfBoundsException
+	 * 		When the index is negative or not less than the {@link #cardinality()}.
+	 */
+	public int select(long index) {
+		if (index >= 0) {
+			long remaining = index;
+			for (int i = 0, count = containerCount(); i < count; i++) {
+				int cardinality = cardinalityAt(i);
+				if (remaining < cardinality)
+					return baseOf(keyAt(i)) | containerAt(i).select((int) remaining);
+				remaining -= cardinality;
+			}
+		}
+		throw new IndexOutOfBoundsException("Index: " + index);
+	}
+
+	/**
+	 * @param action
+	 * 		Action to run on each value, in ascending order.
+	 */
+	public void forEach(@Nonnull IntConsumer action) {
+		for (int i = 0, count = containerCount(); i < count; i++)
+			containerAt(i).forEach(baseOf(keyAt(i)), action);
+	}
+
+	/**
+	 * @return Iterator over the values in ascending order. The bitmap should not be modified while it is in use.
+	 */
+	@Nonnull
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+			private int index = -1;
+			private RoaringContainer container;
+			private int base;
+			private int next;
+
+			{
+				nextContainer();
+			}
+
+			private void nextContainer() {
+				if (++index < containerCount()) {
+					container = containerAt(index);
+					base = baseOf(keyAt(index));
+					next = container.first();
+				} else {
+					container = null;
+				}
+			}
+
+			@Override
+			public boolean hasNext() {
+				return container != null;
+			}
+
+			@Override
+			public int nextInt() {
+				if (container == null) throw new NoSuchElementException();
+				int value = base | next;
+				next = container.nextValue(next + 1);
+				if (next < 0) nextContainer();
+				return value;
+			}
+		};
+	}
+
+	/**
+	 * @return Sequential stream of the values in ascending order.
+	 * The bitmap should not be modified while the stream is in use.
+	 */
+	@Nonnull
+	public IntStream stream() {
+		int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED;
+		return StreamSupport.intStream(Spliterators.spliterator(iterator(), cardinality(), characteristics), false);
+	}
+
+	/**
+	 * @return Sorted array of the values.
+	 *
+	 * @throws IllegalStateException
+	 * 		When there are too many values to fit in an array.
+	 */
+	@Nonnull
+	public int[] toArray() {
+		long cardinality = cardinality();
+		if (cardinality > Integer.MAX_VALUE - 8)
+			throw new IllegalStateException("Too many values for an array: " + cardinality);
+		int[] result = new int[(int) cardinality];
+		PrimitiveIterator.OfInt it = iterator();
+		for (int i = 0; i < result.length; i++) result[i] = it.nextInt();
+		return result;
+	}
+
+	/**
+	 * @return Boxed view of this bitmap, sorted in ascending order.
+	 * Changes to the view are written through to the bitmap where the bitmap supports modification.
+	 * Removal through the view's iterators is not supported, use {@link Set#remove(Object)} instead.
+	 */
+	@Nonnull
+	public Set<Integer> asSet() {
+		if (setView == null) setView = new BoxedView();
+		return setView;
+	}
+
+	/**
+	 * @return Number of bytes written by {@link #serialize(ByteBuffer)}.
+	 */
+	public int serializedSize() {
+		int count = containerCount();
+		boolean hasRuns = hasRuns();
+		int size = hasRuns ? 4 + (count + 7) / 8 : 8;
+		size += 4 * count;
+		if (!hasRuns || count >= NO_OFFSET_THRESHOLD) size += 4 * count;
+		for (int i = 0; i < count; i++)
+			size += containerAt(i).serializedSize();
+		return size;
+	}
+
+	/**
+	 * Writes the bitmap in the portable Roaring format, which is little endian regardless of the buffer's byte order.
+	 *
+	 * @param buffer
+	 * 		Buffer to write to, starting at its current position, which is advanced past the written bitmap.
+	 *
+	 * @throws BufferOverflowException
+	 * 		When the buffer has less than {@link #serializedSize()} bytes remaining.
+	 */
+	public void serialize(@Nonnull ByteBuffer buffer) {
+		if (buffer.remaining() < serializedSize()) throw new BufferOverflowException();
+		ByteBuffer out = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+		int count = containerCount();
+		boolean hasRuns = hasRuns();
+
+		// The format orders containers by unsigned keys, so containers of non-negative values come first
+		int pivot = indexOfKey(0x8000);
+		if (pivot < 0) pivot = -pivot - 1;
+		if (hasRuns) {
+			out.putInt(SERIAL_COOKIE | ((count - 1) << 16));
+			byte[] runFlags = new byte[(count + 7) / 8];
+			for (int s = 0; s < count; s++)
+				if (containerAt((s + pivot) % count).type() == RoaringContainer.TYPE_RUN)
+					runFlags[s / 8] |= (byte) (1 << (s % 8));
+			out.put(runFlags);
+		} else {
+			out.putInt(SERIAL_COOKIE_NO_RUNS);
+			out.putInt(count);
+		}
+		for (int s = 0; s < count; s++) {
+			int index = (s + pivot) % count;
+			out.putChar((char) (keyAt(index) ^ 0x8000));
+			out.putChar((char) (cardinalityAt(index) - 1));
+		}
+		if (!hasRuns || count >= NO_OFFSET_THRESHOLD) {
+			int offset = out.position() + 4 * count;
+			for (int s = 0; s < count; s++) {
+				out.putInt(offset);
+				offset += containerAt((s + pivot) % count).serializedSize();
+			}
+		}
+		for (int s = 0; s < count; s++)
+			containerAt((s + pivot) % count).write(out);
+		buffer.position(buffer.position() + out.position());
+	}
+
+	private boolean hasRuns() {
+		for (int i = 0, count = containerCount(); i < count; i++)
+			if (containerAt(i).type() == RoaringContainer.TYPE_RUN)
+				return true;
+		return false;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof AbstractIntBitmap)) return false;
+		AbstractIntBitmap other = (AbstractIntBitmap) o;
+		int count = containerCount();
+		if (count != other.containerCount()) return false;
+		for (int i = 0; i < count; i++)
+			if (keyAt(i) != other.keyAt(i) || cardinalityAt(i) != other.cardinalityAt(i))
+				return false;
+		PrimitiveIterator.OfInt it = iterator();
+		PrimitiveIterator.OfInt otherIt = other.iterator();
+		while (it.hasNext())
+			if (it.nextInt() != otherIt.nextInt())
+				return false;
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		// Consistent with the hash code of the boxed set view
+		int[] hash = new int[1];
+		forEach(value -> hash[0] += value);
+		return hash[0];
+	}
+
+	@Override
+	public String toString() {
+		return asSet().toString();
+	}
+
+	/**
+	 * Boxed set view of the outer bitmap.
+	 */
+	private final class BoxedView extends AbstractSet<Integer> {
+		@Override
+		public int size() {
+			return (int) Math.min(cardinality(), Integer.MAX_VALUE);
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return AbstractIntBitmap.this.isEmpty();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return o instanceof Integer && AbstractIntBitmap.this.contains((Integer) o);
+		}
+
+		@Override
+		public boolean add(Integer value) {
+			return addFromView(value);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			return o instanceof Integer && removeFromView((Integer) o);
+		}
+
+		@Override
+		public void clear() {
+			clearFromView();
+		}
+
+		@Nonnull
+		@Override
+		public Iterator<Integer> iterator() {
+			return AbstractIntBitmap.this.iterator();
+		}
+
+	}
+}
@@ -0,0 +1,399 @@
+package software.coley.collections.primitive;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Compressed set of {@code int} values, in the style of Roaring bitmaps.
+ * <br>
+ * Values sharing their high 16 bits are grouped into a container, which is a sorted {@code char} array while it
+ * holds up to 4096 values, and a 8 KB bitset past that. Containers of long consecutive ranges, such as those made
+ * by {@link #addRange(int, int)} or compacted by {@link #optimize()}, are stored as runs taking 4 bytes per range.
+ * A million consecutive values take under a kilobyte, and a million random values a few megabytes, compared to
+ * around 50 MB for a {@code HashSet<Integer>}.
+ * <br>
+ * The set operations {@link #and(AbstractIntBitmap)}, {@link #or(AbstractIntBitmap)},
+ * {@link #xor(AbstractIntBitmap)} and {@link #andNot(AbstractIntBitmap)} modify this bitmap in place, and have
+ * static counterparts creating a new bitmap. Operations work a container at a time, skipping containers only present
+ * in one input where the operation allows. Use {@link #asSet()} for a boxed {@link Set} view when interacting with
+ * APIs that expect a set. Not thread safe.
+ *
+ * @author Matt Coley
+ */
+public class IntBitmap extends AbstractIntBitmap {
+	private char[] keys;
+	private RoaringContainer[] containers;
+	private int count;
+
+	/**
+	 * New empty bitmap.
+	 */
+	public IntBitmap() {
+		this(4);
+	}
+
+	private IntBitmap(int capacity) {
+		keys = new char[capacity];
+		containers = new RoaringContainer[capacity];
+	}
+
+	/**
+	 * @param values
+	 * 		Values to populate the bitmap with.
+	 *
+	 * @return New bitmap of the values.
+	 */
+	@Nonnull
+	public static IntBitmap of(@Nonnull int... values) {
+		IntBitmap bitmap = new IntBitmap();
+		for (int value : values) bitmap.add(value);
+		return bitmap;
+	}
+
+	/**
+	 * @param first
+	 * 		First value in the range.
+	 * @param last
+	 * 		Last value in the range, inclusive.
+	 *
+	 * @return New bitmap of the range of values.
+	 */
+	@Nonnull
+	public static IntBitmap ofRange(int first, int last) {
+		IntBitmap bitmap = new IntBitmap();
+		bitmap.addRange(first, last);
+		return bitmap;
+	}
+
+	/**
+	 * @param bitmap
+	 * 		Bitmap to copy, which may be a {@link MappedIntBitmap}.
+	 *
+	 * @return New bitmap with the same values.
+	 */
+	@Nonnull
+	public static IntBitmap copyOf(@Nonnull AbstractIntBitmap bitmap) {
+		int count = bitmap.containerCount();
+		IntBitmap copy = new IntBitmap(Math.max(count, 4));
+		for (int i = 0; i < count; i++) {
+			copy.keys[i] = (char) bitmap.keyAt(i);
+			copy.containers[i] = bitmap.containerCopyAt(i);
+		}
+		copy.count = count;
+		return copy;
+	}
+
+	/**
+	 * Reads a bitmap written by {@link #serialize(ByteBuffer)}, copying its content onto the heap.
+	 * Use {@link MappedIntBitmap} to read the bitmap in place instead.
+	 *
+	 * @param buffer
+	 * 		Buffer to read from, starting at its current position, which is advanced past the read bitmap.
+	 *
+	 * @return Bitmap read from the buffer.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the buffer does not hold a serialized bitmap.
+	 */
+	@Nonnull
+	public static IntBitmap deserialize(@Nonnull ByteBuffer buffer) {
+		MappedIntBitmap mapped = new MappedIntBitmap(buffer);
+		IntBitmap bitmap = copyOf(mapped);
+		buffer.position(buffer.position() + mapped.serializedSize());
+		return bitmap;
+	}
+
+	/**
+	 * @param a
+	 * 		Some bitmap.
+	 * @param b
+	 * 		Another bitmap.
+	 *
+	 * @return New bitmap of the values in both bitmaps.
+	 */
+	@Nonnull
+	public static IntBitmap and(@Nonnull AbstractIntBitmap a, @Nonnull AbstractIntBitmap b) {
+		return new IntBitmap().apply(a, b, RoaringContainer.OP_AND, false);
+	}
+
+	/**
+	 * @param a
+	 * 		Some bitmap.
+	 * @param b
+	 * 		Another bitmap.
+	 *
+	 * @return New bitmap of the values in either bitmap.
+	 */
+	@Nonnull
+	public static IntBitmap or(@Nonnull AbstractIntBitmap a, @Nonnull AbstractIntBitmap b) {
+		return new IntBitmap().apply(a, b, RoaringContainer.OP_OR, false);
+	}
+
+	/**
+	 * @param a
+	 * 		Some bitmap.
+	 * @param b
+	 * 		Another bitmap.
+	 *
+	 * @return New bitmap of the values in exactly one of the bitmaps.
+	 */
+	@Nonnull
+	public static IntBitmap xor(@Nonnull AbstractIntBitmap a, @Nonnull AbstractIntBitmap b) {
+		return new IntBitmap().apply(a, b, RoaringContainer.OP_XOR, false);
+	}
+
+	/**
+	 * @param a
+	 * 		Some bitmap.
+	 * @param b
+	 * 		Bitmap of values to exclude.
+	 *
+	 * @return New bitmap of the values in the first bitmap which are not in the second bitmap.
+	 */
+	@Nonnull
+	public static IntBitmap andNot(@Nonnull AbstractIntBitmap a, @Nonnull AbstractIntBitmap b) {
+		return new IntBitmap().apply(a, b, RoaringContainer.OP_AND_NOT, false);
+	}
+
+	/**
+	 * @param value
+	 * 		Value to add.
+	 *
+	 * @return {@code true} when the value was not already present.
+	 */
+	public boolean add(int value) {
+		int key = keyOf(value);
+		int low = value & 0xFFFF;
+		int index = indexOfKey(key);
+		if (index < 0) {
+			insert(-index - 1, key, RoaringContainer.of(low));
+			return true;
+		}
+		RoaringContainer container = containers[index];
+		int cardinality = container.cardinality();
+		container = container.add(low);
+		containers[index] = container;
+		return container.cardinality() != cardinality;
+	}
+
+	/**
+	 * @param first
+	 * 		First value to add.
+	 * @param last
+	 * 		Last value to add, inclusive.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the first value is greater than the last value.
+	 */
+	public void addRange(int first, int last) {
+		if (first > last) throw new IllegalArgumentException("First value must not exceed the last value");
+		int firstKey = keyOf(first);
+		int lastKey = keyOf(last);
+		for (int key = firstKey; key <= lastKey; key++) {
+			int low = key == firstKey ? first & 0xFFFF : 0;
+			int high = key == lastKey ? last & 0xFFFF : 0xFFFF;
+			int index = indexOfKey(key);
+			if (index < 0) insert(-index - 1, key, RoaringContainer.range(low, high));
+			else containers[index] = containers[index].addRange(low, high);
+		}
+	}
+
+	/**
+	 * @param value
+	 * 		Value to remove.
+	 *
+	 * @return {@code true} when the value was present.
+	 */
+	public boolean remove(int value) {
+		int index = indexOfKey(keyOf(value));
+		if (index < 0) return false;
+		RoaringContainer container = containers[index];
+		int cardinality = container.cardinality();
+		container = container.remove(value & 0xFFFF);
+		if (container == null) {
+			removeAt(index);
+			return true;
+		}
+		containers[index] = container;
+		return container.cardinality() != cardinality;
+	}
+
+	/**
+	 * Removes all values.
+	 */
+	public void clear() {
+		Arrays.fill(containers, 0, count, null);
+		count = 0;
+	}
+
+	/**
+	 * Keeps only the values also in the given bitmap.
+	 *
+	 * @param other
+	 * 		Other bitmap.
+	 */
+	public void and(@Nonnull AbstractIntBitmap other) {
+		apply(this, other, RoaringContainer.OP_AND, true);
+	}
+
+	/**
+	 * Adds the values of the given bitmap.
+	 *
+	 * @param other
+	 * 		Other bitmap.
+	 */
+	public void or(@Nonnull AbstractIntBitmap other) {
+		apply(this, other, RoaringContainer.OP_OR, true);
+	}
+
+	/**
+	 * Keeps only the values in exactly one of this and the given bitmap.
+	 *
+	 * @param other
+	 * 		Other bitmap.
+	 */
+	public void xor(@Nonnull AbstractIntBitmap other) {
+		apply(this, other, RoaringContainer.OP_XOR, true);
+	}
+
+	/**
+	 * Removes the values of the given bitmap.
+	 *
+	 * @param other
+	 * 		Other bitmap.
+	 */
+	public void andNot(@Nonnull AbstractIntBitmap other) {
+		apply(this, other, RoaringContainer.OP_AND_NOT, true);
+	}
+
+	/**
+	 * Converts each container to whichever of the array, bitset or run representations is smallest.
+	 * Containers built one value at a time do not switch to runs on their own, so this is worth calling
+	 * once a bitmap of mostly consecutive values has been filled in.
+	 */
+	public void optimize() {
+		for (int i = 0; i < count; i++)
+			containers[i] = containers[i].optimize();
+	}
+
+	/**
+	 * @return Copy of this bitmap.
+	 */
+	@Nonnull
+	public IntBitmap copy() {
+		return copyOf(this);
+	}
+
+	@Override
+	int containerCount() {
+		return count;
+	}
+
+	@Override
+	int keyAt(int index) {
+		return keys[index];
+	}
+
+	@Nonnull
+	@Override
+	RoaringContainer containerAt(int index) {
+		return containers[index];
+	}
+
+	@Override
+	int indexOfKey(int key) {
+		return Arrays.binarySearch(keys, 0, count, (char) key);
+	}
+
+	@Override
+	boolean addFromView(int value) {
+		return add(value);
+	}
+
+	@Override
+	boolean removeFromView(int value) {
+		return remove(value);
+	}
+
+	@Override
+	void clearFromView() {
+		clear();
+	}
+
+	/**
+	 * Replaces the content of this bitmap with the result of an operation.
+	 *
+	 * @param a
+	 * 		Left operand.
+	 * @param b
+	 * 		Right operand.
+	 * @param op
+	 * 		Operation to apply.
+	 * @param reuseA
+	 * 		{@code true} when the left operand is this bitmap, so its containers can be reused for the result.
+	 *
+	 * @return Self.
+	 */
+	@Nonnull
+	private IntBitmap apply(@Nonnull AbstractIntBitmap a, @Nonnull AbstractIntBitmap b, int op, boolean reuseA) {
+		int countA = a.containerCount();
+		int countB = b.containerCount();
+		boolean keepA = op != RoaringContainer.OP_AND;
+		boolean keepB = op == RoaringContainer.OP_OR || op == RoaringContainer.OP_XOR;
+		int capacity = Math.max(4, (keepA ? countA : 0) + (keepB ? countB : Math.min(countA, countB)));
+		char[] resultKeys = new char[capacity];
+		RoaringContainer[] resultContainers = new RoaringContainer[capacity];
+		int resultCount = 0;
+		int i = 0;
+		int j = 0;
+		while (i < countA || j < countB) {
+			int keyA = i < countA ? a.keyAt(i) : Integer.MAX_VALUE;
+			int keyB = j < countB ? b.keyAt(j) : Integer.MAX_VALUE;
+			RoaringContainer result;
+			int key;
+			if (keyA < keyB) {
+				key = keyA;
+				result = keepA ? (reuseA ? a.containerAt(i) : a.containerCopyAt(i)) : null;
+				i++;
+			} else if (keyB < keyA) {
+				key = keyB;
+				result = keepB ? b.containerCopyAt(j) : null;
+				j++;
+			} else {
+				key = keyA;
+				result = RoaringContainer.apply(a.containerAt(i), b.containerAt(j), op, reuseA);
+				i++;
+				j++;
+			}
+			if (result != null) {
+				resultKeys[resultCount] = (char) key;
+				resultContainers[resultCount] = result;
+				resultCount++;
+			}
+		}
+		keys = resultKeys;
+		containers = resultContainers;
+		count = resultCount;
+		return this;
+	}
+
+	private void insert(int index, int key, @Nonnull RoaringContainer container) {
+		if (count == keys.length) {
+			keys = Arrays.copyOf(keys, count * 2);
+			containers = Arrays.copyOf(containers, count * 2);
+		}
+		System.arraycopy(keys, index, keys, index + 1, count - index);
+		System.arraycopy(containers, index, containers, index + 1, count - index);
+		keys[index] = (char) key;
+		containers[index] = container;
+		count++;
+	}
+
+	private void removeAt(int index) {
+		System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+		System.arraycopy(containers, index + 1, containers, index, count - index - 1);
+		containers[--count] = null;
+	}
+}
@@ -0,0 +1,437 @@
+package software.coley.collections.primitive;
+
+import software.coley.collections.func.IntIntConsumer;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+/**
+ * Map of {@code int} keys to {@code int} values, using open addressing with linear probing.
+ * <br>
+ * Keys and values are stored unboxed in parallel flat arrays, so there is no per-entry node
+ * and {@link #get(int)}, {@link #put(int, int)}, {@link #addTo(int, int)} and
+ * {@link #forEach(IntIntConsumer)} do not allocate.
+ * Use {@link #asMap()} for a boxed {@link Map} view when interacting with APIs that expect a map.
+ * <br>
+ * Missing keys are reported as a value of {@code 0}. Use {@link #containsKey(int)} or
+ * {@link #getOrDefault(int, int)} where a missing key must be told apart from a zero value. Not thread safe.
+ *
+ * @author Matt Coley
+ */
+public class IntIntMap {
+	/**
+	 * Zero marks empty slots in the key table, so a zero key is held in dedicated fields.
+	 */
+	private boolean hasZeroKey;
+	private int zeroValue;
+	private int[] keys;
+	private int[] values;
+	private int assigned;
+	private int mask;
+	private int resizeAt;
+	private Map<Integer, Integer> mapView;
+
+	/**
+	 * New map with a default initial capacity.
+	 */
+	public IntIntMap() {
+		this(8);
+	}
+
+	/**
+	 * @param expectedSize
+	 * 		Number of entries expected to be held, used to size the map so that it does not need to grow.
+	 */
+	public IntIntMap(int expectedSize) {
+		allocate(PrimitiveHashing.capacityFor(expectedSize));
+	}
+
+	/**
+	 * @return Number of entries.
+	 */
+	public int size() {
+		return hasZeroKey ? assigned + 1 : assigned;
+	}
+
+	/**
+	 * @return {@code true} when there are no entries.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to check.
+	 *
+	 * @return {@code true} when the key is present.
+	 */
+	public boolean containsKey(int key) {
+		if (key == 0) return hasZeroKey;
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to look up.
+	 *
+	 * @return Associated value, or {@code 0} if the key is not present.
+	 */
+	public int get(int key) {
+		return getOrDefault(key, 0);
+	}
+
+	/**
+	 * @param key
+	 * 		Key to look up.
+	 * @param defaultValue
+	 * 		Value to return if the key is not present.
+	 *
+	 * @return Associated value, or the default value if the key is not present.
+	 */
+	public int getOrDefault(int key, int defaultValue) {
+		if (key == 0) return hasZeroKey ? zeroValue : defaultValue;
+		int index = indexOf(key);
+		return index < 0 ? defaultValue : values[index];
+	}
+
+	/**
+	 * @param key
+	 * 		Key to insert with.
+	 * @param value
+	 * 		Value to insert.
+	 *
+	 * @return Prior value associated with the key, or {@code 0} if there was none.
+	 */
+	public int put(int key, int value) {
+		if (key == 0) {
+			int prior = zeroValue;
+			hasZeroKey = true;
+			zeroValue = value;
+			return prior;
+		}
+		int index = slotFor(key);
+		if (keys[index] == key) {
+			int prior = values[index];
+			values[index] = value;
+			return prior;
+		}
+		insertAt(index, key, value);
+		return 0;
+	}
+
+	/**
+	 * Adds to the value associated with a key, which is useful for counting.
+	 *
+	 * @param key
+	 * 		Key to update.
+	 * @param delta
+	 * 		Amount to add. Missing keys are treated as having a value of {@code 0}.
+	 *
+	 * @return Updated value.
+	 */
+	public int addTo(int key, int delta) {
+		if (key == 0) {
+			if (!hasZeroKey) {
+				hasZeroKey = true;
+				zeroValue = 0;
+			}
+			return zeroValue += delta;
+		}
+		int index = slotFor(key);
+		if (keys[index] == key) return values[index] += delta;
+		insertAt(index, key, delta);
+		return delta;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to remove.
+	 *
+	 * @return Prior value associated with the key, or {@code 0} if there was none.
+	 */
+	public int remove(int key) {
+		if (key == 0) {
+			int prior = zeroValue;
+			hasZeroKey = false;
+			zeroValue = 0;
+			return prior;
+		}
+		int index = indexOf(key);
+		if (index < 0) return 0;
+		int prior = values[index];
+		shiftRemove(index);
+		assigned--;
+		return prior;
+	}
+
+	/**
+	 * Removes all entries. The table capacity is retained.
+	 */
+	public void clear() {
+		hasZeroKey = false;
+		zeroValue = 0;
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, 0);
+		assigned = 0;
+	}
+
+	/**
+	 * @param action
+	 * 		Action to run on each entry.
+	 */
+	public void forEach(@Nonnull IntIntConsumer action) {
+		if (hasZeroKey) action.accept(0, zeroValue);
+		int[] keys = this.keys;
+		int[] values = this.values;
+		for (int i = 0; i < keys.length; i++)
+			if (keys[i] != 0)
+				action.accept(keys[i], values[i]);
+	}
+
+	/**
+	 * @return Array of the keys in the map, in no particular order.
+	 */
+	@Nonnull
+	public int[] keys() {
+		int[] result = new int[size()];
+		int i = 0;
+		if (hasZeroKey) result[i++] = 0;
+		for (int key : keys)
+			if (key != 0)
+				result[i++] = key;
+		return result;
+	}
+
+	/**
+	 * @return Boxed view of this map. Changes to the view are written through to this map and vice versa.
+	 * Removal through the view's iterators is not supported, use {@link Map#remove(Object)} instead.
+	 */
+	@Nonnull
+	public Map<Integer, Integer> asMap() {
+		if (mapView == null) mapView = new BoxedView();
+		return mapView;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof IntIntMap)) return false;
+		IntIntMap other = (IntIntMap) o;
+		if (size() != other.size()) return false;
+		if (hasZeroKey && (!other.hasZeroKey || zeroValue != other.zeroValue)) return false;
+		for (int i = 0; i < keys.length; i++) {
+			int key = keys[i];
+			if (key == 0) continue;
+			int otherIndex = other.indexOf(key);
+			if (otherIndex < 0 || values[i] != other.values[otherIndex]) return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		// Consistent with the hash code of the boxed map view
+		int hash = hasZeroKey ? Integer.hashCode(zeroValue) : 0;
+		for (int i = 0; i < keys.length; i++)
+			if (keys[i] != 0)
+				hash += Integer.hashCode(keys[i]) ^ Integer.hashCode(values[i]);
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return asMap().toString();
+	}
+
+	/**
+	 * @param key
+	 * 		Non-zero key to look up.
+	 *
+	 * @return Slot index of the key, or {@code -1} if not present.
+	 */
+	private int indexOf(int key) {
+		int index = slotFor(key);
+		return keys[index] == key ? index : -1;
+	}
+
+	/**
+	 * @param key
+	 * 		Non-zero key to look up.
+	 *
+	 * @return Slot holding the key, or the empty slot ending its probe sequence if the key is not present.
+	 */
+	private int slotFor(int key) {
+		int[] keys = this.keys;
+		int mask = this.mask;
+		int index = PrimitiveHashing.mix(key) & mask;
+		int existing;
+		while ((existing = keys[index]) != 0 && existing != key)
+			index = (index + 1) & mask;
+		return index;
+	}
+
+	/**
+	 * @param index
+	 * 		Empty slot found by {@link #slotFor(int)} for the key.
+	 * @param key
+	 * 		Non-zero key to insert.
+	 * @param value
+	 * 		Value to insert.
+	 */
+	private void insertAt(int index, int key, int value) {
+		if (assigned >= resizeAt) {
+			grow();
+			index = slotFor(key);
+		}
+		keys[index] = key;
+		values[index] = value;
+		assigned++;
+	}
+
+	/**
+	 * Clears the given slot, shifting later entries of the same probe sequence back so lookups need no tombstones.
+	 */
+	private void shiftRemove(int gap) {
+		int[] keys = this.keys;
+		int[] values = this.values;
+		int mask = this.mask;
+		int index = gap;
+		while (true) {
+			index = (index + 1) & mask;
+			int key = keys[index];
+			if (key == 0) break;
+
+			// The entry can fill the gap if the gap lies between its home slot and its current slot
+			int home = PrimitiveHashing.mix(key) & mask;
+			if (((index - home) & mask) >= ((index - gap) & mask)) {
+				keys[gap] = key;
+				values[gap] = values[index];
+				gap = index;
+			}
+		}
+		keys[gap] = 0;
+		values[gap] = 0;
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+		resizeAt = PrimitiveHashing.resizeThreshold(capacity);
+	}
+
+	private void grow() {
+		if (keys.length == PrimitiveHashing.MAX_CAPACITY)
+			throw new IllegalStateException("Map is at maximum capacity");
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(oldKeys.length << 1);
+		for (int i = 0; i < oldKeys.length; i++) {
+			int key = oldKeys[i];
+			if (key != 0) {
+				int index = slotFor(key);
+				keys[index] = key;
+				values[index] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Boxed map view of the outer map.
+	 */
+	private final class BoxedView extends AbstractMap<Integer, Integer> {
+		private Set<Entry<Integer, Integer>> entrySet;
+
+		@Override
+		public int size() {
+			return IntIntMap.this.size();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof Integer && IntIntMap.this.containsKey((Integer) key);
+		}
+
+		@Override
+		public Integer get(Object key) {
+			if (!containsKey(key)) return null;
+			return IntIntMap.this.get((Integer) key);
+		}
+
+		@Override
+		public Integer put(Integer key, Integer value) {
+			boolean existed = IntIntMap.this.containsKey(key);
+			int prior = IntIntMap.this.put(key, value);
+			return existed ? prior : null;
+		}
+
+		@Override
+		public Integer remove(Object key) {
+			if (!containsKey(key)) return null;
+			return IntIntMap.this.remove((Integer) key);
+		}
+
+		@Override
+		public void clear() {
+			IntIntMap.this.clear();
+		}
+
+		@Nonnull
+		@Override
+		public Set<Entry<Integer, Integer>> entrySet() {
+			if (entrySet == null) {
+				entrySet = new AbstractSet<Entry<Integer, Integer>>() {
+					@Override
+					public int size() {
+						return IntIntMap.this.size();
+					}
+
+					@Nonnull
+					@Override
+					public Iterator<Entry<Integer, Integer>> iterator() {
+						return new Iterator<Entry<Integer, Integer>>() {
+							// Slot -1 represents the zero key
+							private int index = advance(hasZeroKey ? -1 : 0);
+
+							private int advance(int from) {
+								if (from < 0) return from;
+								while (from < keys.length && keys[from] == 0) from++;
+								return from;
+							}
+
+							@Override
+							public boolean hasNext() {
+								return index < keys.length;
+							}
+
+							@Override
+							public Entry<Integer, Integer> next() {
+								if (index >= keys.length) throw new NoSuchElementException();
+								int key = index < 0 ? 0 : keys[index];
+								index = advance(index + 1);
+								return new WriteThroughEntry(key);
+							}
+						};
+					}
+				};
+			}
+			return entrySet;
+		}
+	}
+
+	/**
+	 * Entry of the boxed view, which writes value changes through to the outer map.
+	 */
+	private final class WriteThroughEntry extends AbstractMap.SimpleEntry<Integer, Integer> {
+		private WriteThroughEntry(int key) {
+			super(key, get(key));
+		}
+
+		@Override
+		public Integer setValue(Integer value) {
+			put(getKey(), value);
+			return super.setValue(value);
+		}
+	}
+}
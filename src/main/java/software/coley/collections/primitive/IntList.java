@@ -0,0 +1,324 @@
+package software.coley.collections.primitive;
+
+import software.coley.collections.Lists;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Growable list of {@code int} values, backed by a single {@code int[]}.
+ * <br>
+ * Values are stored unboxed, so this uses a fraction of the memory of a {@code List<Integer>}, and element access
+ * does not allocate. Use {@link #asList()} for a boxed {@link List} view when interacting with APIs that expect a list.
+ * Not thread safe.
+ *
+ * @author Matt Coley
+ */
+public class IntList {
+	private static final int[] EMPTY = new int[0];
+	private int[] data;
+	private int size;
+	private List<Integer> listView;
+
+	/**
+	 * New empty list.
+	 */
+	public IntList() {
+		data = EMPTY;
+	}
+
+	/**
+	 * @param capacity
+	 * 		Initial capacity.
+	 */
+	public IntList(int capacity) {
+		if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+		data = capacity == 0 ? EMPTY : new int[capacity];
+	}
+
+	/**
+	 * @param values
+	 * 		Values to populate the list with. The array is copied.
+	 *
+	 * @return New list of the values.
+	 */
+	@Nonnull
+	public static IntList of(@Nonnull int... values) {
+		IntList list = new IntList(values.length);
+		list.addAll(values);
+		return list;
+	}
+
+	/**
+	 * @return Number of values.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return {@code true} when there are no values.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param index
+	 * 		Index of value.
+	 *
+	 * @return Value at index.
+	 */
+	public int get(int index) {
+		checkIndex(index);
+		return data[index];
+	}
+
+	/**
+	 * @param index
+	 * 		Index to replace a value at.
+	 * @param value
+	 * 		Value to place.
+	 *
+	 * @return Prior value at the index.
+	 */
+	public int set(int index, int value) {
+		checkIndex(index);
+		int prior = data[index];
+		data[index] = value;
+		return prior;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to append.
+	 */
+	public void add(int value) {
+		if (size == data.length) grow(size + 1);
+		data[size++] = value;
+	}
+
+	/**
+	 * @param index
+	 * 		Index to insert at.
+	 * @param value
+	 * 		Value to insert.
+	 */
+	public void add(int index, int value) {
+		if (index < 0 || index > size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		if (size == data.length) grow(size + 1);
+		System.arraycopy(data, index, data, index + 1, size - index);
+		data[index] = value;
+		size++;
+	}
+
+	/**
+	 * @param values
+	 * 		Values to append.
+	 */
+	public void addAll(@Nonnull int[] values) {
+		addAll(values, 0, values.length);
+	}
+
+	/**
+	 * @param values
+	 * 		Values to append.
+	 */
+	public void addAll(@Nonnull IntList values) {
+		addAll(values.data, 0, values.size);
+	}
+
+	private void addAll(@Nonnull int[] values, int from, int to) {
+		int count = to - from;
+		ensureCapacity(size + count);
+		System.arraycopy(values, from, data, size, count);
+		size += count;
+	}
+
+	/**
+	 * @param index
+	 * 		Index of value to remove.
+	 *
+	 * @return Removed value.
+	 */
+	public int removeAt(int index) {
+		checkIndex(index);
+		int prior = data[index];
+		System.arraycopy(data, index + 1, data, index, size - index - 1);
+		size--;
+		return prior;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to find.
+	 *
+	 * @return Index of the first occurrence of the value, or {@code -1} if not present.
+	 */
+	public int indexOf(int value) {
+		int[] data = this.data;
+		for (int i = 0; i < size; i++)
+			if (data[i] == value)
+				return i;
+		return -1;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to find.
+	 *
+	 * @return {@code true} when the value is present.
+	 */
+	public boolean contains(int value) {
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * Removes all values. The capacity is retained.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * @param capacity
+	 * 		Minimum capacity to hold without growing.
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity > data.length) grow(capacity);
+	}
+
+	/**
+	 * Shrinks the backing array to the current size.
+	 */
+	public void trimToSize() {
+		if (size < data.length) data = size == 0 ? EMPTY : Arrays.copyOf(data, size);
+	}
+
+	/**
+	 * @return Copy of the values.
+	 */
+	@Nonnull
+	public int[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+	/**
+	 * Sorts the values in ascending order.
+	 */
+	public void sort() {
+		Arrays.sort(data, 0, size);
+	}
+
+	/**
+	 * The list must be sorted, see {@link #sort()}.
+	 *
+	 * @param value
+	 * 		Value to search for.
+	 *
+	 * @return Index of the value, or {@code -(insertion point) - 1} if not present.
+	 *
+	 * @see Lists#binarySearch(int[], int, int, int)
+	 */
+	public int binarySearch(int value) {
+		return Lists.binarySearch(data, value, 0, size);
+	}
+
+	/**
+	 * @return Sequential stream of the values. The list should not be modified while the stream is in use.
+	 */
+	@Nonnull
+	public IntStream stream() {
+		return Arrays.stream(data, 0, size);
+	}
+
+	/**
+	 * @param action
+	 * 		Action to run on each value.
+	 */
+	public void forEach(@Nonnull IntConsumer action) {
+		int[] data = this.data;
+		for (int i = 0; i < size; i++)
+			action.accept(data[i]);
+	}
+
+	/**
+	 * @return Boxed view of this list. Changes to the view are written through to this list and vice versa.
+	 */
+	@Nonnull
+	public List<Integer> asList() {
+		if (listView == null) listView = new BoxedView();
+		return listView;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof IntList)) return false;
+		IntList other = (IntList) o;
+		if (size != other.size) return false;
+		for (int i = 0; i < size; i++)
+			if (data[i] != other.data[i])
+				return false;
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		// Consistent with the hash code of the boxed list view
+		int hash = 1;
+		for (int i = 0; i < size; i++)
+			hash = 31 * hash + Integer.hashCode(data[i]);
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return asList().toString();
+	}
+
+	private void grow(int minCapacity) {
+		int capacity = Math.max(minCapacity, data.length + (data.length >> 1));
+		data = Arrays.copyOf(data, Math.max(capacity, 10));
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+
+	/**
+	 * Boxed list view of the outer list.
+	 */
+	private final class BoxedView extends AbstractList<Integer> implements RandomAccess {
+		@Override
+		public Integer get(int index) {
+			return IntList.this.get(index);
+		}
+
+		@Override
+		public Integer set(int index, Integer value) {
+			return IntList.this.set(index, value);
+		}
+
+		@Override
+		public void add(int index, Integer value) {
+			IntList.this.add(index, value);
+			modCount++;
+		}
+
+		@Override
+		public Integer remove(int index) {
+			modCount++;
+			return removeAt(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
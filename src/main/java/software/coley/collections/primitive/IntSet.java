@@ -0,0 +1,336 @@
+package software.coley.collections.primitive;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Set of {@code int} values, using open addressing with linear probing.
+ * <br>
+ * Values are stored unboxed in a single flat array, so there is no per-value node and
+ * {@link #add(int)}, {@link #contains(int)} and {@link #forEach(IntConsumer)} do not allocate.
+ * Use {@link #asSet()} for a boxed {@link Set} view when interacting with APIs that expect a set.
+ * Not thread safe.
+ *
+ * @author Matt Coley
+ */
+public class IntSet {
+	/**
+	 * Zero marks empty slots in the table, so presence of a zero value is tracked separately.
+	 */
+	private boolean hasZero;
+	private int[] table;
+	private int assigned;
+	private int mask;
+	private int resizeAt;
+	private Set<Integer> setView;
+
+	/**
+	 * New set with a default initial capacity.
+	 */
+	public IntSet() {
+		this(8);
+	}
+
+	/**
+	 * @param expectedSize
+	 * 		Number of values expected to be held, used to size the set so that it does not need to grow.
+	 */
+	public IntSet(int expectedSize) {
+		allocate(PrimitiveHashing.capacityFor(expectedSize));
+	}
+
+	/**
+	 * @param values
+	 * 		Values to populate the set with.
+	 *
+	 * @return New set of the values.
+	 */
+	@Nonnull
+	public static IntSet of(@Nonnull int... values) {
+		IntSet set = new IntSet(values.length);
+		for (int value : values) set.add(value);
+		return set;
+	}
+
+	/**
+	 * @return Number of values.
+	 */
+	public int size() {
+		return hasZero ? assigned + 1 : assigned;
+	}
+
+	/**
+	 * @return {@code true} when there are no values.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to check.
+	 *
+	 * @return {@code true} when the value is present.
+	 */
+	public boolean contains(int value) {
+		if (value == 0) return hasZero;
+		return table[slotFor(value)] == value;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to add.
+	 *
+	 * @return {@code true} when the value was not already present.
+	 */
+	public boolean add(int value) {
+		if (value == 0) {
+			if (hasZero) return false;
+			hasZero = true;
+			return true;
+		}
+		int index = slotFor(value);
+		if (table[index] == value) return false;
+		if (assigned >= resizeAt) {
+			grow();
+			index = slotFor(value);
+		}
+		table[index] = value;
+		assigned++;
+		return true;
+	}
+
+	/**
+	 * @param values
+	 * 		Values to add.
+	 */
+	public void addAll(@Nonnull IntSet values) {
+		if (values.hasZero) hasZero = true;
+		for (int value : values.table)
+			if (value != 0)
+				add(value);
+	}
+
+	/**
+	 * @param value
+	 * 		Value to remove.
+	 *
+	 * @return {@code true} when the value was present.
+	 */
+	public boolean remove(int value) {
+		if (value == 0) {
+			boolean had = hasZero;
+			hasZero = false;
+			return had;
+		}
+		int index = slotFor(value);
+		if (table[index] != value) return false;
+		shiftRemove(index);
+		assigned--;
+		return true;
+	}
+
+	/**
+	 * Removes all values. The table capacity is retained.
+	 */
+	public void clear() {
+		hasZero = false;
+		Arrays.fill(table, 0);
+		assigned = 0;
+	}
+
+	/**
+	 * @param action
+	 * 		Action to run on each value.
+	 */
+	public void forEach(@Nonnull IntConsumer action) {
+		if (hasZero) action.accept(0);
+		for (int value : table)
+			if (value != 0)
+				action.accept(value);
+	}
+
+	/**
+	 * @return Array of the values, in no particular order.
+	 */
+	@Nonnull
+	public int[] toArray() {
+		int[] result = new int[size()];
+		int i = 0;
+		if (hasZero) result[i++] = 0;
+		for (int value : table)
+			if (value != 0)
+				result[i++] = value;
+		return result;
+	}
+
+	/**
+	 * @return Sorted array of the values.
+	 */
+	@Nonnull
+	public int[] toSortedArray() {
+		int[] result = toArray();
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * @return Sequential stream of the values, in no particular order.
+	 * The set should not be modified while the stream is in use.
+	 */
+	@Nonnull
+	public IntStream stream() {
+		IntStream values = Arrays.stream(table).filter(value -> value != 0);
+		return hasZero ? IntStream.concat(IntStream.of(0), values) : values;
+	}
+
+	/**
+	 * @return Boxed view of this set. Changes to the view are written through to this set and vice versa.
+	 * Removal through the view's iterators is not supported, use {@link Set#remove(Object)} instead.
+	 */
+	@Nonnull
+	public Set<Integer> asSet() {
+		if (setView == null) setView = new BoxedView();
+		return setView;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof IntSet)) return false;
+		IntSet other = (IntSet) o;
+		if (size() != other.size() || hasZero != other.hasZero) return false;
+		for (int value : table)
+			if (value != 0 && !other.contains(value))
+				return false;
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		// Consistent with the hash code of the boxed set view
+		int hash = 0;
+		for (int value : table)
+			hash += Integer.hashCode(value);
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return asSet().toString();
+	}
+
+	/**
+	 * @param value
+	 * 		Non-zero value to look up.
+	 *
+	 * @return Slot holding the value, or the empty slot ending its probe sequence if the value is not present.
+	 */
+	private int slotFor(int value) {
+		int[] table = this.table;
+		int mask = this.mask;
+		int index = PrimitiveHashing.mix(value) & mask;
+		int existing;
+		while ((existing = table[index]) != 0 && existing != value)
+			index = (index + 1) & mask;
+		return index;
+	}
+
+	/**
+	 * Clears the given slot, shifting later values of the same probe sequence back so lookups need no tombstones.
+	 */
+	private void shiftRemove(int gap) {
+		int[] table = this.table;
+		int mask = this.mask;
+		int index = gap;
+		while (true) {
+			index = (index + 1) & mask;
+			int value = table[index];
+			if (value == 0) break;
+
+			// The value can fill the gap if the gap lies between its home slot and its current slot
+			int home = PrimitiveHashing.mix(value) & mask;
+			if (((index - home) & mask) >= ((index - gap) & mask)) {
+				table[gap] = value;
+				gap = index;
+			}
+		}
+		table[gap] = 0;
+	}
+
+	private void allocate(int capacity) {
+		table = new int[capacity];
+		mask = capacity - 1;
+		resizeAt = PrimitiveHashing.resizeThreshold(capacity);
+	}
+
+	private void grow() {
+		if (table.length == PrimitiveHashing.MAX_CAPACITY)
+			throw new IllegalStateException("Set is at maximum capacity");
+		int[] oldTable = table;
+		allocate(oldTable.length << 1);
+		for (int value : oldTable)
+			if (value != 0)
+				table[slotFor(value)] = value;
+	}
+
+	/**
+	 * Boxed set view of the outer set.
+	 */
+	private final class BoxedView extends AbstractSet<Integer> {
+		@Override
+		public int size() {
+			return IntSet.this.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return o instanceof Integer && IntSet.this.contains((Integer) o);
+		}
+
+		@Override
+		public boolean add(Integer value) {
+			return IntSet.this.add(value);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			return o instanceof Integer && IntSet.this.remove((Integer) o);
+		}
+
+		@Override
+		public void clear() {
+			IntSet.this.clear();
+		}
+
+		@Nonnull
+		@Override
+		public Iterator<Integer> iterator() {
+			return new Iterator<Integer>() {
+				// Slot -1 represents the zero value
+				private int index = advance(hasZero ? -1 : 0);
+
+				private int advance(int from) {
+					if (from < 0) return from;
+					while (from < table.length && table[from] == 0) from++;
+					return from;
+				}
+
+				@Override
+				public boolean hasNext() {
+					return index < table.length;
+				}
+
+				@Override
+				public Integer next() {
+					if (index >= table.length) throw new NoSuchElementException();
+					int value = index < 0 ? 0 : table[index];
+					index = advance(index + 1);
+					return value;
+				}
+			};
+		}
+	}
+}
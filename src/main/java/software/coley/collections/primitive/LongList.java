@@ -0,0 +1,324 @@
+package software.coley.collections.primitive;
+
+import software.coley.collections.Lists;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * Growable list of {@code long} values, backed by a single {@code long[]}.
+ * <br>
+ * Values are stored unboxed, so this uses a fraction of the memory of a {@code List<Long>}, and element access
+ * does not allocate. Use {@link #asList()} for a boxed {@link List} view when interacting with APIs that expect a list.
+ * Not thread safe.
+ *
+ * @author Matt Coley
+ */
+public class LongList {
+	private static final long[] EMPTY = new long[0];
+	private long[] data;
+	private int size;
+	private List<Long> listView;
+
+	/**
+	 * New empty list.
+	 */
+	public LongList() {
+		data = EMPTY;
+	}
+
+	/**
+	 * @param capacity
+	 * 		Initial capacity.
+	 */
+	public LongList(int capacity) {
+		if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+		data = capacity == 0 ? EMPTY : new long[capacity];
+	}
+
+	/**
+	 * @param values
+	 * 		Values to populate the list with. The array is copied.
+	 *
+	 * @return New list of the values.
+	 */
+	@Nonnull
+	public static LongList of(@Nonnull long... values) {
+		LongList list = new LongList(values.length);
+		list.addAll(values);
+		return list;
+	}
+
+	/**
+	 * @return Number of values.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return {@code true} when there are no values.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param index
+	 * 		Index of value.
+	 *
+	 * @return Value at index.
+	 */
+	public long get(int index) {
+		checkIndex(index);
+		return data[index];
+	}
+
+	/**
+	 * @param index
+	 * 		Index to replace a value at.
+	 * @param value
+	 * 		Value to place.
+	 *
+	 * @return Prior value at the index.
+	 */
+	public long set(int index, long value) {
+		checkIndex(index);
+		long prior = data[index];
+		data[index] = value;
+		return prior;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to append.
+	 */
+	public void add(long value) {
+		if (size == data.length) grow(size + 1);
+		data[size++] = value;
+	}
+
+	/**
+	 * @param index
+	 * 		Index to insert at.
+	 * @param value
+	 * 		Value to insert.
+	 */
+	public void add(int index, long value) {
+		if (index < 0 || index > size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		if (size == data.length) grow(size + 1);
+		System.arraycopy(data, index, data, index + 1, size - index);
+		data[index] = value;
+		size++;
+	}
+
+	/**
+	 * @param values
+	 * 		Values to append.
+	 */
+	public void addAll(@Nonnull long[] values) {
+		addAll(values, 0, values.length);
+	}
+
+	/**
+	 * @param values
+	 * 		Values to append.
+	 */
+	public void addAll(@Nonnull LongList values) {
+		addAll(values.data, 0, values.size);
+	}
+
+	private void addAll(@Nonnull long[] values, int from, int to) {
+		int count = to - from;
+		ensureCapacity(size + count);
+		System.arraycopy(values, from, data, size, count);
+		size += count;
+	}
+
+	/**
+	 * @param index
+	 * 		Index of value to remove.
+	 *
+	 * @return Removed value.
+	 */
+	public long removeAt(int index) {
+		checkIndex(index);
+		long prior = data[index];
+		System.arraycopy(data, index + 1, data, index, size - index - 1);
+		size--;
+		return prior;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to find.
+	 *
+	 * @return Index of the first occurrence of the value, or {@code -1} if not present.
+	 */
+	public int indexOf(long value) {
+		long[] data = this.data;
+		for (int i = 0; i < size; i++)
+			if (data[i] == value)
+				return i;
+		return -1;
+	}
+
+	/**
+	 * @param value
+	 * 		Value to find.
+	 *
+	 * @return {@code true} when the value is present.
+	 */
+	public boolean contains(long value) {
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * Removes all values. The capacity is retained.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * @param capacity
+	 * 		Minimum capacity to hold without growing.
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity > data.length) grow(capacity);
+	}
+
+	/**
+	 * Shrinks the backing array to the current size.
+	 */
+	public void trimToSize() {
+		if (size < data.length) data = size == 0 ? EMPTY : Arrays.copyOf(data, size);
+	}
+
+	/**
+	 * @return Copy of the values.
+	 */
+	@Nonnull
+	public long[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+	/**
+	 * Sorts the values in ascending order.
+	 */
+	public void sort() {
+		Arrays.sort(data, 0, size);
+	}
+
+	/**
+	 * The list must be sorted, see {@link #sort()}.
+	 *
+	 * @param value
+	 * 		Value to search for.
+	 *
+	 * @return Index of the value, or {@code -(insertion point) - 1} if not present.
+	 *
+	 * @see Lists#binarySearch(long[], long, int, int)
+	 */
+	public int binarySearch(long value) {
+		return Lists.binarySearch(data, value, 0, size);
+	}
+
+	/**
+	 * @return Sequential stream of the values. The list should not be modified while the stream is in use.
+	 */
+	@Nonnull
+	public LongStream stream() {
+		return Arrays.stream(data, 0, size);
+	}
+
+	/**
+	 * @param action
+	 * 		Action to run on each value.
+	 */
+	public void forEach(@Nonnull LongConsumer action) {
+		long[] data = this.data;
+		for (int i = 0; i < size; i++)
+			action.accept(data[i]);
+	}
+
+	/**
+	 * @return Boxed view of this list. Changes to the view are written through to this list and vice versa.
+	 */
+	@Nonnull
+	public List<Long> asList() {
+		if (listView == null) listView = new BoxedView();
+		return listView;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof LongList)) return false;
+		LongList other = (LongList) o;
+		if (size != other.size) return false;
+		for (int i = 0; i < size; i++)
+			if (data[i] != other.data[i])
+				return false;
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		// Consistent with the hash code of the boxed list view
+		int hash = 1;
+		for (int i = 0; i < size; i++)
+			hash = 31 * hash + Long.hashCode(data[i]);
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return asList().toString();
+	}
+
+	private void grow(int minCapacity) {
+		int capacity = Math.max(minCapacity, data.length + (data.length >> 1));
+		data = Arrays.copyOf(data, Math.max(capacity, 10));
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+
+	/**
+	 * Boxed list view of the outer list.
+	 */
+	private final class BoxedView extends AbstractList<Long> implements RandomAccess {
+		@Override
+		public Long get(int index) {
+			return LongList.this.get(index);
+		}
+
+		@Override
+		public Long set(int index, Long value) {
+			return LongList.this.set(index, value);
+		}
+
+		@Override
+		public void add(int index, Long value) {
+			LongList.this.add(index, value);
+			modCount++;
+		}
+
+		@Override
+		public Long remove(int index) {
+			modCount++;
+			return removeAt(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,441 @@
+package software.coley.collections.primitive;
+
+import software.coley.collections.func.LongObjConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.LongFunction;
+
+/**
+ * Map of {@code long} keys to object values, using open addressing with linear probing.
+ * <br>
+ * Keys are stored unboxed in a flat array alongside a parallel array of values, so there is no per-entry node
+ * and {@link #get(long)}, {@link #put(long, Object)} and {@link #forEach(LongObjConsumer)} do not allocate.
+ * Use {@link #asMap()} for a boxed {@link Map} view when interacting with APIs that expect a map.
+ * <br>
+ * {@code null} values are permitted, though like {@link Map#get(Object)} a {@code null} result from
+ * {@link #get(long)} does not distinguish a missing key from a {@code null} value. Not thread safe.
+ *
+ * @param <V>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+public class LongObjectMap<V> {
+	/**
+	 * Zero marks empty slots in the key table, so a zero key is held in dedicated fields.
+	 */
+	private boolean hasZeroKey;
+	private V zeroValue;
+	private long[] keys;
+	private Object[] values;
+	private int assigned;
+	private int mask;
+	private int resizeAt;
+	private Map<Long, V> mapView;
+
+	/**
+	 * New map with a default initial capacity.
+	 */
+	public LongObjectMap() {
+		this(8);
+	}
+
+	/**
+	 * @param expectedSize
+	 * 		Number of entries expected to be held, used to size the map so that it does not need to grow.
+	 */
+	public LongObjectMap(int expectedSize) {
+		allocate(PrimitiveHashing.capacityFor(expectedSize));
+	}
+
+	/**
+	 * @return Number of entries.
+	 */
+	public int size() {
+		return hasZeroKey ? assigned + 1 : assigned;
+	}
+
+	/**
+	 * @return {@code true} when there are no entries.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to check.
+	 *
+	 * @return {@code true} when the key is present.
+	 */
+	public boolean containsKey(long key) {
+		if (key == 0) return hasZeroKey;
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to look up.
+	 *
+	 * @return Associated value, or {@code null} if the key is not present.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		if (key == 0) return zeroValue;
+		int index = indexOf(key);
+		return index < 0 ? null : (V) values[index];
+	}
+
+	/**
+	 * @param key
+	 * 		Key to look up.
+	 * @param defaultValue
+	 * 		Value to return if the key is not present.
+	 *
+	 * @return Associated value, or the default value if the key is not present.
+	 */
+	@SuppressWarnings("unchecked")
+	public V getOrDefault(long key, V defaultValue) {
+		if (key == 0) return hasZeroKey ? zeroValue : defaultValue;
+		int index = indexOf(key);
+		return index < 0 ? defaultValue : (V) values[index];
+	}
+
+	/**
+	 * @param key
+	 * 		Key to insert with.
+	 * @param value
+	 * 		Value to insert.
+	 *
+	 * @return Prior value associated with the key, or {@code null} if there was none.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V put(long key, @Nullable V value) {
+		if (key == 0) {
+			V prior = zeroValue;
+			hasZeroKey = true;
+			zeroValue = value;
+			return prior;
+		}
+		int index = slotFor(key);
+		if (keys[index] == key) {
+			V prior = (V) values[index];
+			values[index] = value;
+			return prior;
+		}
+		insertAt(index, key, value);
+		return null;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to look up.
+	 * @param function
+	 * 		Function to compute a value if the key is not present, or is associated with {@code null}.
+	 *
+	 * @return Existing or newly computed value.
+	 */
+	@Nullable
+	public V computeIfAbsent(long key, @Nonnull LongFunction<? extends V> function) {
+		V value = get(key);
+		if (value == null) {
+			value = function.apply(key);
+			if (value != null) put(key, value);
+		}
+		return value;
+	}
+
+	/**
+	 * @param key
+	 * 		Key to remove.
+	 *
+	 * @return Prior value associated with the key, or {@code null} if there was none.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		if (key == 0) {
+			V prior = zeroValue;
+			hasZeroKey = false;
+			zeroValue = null;
+			return prior;
+		}
+		int index = indexOf(key);
+		if (index < 0) return null;
+		V prior = (V) values[index];
+		shiftRemove(index);
+		assigned--;
+		return prior;
+	}
+
+	/**
+	 * Removes all entries. The table capacity is retained.
+	 */
+	public void clear() {
+		hasZeroKey = false;
+		zeroValue = null;
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, null);
+		assigned = 0;
+	}
+
+	/**
+	 * @param action
+	 * 		Action to run on each entry.
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(@Nonnull LongObjConsumer<? super V> action) {
+		if (hasZeroKey) action.accept(0, zeroValue);
+		long[] keys = this.keys;
+		Object[] values = this.values;
+		for (int i = 0; i < keys.length; i++)
+			if (keys[i] != 0)
+				action.accept(keys[i], (V) values[i]);
+	}
+
+	/**
+	 * @return Array of the keys in the map, in no particular order.
+	 */
+	@Nonnull
+	public long[] keys() {
+		long[] result = new long[size()];
+		int i = 0;
+		if (hasZeroKey) result[i++] = 0;
+		for (long key : keys)
+			if (key != 0)
+				result[i++] = key;
+		return result;
+	}
+
+	/**
+	 * @return Boxed view of this map. Changes to the view are written through to this map and vice versa.
+	 * Removal through the view's iterators is not supported, use {@link Map#remove(Object)} instead.
+	 */
+	@Nonnull
+	public Map<Long, V> asMap() {
+		if (mapView == null) mapView = new BoxedView();
+		return mapView;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof LongObjectMap)) return false;
+		LongObjectMap<?> other = (LongObjectMap<?>) o;
+		if (size() != other.size()) return false;
+		if (hasZeroKey && (!other.hasZeroKey || !Objects.equals(zeroValue, other.zeroValue))) return false;
+		for (int i = 0; i < keys.length; i++) {
+			long key = keys[i];
+			if (key == 0) continue;
+			int otherIndex = other.indexOf(key);
+			if (otherIndex < 0 || !Objects.equals(values[i], other.values[otherIndex])) return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		// Consistent with the hash code of the boxed map view
+		int hash = hasZeroKey ? Objects.hashCode(zeroValue) : 0;
+		for (int i = 0; i < keys.length; i++)
+			if (keys[i] != 0)
+				hash += Long.hashCode(keys[i]) ^ Objects.hashCode(values[i]);
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return asMap().toString();
+	}
+
+	/**
+	 * @param key
+	 * 		Non-zero key to look up.
+	 *
+	 * @return Slot index of the key, or {@code -1} if not present.
+	 */
+	private int indexOf(long key) {
+		int index = slotFor(key);
+		return keys[index] == key ? index : -1;
+	}
+
+	/**
+	 * @param key
+	 * 		Non-zero key to look up.
+	 *
+	 * @return Slot holding the key, or the empty slot ending its probe sequence if the key is not present.
+	 */
+	private int slotFor(long key) {
+		long[] keys = this.keys;
+		int mask = this.mask;
+		int index = PrimitiveHashing.mix(key) & mask;
+		long existing;
+		while ((existing = keys[index]) != 0 && existing != key)
+			index = (index + 1) & mask;
+		return index;
+	}
+
+	/**
+	 * @param index
+	 * 		Empty slot found by {@link #slotFor(long)} for the key.
+	 * @param key
+	 * 		Non-zero key to insert.
+	 * @param value
+	 * 		Value to insert.
+	 */
+	private void insertAt(int index, long key, @Nullable Object value) {
+		if (assigned >= resizeAt) {
+			grow();
+			index = slotFor(key);
+		}
+		keys[index] = key;
+		values[index] = value;
+		assigned++;
+	}
+
+	/**
+	 * Clears the given slot, shifting later entries of the same probe sequence back so lookups need no tombstones.
+	 */
+	private void shiftRemove(int gap) {
+		long[] keys = this.keys;
+		Object[] values = this.values;
+		int mask = this.mask;
+		int index = gap;
+		while (true) {
+			index = (index + 1) & mask;
+			long key = keys[index];
+			if (key == 0) break;
+
+			// The entry can fill the gap if the gap lies between its home slot and its current slot
+			int home = PrimitiveHashing.mix(key) & mask;
+			if (((index - home) & mask) >= ((index - gap) & mask)) {
+				keys[gap] = key;
+				values[gap] = values[index];
+				gap = index;
+			}
+		}
+		keys[gap] = 0;
+		values[gap] = null;
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		resizeAt = PrimitiveHashing.resizeThreshold(capacity);
+	}
+
+	private void grow() {
+		if (keys.length == PrimitiveHashing.MAX_CAPACITY)
+			throw new IllegalStateException("Map is at maximum capacity");
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(oldKeys.length << 1);
+		for (int i = 0; i < oldKeys.length; i++) {
+			long key = oldKeys[i];
+			if (key != 0) {
+				int index = slotFor(key);
+				keys[index] = key;
+				values[index] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Boxed map view of the outer map.
+	 */
+	private final class BoxedView extends AbstractMap<Long, V> {
+		private Set<Entry<Long, V>> entrySet;
+
+		@Override
+		public int size() {
+			return LongObjectMap.this.size();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof Long && LongObjectMap.this.containsKey((Long) key);
+		}
+
+		@Override
+		public V get(Object key) {
+			return key instanceof Long ? LongObjectMap.this.get((Long) key) : null;
+		}
+
+		@Override
+		public V put(Long key, V value) {
+			return LongObjectMap.this.put(key, value);
+		}
+
+		@Override
+		public V remove(Object key) {
+			return key instanceof Long ? LongObjectMap.this.remove((Long) key) : null;
+		}
+
+		@Override
+		public void clear() {
+			LongObjectMap.this.clear();
+		}
+
+		@Nonnull
+		@Override
+		public Set<Entry<Long, V>> entrySet() {
+			if (entrySet == null) {
+				entrySet = new AbstractSet<Entry<Long, V>>() {
+					@Override
+					public int size() {
+						return LongObjectMap.this.size();
+					}
+
+					@Nonnull
+					@Override
+					public Iterator<Entry<Long, V>> iterator() {
+						return new Iterator<Entry<Long, V>>() {
+							// Slot -1 represents the zero key
+							private int index = advance(hasZeroKey ? -1 : 0);
+
+							private int advance(int from) {
+								if (from < 0) return from;
+								while (from < keys.length && keys[from] == 0) from++;
+								return from;
+							}
+
+							@Override
+							public boolean hasNext() {
+								return index < keys.length;
+							}
+
+							@Override
+							public Entry<Long, V> next() {
+								if (index >= keys.length) throw new NoSuchElementException();
+								long key = index < 0 ? 0 : keys[index];
+								index = advance(index + 1);
+								return new WriteThroughEntry(key);
+							}
+						};
+					}
+				};
+			}
+			return entrySet;
+		}
+	}
+
+	/**
+	 * Entry of the boxed view, which writes value changes through to the outer map.
+	 */
+	private final class WriteThroughEntry extends AbstractMap.SimpleEntry<Long, V> {
+		private WriteThroughEntry(long key) {
+			super(key, get(key));
+		}
+
+		@Override
+		public V setValue(V value) {
+			put(getKey(), value);
+			return super.setValue(value);
+		}
+	}
+}
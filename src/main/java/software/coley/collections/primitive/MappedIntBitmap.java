@@ -0,0 +1,145 @@
+package software.coley.collections.primitive;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Read-only bitmap over the serialized form written by {@link AbstractIntBitmap#serialize(ByteBuffer)},
+ * or by other implementations of the portable Roaring format.
+ * <br>
+ * The buffer is read in place, so opening a bitmap only reads its header, which makes this suitable for bitmaps in
+ * {@link java.nio.MappedByteBuffer memory mapped files}. {@link #contains(int)} reads the container straight from
+ * the buffer, while operations walking the values, such as iteration and the set operations of {@link IntBitmap},
+ * copy one container at a time to the heap. Use {@link IntBitmap#copyOf(AbstractIntBitmap)} to take a modifiable
+ * copy. The buffer must not be modified while the bitmap is in use.
+ *
+ * @author Matt Coley
+ */
+public final class MappedIntBitmap extends AbstractIntBitmap {
+	private final ByteBuffer buffer;
+	private final int count;
+	private final boolean hasRuns;
+	private final int headerOffset;
+	private final int[] offsets;
+	/**
+	 * Index in the serialized order of the first container of negative values, which come first in signed order.
+	 */
+	private final int pivot;
+	private final int serializedSize;
+
+	/**
+	 * @param buffer
+	 * 		Buffer holding a serialized bitmap, starting at its current position. The position is not changed.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When the buffer does not hold a serialized bitmap.
+	 */
+	public MappedIntBitmap(@Nonnull ByteBuffer buffer) {
+		this.buffer = buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			int cookie = buffer.getInt(0);
+			int position;
+			if ((cookie & 0xFFFF) == SERIAL_COOKIE) {
+				count = (cookie >>> 16) + 1;
+				hasRuns = true;
+				position = 4 + (count + 7) / 8;
+			} else if (cookie == SERIAL_COOKIE_NO_RUNS) {
+				count = buffer.getInt(4);
+				hasRuns = false;
+				position = 8;
+			} else {
+				throw new IllegalArgumentException("Buffer does not hold a serialized bitmap");
+			}
+			if (count < 0 || count > 0x10000)
+				throw new IllegalArgumentException("Invalid container count: " + count);
+			headerOffset = position;
+			position += 4 * count;
+
+			// Offsets are only written for bitmaps without runs, or with enough containers to be worth it
+			offsets = new int[count];
+			if (!hasRuns || count >= NO_OFFSET_THRESHOLD) {
+				for (int i = 0; i < count; i++)
+					offsets[i] = buffer.getInt(position + 4 * i);
+				position += 4 * count;
+				if (count > 0) position = offsets[count - 1];
+			} else {
+				for (int i = 0; i < count; i++) {
+					offsets[i] = position;
+					if (i < count - 1)
+						position += RoaringContainer.serializedSize(type(i), buffer, position, cardinality(i));
+				}
+			}
+			serializedSize = count == 0 ? position :
+					position + RoaringContainer.serializedSize(type(count - 1), buffer, position, cardinality(count - 1));
+			if (serializedSize > buffer.limit())
+				throw new IllegalArgumentException("Buffer is too small for the serialized bitmap");
+
+			int pivot = 0;
+			while (pivot < count && serializedKey(pivot) < 0x8000) pivot++;
+			this.pivot = pivot;
+		} catch (IndexOutOfBoundsException ex) {
+			throw new IllegalArgumentException("Buffer is too small for the serialized bitmap", ex);
+		}
+	}
+
+	@Override
+	public boolean contains(int value) {
+		int index = indexOfKey(keyOf(value));
+		if (index < 0) return false;
+		int s = serialIndex(index);
+		return RoaringContainer.contains(type(s), buffer, offsets[s], cardinality(s), value & 0xFFFF);
+	}
+
+	@Override
+	public int serializedSize() {
+		return serializedSize;
+	}
+
+	@Override
+	int containerCount() {
+		return count;
+	}
+
+	@Override
+	int keyAt(int index) {
+		return serializedKey(serialIndex(index)) ^ 0x8000;
+	}
+
+	@Nonnull
+	@Override
+	RoaringContainer containerAt(int index) {
+		int s = serialIndex(index);
+		return RoaringContainer.read(buffer, offsets[s], type(s), cardinality(s));
+	}
+
+	@Nonnull
+	@Override
+	RoaringContainer containerCopyAt(int index) {
+		// Containers are already read into new copies
+		return containerAt(index);
+	}
+
+	@Override
+	int cardinalityAt(int index) {
+		return cardinality(serialIndex(index));
+	}
+
+	private int serialIndex(int index) {
+		int s = index + pivot;
+		return s < count ? s : s - count;
+	}
+
+	private int serializedKey(int s) {
+		return buffer.getChar(headerOffset + 4 * s);
+	}
+
+	private int cardinality(int s) {
+		return buffer.getChar(headerOffset + 4 * s + 2) + 1;
+	}
+
+	private int type(int s) {
+		if (hasRuns && (buffer.get(4 + s / 8) & (1 << (s % 8))) != 0) return RoaringContainer.TYPE_RUN;
+		return cardinality(s) > RoaringContainer.ARRAY_MAX ? RoaringContainer.TYPE_BITSET : RoaringContainer.TYPE_ARRAY;
+	}
+}
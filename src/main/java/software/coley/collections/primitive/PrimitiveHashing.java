@@ -0,0 +1,66 @@
+package software.coley.collections.primitive;
+
+/**
+ * Shared hashing and sizing logic for open-addressed primitive collections.
+ *
+ * @author Matt Coley
+ */
+final class PrimitiveHashing {
+	/**
+	 * Largest supported table capacity.
+	 */
+	static final int MAX_CAPACITY = 1 << 30;
+	private static final int MIN_CAPACITY = 4;
+
+	private PrimitiveHashing() {
+	}
+
+	/**
+	 * @param key
+	 * 		Key to hash.
+	 *
+	 * @return Well distributed hash of the key, suitable for masking to a power of two table size.
+	 */
+	static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * @param key
+	 * 		Key to hash.
+	 *
+	 * @return Well distributed hash of the key, suitable for masking to a power of two table size.
+	 */
+	static int mix(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		int folded = (int) (h ^ (h >>> 32));
+		return folded ^ (folded >>> 16);
+	}
+
+	/**
+	 * @param expectedSize
+	 * 		Number of entries expected to be held.
+	 *
+	 * @return Power of two table capacity which holds the expected entries without resizing.
+	 */
+	static int capacityFor(int expectedSize) {
+		if (expectedSize < 0)
+			throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+		if (expectedSize >= MAX_CAPACITY >> 1) return MAX_CAPACITY;
+		int capacity = Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) << 1;
+		return Math.max(MIN_CAPACITY, capacity);
+	}
+
+	/**
+	 * Tables are kept at most half full so that linear probe sequences stay short.
+	 *
+	 * @param capacity
+	 * 		Table capacity.
+	 *
+	 * @return Number of occupied slots at which the table should be grown.
+	 */
+	static int resizeThreshold(int capacity) {
+		return capacity == MAX_CAPACITY ? capacity - 1 : capacity >> 1;
+	}
+}
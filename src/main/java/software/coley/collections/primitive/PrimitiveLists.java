@@ -0,0 +1,407 @@
+package software.coley.collections.primitive;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Utility for handling primitive list types, mirroring {@link software.coley.collections.Lists}
+ * without boxing any values. Duplicate checks are done with {@link IntSet} and {@link LongSet}.
+ * <br>
+ * {@code double} values are compared like {@link Double#equals(Object)}.
+ *
+ * @author Matt Coley
+ */
+public class PrimitiveLists {
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional values to add.
+	 *
+	 * @return New list with the values of both lists.
+	 */
+	@Nonnull
+	public static IntList combine(@Nullable IntList src1, @Nullable IntList src2) {
+		IntList result = new IntList(sizeOf(src1) + sizeOf(src2));
+		if (src1 != null) result.addAll(src1);
+		if (src2 != null) result.addAll(src2);
+		return result;
+	}
+
+	/**
+	 * @param src
+	 * 		Original list.
+	 *
+	 * @return New list with duplicate values removed, keeping the first occurrence of each value.
+	 */
+	@Nonnull
+	public static IntList distinct(@Nullable IntList src) {
+		int size = sizeOf(src);
+		IntList result = new IntList(size);
+		IntSet seen = new IntSet(size);
+		for (int i = 0; i < size; i++) {
+			int value = src.get(i);
+			if (seen.add(value))
+				result.add(value);
+		}
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional list.
+	 *
+	 * @return New list containing only the values not shared by the two lists.
+	 */
+	@Nonnull
+	public static IntList disjoint(@Nullable IntList src1, @Nullable IntList src2) {
+		IntSet keys1 = keys(src1);
+		IntSet keys2 = keys(src2);
+		IntList result = new IntList();
+		for (int i = 0, size = sizeOf(src1); i < size; i++) {
+			int value = src1.get(i);
+			if (!keys2.contains(value))
+				result.add(value);
+		}
+		for (int i = 0, size = sizeOf(src2); i < size; i++) {
+			int value = src2.get(i);
+			if (!keys1.contains(value))
+				result.add(value);
+		}
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional list.
+	 *
+	 * @return New list containing only the values shared by the two lists, without duplicates.
+	 */
+	@Nonnull
+	public static IntList union(@Nullable IntList src1, @Nullable IntList src2) {
+		IntList result = new IntList();
+		if (src1 == null || src2 == null) return result;
+		IntSet keys2 = keys(src2);
+		IntSet seen = new IntSet();
+		for (int i = 0, size = src1.size(); i < size; i++) {
+			int value = src1.get(i);
+			if (keys2.contains(value) && seen.add(value))
+				result.add(value);
+		}
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional values to add.
+	 *
+	 * @return New list with the values of both lists.
+	 */
+	@Nonnull
+	public static LongList combine(@Nullable LongList src1, @Nullable LongList src2) {
+		LongList result = new LongList(sizeOf(src1) + sizeOf(src2));
+		if (src1 != null) result.addAll(src1);
+		if (src2 != null) result.addAll(src2);
+		return result;
+	}
+
+	/**
+	 * @param src
+	 * 		Original list.
+	 *
+	 * @return New list with duplicate values removed, keeping the first occurrence of each value.
+	 */
+	@Nonnull
+	public static LongList distinct(@Nullable LongList src) {
+		int size = sizeOf(src);
+		LongList result = new LongList(size);
+		LongSet seen = new LongSet(size);
+		for (int i = 0; i < size; i++) {
+			long value = src.get(i);
+			if (seen.add(value))
+				result.add(value);
+		}
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional list.
+	 *
+	 * @return New list containing only the values not shared by the two lists.
+	 */
+	@Nonnull
+	public static LongList disjoint(@Nullable LongList src1, @Nullable LongList src2) {
+		LongSet keys1 = keys(src1);
+		LongSet keys2 = keys(src2);
+		LongList result = new LongList();
+		for (int i = 0, size = sizeOf(src1); i < size; i++) {
+			long value = src1.get(i);
+			if (!keys2.contains(value))
+				result.add(value);
+		}
+		for (int i = 0, size = sizeOf(src2); i < size; i++) {
+			long value = src2.get(i);
+			if (!keys1.contains(value))
+				result.add(value);
+		}
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional list.
+	 *
+	 * @return New list containing only the values shared by the two lists, without duplicates.
+	 */
+	@Nonnull
+	public static LongList union(@Nullable LongList src1, @Nullable LongList src2) {
+		LongList result = new LongList();
+		if (src1 == null || src2 == null) return result;
+		LongSet keys2 = keys(src2);
+		LongSet seen = new LongSet();
+		for (int i = 0, size = src1.size(); i < size; i++) {
+			long value = src1.get(i);
+			if (keys2.contains(value) && seen.add(value))
+				result.add(value);
+		}
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional values to add.
+	 *
+	 * @return New list with the values of both lists.
+	 */
+	@Nonnull
+	public static DoubleList combine(@Nullable DoubleList src1, @Nullable DoubleList src2) {
+		DoubleList result = new DoubleList(sizeOf(src1) + sizeOf(src2));
+		if (src1 != null) result.addAll(src1);
+		if (src2 != null) result.addAll(src2);
+		return result;
+	}
+
+	/**
+	 * @param src
+	 * 		Original list.
+	 *
+	 * @return New list with duplicate values removed, keeping the first occurrence of each value.
+	 */
+	@Nonnull
+	public static DoubleList distinct(@Nullable DoubleList src) {
+		int size = sizeOf(src);
+		DoubleList result = new DoubleList(size);
+		LongSet seen = new LongSet(size);
+		for (int i = 0; i < size; i++) {
+			double value = src.get(i);
+			if (seen.add(Double.doubleToLongBits(value)))
+				result.add(value);
+		}
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional list.
+	 *
+	 * @return New list containing only the values not shared by the two lists.
+	 */
+	@Nonnull
+	public static DoubleList disjoint(@Nullable DoubleList src1, @Nullable DoubleList src2) {
+		LongSet keys1 = keys(src1);
+		LongSet keys2 = keys(src2);
+		DoubleList result = new DoubleList();
+		for (int i = 0, size = sizeOf(src1); i < size; i++) {
+			double value = src1.get(i);
+			if (!keys2.contains(Double.doubleToLongBits(value)))
+				result.add(value);
+		}
+		for (int i = 0, size = sizeOf(src2); i < size; i++) {
+			double value = src2.get(i);
+			if (!keys1.contains(Double.doubleToLongBits(value)))
+				result.add(value);
+		}
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional list.
+	 *
+	 * @return New list containing only the values shared by the two lists, without duplicates.
+	 */
+	@Nonnull
+	public static DoubleList union(@Nullable DoubleList src1, @Nullable DoubleList src2) {
+		DoubleList result = new DoubleList();
+		if (src1 == null || src2 == null) return result;
+		LongSet keys2 = keys(src2);
+		LongSet seen = new LongSet();
+		for (int i = 0, size = src1.size(); i < size; i++) {
+			double value = src1.get(i);
+			long key = Double.doubleToLongBits(value);
+			if (keys2.contains(key) && seen.add(key))
+				result.add(value);
+		}
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional values to add.
+	 *
+	 * @return New list with the values of both lists.
+	 */
+	@Nonnull
+	public static CharList combine(@Nullable CharList src1, @Nullable CharList src2) {
+		CharList result = new CharList(sizeOf(src1) + sizeOf(src2));
+		if (src1 != null) result.addAll(src1);
+		if (src2 != null) result.addAll(src2);
+		return result;
+	}
+
+	/**
+	 * @param src
+	 * 		Original list.
+	 *
+	 * @return New list with duplicate values removed, keeping the first occurrence of each value.
+	 */
+	@Nonnull
+	public static CharList distinct(@Nullable CharList src) {
+		int size = sizeOf(src);
+		CharList result = new CharList(size);
+		IntSet seen = new IntSet(size);
+		for (int i = 0; i < size; i++) {
+			char value = src.get(i);
+			if (seen.add(value))
+				result.add(value);
+		}
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional list.
+	 *
+	 * @return New list containing only the values not shared by the two lists.
+	 */
+	@Nonnull
+	public static CharList disjoint(@Nullable CharList src1, @Nullable CharList src2) {
+		IntSet keys1 = keys(src1);
+		IntSet keys2 = keys(src2);
+		CharList result = new CharList();
+		for (int i = 0, size = sizeOf(src1); i < size; i++) {
+			char value = src1.get(i);
+			if (!keys2.contains(value))
+				result.add(value);
+		}
+		for (int i = 0, size = sizeOf(src2); i < size; i++) {
+			char value = src2.get(i);
+			if (!keys1.contains(value))
+				result.add(value);
+		}
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original list.
+	 * @param src2
+	 * 		Additional list.
+	 *
+	 * @return New list containing only the values shared by the two lists, without duplicates.
+	 */
+	@Nonnull
+	public static CharList union(@Nullable CharList src1, @Nullable CharList src2) {
+		CharList result = new CharList();
+		if (src1 == null || src2 == null) return result;
+		IntSet keys2 = keys(src2);
+		IntSet seen = new IntSet();
+		for (int i = 0, size = src1.size(); i < size; i++) {
+			char value = src1.get(i);
+			if (keys2.contains(value) && seen.add(value))
+				result.add(value);
+		}
+		return result;
+	}
+
+	@Nonnull
+	private static IntSet keys(@Nullable IntList src) {
+		int size = sizeOf(src);
+		IntSet keys = new IntSet(size);
+		for (int i = 0; i < size; i++) {
+			int value = src.get(i);
+			keys.add(value);
+		}
+		return keys;
+	}
+
+	private static int sizeOf(@Nullable IntList list) {
+		return list == null ? 0 : list.size();
+	}
+
+	@Nonnull
+	private static LongSet keys(@Nullable LongList src) {
+		int size = sizeOf(src);
+		LongSet keys = new LongSet(size);
+		for (int i = 0; i < size; i++) {
+			long value = src.get(i);
+			keys.add(value);
+		}
+		return keys;
+	}
+
+	private static int sizeOf(@Nullable LongList list) {
+		return list == null ? 0 : list.size();
+	}
+
+	@Nonnull
+	private static LongSet keys(@Nullable DoubleList src) {
+		int size = sizeOf(src);
+		LongSet keys = new LongSet(size);
+		for (int i = 0; i < size; i++) {
+			double value = src.get(i);
+			keys.add(Double.doubleToLongBits(value));
+		}
+		return keys;
+	}
+
+	private static int sizeOf(@Nullable DoubleList list) {
+		return list == null ? 0 : list.size();
+	}
+
+	@Nonnull
+	private static IntSet keys(@Nullable CharList src) {
+		int size = sizeOf(src);
+		IntSet keys = new IntSet(size);
+		for (int i = 0; i < size; i++) {
+			char value = src.get(i);
+			keys.add(value);
+		}
+		return keys;
+	}
+
+	private static int sizeOf(@Nullable CharList list) {
+		return list == null ? 0 : list.size();
+	}
+}
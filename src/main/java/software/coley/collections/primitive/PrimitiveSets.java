@@ -0,0 +1,174 @@
+package software.coley.collections.primitive;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Utility for handling primitive set types, mirroring {@link software.coley.collections.Sets}
+ * without boxing any values.
+ *
+ * @author Matt Coley
+ */
+public class PrimitiveSets {
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Additional values to add.
+	 *
+	 * @return New set with the values of both sets.
+	 */
+	@Nonnull
+	public static IntSet combine(@Nullable IntSet src1, @Nullable IntSet src2) {
+		IntSet result = new IntSet(sizeOf(src1) + sizeOf(src2));
+		if (src1 != null) result.addAll(src1);
+		if (src2 != null) result.addAll(src2);
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Set of values to exclude.
+	 *
+	 * @return New set containing the values of the first set which are not in the second set.
+	 */
+	@Nonnull
+	public static IntSet disjoint(@Nullable IntSet src1, @Nullable IntSet src2) {
+		IntSet result = new IntSet(sizeOf(src1));
+		if (src1 != null) src1.forEach(value -> {
+			if (src2 == null || !src2.contains(value)) result.add(value);
+		});
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Additional set.
+	 *
+	 * @return New set containing only the values shared by the two sets.
+	 */
+	@Nonnull
+	public static IntSet union(@Nullable IntSet src1, @Nullable IntSet src2) {
+		if (src1 == null || src2 == null) return new IntSet();
+
+		// Probe the larger set with values of the smaller set
+		IntSet smaller = src1.size() <= src2.size() ? src1 : src2;
+		IntSet larger = smaller == src1 ? src2 : src1;
+		IntSet result = new IntSet(smaller.size());
+		smaller.forEach(value -> {
+			if (larger.contains(value)) result.add(value);
+		});
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Additional values to add.
+	 *
+	 * @return New set with the values of both sets.
+	 */
+	@Nonnull
+	public static LongSet combine(@Nullable LongSet src1, @Nullable LongSet src2) {
+		LongSet result = new LongSet(sizeOf(src1) + sizeOf(src2));
+		if (src1 != null) result.addAll(src1);
+		if (src2 != null) result.addAll(src2);
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Set of values to exclude.
+	 *
+	 * @return New set containing the values of the first set which are not in the second set.
+	 */
+	@Nonnull
+	public static LongSet disjoint(@Nullable LongSet src1, @Nullable LongSet src2) {
+		LongSet result = new LongSet(sizeOf(src1));
+		if (src1 != null) src1.forEach(value -> {
+			if (src2 == null || !src2.contains(value)) result.add(value);
+		});
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Additional set.
+	 *
+	 * @return New set containing only the values shared by the two sets.
+	 */
+	@Nonnull
+	public static LongSet union(@Nullable LongSet src1, @Nullable LongSet src2) {
+		if (src1 == null || src2 == null) return new LongSet();
+
+		// Probe the larger set with values of the smaller set
+		LongSet smaller = src1.size() <= src2.size() ? src1 : src2;
+		LongSet larger = smaller == src1 ? src2 : src1;
+		LongSet result = new LongSet(smaller.size());
+		smaller.forEach(value -> {
+			if (larger.contains(value)) result.add(value);
+		});
+		return result;
+	}
+
+	/**
+	 * @param src1
+	 * 		Original bitmap.
+	 * @param src2
+	 * 		Additional values to add.
+	 *
+	 * @return New bitmap with the values of both bitmaps.
+	 */
+	@Nonnull
+	public static IntBitmap combine(@Nullable AbstractIntBitmap src1, @Nullable AbstractIntBitmap src2) {
+		return IntBitmap.or(orEmpty(src1), orEmpty(src2));
+	}
+
+	/**
+	 * @param src1
+	 * 		Original bitmap.
+	 * @param src2
+	 * 		Bitmap of values to exclude.
+	 *
+	 * @return New bitmap containing the values of the first bitmap which are not in the second bitmap.
+	 */
+	@Nonnull
+	public static IntBitmap disjoint(@Nullable AbstractIntBitmap src1, @Nullable AbstractIntBitmap src2) {
+		return IntBitmap.andNot(orEmpty(src1), orEmpty(src2));
+	}
+
+	/**
+	 * @param src1
+	 * 		Original bitmap.
+	 * @param src2
+	 * 		Additional bitmap.
+	 *
+	 * @return New bitmap containing only the values shared by the two bitmaps.
+	 */
+	@Nonnull
+	public static IntBitmap union(@Nullable AbstractIntBitmap src1, @Nullable AbstractIntBitmap src2) {
+		return IntBitmap.and(orEmpty(src1), orEmpty(src2));
+	}
+
+	private static int sizeOf(@Nullable IntSet set) {
+		return set == null ? 0 : set.size();
+	}
+
+	private static int sizeOf(@Nullable LongSet set) {
+		return set == null ? 0 : set.size();
+	}
+
+	@Nonnull
+	private static AbstractIntBitmap orEmpty(@Nullable AbstractIntBitmap bitmap) {
+		return bitmap == null ? new IntBitmap() : bitmap;
+	}
+}
@@ -0,0 +1,930 @@
+package software.coley.collections.primitive;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Container of the low 16 bits of values sharing the same high 16 bits in an {@link AbstractIntBitmap}.
+ * <br>
+ * Sparse containers are sorted arrays, dense containers are 65536 bit bitsets, and containers of long consecutive
+ * ranges are lists of runs. Operations which change the cardinality may return a container of a different kind,
+ * or {@code null} once the container is empty, so callers must always replace the container with the result.
+ *
+ * @author Matt Coley
+ */
+abstract class RoaringContainer {
+	static final int TYPE_ARRAY = 0;
+	static final int TYPE_BITSET = 1;
+	static final int TYPE_RUN = 2;
+	static final int OP_AND = 0;
+	static final int OP_OR = 1;
+	static final int OP_XOR = 2;
+	static final int OP_AND_NOT = 3;
+	/**
+	 * Largest cardinality of array containers, past which a bitset is smaller.
+	 */
+	static final int ARRAY_MAX = 4096;
+	/**
+	 * Largest number of runs in run containers, past which a bitset is smaller.
+	 */
+	static final int RUNS_MAX = 2047;
+	private static final int WORDS = 1024;
+	private static final int BITSET_BYTES = WORDS * Long.BYTES;
+
+	/**
+	 * @return Number of values in the container.
+	 */
+	abstract int cardinality();
+
+	/**
+	 * @return Kind of container, used for serialization.
+	 */
+	abstract int type();
+
+	/**
+	 * @param low
+	 * 		Low 16 bits of a value.
+	 *
+	 * @return {@code true} when the value is present.
+	 */
+	abstract boolean contains(int low);
+
+	/**
+	 * @param low
+	 * 		Low 16 bits of a value to add.
+	 *
+	 * @return Container with the value.
+	 */
+	@Nonnull
+	abstract RoaringContainer add(int low);
+
+	/**
+	 * @param low
+	 * 		Low 16 bits of a value to remove.
+	 *
+	 * @return Container without the value, or {@code null} if it is now empty.
+	 */
+	@Nullable
+	abstract RoaringContainer remove(int low);
+
+	/**
+	 * @param low
+	 * 		Low 16 bits of a value.
+	 *
+	 * @return Number of values in the container less than or equal to the given value.
+	 */
+	abstract int rank(int low);
+
+	/**
+	 * @param index
+	 * 		Index of a value, in ascending order.
+	 *
+	 * @return Low 16 bits of the value.
+	 */
+	abstract int select(int index);
+
+	/**
+	 * @return Smallest value in the container.
+	 */
+	abstract int first();
+
+	/**
+	 * @return Largest value in the container.
+	 */
+	abstract int last();
+
+	/**
+	 * @param from
+	 * 		Low 16 bits to search from, inclusive. May be {@code 65536}.
+	 *
+	 * @return Smallest value at or past the given value, or {@code -1} if there is none.
+	 */
+	abstract int nextValue(int from);
+
+	/**
+	 * @param base
+	 * 		High 16 bits to combine with each value in the container.
+	 * @param action
+	 * 		Action to run on each value.
+	 */
+	abstract void forEach(int base, @Nonnull IntConsumer action);
+
+	/**
+	 * @param words
+	 * 		Bitset to add the values of this container to.
+	 */
+	abstract void orInto(@Nonnull long[] words);
+
+	/**
+	 * @return Copy of this container.
+	 */
+	@Nonnull
+	abstract RoaringContainer copy();
+
+	/**
+	 * @return Number of bytes written by {@link #write(ByteBuffer)}.
+	 */
+	abstract int serializedSize();
+
+	/**
+	 * @param buffer
+	 * 		Little endian buffer to write to.
+	 */
+	abstract void write(@Nonnull ByteBuffer buffer);
+
+	/**
+	 * @param low
+	 * 		Low 16 bits of the first value to add.
+	 * @param high
+	 * 		Low 16 bits of the last value to add, inclusive.
+	 *
+	 * @return Container with the values.
+	 */
+	@Nonnull
+	RoaringContainer addRange(int low, int high) {
+		long[] words = toWords();
+		setRange(words, low, high);
+		return fromWords(words);
+	}
+
+	/**
+	 * @return Equivalent container of whichever kind is smallest.
+	 */
+	@Nonnull
+	RoaringContainer optimize() {
+		return fromWords(toWords());
+	}
+
+	/**
+	 * @return Bitset of the values in this container, which may be modified by the caller.
+	 */
+	@Nonnull
+	long[] toWords() {
+		long[] words = new long[WORDS];
+		orInto(words);
+		return words;
+	}
+
+	/**
+	 * @param low
+	 * 		Low 16 bits of a value.
+	 *
+	 * @return Container of the single value.
+	 */
+	@Nonnull
+	static RoaringContainer of(int low) {
+		return new Array(new char[]{(char) low}, 1);
+	}
+
+	/**
+	 * @param low
+	 * 		Low 16 bits of the first value.
+	 * @param high
+	 * 		Low 16 bits of the last value, inclusive.
+	 *
+	 * @return Container of the range of values.
+	 */
+	@Nonnull
+	static RoaringContainer range(int low, int high) {
+		return new Run(new char[]{(char) low, (char) (high - low)}, 1, high - low + 1);
+	}
+
+	/**
+	 * @param a
+	 * 		Left operand.
+	 * @param b
+	 * 		Right operand.
+	 * @param op
+	 * 		One of {@link #OP_AND}, {@link #OP_OR}, {@link #OP_XOR} or {@link #OP_AND_NOT}.
+	 * @param mutateA
+	 * 		{@code true} to allow the left operand to be modified and reused for the result.
+	 *
+	 * @return Result of the operation, or {@code null} if it is empty.
+	 */
+	@Nullable
+	static RoaringContainer apply(@Nonnull RoaringContainer a, @Nonnull RoaringContainer b, int op, boolean mutateA) {
+		if (a instanceof Array) {
+			Array arrayA = (Array) a;
+			if (op == OP_AND || op == OP_AND_NOT) return arrayA.filter(b, op == OP_AND);
+			if (b instanceof Array && arrayA.size + ((Array) b).size <= ARRAY_MAX)
+				return arrayA.merge((Array) b, op == OP_XOR);
+		} else if (b instanceof Array && op == OP_AND) {
+			return ((Array) b).filter(a, true);
+		}
+
+		// Everything else is done on bitsets, then converted to the smallest kind of container
+		long[] words = mutateA && a instanceof Bitset ? ((Bitset) a).words : a.toWords();
+		long[] other = b instanceof Bitset ? ((Bitset) b).words : b.toWords();
+		switch (op) {
+			case OP_AND:
+				for (int i = 0; i < WORDS; i++) words[i] &= other[i];
+				break;
+			case OP_OR:
+				for (int i = 0; i < WORDS; i++) words[i] |= other[i];
+				break;
+			case OP_XOR:
+				for (int i = 0; i < WORDS; i++) words[i] ^= other[i];
+				break;
+			default:
+				for (int i = 0; i < WORDS; i++) words[i] &= ~other[i];
+				break;
+		}
+		return fromWords(words);
+	}
+
+	/**
+	 * @param buffer
+	 * 		Little endian buffer to read from.
+	 * @param offset
+	 * 		Absolute offset of the container.
+	 * @param type
+	 * 		Kind of container.
+	 * @param cardinality
+	 * 		Number of values in the container.
+	 *
+	 * @return Container read from the buffer.
+	 */
+	@Nonnull
+	static RoaringContainer read(@Nonnull ByteBuffer buffer, int offset, int type, int cardinality) {
+		switch (type) {
+			case TYPE_ARRAY: {
+				char[] values = new char[cardinality];
+				for (int i = 0; i < cardinality; i++)
+					values[i] = buffer.getChar(offset + 2 * i);
+				return new Array(values, cardinality);
+			}
+			case TYPE_BITSET: {
+				long[] words = new long[WORDS];
+				for (int i = 0; i < WORDS; i++)
+					words[i] = buffer.getLong(offset + 8 * i);
+				return new Bitset(words, cardinality);
+			}
+			default: {
+				int count = buffer.getChar(offset);
+				char[] runs = new char[count * 2];
+				for (int i = 0; i < runs.length; i++)
+					runs[i] = buffer.getChar(offset + 2 + 2 * i);
+				return new Run(runs, count, cardinality);
+			}
+		}
+	}
+
+	/**
+	 * @param type
+	 * 		Kind of container.
+	 * @param buffer
+	 * 		Little endian buffer holding the container.
+	 * @param offset
+	 * 		Absolute offset of the container.
+	 * @param cardinality
+	 * 		Number of values in the container.
+	 *
+	 * @return Number of bytes the container occupies.
+	 */
+	static int serializedSize(int type, @Nonnull ByteBuffer buffer, int offset, int cardinality) {
+		switch (type) {
+			case TYPE_ARRAY:
+				return 2 * cardinality;
+			case TYPE_BITSET:
+				return BITSET_BYTES;
+			default:
+				return 2 + 4 * buffer.getChar(offset);
+		}
+	}
+
+	/**
+	 * @param type
+	 * 		Kind of container.
+	 * @param buffer
+	 * 		Little endian buffer holding the container.
+	 * @param offset
+	 * 		Absolute offset of the container.
+	 * @param cardinality
+	 * 		Number of values in the container.
+	 * @param low
+	 * 		Low 16 bits of a value.
+	 *
+	 * @return {@code true} when the serialized container holds the value, checked without reading the whole container.
+	 */
+	static boolean contains(int type, @Nonnull ByteBuffer buffer, int offset, int cardinality, int low) {
+		switch (type) {
+			case TYPE_ARRAY: {
+				int min = 0;
+				int max = cardinality - 1;
+				while (min <= max) {
+					int mid = (min + max) >>> 1;
+					int value = buffer.getChar(offset + 2 * mid);
+					if (value < low) min = mid + 1;
+					else if (value > low) max = mid - 1;
+					else return true;
+				}
+				return false;
+			}
+			case TYPE_BITSET:
+				return (buffer.getLong(offset + 8 * (low >>> 6)) & (1L << low)) != 0;
+			default: {
+				// Find the last run starting at or before the value
+				int min = 0;
+				int max = buffer.getChar(offset) - 1;
+				int found = -1;
+				while (min <= max) {
+					int mid = (min + max) >>> 1;
+					if (buffer.getChar(offset + 2 + 4 * mid) <= low) {
+						found = mid;
+						min = mid + 1;
+					} else {
+						max = mid - 1;
+					}
+				}
+				if (found < 0) return false;
+				int start = buffer.getChar(offset + 2 + 4 * found);
+				return low <= start + buffer.getChar(offset + 4 + 4 * found);
+			}
+		}
+	}
+
+	/**
+	 * @param words
+	 * 		Bitset of values, which may be taken over by the result.
+	 *
+	 * @return Container of whichever kind holds the values in the fewest bytes, or {@code null} if there are none.
+	 */
+	@Nullable
+	static RoaringContainer fromWords(@Nonnull long[] words) {
+		int cardinality = 0;
+		int runs = 0;
+		long carry = 0;
+		for (long word : words) {
+			cardinality += Long.bitCount(word);
+
+			// Count the bits that are set where the preceding bit is not, each one starts a run
+			runs += Long.bitCount(word & ~((word << 1) | carry));
+			carry = word >>> 63;
+		}
+		if (cardinality == 0) return null;
+		if (2 + 4 * runs < Math.min(2 * cardinality, BITSET_BYTES)) return Run.fromWords(words, runs, cardinality);
+		if (cardinality <= ARRAY_MAX) return Array.fromWords(words, cardinality);
+		return new Bitset(words, cardinality);
+	}
+
+	/**
+	 * @param words
+	 * 		Bitset to modify.
+	 * @param low
+	 * 		First bit to set.
+	 * @param high
+	 * 		Last bit to set, inclusive.
+	 */
+	static void setRange(@Nonnull long[] words, int low, int high) {
+		int first = low >>> 6;
+		int last = high >>> 6;
+		long firstMask = -1L << low;
+		long lastMask = -1L >>> (63 - (high & 63));
+		if (first == last) {
+			words[first] |= firstMask & lastMask;
+		} else {
+			words[first] |= firstMask;
+			for (int i = first + 1; i < last; i++) words[i] = -1L;
+			words[last] |= lastMask;
+		}
+	}
+
+	/**
+	 * Sorted array of values, for sparse containers.
+	 */
+	static final class Array extends RoaringContainer {
+		private char[] values;
+		private int size;
+
+		private Array(@Nonnull char[] values, int size) {
+			this.values = values;
+			this.size = size;
+		}
+
+		@Nonnull
+		private static Array fromWords(@Nonnull long[] words, int cardinality) {
+			char[] values = new char[cardinality];
+			int size = 0;
+			for (int i = 0; i < words.length; i++) {
+				long word = words[i];
+				while (word != 0) {
+					values[size++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return new Array(values, size);
+		}
+
+		@Nullable
+		private RoaringContainer filter(@Nonnull RoaringContainer other, boolean keepShared) {
+			char[] result = new char[size];
+			int count = 0;
+			for (int i = 0; i < size; i++) {
+				char value = values[i];
+				if (other.contains(value) == keepShared) result[count++] = value;
+			}
+			return count == 0 ? null : new Array(result, count);
+		}
+
+		@Nullable
+		private RoaringContainer merge(@Nonnull Array other, boolean exclusive) {
+			char[] a = values;
+			char[] b = other.values;
+			char[] result = new char[size + other.size];
+			int i = 0;
+			int j = 0;
+			int count = 0;
+			while (i < size && j < other.size) {
+				char x = a[i];
+				char y = b[j];
+				if (x < y) {
+					result[count++] = x;
+					i++;
+				} else if (x > y) {
+					result[count++] = y;
+					j++;
+				} else {
+					if (!exclusive) result[count++] = x;
+					i++;
+					j++;
+				}
+			}
+			while (i < size) result[count++] = a[i++];
+			while (j < other.size) result[count++] = b[j++];
+			return count == 0 ? null : new Array(result, count);
+		}
+
+		private int indexOf(int low) {
+			return Arrays.binarySearch(values, 0, size, (char) low);
+		}
+
+		@Override
+		int cardinality() {
+			return size;
+		}
+
+		@Override
+		int type() {
+			return TYPE_ARRAY;
+		}
+
+		@Override
+		boolean contains(int low) {
+			return indexOf(low) >= 0;
+		}
+
+		@Nonnull
+		@Override
+		RoaringContainer add(int low) {
+			int index = indexOf(low);
+			if (index >= 0) return this;
+			if (size == ARRAY_MAX) {
+				long[] words = toWords();
+				words[low >>> 6] |= 1L << low;
+				return new Bitset(words, size + 1);
+			}
+			index = -index - 1;
+			if (size == values.length)
+				values = Arrays.copyOf(values, Math.min(Math.max(size * 2, 4), ARRAY_MAX));
+			System.arraycopy(values, index, values, index + 1, size - index);
+			values[index] = (char) low;
+			size++;
+			return this;
+		}
+
+		@Nullable
+		@Override
+		RoaringContainer remove(int low) {
+			int index = indexOf(low);
+			if (index < 0) return this;
+			System.arraycopy(values, index + 1, values, index, size - index - 1);
+			size--;
+			return size == 0 ? null : this;
+		}
+
+		@Override
+		int rank(int low) {
+			int index = indexOf(low);
+			return index >= 0 ? index + 1 : -index - 1;
+		}
+
+		@Override
+		int select(int index) {
+			return values[index];
+		}
+
+		@Override
+		int first() {
+			return values[0];
+		}
+
+		@Override
+		int last() {
+			return values[size - 1];
+		}
+
+		@Override
+		int nextValue(int from) {
+			if (from > 0xFFFF) return -1;
+			int index = indexOf(from);
+			if (index < 0) index = -index - 1;
+			return index < size ? values[index] : -1;
+		}
+
+		@Override
+		void forEach(int base, @Nonnull IntConsumer action) {
+			for (int i = 0; i < size; i++)
+				action.accept(base | values[i]);
+		}
+
+		@Override
+		void orInto(@Nonnull long[] words) {
+			for (int i = 0; i < size; i++) {
+				char value = values[i];
+				words[value >>> 6] |= 1L << value;
+			}
+		}
+
+		@Nonnull
+		@Override
+		RoaringContainer copy() {
+			return new Array(Arrays.copyOf(values, size), size);
+		}
+
+		@Override
+		int serializedSize() {
+			return 2 * size;
+		}
+
+		@Override
+		void write(@Nonnull ByteBuffer buffer) {
+			for (int i = 0; i < size; i++)
+				buffer.putChar(values[i]);
+		}
+	}
+
+	/**
+	 * Bitset of all 65536 possible values, for dense containers.
+	 */
+	static final class Bitset extends RoaringContainer {
+		private final long[] words;
+		private int cardinality;
+
+		private Bitset(@Nonnull long[] words, int cardinality) {
+			this.words = words;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		int type() {
+			return TYPE_BITSET;
+		}
+
+		@Override
+		boolean contains(int low) {
+			return (words[low >>> 6] & (1L << low)) != 0;
+		}
+
+		@Nonnull
+		@Override
+		RoaringContainer add(int low) {
+			long word = words[low >>> 6];
+			long bit = 1L << low;
+			if ((word & bit) == 0) {
+				words[low >>> 6] = word | bit;
+				cardinality++;
+			}
+			return this;
+		}
+
+		@Nullable
+		@Override
+		RoaringContainer remove(int low) {
+			long word = words[low >>> 6];
+			long bit = 1L << low;
+			if ((word & bit) == 0) return this;
+			words[low >>> 6] = word & ~bit;
+			cardinality--;
+			return cardinality <= ARRAY_MAX ? Array.fromWords(words, cardinality) : this;
+		}
+
+		@Nonnull
+		@Override
+		RoaringContainer addRange(int low, int high) {
+			setRange(words, low, high);
+			int cardinality = 0;
+			for (long word : words) cardinality += Long.bitCount(word);
+			this.cardinality = cardinality;
+			return this;
+		}
+
+		@Override
+		int rank(int low) {
+			int last = low >>> 6;
+			int rank = 0;
+			for (int i = 0; i < last; i++) rank += Long.bitCount(words[i]);
+			return rank + Long.bitCount(words[last] & (-1L >>> (63 - (low & 63))));
+		}
+
+		@Override
+		int select(int index) {
+			for (int i = 0; i < WORDS; i++) {
+				long word = words[i];
+				int count = Long.bitCount(word);
+				if (index < count) {
+					for (int j = 0; j < index; j++) word &= word - 1;
+					return (i << 6) + Long.numberOfTrailingZeros(word);
+				}
+				index -= count;
+			}
+			throw new IllegalStateException("Index beyond cardinality");
+		}
+
+		@Override
+		int first() {
+			return nextValue(0);
+		}
+
+		@Override
+		int last() {
+			int i = WORDS - 1;
+			while (words[i] == 0) i--;
+			return (i << 6) + 63 - Long.numberOfLeadingZeros(words[i]);
+		}
+
+		@Override
+		int nextValue(int from) {
+			if (from > 0xFFFF) return -1;
+			int i = from >>> 6;
+			long word = words[i] & (-1L << from);
+			while (word == 0) {
+				if (++i == WORDS) return -1;
+				word = words[i];
+			}
+			return (i << 6) + Long.numberOfTrailingZeros(word);
+		}
+
+		@Override
+		void forEach(int base, @Nonnull IntConsumer action) {
+			for (int i = 0; i < WORDS; i++) {
+				long word = words[i];
+				while (word != 0) {
+					action.accept(base | ((i << 6) + Long.numberOfTrailingZeros(word)));
+					word &= word - 1;
+				}
+			}
+		}
+
+		@Override
+		void orInto(@Nonnull long[] words) {
+			for (int i = 0; i < WORDS; i++) words[i] |= this.words[i];
+		}
+
+		@Nonnull
+		@Override
+		long[] toWords() {
+			return words.clone();
+		}
+
+		@Nonnull
+		@Override
+		RoaringContainer copy() {
+			return new Bitset(words.clone(), cardinality);
+		}
+
+		@Override
+		int serializedSize() {
+			return BITSET_BYTES;
+		}
+
+		@Override
+		void write(@Nonnull ByteBuffer buffer) {
+			for (long word : words)
+				buffer.putLong(word);
+		}
+	}
+
+	/**
+	 * Sorted list of runs of consecutive values, for containers of long ranges.
+	 * Runs are stored as pairs of their first value and their length minus one.
+	 */
+	static final class Run extends RoaringContainer {
+		private char[] runs;
+		private int count;
+		private int cardinality;
+
+		private Run(@Nonnull char[] runs, int count, int cardinality) {
+			this.runs = runs;
+			this.count = count;
+			this.cardinality = cardinality;
+		}
+
+		@Nonnull
+		private static Run fromWords(@Nonnull long[] words, int count, int cardinality) {
+			char[] runs = new char[count * 2];
+			int r = 0;
+			int i = 0;
+			long word = words[0];
+			while (true) {
+				while (word == 0 && i < WORDS - 1) word = words[++i];
+				if (word == 0) break;
+				int start = (i << 6) + Long.numberOfTrailingZeros(word);
+
+				// Fill in the bits below the start, so the run ends at the first clear bit
+				word |= word - 1;
+				while (word == -1L && i < WORDS - 1) word = words[++i];
+				int end = word == -1L ? 0x10000 : (i << 6) + Long.numberOfTrailingZeros(~word);
+				runs[r++] = (char) start;
+				runs[r++] = (char) (end - start - 1);
+				if (end == 0x10000) break;
+
+				// Clear the bits of the run
+				word &= word + 1;
+			}
+			return new Run(runs, count, cardinality);
+		}
+
+		private int start(int run) {
+			return runs[2 * run];
+		}
+
+		private int end(int run) {
+			return runs[2 * run] + runs[2 * run + 1];
+		}
+
+		/**
+		 * @return Index of the last run starting at or before the value, or {@code -1} if there is none.
+		 */
+		private int floorRun(int low) {
+			int min = 0;
+			int max = count - 1;
+			int found = -1;
+			while (min <= max) {
+				int mid = (min + max) >>> 1;
+				if (start(mid) <= low) {
+					found = mid;
+					min = mid + 1;
+				} else {
+					max = mid - 1;
+				}
+			}
+			return found;
+		}
+
+		private void insertRun(int run, int start, int end) {
+			if (2 * count == runs.length) runs = Arrays.copyOf(runs, Math.max(4, runs.length * 2));
+			System.arraycopy(runs, 2 * run, runs, 2 * run + 2, 2 * (count - run));
+			runs[2 * run] = (char) start;
+			runs[2 * run + 1] = (char) (end - start);
+			count++;
+		}
+
+		private void removeRun(int run) {
+			System.arraycopy(runs, 2 * run + 2, runs, 2 * run, 2 * (count - run - 1));
+			count--;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		int type() {
+			return TYPE_RUN;
+		}
+
+		@Override
+		boolean contains(int low) {
+			int run = floorRun(low);
+			return run >= 0 && low <= end(run);
+		}
+
+		@Nonnull
+		@Override
+		RoaringContainer add(int low) {
+			int run = floorRun(low);
+			if (run >= 0 && low <= end(run)) return this;
+			cardinality++;
+			boolean joinsPrevious = run >= 0 && end(run) + 1 == low;
+			boolean joinsNext = run + 1 < count && start(run + 1) == low + 1;
+			if (joinsPrevious && joinsNext) {
+				runs[2 * run + 1] = (char) (end(run + 1) - start(run));
+				removeRun(run + 1);
+			} else if (joinsPrevious) {
+				runs[2 * run + 1]++;
+			} else if (joinsNext) {
+				runs[2 * run + 2] = (char) low;
+				runs[2 * run + 3]++;
+			} else {
+				insertRun(run + 1, low, low);
+				if (count > RUNS_MAX) return optimize();
+			}
+			return this;
+		}
+
+		@Nullable
+		@Override
+		RoaringContainer remove(int low) {
+			int run = floorRun(low);
+			if (run < 0 || low > end(run)) return this;
+			cardinality--;
+			int start = start(run);
+			int end = end(run);
+			if (start == end) {
+				removeRun(run);
+				if (count == 0) return null;
+			} else if (low == start) {
+				runs[2 * run]++;
+				runs[2 * run + 1]--;
+			} else if (low == end) {
+				runs[2 * run + 1]--;
+			} else {
+				runs[2 * run + 1] = (char) (low - 1 - start);
+				insertRun(run + 1, low + 1, end);
+				if (count > RUNS_MAX) return optimize();
+			}
+			return this;
+		}
+
+		@Override
+		int rank(int low) {
+			int rank = 0;
+			for (int i = 0; i < count; i++) {
+				int start = start(i);
+				if (start > low) break;
+				rank += Math.min(low, end(i)) - start + 1;
+			}
+			return rank;
+		}
+
+		@Override
+		int select(int index) {
+			for (int i = 0; i < count; i++) {
+				int length = runs[2 * i + 1] + 1;
+				if (index < length) return start(i) + index;
+				index -= length;
+			}
+			throw new IllegalStateException("Index beyond cardinality");
+		}
+
+		@Override
+		int first() {
+			return start(0);
+		}
+
+		@Override
+		int last() {
+			return end(count - 1);
+		}
+
+		@Override
+		int nextValue(int from) {
+			if (from > 0xFFFF) return -1;
+			int run = floorRun(from);
+			if (run >= 0 && from <= end(run)) return from;
+			return run + 1 < count ? start(run + 1) : -1;
+		}
+
+		@Override
+		void forEach(int base, @Nonnull IntConsumer action) {
+			for (int i = 0; i < count; i++) {
+				int end = end(i);
+				for (int value = start(i); value <= end; value++)
+					action.accept(base | value);
+			}
+		}
+
+		@Override
+		void orInto(@Nonnull long[] words) {
+			for (int i = 0; i < count; i++)
+				setRange(words, start(i), end(i));
+		}
+
+		@Nonnull
+		@Override
+		RoaringContainer copy() {
+			return new Run(Arrays.copyOf(runs, 2 * count), count, cardinality);
+		}
+
+		@Override
+		int serializedSize() {
+			return 2 + 4 * count;
+		}
+
+		@Override
+		void write(@Nonnull ByteBuffer buffer) {
+			buffer.putChar((char) count);
+			for (int i = 0; i < 2 * count; i++)
+				buffer.putChar(runs[i]);
+		}
+	}
+}
@@ -0,0 +1,287 @@
+package software.coley.collections.search;
+
+import javax.annotation.Nonnull;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Read-only search index over a static sorted array. Values are re-laid in
+ * <a href="https://arxiv.org/abs/1509.05053">Eytzinger order</a>, the breadth-first layout of an implicit binary
+ * search tree. The first levels of the tree are packed together at the start of the array, so they remain in cache
+ * across lookups, and each step of the search has a predictable memory access pattern. The descent itself selects
+ * the next node arithmetically rather than branching on the comparison result.
+ * <br>
+ * Index positions reported by lookups refer to positions in the original sorted array.
+ *
+ * @author Matt Coley
+ */
+public abstract class SortedSearchIndex {
+	/**
+	 * Largest supported size, so that tree positions of a descent, up to {@code 2 * size + 1}, fit in an {@code int}.
+	 */
+	public static final int MAX_SIZE = (1 << 30) - 1;
+	protected final int size;
+	protected final int[] ranks;
+
+	private SortedSearchIndex(int size) {
+		if (size > MAX_SIZE) throw new IllegalArgumentException("Too many values to index: " + size);
+		this.size = size;
+		this.ranks = new int[size + 1];
+	}
+
+	/**
+	 * @param sorted
+	 * 		Array of values in ascending order.
+	 *
+	 * @return Index for searching the values.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When there are more than {@link #MAX_SIZE} values.
+	 */
+	@Nonnull
+	public static OfInt of(@Nonnull int[] sorted) {
+		return new OfInt(sorted);
+	}
+
+	/**
+	 * @param sorted
+	 * 		Array of values in ascending order.
+	 *
+	 * @return Index for searching the values.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When there are more than {@link #MAX_SIZE} values.
+	 */
+	@Nonnull
+	public static OfLong of(@Nonnull long[] sorted) {
+		return new OfLong(sorted);
+	}
+
+	/**
+	 * @param sorted
+	 * 		Array of values in ascending order, according to the comparator.
+	 * @param comparator
+	 * 		Comparator the array is sorted by.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return Index for searching the values.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		When there are more than {@link #MAX_SIZE} values.
+	 */
+	@Nonnull
+	public static <T> OfObject<T> of(@Nonnull T[] sorted, @Nonnull Comparator<? super T> comparator) {
+		return new OfObject<>(sorted, comparator);
+	}
+
+	/**
+	 * @return Number of values in the index.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Fills the tree positions of a 1-based Eytzinger layout by walking the implicit tree in-order.
+	 *
+	 * @param layout
+	 * 		Callback to move a value from the sorted array into the tree.
+	 */
+	protected void build(@Nonnull Layout layout) {
+		int sortedIndex = 0;
+		int k = 1;
+		// Iterative in-order traversal of the implicit tree, where node 'k' has children '2k' and '2k+1'.
+		// Positions stay below '2 * size + 2', which fits in an int given the maximum size.
+		while (sortedIndex < size) {
+			while (k <= size) k <<= 1;
+			k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+			layout.place(k, sortedIndex);
+			ranks[k] = sortedIndex++;
+			k = 2 * k + 1;
+		}
+	}
+
+	/**
+	 * @param k
+	 * 		Final tree position reached by a descent, past the leaves.
+	 *
+	 * @return Tree position of the lower bound of the search, or {@code 0} if all values are lower than the target.
+	 */
+	protected static int lowerBound(int k) {
+		// The descent went right for every value less than the target, then left once at the lower bound,
+		// then right until falling off the tree. Strip those trailing right turns and the final left turn.
+		return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+	}
+
+	/**
+	 * @param k
+	 * 		Tree position of a lower bound, or {@code 0} for none.
+	 * @param found
+	 * 		Whether the value at the position matches the target.
+	 *
+	 * @return Sorted index of the target if found, otherwise {@code (-(insertion point) - 1)}.
+	 */
+	protected int result(int k, boolean found) {
+		if (k == 0) return -size - 1;
+		int rank = ranks[k];
+		return found ? rank : -rank - 1;
+	}
+
+	/**
+	 * Callback for placing sorted values into the tree layout.
+	 */
+	protected interface Layout {
+		/**
+		 * @param treeIndex
+		 * 		Position in the tree array.
+		 * @param sortedIndex
+		 * 		Position in the sorted array.
+		 */
+		void place(int treeIndex, int sortedIndex);
+	}
+
+	/**
+	 * Search index of {@code int} values.
+	 */
+	public static final class OfInt extends SortedSearchIndex {
+		private final int[] tree;
+
+		private OfInt(@Nonnull int[] sorted) {
+			super(sorted.length);
+			tree = new int[size + 1];
+			build((treeIndex, sortedIndex) -> tree[treeIndex] = sorted[sortedIndex]);
+		}
+
+		/**
+		 * @param target
+		 * 		Value to search for.
+		 *
+		 * @return Index of the value in the original sorted array.
+		 * If the value is not present, {@code (-(insertion point) - 1)}.
+		 */
+		public int indexOf(int target) {
+			int k = lowerBound(descend(target));
+			return result(k, k != 0 && tree[k] == target);
+		}
+
+		/**
+		 * @param target
+		 * 		Value to search for.
+		 *
+		 * @return {@code true} when the value is present.
+		 */
+		public boolean contains(int target) {
+			int k = lowerBound(descend(target));
+			return k != 0 && tree[k] == target;
+		}
+
+		private int descend(int target) {
+			int[] tree = this.tree;
+			int n = size;
+			int k = 1;
+			while (k <= n)
+				k = 2 * k + (tree[k] < target ? 1 : 0);
+			return k;
+		}
+	}
+
+	/**
+	 * Search index of {@code long} values.
+	 */
+	public static final class OfLong extends SortedSearchIndex {
+		private final long[] tree;
+
+		private OfLong(@Nonnull long[] sorted) {
+			super(sorted.length);
+			tree = new long[size + 1];
+			build((treeIndex, sortedIndex) -> tree[treeIndex] = sorted[sortedIndex]);
+		}
+
+		/**
+		 * @param target
+		 * 		Value to search for.
+		 *
+		 * @return Index of the value in the original sorted array.
+		 * If the value is not present, {@code (-(insertion point) - 1)}.
+		 */
+		public int indexOf(long target) {
+			int k = lowerBound(descend(target));
+			return result(k, k != 0 && tree[k] == target);
+		}
+
+		/**
+		 * @param target
+		 * 		Value to search for.
+		 *
+		 * @return {@code true} when the value is present.
+		 */
+		public boolean contains(long target) {
+			int k = lowerBound(descend(target));
+			return k != 0 && tree[k] == target;
+		}
+
+		private int descend(long target) {
+			long[] tree = this.tree;
+			int n = size;
+			int k = 1;
+			while (k <= n)
+				k = 2 * k + (tree[k] < target ? 1 : 0);
+			return k;
+		}
+	}
+
+	/**
+	 * Search index of object values.
+	 *
+	 * @param <T>
+	 * 		Value type.
+	 */
+	public static final class OfObject<T> extends SortedSearchIndex {
+		private final Comparator<? super T> comparator;
+		private final Object[] tree;
+
+		private OfObject(@Nonnull T[] sorted, @Nonnull Comparator<? super T> comparator) {
+			super(sorted.length);
+			this.comparator = Objects.requireNonNull(comparator, "Comparator must not be null");
+			tree = new Object[size + 1];
+			build((treeIndex, sortedIndex) -> tree[treeIndex] = sorted[sortedIndex]);
+		}
+
+		/**
+		 * @param target
+		 * 		Value to search for.
+		 *
+		 * @return Index of the value in the original sorted array.
+		 * If the value is not present, {@code (-(insertion point) - 1)}.
+		 */
+		public int indexOf(T target) {
+			int k = lowerBound(descend(target));
+			return result(k, k != 0 && compare(k, target) == 0);
+		}
+
+		/**
+		 * @param target
+		 * 		Value to search for.
+		 *
+		 * @return {@code true} when the value is present.
+		 */
+		public boolean contains(T target) {
+			int k = lowerBound(descend(target));
+			return k != 0 && compare(k, target) == 0;
+		}
+
+		private int descend(T target) {
+			int n = size;
+			int k = 1;
+			while (k <= n)
+				k = 2 * k + (compare(k, target) < 0 ? 1 : 0);
+			return k;
+		}
+
+		@SuppressWarnings("unchecked")
+		private int compare(int k, T target) {
+			return comparator.compare((T) tree[k], target);
+		}
+	}
+}
@@ -0,0 +1,259 @@
+package software.coley.collections.sorted;
+
+import software.coley.collections.Lists;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Array backed {@link SortedList}. Lookups by item are binary searches, and bulk additions through
+ * {@link #addAllSorted(Collection)} are merged into the backing array in a single pass.
+ *
+ * @param <T>
+ * 		List item type.
+ *
+ * @author Matt Coley
+ */
+public class SortedArrayList<T> extends AbstractList<T> implements SortedList<T>, RandomAccess {
+	private static final Object[] EMPTY = new Object[0];
+	private final Comparator<T> comparator;
+	private Object[] items = EMPTY;
+	private int size;
+
+	/**
+	 * New list ordered by the natural ordering of its items.
+	 */
+	public SortedArrayList() {
+		this((Comparator<? super T>) null);
+	}
+
+	/**
+	 * @param comparator
+	 * 		Comparator to order items with, or {@code null} to use the natural ordering of the items.
+	 */
+	@SuppressWarnings("unchecked")
+	public SortedArrayList(@Nullable Comparator<? super T> comparator) {
+		this.comparator = (Comparator<T>) comparator;
+	}
+
+	/**
+	 * @param comparator
+	 * 		Comparator to order items with, or {@code null} to use the natural ordering of the items.
+	 * @param items
+	 * 		Initial items.
+	 */
+	public SortedArrayList(@Nullable Comparator<? super T> comparator, @Nonnull Collection<? extends T> items) {
+		this(comparator);
+		addAllSorted(items);
+	}
+
+	@Nullable
+	@Override
+	public Comparator<? super T> comparator() {
+		return comparator;
+	}
+
+	@Override
+	public boolean add(T item) {
+		int index = Lists.sortedInsertIndex(comparator, this, item);
+
+		// Insert after any existing items that compare as equal, so insertion order is kept among equal items
+		while (index < size && compare(get(index), item) == 0)
+			index++;
+
+		ensureCapacity(size + 1);
+		System.arraycopy(items, index, items, index + 1, size - index);
+		items[index] = item;
+		size++;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public boolean addAll(@Nonnull Collection<? extends T> c) {
+		return addAllSorted(c);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean addAllSorted(@Nonnull Collection<? extends T> batch) {
+		int count = batch.size();
+		if (count == 0) return false;
+
+		Object[] sorted = batch.toArray();
+		Arrays.sort(sorted, (Comparator<Object>) comparator);
+		ensureCapacity(size + count);
+
+		// Merge from the back so that existing items are moved at most once, and items
+		// that sort before the first new item are not touched at all.
+		Object[] items = this.items;
+		int i = size - 1;
+		int j = count - 1;
+		int k = size + count - 1;
+		while (j >= 0) {
+			if (i >= 0 && compare((T) items[i], (T) sorted[j]) > 0)
+				items[k--] = items[i--];
+			else
+				items[k--] = sorted[j--];
+		}
+		size += count;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		checkIndex(index);
+		return (T) items[index];
+	}
+
+	@Override
+	public T remove(int index) {
+		T item = get(index);
+		int moved = size - index - 1;
+		if (moved > 0) System.arraycopy(items, index + 1, items, index, moved);
+		items[--size] = null;
+		modCount++;
+		return item;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		int index = indexOf(o);
+		if (index < 0) return false;
+		remove(index);
+		return true;
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		System.arraycopy(items, toIndex, items, fromIndex, size - toIndex);
+		int newSize = size - (toIndex - fromIndex);
+		Arrays.fill(items, newSize, size, null);
+		size = newSize;
+		modCount++;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(items, 0, size, null);
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public int indexOf(Object o) {
+		int index;
+		try {
+			index = lowerBound((T) o);
+		} catch (ClassCastException ex) {
+			return -1;
+		}
+
+		// Items which compare as equal may still differ by equality, so check each of them
+		for (int i = index; i < size && compare((T) items[i], (T) o) == 0; i++)
+			if (Objects.equals(items[i], o))
+				return i;
+		return -1;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public int lastIndexOf(Object o) {
+		int index;
+		try {
+			index = lowerBound((T) o);
+		} catch (ClassCastException ex) {
+			return -1;
+		}
+
+		int last = -1;
+		for (int i = index; i < size && compare((T) items[i], (T) o) == 0; i++)
+			if (Objects.equals(items[i], o))
+				last = i;
+		return last;
+	}
+
+	@Nonnull
+	@Override
+	public List<T> rangeList(@Nonnull T fromItem, @Nonnull T toItem) {
+		int from = lowerBound(fromItem);
+		int to = Math.max(from, lowerBound(toItem));
+		return subList(from, to);
+	}
+
+	@Nonnull
+	@Override
+	public List<T> headRange(@Nonnull T toItem) {
+		return subList(0, lowerBound(toItem));
+	}
+
+	@Nonnull
+	@Override
+	public List<T> tailRange(@Nonnull T fromItem) {
+		return subList(lowerBound(fromItem), size);
+	}
+
+	/**
+	 * @param capacity
+	 * 		Minimum capacity of the backing array.
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity > items.length) {
+			int newCapacity = Math.max(capacity, items.length + (items.length >> 1));
+			items = Arrays.copyOf(items, Math.max(newCapacity, 10));
+		}
+	}
+
+	/**
+	 * Reduces the backing array to the size of the list.
+	 */
+	public void trimToSize() {
+		if (size < items.length)
+			items = size == 0 ? EMPTY : Arrays.copyOf(items, size);
+	}
+
+	/**
+	 * @param item
+	 * 		Item to search for.
+	 *
+	 * @return Index of the first item which does not compare as less than the given item.
+	 */
+	@SuppressWarnings("unchecked")
+	private int lowerBound(T item) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (compare((T) items[middle], item) < 0)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	@SuppressWarnings("unchecked")
+	private int compare(T a, T b) {
+		if (comparator == null) return ((Comparable<? super T>) a).compareTo(b);
+		return comparator.compare(a, b);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+}
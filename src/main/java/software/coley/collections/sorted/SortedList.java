@@ -0,0 +1,67 @@
+package software.coley.collections.sorted;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A {@link List} which keeps its items in sorted order.
+ * <br>
+ * Positional insertion methods such as {@link #add(int, Object)} and {@link #set(int, Object)} are not supported
+ * since they would allow breaking the sorted order.
+ *
+ * @param <T>
+ * 		List item type.
+ *
+ * @author Matt Coley
+ */
+public interface SortedList<T> extends List<T> {
+	/**
+	 * @return Comparator used to order the list, or {@code null} if the items are ordered by their natural ordering.
+	 */
+	@Nullable
+	Comparator<? super T> comparator();
+
+	/**
+	 * Sorts the given items and merges them into the list in a single linear pass.
+	 * Preferred over repeated calls to {@link #add(Object)} for large batches.
+	 *
+	 * @param items
+	 * 		Items to add.
+	 *
+	 * @return {@code true} if the list changed.
+	 */
+	boolean addAllSorted(@Nonnull Collection<? extends T> items);
+
+	/**
+	 * @param fromItem
+	 * 		Lower bound, inclusive.
+	 * @param toItem
+	 * 		Upper bound, exclusive.
+	 *
+	 * @return View of the portion of the list whose items range from {@code fromItem} to {@code toItem}.
+	 * Named apart from {@link #subList(int, int)} so that lists of {@link Integer} do not pick the index based range.
+	 */
+	@Nonnull
+	List<T> rangeList(@Nonnull T fromItem, @Nonnull T toItem);
+
+	/**
+	 * @param toItem
+	 * 		Upper bound, exclusive.
+	 *
+	 * @return View of the portion of the list whose items are less than {@code toItem}.
+	 */
+	@Nonnull
+	List<T> headRange(@Nonnull T toItem);
+
+	/**
+	 * @param fromItem
+	 * 		Lower bound, inclusive.
+	 *
+	 * @return View of the portion of the list whose items are greater than or equal to {@code fromItem}.
+	 */
+	@Nonnull
+	List<T> tailRange(@Nonnull T fromItem);
+}
@@ -0,0 +1,57 @@
+package software.coley.collections.view;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Read-only view of two maps combined, where entries of the second map take priority over entries of the first
+ * map with the same key. Equivalent in content to {@code software.coley.collections.Maps#combine(Map, Map)}
+ * without copying either map.
+ *
+ * @param <K>
+ * 		Key type.
+ * @param <V>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+public class CombinedMapView<K, V> extends MapView<K, V> {
+	private final Map<K, V> src1;
+	private final Map<K, V> src2;
+
+	/**
+	 * @param src1
+	 * 		Original map.
+	 * @param src2
+	 * 		Additional entries, which replace those in the original map.
+	 */
+	public CombinedMapView(@Nonnull Map<K, V> src1, @Nonnull Map<K, V> src2) {
+		this.src1 = Objects.requireNonNull(src1, "Cannot view a null map");
+		this.src2 = Objects.requireNonNull(src2, "Cannot view a null map");
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return src2.containsKey(key) || src1.containsKey(key);
+	}
+
+	@Override
+	public V get(Object key) {
+		V value = src2.get(key);
+		if (value != null || src2.containsKey(key)) return value;
+		return src1.get(key);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return src1.isEmpty() && src2.isEmpty();
+	}
+
+	@Nonnull
+	@Override
+	protected Iterator<Entry<K, V>> entryIterator() {
+		return ViewIterators.chained(filtered(src2, key -> true), filtered(src1, key -> !src2.containsKey(key)));
+	}
+}
@@ -0,0 +1,119 @@
+package software.coley.collections.view;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+/**
+ * Read-only view of multiple lists joined end to end. No items are copied, indices are mapped onto the source lists.
+ * <br>
+ * The offsets of each source list are recorded when the view is created,
+ * so the source lists should not change in size while the view is in use.
+ *
+ * @param <T>
+ * 		List item type.
+ *
+ * @author Matt Coley
+ */
+public class ConcatListView<T> extends AbstractList<T> {
+	private final List<? extends T>[] sources;
+	private final int[] offsets;
+	private final int size;
+
+	private ConcatListView(@Nonnull List<? extends T>[] sources) {
+		this.sources = sources;
+		this.offsets = new int[sources.length];
+		int total = 0;
+		for (int i = 0; i < sources.length; i++) {
+			offsets[i] = total;
+			total += sources[i].size();
+		}
+		this.size = total;
+	}
+
+	/**
+	 * @param sources
+	 * 		Lists to view.
+	 * @param <T>
+	 * 		List item type.
+	 *
+	 * @return Concatenated view of the lists. Implements {@link RandomAccess} if all source lists do.
+	 */
+	@Nonnull
+	@SafeVarargs
+	public static <T> List<T> of(@Nonnull List<? extends T>... sources) {
+		return of(Arrays.asList(sources));
+	}
+
+	/**
+	 * @param sources
+	 * 		Lists to view.
+	 * @param <T>
+	 * 		List item type.
+	 *
+	 * @return Concatenated view of the lists. Implements {@link RandomAccess} if all source lists do.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public static <T> List<T> of(@Nonnull Collection<? extends List<? extends T>> sources) {
+		// Skip empty lists so that lookups do not need to consider them
+		List<List<? extends T>> nonEmpty = new ArrayList<>(sources.size());
+		boolean randomAccess = true;
+		for (List<? extends T> source : sources) {
+			if (source == null || source.isEmpty()) continue;
+			nonEmpty.add(source);
+			randomAccess &= source instanceof RandomAccess;
+		}
+
+		if (nonEmpty.isEmpty()) return Collections.emptyList();
+		if (nonEmpty.size() == 1) return Collections.unmodifiableList(nonEmpty.get(0));
+
+		List<? extends T>[] array = nonEmpty.toArray(new List[0]);
+		if (randomAccess) return new RandomAccessConcatListView<>(array);
+		return new ConcatListView<>(array);
+	}
+
+	@Override
+	public T get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		int source = Arrays.binarySearch(offsets, index);
+		if (source < 0) source = -source - 2; // When not an exact offset match, use the prior list.
+		return sources[source].get(index - offsets[source]);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<T> iterator() {
+		// Chain the source iterators, which is efficient for sequential lists as well
+		return new Iterator<T>() {
+			private int source;
+			private Iterator<? extends T> current = sources[0].iterator();
+
+			@Override
+			public boolean hasNext() {
+				while (!current.hasNext()) {
+					if (source + 1 >= sources.length) return false;
+					current = sources[++source].iterator();
+				}
+				return true;
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				return current.next();
+			}
+		};
+	}
+
+	private static class RandomAccessConcatListView<T> extends ConcatListView<T> implements RandomAccess {
+		private RandomAccessConcatListView(@Nonnull List<? extends T>[] sources) {
+			super(sources);
+		}
+	}
+}
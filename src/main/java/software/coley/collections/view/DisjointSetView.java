@@ -0,0 +1,53 @@
+package software.coley.collections.view;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Read-only view of the items in the first set which are not in the second set, also known as the difference of
+ * the sets. Equivalent in content to {@code software.coley.collections.Sets#disjoint(Set, Set)} without copying
+ * either set.
+ *
+ * @param <T>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+public class DisjointSetView<T> extends SetView<T> {
+	private final Set<T> src1;
+	private final Set<T> src2;
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Set of items to exclude.
+	 */
+	public DisjointSetView(@Nonnull Set<T> src1, @Nonnull Set<T> src2) {
+		this.src1 = Objects.requireNonNull(src1, "Cannot view a null set");
+		this.src2 = Objects.requireNonNull(src2, "Cannot view a null set");
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return src1.contains(o) && !src2.contains(o);
+	}
+
+	@Override
+	public int size() {
+		return src1.size() - sharedCount(src1, src2);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return src1.isEmpty() || super.isEmpty();
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<T> iterator() {
+		return filtered(src1, item -> !src2.contains(item));
+	}
+}
@@ -0,0 +1,52 @@
+package software.coley.collections.view;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Read-only view of the entries <i>(by keys)</i> not shared by two maps. Equivalent in content to
+ * {@code software.coley.collections.Maps#distinct(Map, Map)} without copying either map.
+ *
+ * @param <K>
+ * 		Key type.
+ * @param <V>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+public class DistinctMapView<K, V> extends MapView<K, V> {
+	private final Map<K, V> src1;
+	private final Map<K, V> src2;
+
+	/**
+	 * @param src1
+	 * 		Original map.
+	 * @param src2
+	 * 		Additional map.
+	 */
+	public DistinctMapView(@Nonnull Map<K, V> src1, @Nonnull Map<K, V> src2) {
+		this.src1 = Objects.requireNonNull(src1, "Cannot view a null map");
+		this.src2 = Objects.requireNonNull(src2, "Cannot view a null map");
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return src1.containsKey(key) != src2.containsKey(key);
+	}
+
+	@Override
+	public V get(Object key) {
+		boolean in1 = src1.containsKey(key);
+		boolean in2 = src2.containsKey(key);
+		if (in1 == in2) return null;
+		return in1 ? src1.get(key) : src2.get(key);
+	}
+
+	@Nonnull
+	@Override
+	protected Iterator<Entry<K, V>> entryIterator() {
+		return ViewIterators.chained(filtered(src1, key -> !src2.containsKey(key)), filtered(src2, key -> !src1.containsKey(key)));
+	}
+}
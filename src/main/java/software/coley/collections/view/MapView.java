@@ -0,0 +1,118 @@
+package software.coley.collections.view;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Base for read-only map views computed from source maps. Lookups and iteration are resolved against the sources
+ * lazily, so no entries are copied and changes to the sources are visible through the view.
+ * <br>
+ * Lookups such as {@link #get(Object)} and {@link #containsKey(Object)} cost a constant number of source lookups,
+ * while {@link #size()} requires a pass over the sources. Use {@link #materialize(Supplier)} to take a copy when
+ * the contents are going to be read many times.
+ *
+ * @param <K>
+ * 		Key type.
+ * @param <V>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+public abstract class MapView<K, V> extends AbstractMap<K, V> {
+	private Set<Entry<K, V>> entrySet;
+
+	/**
+	 * @return Iterator over the entries of the view.
+	 */
+	@Nonnull
+	protected abstract Iterator<Entry<K, V>> entryIterator();
+
+	@Override
+	public abstract boolean containsKey(Object key);
+
+	@Override
+	public abstract V get(Object key);
+
+	/**
+	 * @param supplier
+	 * 		Supplier of an empty map to copy the entries of this view into.
+	 * @param <M>
+	 * 		Map type.
+	 *
+	 * @return Map containing a snapshot of the entries of this view.
+	 */
+	@Nonnull
+	public <M extends Map<K, V>> M materialize(@Nonnull Supplier<M> supplier) {
+		M map = supplier.get();
+		forEach(map::put);
+		return map;
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (Iterator<Entry<K, V>> it = entryIterator(); it.hasNext(); it.next())
+			size++;
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return !entryIterator().hasNext();
+	}
+
+	@Override
+	public void forEach(@Nonnull BiConsumer<? super K, ? super V> action) {
+		for (Iterator<Entry<K, V>> it = entryIterator(); it.hasNext(); ) {
+			Entry<K, V> entry = it.next();
+			action.accept(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Nonnull
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Entry<K, V>>() {
+				@Nonnull
+				@Override
+				public Iterator<Entry<K, V>> iterator() {
+					return entryIterator();
+				}
+
+				@Override
+				public int size() {
+					return MapView.this.size();
+				}
+
+				@Override
+				public boolean isEmpty() {
+					return MapView.this.isEmpty();
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	/**
+	 * @param map
+	 * 		Source map.
+	 * @param keyFilter
+	 * 		Filter for which entries to include, by key.
+	 * @param <K>
+	 * 		Key type.
+	 * @param <V>
+	 * 		Value type.
+	 *
+	 * @return Read-only iterator over the entries of the map with keys matching the filter.
+	 */
+	@Nonnull
+	protected static <K, V> Iterator<Entry<K, V>> filtered(@Nonnull Map<K, V> map,
+	                                                        @Nonnull Predicate<Object> keyFilter) {
+		return ViewIterators.filtered(map.entrySet().iterator(), entry -> keyFilter.test(entry.getKey()),
+				SimpleImmutableEntry::new);
+	}
+}
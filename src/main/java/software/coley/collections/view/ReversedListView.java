@@ -0,0 +1,75 @@
+package software.coley.collections.view;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+/**
+ * Read-only view of a list in reverse order. No items are copied, indices are mapped onto the source list.
+ * Changes to the source list are visible through the view.
+ *
+ * @param <T>
+ * 		List item type.
+ *
+ * @author Matt Coley
+ */
+public class ReversedListView<T> extends AbstractList<T> {
+	private final List<T> source;
+
+	private ReversedListView(@Nonnull List<T> source) {
+		this.source = Objects.requireNonNull(source, "Cannot view a null list");
+	}
+
+	/**
+	 * @param source
+	 * 		List to view.
+	 * @param <T>
+	 * 		List item type.
+	 *
+	 * @return Reversed view of the list. Implements {@link RandomAccess} if the source list does.
+	 */
+	@Nonnull
+	public static <T> List<T> of(@Nonnull List<T> source) {
+		// Reversing a reversed view yields the original, still read-only
+		if (source instanceof ReversedListView)
+			return Collections.unmodifiableList(((ReversedListView<T>) source).source);
+		if (source instanceof RandomAccess) return new RandomAccessReversedListView<>(source);
+		return new ReversedListView<>(source);
+	}
+
+	@Override
+	public T get(int index) {
+		int size = source.size();
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return source.get(size - 1 - index);
+	}
+
+	@Override
+	public int size() {
+		return source.size();
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<T> iterator() {
+		// Walk the source backwards, which is efficient for sequential lists as well
+		ListIterator<T> it = source.listIterator(source.size());
+		return new Iterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return it.hasPrevious();
+			}
+
+			@Override
+			public T next() {
+				return it.previous();
+			}
+		};
+	}
+
+	private static class RandomAccessReversedListView<T> extends ReversedListView<T> implements RandomAccess {
+		private RandomAccessReversedListView(@Nonnull List<T> source) {
+			super(source);
+		}
+	}
+}
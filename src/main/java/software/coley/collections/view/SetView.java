@@ -0,0 +1,90 @@
+package software.coley.collections.view;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Base for read-only set views computed from source sets. Membership and iteration are resolved against the sources
+ * lazily, so no items are copied and changes to the sources are visible through the view.
+ * <br>
+ * Lookups with {@link #contains(Object)} cost a constant number of source lookups, while {@link #size()} requires
+ * a pass over the smaller source. Use {@link #materialize(Supplier)} to take a copy when the contents are going to be
+ * read many times.
+ *
+ * @param <T>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+public abstract class SetView<T> extends AbstractSet<T> {
+	@Override
+	public abstract boolean contains(Object o);
+
+	@Nonnull
+	@Override
+	public abstract Iterator<T> iterator();
+
+	/**
+	 * @param supplier
+	 * 		Supplier of an empty set to copy the items of this view into.
+	 * @param <S>
+	 * 		Set type.
+	 *
+	 * @return Set containing a snapshot of the items of this view.
+	 */
+	@Nonnull
+	public <S extends Set<T>> S materialize(@Nonnull Supplier<S> supplier) {
+		S set = supplier.get();
+		for (Iterator<T> it = iterator(); it.hasNext(); )
+			set.add(it.next());
+		return set;
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (Iterator<T> it = iterator(); it.hasNext(); it.next())
+			size++;
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return !iterator().hasNext();
+	}
+
+	/**
+	 * @param a
+	 * 		Some set.
+	 * @param b
+	 * 		Another set.
+	 *
+	 * @return Number of items in both sets, counted by iterating over the smaller set.
+	 */
+	protected static int sharedCount(@Nonnull Set<?> a, @Nonnull Set<?> b) {
+		Set<?> smaller = a.size() <= b.size() ? a : b;
+		Set<?> larger = smaller == a ? b : a;
+		int count = 0;
+		for (Object item : smaller)
+			if (larger.contains(item))
+				count++;
+		return count;
+	}
+
+	/**
+	 * @param set
+	 * 		Source set.
+	 * @param filter
+	 * 		Filter for which items to include.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Read-only iterator over the items of the set matching the filter.
+	 */
+	@Nonnull
+	protected static <T> Iterator<T> filtered(@Nonnull Set<T> set, @Nonnull Predicate<Object> filter) {
+		return ViewIterators.filtered(set.iterator(), filter);
+	}
+}
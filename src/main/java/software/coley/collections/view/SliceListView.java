@@ -0,0 +1,113 @@
+package software.coley.collections.view;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Read-only view of a range of a list, optionally skipping items with a stride.
+ * No items are copied, indices are mapped onto the source list.
+ * <br>
+ * The view covers a fixed number of items, so the source list should not shrink while the view is in use.
+ *
+ * @param <T>
+ * 		List item type.
+ *
+ * @author Matt Coley
+ */
+public class SliceListView<T> extends AbstractList<T> {
+	private final List<T> source;
+	private final int offset;
+	private final int size;
+	private final int stride;
+
+	private SliceListView(@Nonnull List<T> source, int offset, int size, int stride) {
+		this.source = source;
+		this.offset = offset;
+		this.size = size;
+		this.stride = stride;
+	}
+
+	/**
+	 * @param source
+	 * 		List to view.
+	 * @param from
+	 * 		Start index, inclusive.
+	 * @param to
+	 * 		End index, exclusive.
+	 * @param <T>
+	 * 		List item type.
+	 *
+	 * @return View of the items in the range. Implements {@link RandomAccess} if the source list does.
+	 */
+	@Nonnull
+	public static <T> List<T> of(@Nonnull List<T> source, int from, int to) {
+		return of(source, from, to, 1);
+	}
+
+	/**
+	 * @param source
+	 * 		List to view.
+	 * @param from
+	 * 		Start index, inclusive.
+	 * @param to
+	 * 		End index, exclusive.
+	 * @param stride
+	 * 		Distance between viewed items. A stride of {@code 2} views every other item.
+	 * @param <T>
+	 * 		List item type.
+	 *
+	 * @return View of the items in the range. Implements {@link RandomAccess} if the source list does.
+	 *
+	 * @throws IndexOutOfBoundsException
+	 * 		When the range is outside the bounds of the source list.
+	 * @throws IllegalArgumentException
+	 * 		When the stride is not positive.
+	 */
+	@Nonnull
+	public static <T> List<T> of(@Nonnull List<T> source, int from, int to, int stride) {
+		Objects.requireNonNull(source, "Cannot view a null list");
+		if (from < 0 || to > source.size() || from > to)
+			throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for size " + source.size());
+		if (stride < 1)
+			throw new IllegalArgumentException("Stride must be positive: " + stride);
+		// Written to not overflow for large strides
+		int size = from == to ? 0 : (to - from - 1) / stride + 1;
+
+		// Slicing a slice maps directly onto the original source
+		if (source instanceof SliceListView) {
+			SliceListView<T> slice = (SliceListView<T>) source;
+			if (size == 0) return create(slice.source, slice.offset, 0, slice.stride);
+			// With a single item the stride is never applied, and multiplying it out could overflow
+			int combinedStride = size == 1 ? slice.stride : slice.stride * stride;
+			return create(slice.source, slice.offset + from * slice.stride, size, combinedStride);
+		}
+		return create(source, from, size, stride);
+	}
+
+	@Nonnull
+	private static <T> List<T> create(@Nonnull List<T> source, int offset, int size, int stride) {
+		if (source instanceof RandomAccess) return new RandomAccessSliceListView<>(source, offset, size, stride);
+		return new SliceListView<>(source, offset, size, stride);
+	}
+
+	@Override
+	public T get(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return source.get(offset + index * stride);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	private static class RandomAccessSliceListView<T> extends SliceListView<T> implements RandomAccess {
+		private RandomAccessSliceListView(@Nonnull List<T> source, int offset, int size, int stride) {
+			super(source, offset, size, stride);
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package software.coley.collections.view;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Read-only view of the items in exactly one of two sets, also known as the symmetric difference of the sets.
+ * Equivalent in content to {@code software.coley.collections.Sets#symmetricDifference(Set, Set)} without copying
+ * either set.
+ *
+ * @param <T>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+public class SymmetricDifferenceSetView<T> extends SetView<T> {
+	private final Set<T> src1;
+	private final Set<T> src2;
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Additional set.
+	 */
+	public SymmetricDifferenceSetView(@Nonnull Set<T> src1, @Nonnull Set<T> src2) {
+		this.src1 = Objects.requireNonNull(src1, "Cannot view a null set");
+		this.src2 = Objects.requireNonNull(src2, "Cannot view a null set");
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return src1.contains(o) != src2.contains(o);
+	}
+
+	@Override
+	public int size() {
+		return src1.size() + src2.size() - 2 * sharedCount(src1, src2);
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<T> iterator() {
+		return ViewIterators.chained(filtered(src1, item -> !src2.contains(item)), filtered(src2, item -> !src1.contains(item)));
+	}
+}
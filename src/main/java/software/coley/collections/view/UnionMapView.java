@@ -0,0 +1,54 @@
+package software.coley.collections.view;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Read-only view of the entries <i>(by keys)</i> shared by two maps, with values from the first map.
+ * Equivalent in content to {@code software.coley.collections.Maps#union(Map, Map)} without copying either map.
+ *
+ * @param <K>
+ * 		Key type.
+ * @param <V>
+ * 		Value type.
+ *
+ * @author Matt Coley
+ */
+public class UnionMapView<K, V> extends MapView<K, V> {
+	private final Map<K, V> src1;
+	private final Map<K, V> src2;
+
+	/**
+	 * @param src1
+	 * 		Original map, which values are taken from.
+	 * @param src2
+	 * 		Additional map.
+	 */
+	public UnionMapView(@Nonnull Map<K, V> src1, @Nonnull Map<K, V> src2) {
+		this.src1 = Objects.requireNonNull(src1, "Cannot view a null map");
+		this.src2 = Objects.requireNonNull(src2, "Cannot view a null map");
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return src2.containsKey(key) && src1.containsKey(key);
+	}
+
+	@Override
+	public V get(Object key) {
+		return src2.containsKey(key) ? src1.get(key) : null;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return src1.isEmpty() || src2.isEmpty() || super.isEmpty();
+	}
+
+	@Nonnull
+	@Override
+	protected Iterator<Entry<K, V>> entryIterator() {
+		return filtered(src1, src2::containsKey);
+	}
+}
@@ -0,0 +1,57 @@
+package software.coley.collections.view;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Read-only view of the items shared by two sets, also known as the intersection of the sets.
+ * Equivalent in content to {@code software.coley.collections.Sets#union(Set, Set)} without copying either set.
+ * <br>
+ * Iteration walks the smaller of the two sets at the time {@link #iterator()} is called,
+ * checking each item against the larger set.
+ *
+ * @param <T>
+ * 		Item type.
+ *
+ * @author Matt Coley
+ */
+public class UnionSetView<T> extends SetView<T> {
+	private final Set<T> src1;
+	private final Set<T> src2;
+
+	/**
+	 * @param src1
+	 * 		Original set.
+	 * @param src2
+	 * 		Additional set.
+	 */
+	public UnionSetView(@Nonnull Set<T> src1, @Nonnull Set<T> src2) {
+		this.src1 = Objects.requireNonNull(src1, "Cannot view a null set");
+		this.src2 = Objects.requireNonNull(src2, "Cannot view a null set");
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return src1.contains(o) && src2.contains(o);
+	}
+
+	@Override
+	public int size() {
+		return sharedCount(src1, src2);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return src1.isEmpty() || src2.isEmpty() || super.isEmpty();
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<T> iterator() {
+		if (src1.size() <= src2.size())
+			return filtered(src1, src2::contains);
+		return filtered(src2, src1::contains);
+	}
+}
@@ -0,0 +1,110 @@
+package software.coley.collections.view;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Read-only iterators shared by the set and map views.
+ *
+ * @author Matt Coley
+ */
+final class ViewIterators {
+	private ViewIterators() {
+	}
+
+	/**
+	 * @param it
+	 * 		Source iterator.
+	 * @param filter
+	 * 		Filter for which items to include.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Read-only iterator over the items of the source matching the filter.
+	 */
+	@Nonnull
+	static <T> Iterator<T> filtered(@Nonnull Iterator<T> it, @Nonnull Predicate<? super T> filter) {
+		return filtered(it, filter, item -> item);
+	}
+
+	/**
+	 * @param it
+	 * 		Source iterator.
+	 * @param filter
+	 * 		Filter for which items to include.
+	 * @param mapper
+	 * 		Mapping of included items to the items to return.
+	 * @param <E>
+	 * 		Source item type.
+	 * @param <T>
+	 * 		Returned item type.
+	 *
+	 * @return Read-only iterator over the mapped items of the source matching the filter.
+	 */
+	@Nonnull
+	static <E, T> Iterator<T> filtered(@Nonnull Iterator<E> it, @Nonnull Predicate<? super E> filter,
+	                                   @Nonnull Function<? super E, ? extends T> mapper) {
+		return new Iterator<T>() {
+			private boolean hasNext;
+			private T next;
+
+			{
+				advance();
+			}
+
+			private void advance() {
+				while (it.hasNext()) {
+					E item = it.next();
+					if (filter.test(item)) {
+						next = mapper.apply(item);
+						hasNext = true;
+						return;
+					}
+				}
+				next = null;
+				hasNext = false;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return hasNext;
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext) throw new NoSuchElementException();
+				T item = next;
+				advance();
+				return item;
+			}
+		};
+	}
+
+	/**
+	 * @param first
+	 * 		First iterator.
+	 * @param second
+	 * 		Iterator to continue with once the first is exhausted.
+	 * @param <T>
+	 * 		Item type.
+	 *
+	 * @return Read-only iterator over the items of both iterators.
+	 */
+	@Nonnull
+	static <T> Iterator<T> chained(@Nonnull Iterator<T> first, @Nonnull Iterator<T> second) {
+		return new Iterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return first.hasNext() || second.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return first.hasNext() ? first.next() : second.next();
+			}
+		};
+	}
+}
@@ -0,0 +1,134 @@
+package software.coley.collections.internal;
+
+import software.coley.collections.box.Box;
+import software.coley.collections.box.IntBox;
+import software.coley.collections.box.LongBox;
+
+import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Atomic access to box values.
+ * <br>
+ * Java 11+ overlay which uses {@link VarHandle} operations on the box fields.
+ * Operations are only atomic relative to other atomic operations on the same box,
+ * not to plain calls to {@code set}.
+ * <br>
+ * <b>Internal:</b> Not part of the public API, and may change without notice.
+ *
+ * @author Matt Coley
+ */
+public final class BoxAccess {
+	private static final VarHandle INT_VALUE;
+	private static final VarHandle LONG_VALUE;
+	private static final VarHandle OBJECT_VALUE;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			INT_VALUE = MethodHandles.privateLookupIn(IntBox.class, lookup)
+					.findVarHandle(IntBox.class, "value", int.class);
+			LONG_VALUE = MethodHandles.privateLookupIn(LongBox.class, lookup)
+					.findVarHandle(LongBox.class, "value", long.class);
+			OBJECT_VALUE = MethodHandles.privateLookupIn(Box.class, lookup)
+					.findVarHandle(Box.class, "value", Object.class);
+		} catch (ReflectiveOperationException ex) {
+			throw new ExceptionInInitializerError(ex);
+		}
+	}
+
+	private BoxAccess() {}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param expected
+	 * 		Expected current value.
+	 * @param value
+	 * 		New value.
+	 *
+	 * @return {@code true} when the box held the expected value and was updated.
+	 */
+	public static boolean compareAndSet(@Nonnull IntBox box, int expected, int value) {
+		return INT_VALUE.compareAndSet(box, expected, value);
+	}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param value
+	 * 		New value.
+	 *
+	 * @return Prior value.
+	 */
+	public static int getAndSet(@Nonnull IntBox box, int value) {
+		return (int) INT_VALUE.getAndSet(box, value);
+	}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param delta
+	 * 		Value to add.
+	 *
+	 * @return Prior value.
+	 */
+	public static int getAndAdd(@Nonnull IntBox box, int delta) {
+		return (int) INT_VALUE.getAndAdd(box, delta);
+	}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param expected
+	 * 		Expected current value.
+	 * @param value
+	 * 		New value.
+	 *
+	 * @return {@code true} when the box held the expected value and was updated.
+	 */
+	public static boolean compareAndSet(@Nonnull LongBox box, long expected, long value) {
+		return LONG_VALUE.compareAndSet(box, expected, value);
+	}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param value
+	 * 		New value.
+	 *
+	 * @return Prior value.
+	 */
+	public static long getAndSet(@Nonnull LongBox box, long value) {
+		return (long) LONG_VALUE.getAndSet(box, value);
+	}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param delta
+	 * 		Value to add.
+	 *
+	 * @return Prior value.
+	 */
+	public static long getAndAdd(@Nonnull LongBox box, long delta) {
+		return (long) LONG_VALUE.getAndAdd(box, delta);
+	}
+
+	/**
+	 * @param box
+	 * 		Box to update.
+	 * @param expected
+	 * 		Expected current value, compared by reference.
+	 * @param value
+	 * 		New value.
+	 * @param <T>
+	 * 		Value type.
+	 *
+	 * @return {@code true} when the box held the expected value and was updated.
+	 */
+	public static <T> boolean compareAndSet(@Nonnull Box<T> box, T expected, T value) {
+		return OBJECT_VALUE.compareAndSet(box, expected, value);
+	}
+}
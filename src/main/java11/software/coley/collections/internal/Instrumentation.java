@@ -0,0 +1,70 @@
+package software.coley.collections.internal;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Hooks for recording bulk collection operations.
+ * <br>
+ * Java 11+ overlay which records operations as <i>Java Flight Recorder</i> events.
+ * When recording is disabled for the event, no event object is allocated. Runtimes without the {@code jdk.jfr}
+ * module, such as trimmed {@code jlink} images, fall back to recording nothing.
+ * <br>
+ * <b>Internal:</b> Not part of the public API, and may change without notice.
+ *
+ * @author Matt Coley
+ */
+public final class Instrumentation {
+	private static final Scope NO_OP = new Scope();
+	/**
+	 * Checked before touching {@link JfrInstrumentation}, which links against {@code jdk.jfr}
+	 * and so cannot be loaded when the module is missing.
+	 */
+	private static final boolean JFR_AVAILABLE = checkJfr();
+
+	private Instrumentation() {}
+
+	/**
+	 * @param operation
+	 * 		Name of the operation, such as {@code "Lists.distinct"}.
+	 * @param inputSize
+	 * 		Number of items in the operation input.
+	 *
+	 * @return Scope to {@link Scope#end(int) end} when the operation completes.
+	 */
+	@Nonnull
+	public static Scope begin(@Nonnull String operation, int inputSize) {
+		if (!JFR_AVAILABLE) return NO_OP;
+		Scope scope = JfrInstrumentation.begin(operation, inputSize);
+		return scope == null ? NO_OP : scope;
+	}
+
+	/**
+	 * @return {@code true} when operations are recorded as flight recorder events, when enabled in a recording.
+	 */
+	public static boolean isJfrAvailable() {
+		return JFR_AVAILABLE;
+	}
+
+	private static boolean checkJfr() {
+		try {
+			Class.forName("jdk.jfr.Event", false, Instrumentation.class.getClassLoader());
+			JfrInstrumentation.init();
+			return true;
+		} catch (ClassNotFoundException | LinkageError ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Handle of an operation in progress.
+	 */
+	public static class Scope {
+		/**
+		 * @param resultSize
+		 * 		Number of items in the operation result.
+		 */
+		public void end(int resultSize) {
+			// no-op
+		}
+	}
+}
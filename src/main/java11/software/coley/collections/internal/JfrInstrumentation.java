@@ -0,0 +1,81 @@
+package software.coley.collections.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Flight recorder backing of {@link Instrumentation}, kept apart so that it is only loaded
+ * once the {@code jdk.jfr} module is known to be present.
+ *
+ * @author Matt Coley
+ */
+final class JfrInstrumentation {
+	private JfrInstrumentation() {}
+
+	/**
+	 * Links the event type, failing with a {@link LinkageError} if flight recorder classes are missing.
+	 */
+	static void init() {
+		OperationEvent.TYPE.isEnabled();
+	}
+
+	/**
+	 * @param operation
+	 * 		Name of the operation.
+	 * @param inputSize
+	 * 		Number of items in the operation input.
+	 *
+	 * @return Scope recording the operation, or {@code null} when the event is not enabled.
+	 */
+	@Nullable
+	static Instrumentation.Scope begin(@Nonnull String operation, int inputSize) {
+		if (!OperationEvent.TYPE.isEnabled()) return null;
+		OperationEvent event = new OperationEvent();
+		event.operation = operation;
+		event.inputSize = inputSize;
+		event.begin();
+		return new EventScope(event);
+	}
+
+	private static final class EventScope extends Instrumentation.Scope {
+		private final OperationEvent event;
+
+		private EventScope(@Nonnull OperationEvent event) {
+			this.event = event;
+		}
+
+		@Override
+		public void end(int resultSize) {
+			event.end();
+			if (event.shouldCommit()) {
+				event.resultSize = resultSize;
+				event.commit();
+			}
+		}
+	}
+
+	@Name("software.coley.collections.Operation")
+	@Label("Collection Operation")
+	@Description("Bulk operation from the extra-collections library")
+	@Category({"Java Application", "Collections"})
+	@StackTrace(false)
+	static final class OperationEvent extends Event {
+		private static final OperationEvent TYPE = new OperationEvent();
+
+		@Label("Operation")
+		String operation;
+
+		@Label("Input Size")
+		int inputSize;
+
+		@Label("Result Size")
+		int resultSize;
+	}
+}
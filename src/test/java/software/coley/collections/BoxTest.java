@@ -0,0 +1,53 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.box.Box;
+import software.coley.collections.box.IntBox;
+import software.coley.collections.box.LongBox;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for atomic operations on boxes.
+ */
+public class BoxTest {
+	@Test
+	public void test_int_atomics() {
+		IntBox box = new IntBox(1);
+		assertTrue(box.compareAndSet(1, 2));
+		assertFalse(box.compareAndSet(1, 3));
+		assertEquals(2, box.getAndSet(5));
+		assertEquals(5, box.getAndAdd(1));
+		assertEquals(8, box.addAndGet(2));
+		assertEquals(16, box.updateAndGet(i -> i * 2));
+
+		IntBox counter = new IntBox();
+		IntStream.range(0, 100_000).parallel().forEach(i -> counter.addAndGet(1));
+		assertEquals(100_000, counter.get());
+	}
+
+	@Test
+	public void test_long_atomics() {
+		LongBox box = new LongBox(1);
+		assertTrue(box.compareAndSet(1, 2));
+		assertFalse(box.compareAndSet(1, 3));
+		assertEquals(2, box.getAndSet(5));
+		assertEquals(5, box.getAndAdd(1));
+		assertEquals(8, box.addAndGet(2));
+
+		LongBox counter = new LongBox();
+		IntStream.range(0, 100_000).parallel().forEach(i -> counter.updateAndGet(l -> l + 1));
+		assertEquals(100_000, counter.get());
+	}
+
+	@Test
+	public void test_object_atomics() {
+		String a = "a";
+		Box<String> box = new Box<>(a);
+		assertFalse(box.compareAndSet(new String("a"), "b")); // Compared by reference
+		assertTrue(box.compareAndSet(a, "b"));
+		assertEquals("bc", box.updateAndGet(s -> s + "c"));
+	}
+}
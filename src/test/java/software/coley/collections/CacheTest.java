@@ -0,0 +1,248 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.cache.CacheMap;
+import software.coley.collections.cache.CacheStats;
+import software.coley.collections.cache.LoadingMap;
+import software.coley.collections.cache.RemovalCause;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for cache types.
+ */
+public class CacheTest {
+	@Test
+	public void test_size_bound() {
+		List<RemovalCause> causes = new ArrayList<>();
+		CacheMap<Integer, Integer> cache = new CacheMap<>(100);
+		cache.addRemovalListener((source, change, cause) -> {
+			assertSame(cache, source);
+			assertEquals(1, change.getRemovedEntries().size());
+			causes.add(cause);
+		});
+		for (int i = 0; i < 1000; i++) {
+			cache.put(i, i);
+			assertTrue(cache.size() <= 100);
+		}
+		assertEquals(100, cache.size());
+		assertEquals(100, cache.weightedSize());
+		assertEquals(900, cache.stats().evictionCount());
+		assertEquals(900, causes.size());
+		assertTrue(causes.stream().allMatch(RemovalCause::wasEvicted));
+	}
+
+	@Test
+	public void test_frequent_keys_survive_scan() {
+		CacheMap<Integer, Integer> cache = new CacheMap<>(100);
+		for (int i = 0; i < 50; i++)
+			cache.put(i, i);
+
+		// Two one-off keys are added per access of a frequently used key. An LRU cache of this size would have
+		// evicted each frequent key before its next access, but the frequency based admission keeps them.
+		int hits = 0;
+		for (int i = 0; i < 10000; i++) {
+			cache.put(1000 + 2 * i, i);
+			cache.put(1001 + 2 * i, i);
+			int key = i % 50;
+			if (cache.get(key) != null) hits++;
+			else cache.put(key, key);
+		}
+		assertTrue(hits > 9500, "Hits: " + hits);
+	}
+
+	@Test
+	public void test_stats() {
+		CacheMap<String, String> cache = new CacheMap<>(10);
+		cache.put("a", "1");
+		assertEquals("1", cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals("1", cache.get("a"));
+		assertTrue(cache.containsKey("a"));
+
+		CacheStats stats = cache.stats();
+		assertEquals(2, stats.hitCount());
+		assertEquals(1, stats.missCount());
+		assertEquals(3, stats.requestCount());
+		assertEquals(2 / 3.0, stats.hitRate(), 0.0001);
+		assertEquals(0, stats.evictionCount());
+	}
+
+	@Test
+	public void test_weighted() {
+		CacheMap<Integer, String> cache = new CacheMap<>(100, (key, value) -> value.length());
+		for (int i = 0; i < 100; i++) {
+			cache.put(i, "0123456789".substring(i % 10));
+			assertTrue(cache.weightedSize() <= 100);
+		}
+		assertTrue(cache.stats().evictionWeight() > 0);
+
+		// Entries heavier than the whole cache are evicted right away
+		cache.put(-1, new String(new char[200]));
+		assertFalse(cache.containsKey(-1));
+	}
+
+	@Test
+	public void test_weighted_set_value() {
+		List<RemovalCause> causes = new ArrayList<>();
+		CacheMap<Integer, String> cache = new CacheMap<>(100, (key, value) -> value.length());
+		cache.addRemovalListener((source, change, cause) -> causes.add(cause));
+		for (int i = 0; i < 20; i++)
+			cache.put(i, "01234");
+		long evictions = cache.stats().evictionCount();
+		assertTrue(cache.weightedSize() > 50);
+
+		// Growing entries while iterating defers eviction until the iteration is done
+		for (Map.Entry<Integer, String> entry : cache.entrySet())
+			assertEquals("01234", entry.setValue("0123456789"));
+		assertTrue(cache.weightedSize() <= 100);
+		assertTrue(cache.stats().evictionCount() > evictions);
+		assertTrue(causes.contains(RemovalCause.REPLACED));
+		assertTrue(causes.contains(RemovalCause.SIZE));
+		assertTrue(cache.values().stream().allMatch("0123456789"::equals));
+
+		// Shrinking entries updates the weight in place
+		for (Map.Entry<Integer, String> entry : cache.entrySet())
+			entry.setValue("0");
+		assertEquals(cache.size(), cache.weightedSize());
+	}
+
+	@Test
+	public void test_map_behavior() {
+		Map<RemovalCause, Integer> counts = new HashMap<>();
+		CacheMap<String, Integer> cache = new CacheMap<>(10);
+		cache.addRemovalListener((source, change, cause) ->
+				counts.merge(cause, change.getRemovedEntries().size(), Integer::sum));
+
+		cache.put("a", 1);
+		cache.put("b", 2);
+		assertEquals(1, cache.put("a", 3));
+		assertEquals(2, cache.remove("b"));
+		cache.put("c", 4);
+		Map<String, Integer> expected = new HashMap<>();
+		expected.put("a", 3);
+		expected.put("c", 4);
+		assertEquals(expected, cache);
+		assertEquals(2, cache.weightedSize());
+
+		cache.clear();
+		assertTrue(cache.isEmpty());
+		assertEquals(0, cache.weightedSize());
+		assertEquals(1, counts.get(RemovalCause.REPLACED));
+		assertEquals(3, counts.get(RemovalCause.EXPLICIT));
+		assertThrows(NullPointerException.class, () -> cache.put(null, 1));
+	}
+
+	@Test
+	public void test_loading_single_flight() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		LoadingMap<String, Integer> map = LoadingMap.<String, Integer>builder()
+				.loader(key -> {
+					loads.incrementAndGet();
+					release.await();
+					return key.length();
+				})
+				.build();
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++)
+				results.add(pool.submit(() -> map.get("hello")));
+			Thread.sleep(50);
+			release.countDown();
+			for (Future<Integer> result : results)
+				assertEquals(5, result.get(5, TimeUnit.SECONDS));
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(1, loads.get());
+		assertEquals(5, map.getIfPresent("hello"));
+		assertEquals(Collections.singletonMap("hello", 5), map.asMap());
+	}
+
+	@Test
+	public void test_loading_batches() throws Exception {
+		List<Set<Integer>> batches = new CopyOnWriteArrayList<>();
+		LoadingMap<Integer, String> map = LoadingMap.<Integer, String>builder()
+				.bulkLoader(keys -> {
+					batches.add(new HashSet<>(keys));
+					Map<Integer, String> result = new HashMap<>();
+					for (int key : keys)
+						if (key >= 0) result.put(key, "v" + key);
+					return result;
+				})
+				.batchWindow(50, TimeUnit.MILLISECONDS)
+				.build();
+
+		// Misses within the window are loaded together
+		List<CompletableFuture<String>> futures = new ArrayList<>();
+		for (int i = -2; i < 8; i++)
+			futures.add(map.getAsync(i));
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+		assertEquals(1, batches.size());
+		assertEquals(10, batches.get(0).size());
+		assertNull(futures.get(0).get());
+		assertEquals("v7", futures.get(9).get());
+
+		// Keys without values are not kept
+		assertEquals(8, map.size());
+
+		// Bulk lookups load their misses at once, without waiting for the window
+		Map<Integer, String> all = map.getAll(Arrays.asList(5, 6, 20, 21, -5));
+		assertEquals(Arrays.asList(5, 6, 20, 21), new ArrayList<>(all.keySet()));
+		assertEquals(2, batches.size());
+		assertEquals(new HashSet<>(Arrays.asList(20, 21, -5)), batches.get(1));
+	}
+
+	@Test
+	public void test_loading_failure() {
+		AtomicInteger attempts = new AtomicInteger();
+		LoadingMap<String, String> map = LoadingMap.<String, String>builder()
+				.loader(key -> {
+					if (attempts.incrementAndGet() == 1) throw new IOException("Failed");
+					return key;
+				})
+				.executor(Runnable::run)
+				.build();
+
+		// Checked exceptions of the loader are rethrown as-is, and failed loads are retried
+		assertThrows(IOException.class, () -> map.get("a"));
+		assertEquals("a", map.get("a"));
+		assertEquals(2, attempts.get());
+	}
+
+	@Test
+	public void test_loading_refresh_ahead() {
+		AtomicLong time = new AtomicLong();
+		AtomicInteger version = new AtomicInteger();
+		LoadingMap<String, String> map = LoadingMap.<String, String>builder()
+				.loader(key -> key + version.incrementAndGet())
+				.refreshAfterWrite(10, TimeUnit.NANOSECONDS)
+				.ticker(time::get)
+				.executor(Runnable::run)
+				.build();
+
+		assertEquals("a1", map.get("a"));
+		assertEquals("a1", map.get("a"));
+
+		// Stale lookups return the current value, and reload in the background
+		time.set(10);
+		assertEquals("a1", map.get("a"));
+		assertEquals("a2", map.get("a"));
+		assertEquals(2, version.get());
+
+		map.put("a", "x");
+		assertEquals("x", map.get("a"));
+		map.invalidate("a");
+		assertNull(map.getIfPresent("a"));
+		assertEquals("a3", map.refresh("a").join());
+	}
+}
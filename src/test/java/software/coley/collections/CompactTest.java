@@ -0,0 +1,70 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for compact immutable collections.
+ */
+public class CompactTest {
+	@Test
+	public void test_lists() {
+		for (int size = 0; size < 6; size++) {
+			String[] items = new String[size];
+			for (int i = 0; i < size; i++) items[i] = i == 1 ? null : "i" + i;
+			List<String> expected = Arrays.asList(items);
+			List<String> list = Lists.immutableOf(items);
+			assertEquals(expected, list);
+			assertEquals(list, expected);
+			assertEquals(expected.hashCode(), list.hashCode());
+			assertEquals(list, Lists.immutableCopyOf(expected));
+			assertTrue(list instanceof RandomAccess);
+			assertThrows(UnsupportedOperationException.class, () -> list.add("x"));
+			assertThrows(IndexOutOfBoundsException.class, () -> list.get(items.length));
+		}
+	}
+
+	@Test
+	public void test_sets() {
+		for (int size = 0; size < 40; size++) {
+			List<Integer> items = new ArrayList<>();
+			for (int i = 0; i < size; i++) items.add(i % 3 == 2 ? null : i / 2);
+			Set<Integer> expected = new HashSet<>(items);
+			Set<Integer> set = Sets.immutableCopyOf(items);
+			assertEquals(expected, set);
+			assertEquals(set, expected);
+			assertEquals(expected.hashCode(), set.hashCode());
+			assertEquals(expected.size(), set.size());
+			assertEquals(expected.size(), new ArrayList<>(set).size());
+			for (Integer item : expected) assertTrue(set.contains(item));
+			assertFalse(set.contains(-1));
+			assertThrows(UnsupportedOperationException.class, () -> set.add(-1));
+		}
+		assertEquals(Sets.ofVar("a", "b"), Sets.immutableOf("a", "b", "a", "b"));
+	}
+
+	@Test
+	public void test_maps() {
+		assertEquals(Collections.singletonMap("a", 1), Maps.immutableOf("a", 1));
+		assertEquals(Collections.singletonMap("a", 2), Maps.immutableOf("a", 1, "a", 2));
+
+		for (int size = 0; size < 40; size++) {
+			Map<String, Integer> expected = new HashMap<>();
+			for (int i = 0; i < size; i++) expected.put(i == 3 ? null : "k" + i, i % 5 == 0 ? null : i);
+			Map<String, Integer> map = Maps.immutableCopyOf(expected);
+			assertEquals(expected, map);
+			assertEquals(map, expected);
+			assertEquals(expected.hashCode(), map.hashCode());
+			for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+				assertTrue(map.containsKey(entry.getKey()));
+				assertEquals(entry.getValue(), map.get(entry.getKey()));
+			}
+			assertFalse(map.containsKey("missing"));
+			assertNull(map.get("missing"));
+			assertThrows(UnsupportedOperationException.class, () -> map.put("x", 0));
+		}
+	}
+}
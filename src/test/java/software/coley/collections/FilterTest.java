@@ -0,0 +1,107 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.filter.BloomFilter;
+import software.coley.collections.filter.CuckooFilter;
+import software.coley.collections.filter.Funnel;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for probabilistic filter types.
+ */
+public class FilterTest {
+	@Test
+	public void test_bloom_filter() {
+		BloomFilter<Integer> filter = BloomFilter.create(Funnel.integers(), 100000, 0.01);
+		for (int i = 0; i < 100000; i++) filter.put(i);
+		for (int i = 0; i < 100000; i++) assertTrue(filter.mightContain(i));
+		int falsePositives = 0;
+		for (int i = 100000; i < 200000; i++) if (filter.mightContain(i)) falsePositives++;
+		assertTrue(falsePositives < 1500, "False positives: " + falsePositives);
+		assertEquals(0.01, filter.expectedFpp(), 0.003);
+		assertEquals(100000, filter.approximateElementCount(), 2000);
+
+		// Merging
+		BloomFilter<Integer> other = BloomFilter.create(Funnel.integers(), 100000, 0.01);
+		other.put(-1);
+		assertFalse(filter.mightContain(-1));
+		filter.merge(other);
+		assertTrue(filter.mightContain(-1));
+		assertThrows(IllegalArgumentException.class,
+				() -> filter.merge(BloomFilter.create(Funnel.integers(), 10, 0.01)));
+
+		// Serialization
+		ByteBuffer buffer = ByteBuffer.allocate(filter.serializedSize());
+		filter.serialize(buffer);
+		buffer.flip();
+		BloomFilter<Integer> copy = BloomFilter.deserialize(Funnel.integers(), buffer);
+		assertFalse(buffer.hasRemaining());
+		assertTrue(copy.isCompatible(filter));
+		for (int i = -1; i < 200000; i++) assertEquals(filter.mightContain(i), copy.mightContain(i));
+		assertThrows(IllegalArgumentException.class,
+				() -> BloomFilter.deserialize(Funnel.integers(), ByteBuffer.allocate(16)));
+	}
+
+	@Test
+	public void test_cuckoo_filter() {
+		CuckooFilter<String> filter = CuckooFilter.create(Funnel.strings(), 50000, 0.001);
+		for (int i = 0; i < 50000; i++) assertTrue(filter.put("item" + i));
+		assertEquals(50000, filter.size());
+		for (int i = 0; i < 50000; i++) assertTrue(filter.mightContain("item" + i));
+		int falsePositives = 0;
+		for (int i = 50000; i < 150000; i++) if (filter.mightContain("item" + i)) falsePositives++;
+		assertTrue(falsePositives < 200, "False positives: " + falsePositives);
+
+		// Removal
+		for (int i = 0; i < 50000; i += 2) assertTrue(filter.remove("item" + i));
+		assertEquals(25000, filter.size());
+		for (int i = 1; i < 50000; i += 2) assertTrue(filter.mightContain("item" + i));
+		int remaining = 0;
+		for (int i = 0; i < 50000; i += 2) if (filter.mightContain("item" + i)) remaining++;
+		assertTrue(remaining < 100, "Removed but present: " + remaining);
+
+		// Filling past capacity is reported
+		CuckooFilter<Integer> small = CuckooFilter.create(Funnel.integers(), 100, 0.01);
+		int added = 0;
+		for (int i = 0; i < 1000; i++) if (small.put(i)) added++;
+		assertTrue(added >= small.capacity() * 0.9, "Added: " + added);
+		assertTrue(added < 1000);
+		for (int i = 0; i < added; i++) assertTrue(small.mightContain(i));
+		assertTrue(small.remove(0));
+		assertTrue(small.put(-1));
+
+		// Merging and serialization
+		CuckooFilter<String> other = CuckooFilter.create(Funnel.strings(), 50000, 0.001);
+		other.put("other");
+		filter.merge(other);
+		assertTrue(filter.mightContain("other"));
+		ByteBuffer buffer = ByteBuffer.allocate(filter.serializedSize());
+		filter.serialize(buffer);
+		buffer.flip();
+		CuckooFilter<String> copy = CuckooFilter.deserialize(Funnel.strings(), buffer);
+		assertEquals(filter.size(), copy.size());
+		for (int i = 0; i < 50000; i++) assertEquals(filter.mightContain("item" + i), copy.mightContain("item" + i));
+		assertTrue(copy.remove("other"));
+		assertFalse(copy.mightContain("other"));
+	}
+
+	@Test
+	public void test_sets_factories() {
+		Random random = new Random(1);
+		Set<Long> set = new HashSet<>();
+		for (int i = 0; i < 10000; i++) set.add(random.nextLong());
+		BloomFilter<Long> bloom = Sets.bloomFilter(set, Funnel.longs(), 0.001);
+		CuckooFilter<Long> cuckoo = Sets.cuckooFilter(set, Funnel.longs(), 0.001);
+		for (Long value : set) {
+			assertTrue(bloom.mightContain(value));
+			assertTrue(cuckoo.mightContain(value));
+		}
+		assertEquals(set.size(), cuckoo.size());
+	}
+}
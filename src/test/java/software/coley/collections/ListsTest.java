@@ -2,27 +2,67 @@
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
+import java.util.RandomAccess;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
-class ListsTest {
+public class ListsTest {
 
 	@Test
-	void add() {
+	public void test_add() {
 		assertEquals(asList("a", "b"), Lists.add(singletonList("a"), "b"));
 		assertEquals(asList("a", null), Lists.add(singletonList("a"), null)); // will add null literal
 		assertEquals(singletonList("b"), Lists.add(null, "b"));
 		assertEquals(asList("a", "b", "c"), Lists.add(asList("a", "b"), "c"));
+		assertEquals(asList("a", "b"), Lists.add(asList("a", "b"), "a")); // will not add duplicates
 	}
 
 	@Test
-	void combine() {
+	public void test_add_incremental() {
+		// Chained results reuse the duplicate index of the previous result
+		List<Integer> list = null;
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			list = Lists.add(list, i % 700);
+			if (i < 700) expected.add(i);
+		}
+		assertEquals(expected, list);
+
+		// Earlier results can still be extended once their index was handed over
+		List<Integer> first = Lists.add(asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), 11);
+		List<Integer> second = Lists.add(first, 12);
+		assertEquals(asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12), second);
+		assertEquals(asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 13), Lists.add(first, 13));
+		assertEquals(first, Lists.add(first, 1));
+
+		// Modified results are deduplicated again
+		first.set(0, 2);
+		assertEquals(asList(2, 3, 4, 5, 6, 7, 8, 9, 10, 11), Lists.add(first, 3));
+		List<Integer> modified = Lists.add(second, 13);
+		modified.subList(0, 1).set(0, 2);
+		assertEquals(asList(2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13), Lists.add(modified, 13));
+		List<Integer> grown = Lists.add(second, 13);
+		grown.add(1);
+		assertEquals(asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13), Lists.add(grown, 1));
+
+		// Results with other equivalences are deduplicated again
+		String a1 = new String("a");
+		String a2 = new String("a");
+		List<String> identity = Lists.add(singletonList(a1), a2, Equivalence.identity());
+		assertEquals(2, identity.size());
+		assertEquals(asList("a", "b"), Lists.add(identity, "b"));
+	}
+
+	@Test
+	public void test_combine() {
 		assertEquals(singletonList("a"), Lists.combine(singletonList("a"), emptyList()));
 		assertEquals(singletonList("a"), Lists.combine(singletonList("a"), null));
 		assertEquals(singletonList("b"), Lists.combine(emptyList(), singletonList("b")));
@@ -31,7 +71,7 @@ void combine() {
 	}
 
 	@Test
-	void distinct() {
+	public void test_distinct() {
 		assertEquals(asList("a", "b", "d", "e"), Lists.disjoint(asList("a", "b", "c"), asList("c", "d", "e")));
 		assertEquals(asList("a", "b", "c"), Lists.disjoint(asList("a", "b", "c"), null));
 		assertEquals(asList("a", "b", "c"), Lists.disjoint(asList("a", "b", "c"), emptyList()));
@@ -40,7 +80,30 @@ void distinct() {
 	}
 
 	@Test
-	void disjoint() {
+	public void test_distinct_large() {
+		List<Integer> items = new ArrayList<>();
+		for (int i = 0; i < 1000; i++)
+			items.add(i % 100);
+		List<Integer> distinct = Lists.distinct(items);
+		assertEquals(100, distinct.size());
+		for (int i = 0; i < 100; i++)
+			assertEquals(i, distinct.get(i)); // Order of first occurrence is kept
+	}
+
+	@Test
+	public void test_distinct_equivalence() {
+		Equivalence<String> caseInsensitive = Equivalence.of(s -> s.toLowerCase().hashCode(), String::equalsIgnoreCase);
+		assertEquals(asList("a", "B"), Lists.distinct(asList("a", "A", "B", "b"), caseInsensitive));
+		assertEquals(asList("a", "B"), Lists.add(asList("a", "B"), "b", caseInsensitive));
+		assertEquals(singletonList("b"), Lists.union(asList("a", "b"), asList("B", "c"), caseInsensitive));
+
+		String a1 = new String("a");
+		String a2 = new String("a");
+		assertEquals(2, Lists.distinct(asList(a1, a2, a1), Equivalence.identity()).size());
+	}
+
+	@Test
+	public void test_disjoint() {
 		assertEquals(asList("a", "b", "d", "e"), Lists.disjoint(asList("a", "b", "c"), asList("c", "d", "e")));
 		assertEquals(asList("a", "b", "c"), Lists.disjoint(asList("a", "b", "c"), emptyList()));
 		assertEquals(asList("a", "b", "c"), Lists.disjoint(asList("a", "b", "c"), null));
@@ -49,28 +112,120 @@ void disjoint() {
 	}
 
 	@Test
-	void union() {
+	public void test_union() {
 		assertEquals(singletonList("c"), Lists.union(asList("a", "b", "c"), asList("c", "d", "e")));
 		assertEquals(emptyList(), Lists.union(asList("a", "b", "c"), emptyList()));
 		assertEquals(emptyList(), Lists.union(asList("a", "b", "c"), null));
 		assertEquals(emptyList(), Lists.union(emptyList(), asList("a", "b", "c")));
 		assertEquals(emptyList(), Lists.union(null, asList("a", "b", "c")));
+		assertEquals(asList("c", "a"), Lists.union(asList("c", "a", "c", "b"), asList("a", "c")));
 	}
 
 	@Test
-	void reversed() {
+	public void test_sorted_set_operations() {
+		List<Integer> a = asList(1, 2, 2, 4, 6);
+		List<Integer> b = asList(2, 3, 4, 7);
+		assertEquals(asList(1, 2, 2, 3, 4, 6, 7), Lists.sortedUnion(a, b));
+		assertEquals(asList(2, 4), Lists.sortedIntersection(a, b));
+		assertEquals(asList(1, 2, 6), Lists.sortedDifference(a, b));
+		assertEquals(asList(1, 2, 3, 6, 7), Lists.sortedSymmetricDifference(a, b));
+		assertEquals(a, Lists.sortedUnion(a, null));
+		assertEquals(emptyList(), Lists.sortedIntersection(null, b));
+
+		// Compare merge and gallop paths against a simple reference implementation
+		Random random = new Random(0);
+		for (int sizeB : new int[]{5, 50, 5000}) {
+			List<Integer> small = randomSorted(random, 50);
+			List<Integer> other = randomSorted(random, sizeB);
+			List<Integer> onlySmall = new ArrayList<>(small);
+			for (Integer i : other) onlySmall.remove(i);
+			List<Integer> onlyOther = new ArrayList<>(other);
+			for (Integer i : small) onlyOther.remove(i);
+			List<Integer> both = new ArrayList<>(small);
+			for (Integer i : onlySmall) both.remove(i);
+			assertEquals(onlySmall, Lists.sortedDifference(small, other));
+			assertEquals(onlyOther, Lists.sortedDifference(other, small));
+			assertEquals(both, Lists.sortedIntersection(small, other));
+			assertEquals(both, Lists.sortedIntersection(other, small));
+			assertEquals(sorted(Lists.combine(small, onlyOther)), Lists.sortedUnion(small, other));
+			assertEquals(sorted(Lists.combine(onlySmall, onlyOther)), Lists.sortedSymmetricDifference(other, small));
+		}
+	}
+
+	private static List<Integer> randomSorted(Random random, int size) {
+		List<Integer> list = new ArrayList<>();
+		for (int i = 0; i < size; i++) list.add(random.nextInt(200));
+		return sorted(list);
+	}
+
+	private static List<Integer> sorted(List<Integer> list) {
+		List<Integer> copy = new ArrayList<>(list);
+		copy.sort(null);
+		return copy;
+	}
+
+	@Test
+	public void test_reversed() {
 		assertEquals(asList("c", "b", "a"), Lists.reversed(asList("a", "b", "c")));
+		assertEquals(asList("c", "b", "a"), Lists.reversed(new LinkedList<>(asList("a", "b", "c"))));
+	}
+
+	@Test
+	public void test_reversed_view() {
+		List<String> src = new ArrayList<>(asList("a", "b", "c"));
+		List<String> view = Lists.reversedView(src);
+		assertEquals(asList("c", "b", "a"), view);
+		assertInstanceOf(RandomAccess.class, view);
+		src.add("d");
+		assertEquals(asList("d", "c", "b", "a"), view); // Changes to the source are visible
+		List<String> unreversed = Lists.reversedView(view);
+		assertEquals(src, unreversed);
+		assertThrows(UnsupportedOperationException.class, () -> unreversed.add("e"));
+		assertEquals(4, src.size());
+
+		// Small lists are still live views
+		List<Integer> single = new ArrayList<>(singletonList(1));
+		List<Integer> singleView = Lists.reversedView(single);
+		single.add(2);
+		assertEquals(asList(2, 1), singleView);
+		assertFalse(Lists.reversedView(new LinkedList<>(src)) instanceof RandomAccess);
+	}
+
+	@Test
+	public void test_combine_view() {
+		List<String> view = Lists.combineView(asList("a", "b"), emptyList(), singletonList("c"), asList("d", "e"));
+		assertEquals(asList("a", "b", "c", "d", "e"), view);
+		assertEquals("c", view.get(2));
+		assertEquals("d", view.get(3));
+		assertEquals(5, view.size());
+		assertInstanceOf(RandomAccess.class, view);
+		assertThrows(UnsupportedOperationException.class, () -> view.add("f"));
+		assertEquals(emptyList(), Lists.combineView());
+	}
+
+	@Test
+	public void test_slice_view() {
+		List<Integer> src = new ArrayList<>();
+		for (int i = 0; i < 10; i++) src.add(i);
+		assertEquals(asList(2, 3, 4), Lists.sliceView(src, 2, 5));
+		assertEquals(asList(1, 4, 7), Lists.sliceView(src, 1, 10, 3));
+		assertEquals(asList(0, 2, 4, 6, 8), Lists.sliceView(src, 0, 10, 2));
+		assertEquals(asList(2, 6), Lists.sliceView(Lists.sliceView(src, 0, 10, 2), 1, 5, 2));
+		assertEquals(emptyList(), Lists.sliceView(src, 3, 3));
+		assertThrows(IndexOutOfBoundsException.class, () -> Lists.sliceView(src, 5, 11));
+		assertEquals(asList(1), Lists.sliceView(src, 1, 10, Integer.MAX_VALUE));
+		assertEquals(asList(3), Lists.sliceView(Lists.sliceView(src, 1, 10, 2), 1, 3, Integer.MAX_VALUE));
 	}
 
 	@Test
-	void of() {
+	public void test_of() {
 		assertEquals(singletonList("a"), Lists.of("a"));
 		assertEquals(asList("a", "b"), Lists.of(new String[]{"a", "b"}));
 		assertEquals(asList("a", "b"), Lists.ofVar("a", "b"));
 	}
 
 	@Test
-	void binarySearch() {
+	public void test_binary_search() {
 		List<String> strings = asList("a", "b", "c", /* d */ "e", "f");
 		assertEquals(0, Lists.binarySearch(strings, "a"));
 		assertEquals(2, Lists.binarySearch(strings, "c"));
@@ -89,7 +244,7 @@ void binarySearch() {
 	}
 
 	@Test
-	void sortedInsertIndex() {
+	public void test_sorted_insert_index() {
 		// Unlike the binary search call, this normalizes the index to positive range
 		List<String> strings = asList("a", "b", "c", /* d */ "e", "f");
 		assertEquals(0, Lists.sortedInsertIndex(strings, " "));
@@ -98,7 +253,7 @@ void sortedInsertIndex() {
 	}
 
 	@Test
-	void compare() {
+	public void test_compare() {
 		assertEquals(0, Lists.compare(asList("a", "b"), asList("a", "b")));
 		assertTrue(0 > Lists.compare(asList("a", "b"), asList("c", "d"))); // negative result
 		assertTrue(0 < Lists.compare(asList("c", "d"), asList("a", "b"))); // positive result
@@ -110,7 +265,7 @@ void compare() {
 	}
 
 	@Test
-	void noopList() {
+	public void test_noop_list() {
 		List<Object> list = Lists.noopList();
 		list.add("test");
 		assertEquals(0, list.size());
@@ -0,0 +1,69 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.view.MapView;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for map utilities.
+ */
+public class MapsTest {
+	private static Map<String, Integer> map(Object... pairs) {
+		Map<String, Integer> map = new HashMap<>();
+		for (int i = 0; i < pairs.length; i += 2) map.put((String) pairs[i], (Integer) pairs[i + 1]);
+		return map;
+	}
+
+	@Test
+	public void test_union() {
+		Map<String, Integer> a = map("a", 1, "b", 2, "c", 3, "d", 4);
+		Map<String, Integer> b = map("b", 20, "d", 40, "e", 50);
+		assertEquals(map("b", 2, "d", 4), Maps.union(a, b));
+		assertEquals(map("b", 2, "d", 4), Maps.union(TreeMap::new, a, b));
+	}
+
+	@Test
+	public void test_views() {
+		Map<String, Integer> a = map("a", 1, "b", 2, "c", null);
+		Map<String, Integer> b = map("b", 20, "c", 30, "d", null);
+
+		MapView<String, Integer> combined = Maps.combineView(a, b);
+		assertEquals(Maps.combine(a, b), combined);
+		assertEquals(Maps.combine(a, b).hashCode(), combined.hashCode());
+		assertEquals(20, combined.get("b"));
+		assertTrue(combined.containsKey("d"));
+		assertNull(combined.get("d"));
+
+		MapView<String, Integer> distinct = Maps.distinctView(a, b);
+		assertEquals(Maps.distinct(a, b), distinct);
+		assertFalse(distinct.containsKey("b"));
+		assertEquals(1, distinct.get("a"));
+
+		MapView<String, Integer> union = Maps.unionView(a, b);
+		assertEquals(Maps.union(a, b), union);
+		assertEquals(2, union.size());
+		assertNull(union.get("a"));
+		assertEquals(2, union.get("b"));
+
+		// Views are live
+		b.put("a", 10);
+		assertEquals(10, combined.get("a"));
+		assertFalse(distinct.containsKey("a"));
+		assertEquals(1, union.get("a"));
+
+		// Materialized copies are not
+		TreeMap<String, Integer> copy = union.materialize(TreeMap::new);
+		assertEquals(union, copy);
+		b.clear();
+		assertTrue(union.isEmpty());
+		assertEquals(3, copy.size());
+
+		assertThrows(UnsupportedOperationException.class, () -> combined.put("x", 0));
+		assertTrue(Maps.combineView(null, null).isEmpty());
+	}
+}
@@ -0,0 +1,153 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.func.TriFunction;
+import software.coley.collections.func.UncheckedBiFunction;
+import software.coley.collections.func.UncheckedFunction;
+import software.coley.collections.func.UncheckedSupplier;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link Memo}.
+ */
+public class MemoTest {
+	@Test
+	public void test_function() {
+		AtomicInteger calls = new AtomicInteger();
+		UncheckedFunction<String, Integer> length = Memo.function(s -> {
+			calls.incrementAndGet();
+			return s == null ? null : s.length();
+		});
+		assertEquals(5, length.apply("hello"));
+		assertEquals(5, length.apply("hello"));
+		assertEquals(3, length.apply("abc"));
+		assertNull(length.apply(null));
+		assertNull(length.apply(null));
+		assertEquals(3, calls.get());
+	}
+
+	@Test
+	public void test_recursive() {
+		UncheckedFunction<Integer, Long>[] fib = new UncheckedFunction[1];
+		fib[0] = Memo.function(n -> n < 2 ? (long) n : fib[0].apply(n - 1) + fib[0].apply(n - 2));
+		assertEquals(12586269025L, fib[0].apply(50));
+	}
+
+	@Test
+	public void test_exceptions_not_cached() {
+		AtomicInteger calls = new AtomicInteger();
+		UncheckedFunction<String, String> fn = Memo.function(s -> {
+			if (calls.incrementAndGet() == 1) throw new IOException("fail");
+			return s;
+		});
+		assertThrows(IOException.class, () -> fn.apply("a"));
+		assertEquals("a", fn.apply("a"));
+		assertEquals("a", fn.apply("a"));
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	public void test_multiple_arguments() {
+		AtomicInteger calls = new AtomicInteger();
+		UncheckedBiFunction<Integer, Integer, Integer> add = Memo.biFunction((a, b) -> {
+			calls.incrementAndGet();
+			return a + b;
+		});
+		assertEquals(3, add.apply(1, 2));
+		assertEquals(3, add.apply(2, 1));
+		assertEquals(3, add.apply(1, 2));
+		assertEquals(2, calls.get());
+
+		calls.set(0);
+		TriFunction<String, String, String, String> join = Memo.triFunction((a, b, c) -> {
+			calls.incrementAndGet();
+			return a + b + c;
+		}, Memo.options().maximumSize(10));
+		assertEquals("abc", join.apply("a", "b", "c"));
+		assertEquals("abc", join.apply("a", "b", "c"));
+		assertEquals("nullbc", join.apply(null, "b", "c"));
+		assertEquals("nullbc", join.apply(null, "b", "c"));
+		assertEquals("acb", join.apply("a", "c", "b"));
+		assertEquals(3, calls.get());
+	}
+
+	@Test
+	public void test_maximum_size() {
+		AtomicInteger calls = new AtomicInteger();
+		UncheckedFunction<Integer, Integer> fn = Memo.function(i -> {
+			calls.incrementAndGet();
+			return i * 2;
+		}, Memo.options().maximumSize(10));
+		for (int i = 0; i < 1000; i++)
+			assertEquals(i * 2, fn.apply(i));
+		assertEquals(1000, calls.get());
+
+		// Frequently used inputs are admitted once their frequency exceeds that of the cached results, then stay cached
+		calls.set(0);
+		for (int round = 0; round < 10; round++)
+			for (int i = 0; i < 5; i++)
+				fn.apply(i);
+		assertTrue(calls.get() <= 25, "Calls: " + calls.get());
+		calls.set(0);
+		for (int round = 0; round < 100; round++)
+			for (int i = 0; i < 5; i++)
+				fn.apply(i);
+		assertEquals(0, calls.get());
+	}
+
+	@Test
+	public void test_expiry() {
+		AtomicLong time = new AtomicLong();
+		AtomicInteger calls = new AtomicInteger();
+		Memo.Options options = Memo.options().expireAfterWrite(10, TimeUnit.NANOSECONDS).ticker(time::get);
+		UncheckedFunction<String, Integer> fn = Memo.function(s -> calls.incrementAndGet(), options);
+		UncheckedSupplier<Integer> supplier = Memo.supplier(calls::incrementAndGet, options);
+		assertEquals(1, fn.apply("a"));
+		assertEquals(2, supplier.get());
+		time.set(9);
+		assertEquals(1, fn.apply("a"));
+		assertEquals(2, supplier.get());
+		time.set(10);
+		assertEquals(3, fn.apply("a"));
+		assertEquals(4, supplier.get());
+		assertEquals(3, fn.apply("a"));
+		assertEquals(4, supplier.get());
+	}
+
+	@Test
+	public void test_bounded_expiry_multiple_arguments() {
+		AtomicLong time = new AtomicLong();
+		AtomicInteger calls = new AtomicInteger();
+		Memo.Options options = Memo.options().maximumSize(100)
+				.expireAfterWrite(100, TimeUnit.NANOSECONDS).ticker(time::get);
+		UncheckedBiFunction<Integer, Integer, Integer> fn = Memo.biFunction((a, b) -> calls.incrementAndGet(), options);
+		assertEquals(1, fn.apply(1, 2));
+		time.set(50);
+		assertEquals(2, fn.apply(null, null));
+
+		// Expiring one result must not remove another
+		time.set(120);
+		assertEquals(3, fn.apply(1, 2));
+		assertEquals(2, fn.apply(null, null));
+	}
+
+	@Test
+	public void test_weak_keys() {
+		AtomicInteger calls = new AtomicInteger();
+		UncheckedBiFunction<Object, Object, Integer> fn = Memo.biFunction((a, b) -> calls.incrementAndGet(),
+				Memo.options().weakKeys());
+		Object a = new Object();
+		Object b = new Object();
+		assertEquals(1, fn.apply(a, b));
+		assertEquals(1, fn.apply(a, b));
+		assertEquals(2, fn.apply(b, a));
+		assertThrows(IllegalStateException.class,
+				() -> Memo.function(x -> x, Memo.options().weakKeys().maximumSize(1)));
+	}
+}
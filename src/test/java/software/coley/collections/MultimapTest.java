@@ -0,0 +1,127 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.multimap.HashListMultimap;
+import software.coley.collections.multimap.HashSetMultimap;
+import software.coley.collections.multimap.ListMultimap;
+import software.coley.collections.multimap.SetMultimap;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for multimap types.
+ */
+public class MultimapTest {
+	@Test
+	public void test_list_multimap() {
+		ListMultimap<String, Integer> map = new HashListMultimap<>();
+		assertTrue(map.put("a", 1));
+		assertTrue(map.put("a", 1));
+		assertTrue(map.put("a", 2));
+		assertTrue(map.put("b", null));
+		assertEquals(4, map.size());
+		assertEquals(asList(1, 1, 2), map.get("a"));
+		assertEquals(singletonList(null), map.get("b"));
+		assertTrue(map.containsEntry("b", null));
+		assertTrue(map.get("c").isEmpty());
+
+		// Single value keys promote and shrink through the live view
+		List<Integer> c = map.get("c");
+		c.add(5);
+		assertEquals(singletonList(5), map.get("c"));
+		c.add(0, 4);
+		assertEquals(asList(4, 5), map.get("c"));
+		c.set(1, 6);
+		assertEquals(asList(4, 6), c);
+		assertEquals(4, c.remove(0));
+		assertEquals(6, c.remove(0));
+		assertFalse(map.containsKey("c"));
+		assertEquals(4, map.size());
+
+		assertTrue(map.remove("a", 1));
+		assertEquals(asList(1, 2), map.get("a"));
+		assertEquals(asList(1, 2), map.removeAll("a"));
+		assertFalse(map.containsKey("a"));
+		assertEquals(1, map.size());
+
+		map.putAll("d", asList(7, 8, 9));
+		assertEquals(asList(7, 8, 9), map.get("d"));
+		assertEquals(4, map.size());
+		assertEquals(new HashSet<>(asList("b", "d")), map.keySet());
+		List<Integer> values = new ArrayList<>(map.values());
+		values.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+		assertEquals(asList(null, 7, 8, 9), values);
+		assertEquals(4, map.entries().size());
+		assertTrue(map.entries().contains(new AbstractMap.SimpleEntry<>("d", 8)));
+
+		// Map view removals are reflected in the total size
+		Iterator<String> keys = map.keySet().iterator();
+		while (keys.hasNext())
+			if (keys.next().equals("d")) keys.remove();
+		assertEquals(1, map.size());
+		assertEquals(Collections.singletonMap("b", singletonList(null)), map.asMap());
+
+		ListMultimap<String, Integer> copy = new HashListMultimap<>(map);
+		assertEquals(map, copy);
+		assertEquals(map.hashCode(), copy.hashCode());
+	}
+
+	@Test
+	public void test_set_multimap() {
+		SetMultimap<String, Integer> map = new HashSetMultimap<>();
+		assertTrue(map.put("a", 1));
+		assertFalse(map.put("a", 1));
+		assertTrue(map.put("a", 2));
+		assertFalse(map.putAll("b", Collections.emptyList()));
+		assertTrue(map.putAll("b", asList(3, 3)));
+		assertEquals(3, map.size());
+		assertEquals(new HashSet<>(asList(1, 2)), map.get("a"));
+		assertEquals(Collections.singleton(3), map.get("b"));
+
+		Set<Integer> a = map.get("a");
+		Iterator<Integer> it = a.iterator();
+		it.next();
+		it.remove();
+		it.next();
+		it.remove();
+		assertFalse(map.containsKey("a"));
+		assertEquals(1, map.size());
+		assertTrue(a.add(5));
+		assertTrue(map.containsEntry("a", 5));
+		assertTrue(a.remove(5));
+		assertEquals(1, map.size());
+
+		// Same content in a list multimap is not equal, as with lists and sets
+		ListMultimap<String, Integer> list = new HashListMultimap<>();
+		list.put("b", 3);
+		assertNotEquals(map, list);
+	}
+
+	@Test
+	public void test_maps_utilities() {
+		ListMultimap<String, Integer> a = new HashListMultimap<>();
+		a.putAll("x", asList(1, 2));
+		a.put("y", 3);
+		ListMultimap<String, Integer> b = new HashListMultimap<>();
+		b.put("x", 4);
+		b.put("z", 5);
+
+		ListMultimap<String, Integer> combined = Multimaps.combine(a, b);
+		assertEquals(asList(1, 2, 4), combined.get("x"));
+		assertEquals(5, combined.size());
+
+		ListMultimap<String, Integer> distinct = Multimaps.distinct(a, b);
+		assertEquals(new HashSet<>(asList("y", "z")), distinct.keySet());
+
+		ListMultimap<String, Integer> union = Multimaps.union(a, b);
+		assertEquals(Collections.singletonMap("x", asList(1, 2)), union.asMap());
+
+		SetMultimap<String, Integer> sets = Multimaps.combine(HashSetMultimap::new, a, b);
+		assertEquals(new HashSet<>(asList(1, 2, 4)), sets.get("x"));
+		assertTrue(Multimaps.union(a, null).isEmpty());
+	}
+}
@@ -0,0 +1,170 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.offheap.Codec;
+import software.coley.collections.offheap.MappedMap;
+import software.coley.collections.offheap.OffHeapMap;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for off-heap collection types.
+ */
+public class OffHeapTest {
+	@Test
+	public void test_map_matches_hash_map() {
+		Random random = new Random(1);
+		Map<Long, Long> expected = new HashMap<>();
+		try (OffHeapMap<Long, Long> map = new OffHeapMap<>(Codec.longs(), Codec.longs())) {
+			for (int i = 0; i < 50000; i++) {
+				long key = random.nextInt(4000) - 2000;
+				if (random.nextInt(3) == 0) {
+					assertEquals(expected.remove(key), map.remove(key));
+				} else {
+					long value = random.nextLong();
+					assertEquals(expected.put(key, value), map.put(key, value));
+				}
+			}
+			assertEquals(expected.size(), map.size());
+			assertEquals(expected, map.asMap());
+			assertEquals(expected.hashCode(), map.asMap().hashCode());
+			for (long key = -2000; key < 2000; key++) {
+				assertEquals(expected.containsKey(key), map.containsKey(key));
+				assertEquals(expected.get(key), map.get(key));
+			}
+
+			Map<Long, Long> visited = new HashMap<>();
+			map.forEach(visited::put);
+			assertEquals(expected, visited);
+			assertEquals((long) map.capacity() * 17, map.memoryUsage());
+		}
+	}
+
+	@Test
+	public void test_string_keys() {
+		try (OffHeapMap<String, Integer> map = new OffHeapMap<>(Codec.utf8(12), Codec.ints(), 4)) {
+			map.put("one", 1);
+			map.put("two", 2);
+			map.put("\u00fcber", 3);
+			assertEquals(1, map.get("one"));
+			assertEquals(3, map.get("\u00fcber"));
+			assertNull(map.get("three"));
+			assertEquals(2, map.put("two", 22));
+			assertEquals(22, map.get("two"));
+			assertThrows(IllegalArgumentException.class, () -> map.put("far too long of a key", 0));
+			assertEquals(3, map.size());
+		}
+	}
+
+	@Test
+	public void test_map_view() {
+		try (OffHeapMap<Integer, Double> map = new OffHeapMap<>(Codec.ints(), Codec.doubles())) {
+			Map<Integer, Double> view = map.asMap();
+			view.put(1, 1.5);
+			view.put(2, 2.5);
+			assertEquals(1.5, map.get(1));
+			assertFalse(view.containsKey("1"));
+			assertNull(view.get(null));
+			view.entrySet().iterator().next().setValue(0.0);
+			assertTrue(view.containsValue(0.0));
+			assertEquals(2.5, view.remove(2));
+			assertEquals(1, map.size());
+			view.clear();
+			assertTrue(map.isEmpty());
+		}
+	}
+
+	@Test
+	public void test_close() {
+		OffHeapMap<Integer, Integer> map = new OffHeapMap<>(Codec.ints(), Codec.ints());
+		map.put(1, 1);
+		map.close();
+		assertTrue(map.isClosed());
+		assertThrows(IllegalStateException.class, () -> map.get(1));
+		assertThrows(IllegalStateException.class, () -> map.put(2, 2));
+
+		// Closing again is a no-op
+		map.close();
+	}
+
+	@Test
+	public void test_mapped_reopen() throws IOException {
+		Path dir = tempDirectory();
+		Path path = dir.resolve("map.bin");
+		path.toFile().deleteOnExit();
+		Map<Long, Long> expected = new HashMap<>();
+		try (MappedMap<Long, Long> map = MappedMap.open(path, Codec.longs(), Codec.longs())) {
+			// Enough entries to grow several times
+			for (long i = 0; i < 10000; i++) {
+				map.put(i, i * 3);
+				expected.put(i, i * 3);
+			}
+			for (long i = 0; i < 10000; i += 7) {
+				map.remove(i);
+				expected.remove(i);
+			}
+			assertThrows(IOException.class, () -> MappedMap.open(path, Codec.longs(), Codec.longs()));
+		}
+		try (MappedMap<Long, Long> map = MappedMap.open(path, Codec.longs(), Codec.longs())) {
+			assertEquals(expected, map.asMap());
+			map.put(-1L, -1L);
+		}
+		try (MappedMap<Long, Long> map = MappedMap.open(path, Codec.longs(), Codec.longs())) {
+			assertEquals(expected.size() + 1, map.size());
+			assertEquals(-1L, map.get(-1L));
+		}
+		assertThrows(IllegalArgumentException.class, () -> MappedMap.open(path, Codec.ints(), Codec.longs()));
+	}
+
+	@Test
+	public void test_mapped_header_recovery() throws IOException {
+		Path dir = tempDirectory();
+		Path path = dir.resolve("map.bin");
+		path.toFile().deleteOnExit();
+		try (MappedMap<Integer, Integer> map = MappedMap.open(path, Codec.ints(), Codec.ints())) {
+			map.put(1, 1);
+			map.put(2, 2);
+		}
+
+		// Tear the newest header copy, which holds the clean state after closing
+		int newest = -1;
+		long newestSequence = -1;
+		try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+			for (int i = 0; i < 2; i++) {
+				file.seek(i * 64 + 8);
+				long sequence = file.readLong();
+				if (sequence > newestSequence) {
+					newestSequence = sequence;
+					newest = i;
+				}
+			}
+			file.seek(newest * 64 + 24);
+			file.writeInt(12345);
+		}
+
+		// The older copy is dirty, so entries are recounted from the table
+		try (MappedMap<Integer, Integer> map = MappedMap.open(path, Codec.ints(), Codec.ints())) {
+			assertEquals(2, map.size());
+			assertEquals(2, map.get(2));
+		}
+
+		Path garbage = dir.resolve("garbage.bin");
+		garbage.toFile().deleteOnExit();
+		Files.write(garbage, new byte[256]);
+		assertThrows(IOException.class, () -> MappedMap.open(garbage, Codec.ints(), Codec.ints()));
+	}
+
+	private static Path tempDirectory() throws IOException {
+		Path dir = Files.createTempDirectory("offheap");
+		dir.toFile().deleteOnExit();
+		return dir;
+	}
+}
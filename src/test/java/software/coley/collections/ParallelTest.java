@@ -0,0 +1,64 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.parallel.ParallelLists;
+import software.coley.collections.parallel.ParallelMaps;
+import software.coley.collections.parallel.ParallelSets;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for parallel variants of {@link Lists}, {@link Sets} and {@link Maps} operations.
+ */
+public class ParallelTest {
+	private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@Test
+	public void test_lists() {
+		ParallelLists parallel = Lists.parallel(pool, 16);
+		List<Integer> a = randomList(new Random(0), 20_000);
+		List<Integer> b = randomList(new Random(1), 10_000);
+		a.set(5, null);
+		a.set(500, null);
+		assertEquals(Lists.distinct(a), parallel.distinct(a));
+		assertEquals(Lists.union(a, b), parallel.union(a, b));
+		assertEquals(Lists.disjoint(a, b), parallel.disjoint(a, b));
+		assertEquals(Lists.combine(a, b), parallel.combine(a, b));
+		assertEquals(Lists.distinct(new LinkedList<>(a)), parallel.distinct(new LinkedList<>(a)));
+	}
+
+	@Test
+	public void test_sets() {
+		ParallelSets parallel = Sets.parallel(pool, 16);
+		Set<Integer> a = new HashSet<>(randomList(new Random(0), 20_000));
+		Set<Integer> b = new HashSet<>(randomList(new Random(1), 10_000));
+		assertEquals(Sets.union(a, b), parallel.union(a, b));
+		assertEquals(Sets.disjoint(a, b), parallel.disjoint(a, b));
+		assertEquals(Sets.combine(a, b), parallel.combine(a, b));
+	}
+
+	@Test
+	public void test_maps() {
+		ParallelMaps parallel = Maps.parallel(pool, 16);
+		Map<Integer, String> a = new HashMap<>();
+		Map<Integer, String> b = new HashMap<>();
+		for (Integer i : randomList(new Random(0), 20_000)) a.put(i, "a" + i);
+		for (Integer i : randomList(new Random(1), 10_000)) b.put(i, "b" + i);
+
+		Map<Integer, String> shared = new HashMap<>(a);
+		shared.keySet().retainAll(b.keySet());
+		assertEquals(shared, parallel.union(a, b));
+		assertEquals(Maps.distinct(a, b), parallel.distinct(a, b));
+		assertEquals(Maps.combine(a, b), parallel.combine(a, b));
+	}
+
+	private static List<Integer> randomList(Random random, int size) {
+		List<Integer> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			list.add(random.nextInt(size));
+		return list;
+	}
+}
@@ -0,0 +1,201 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.persistent.PersistentList;
+import software.coley.collections.persistent.PersistentMap;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for persistent collection types.
+ */
+public class PersistentTest {
+	@Test
+	public void test_list_with() {
+		PersistentList<Integer> list = PersistentList.empty();
+		List<PersistentList<Integer>> versions = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			list = list.with(i);
+			versions.add(list);
+		}
+		assertEquals(5000, list.size());
+		for (int i = 0; i < 5000; i++)
+			assertEquals(i, list.get(i));
+
+		// Prior versions are unaffected by later additions
+		for (int i = 0; i < 5000; i += 97)
+			assertEquals(i + 1, versions.get(i).size());
+		assertThrows(UnsupportedOperationException.class, () -> versions.get(0).add(1));
+	}
+
+	@Test
+	public void test_list_withAll() {
+		List<Integer> expected = new ArrayList<>();
+		PersistentList<Integer> list = PersistentList.empty();
+		for (int chunk = 1; chunk < 200; chunk += 13) {
+			List<Integer> items = new ArrayList<>();
+			for (int i = 0; i < chunk; i++)
+				items.add(expected.size() + i);
+			list = list.withAll(items);
+			expected.addAll(items);
+			assertEquals(expected, list);
+		}
+
+		Iterator<Integer> it = list.iterator();
+		for (Integer value : expected)
+			assertEquals(value, it.next());
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void test_list_setAndPop() {
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 2000; i++)
+			expected.add(i);
+		PersistentList<Integer> list = PersistentList.of(expected);
+		PersistentList<Integer> replaced = list.withSet(10, -1).withSet(1999, -2);
+		assertEquals(-1, replaced.get(10));
+		assertEquals(-2, replaced.get(1999));
+		assertEquals(10, list.get(10));
+
+		while (!list.isEmpty()) {
+			list = list.withoutLast();
+			expected.remove(expected.size() - 1);
+			assertEquals(expected.size(), list.size());
+			if (!expected.isEmpty())
+				assertEquals(expected.get(expected.size() - 1), list.get(list.size() - 1));
+		}
+		assertEquals(expected, list);
+	}
+
+	@Test
+	public void test_lists_optIn() {
+		PersistentList<String> list = Lists.persistent(Lists.ofVar("a", "b"));
+		PersistentList<String> added = Lists.persistentAdd(list, "c");
+		assertEquals(Lists.ofVar("a", "b", "c"), added);
+		assertSame(added, Lists.persistentAdd(added, "a"));
+		assertEquals(Lists.ofVar("a", "b", "c", "d"), Lists.persistentCombine(added, Lists.of("d")));
+		assertEquals(Lists.ofVar("a", "b"), list);
+
+		// Appending skips the duplicate check
+		PersistentList<String> appended = Lists.append(added, "a");
+		assertEquals(Lists.ofVar("a", "b", "c", "a"), appended);
+		assertEquals(Lists.of("x"), Lists.append(null, "x"));
+
+		// Null literals still resolve to the non-persistent operations
+		assertFalse(Lists.add(null, "b") instanceof PersistentList);
+		assertTrue(Lists.add(null, null).isEmpty());
+		assertFalse(Lists.combine(null, Lists.of("b")) instanceof PersistentList);
+	}
+
+	@Test
+	public void test_map_random_operations() {
+		Random random = new Random(42);
+		Map<Object, Integer> expected = new HashMap<>();
+		PersistentMap<Object, Integer> map = PersistentMap.empty();
+		for (int i = 0; i < 20000; i++) {
+			Object key = randomKey(random);
+			if (random.nextInt(3) == 0) {
+				expected.remove(key);
+				map = map.without(key);
+			} else {
+				expected.put(key, i);
+				map = map.with(key, i);
+			}
+			if (i % 1000 == 0) assertEquals(expected, map);
+		}
+		assertEquals(expected, map);
+		assertEquals(map, expected);
+		assertEquals(expected.hashCode(), map.hashCode());
+		for (Object key : expected.keySet())
+			assertTrue(map.containsKey(key));
+
+		// Remove everything, which must collapse back down to an empty map
+		for (Object key : expected.keySet())
+			map = map.without(key);
+		assertTrue(map.isEmpty());
+		assertFalse(map.entrySet().iterator().hasNext());
+	}
+
+	@Test
+	public void test_map_versions() {
+		PersistentMap<String, Integer> empty = PersistentMap.empty();
+		PersistentMap<String, Integer> one = empty.with("a", 1);
+		PersistentMap<String, Integer> two = one.with("b", 2);
+		PersistentMap<String, Integer> replaced = two.with("a", 10);
+		PersistentMap<String, Integer> removed = replaced.without("b");
+		assertTrue(empty.isEmpty());
+		assertEquals(Collections.singletonMap("a", 1), one);
+		assertEquals(2, two.size());
+		assertEquals(1, two.get("a"));
+		assertEquals(10, replaced.get("a"));
+		assertEquals(Collections.singletonMap("a", 10), removed);
+		assertSame(two, two.without("missing"));
+		assertThrows(UnsupportedOperationException.class, () -> two.put("c", 3));
+
+		// Null keys and values are supported
+		PersistentMap<String, Integer> nulls = two.with(null, null);
+		assertTrue(nulls.containsKey(null));
+		assertNull(nulls.get(null));
+		assertEquals(3, nulls.size());
+	}
+
+	@Test
+	public void test_map_builder() {
+		PersistentMap.Builder<Object, Integer> builder = PersistentMap.builder();
+		Map<Object, Integer> expected = new HashMap<>();
+		Random random = new Random(7);
+		for (int i = 0; i < 5000; i++) {
+			Object key = randomKey(random);
+			builder.put(key, i);
+			expected.put(key, i);
+		}
+		PersistentMap<Object, Integer> built = builder.build();
+		assertEquals(expected, built);
+
+		// Continued use of the builder must not leak into the built map
+		Map<Object, Integer> snapshot = new HashMap<>(built);
+		for (Object key : snapshot.keySet()) builder.remove(key);
+		builder.put("extra", -1);
+		assertEquals(snapshot, built);
+		assertEquals(Collections.singletonMap("extra", -1), builder.build());
+
+		// Maps utilities
+		PersistentMap<Object, Integer> added = Maps.persistentAdd(built, "x", 1);
+		assertEquals(built.size() + 1, added.size());
+		assertFalse(built.containsKey("x"));
+		assertEquals(Maps.combine(new HashMap<>(built), snapshot), Maps.persistentCombine(built, snapshot));
+
+		// Null literals still resolve to the non-persistent operations
+		assertEquals(Collections.singletonMap("x", 1), Maps.add(null, "x", 1));
+		assertFalse(Maps.add(null, "x", 1) instanceof PersistentMap);
+		assertSame(snapshot, Maps.combine(null, snapshot));
+	}
+
+	private static Object randomKey(Random random) {
+		// Mix of regular keys and keys with colliding hash codes
+		int value = random.nextInt(3000);
+		if (value % 5 == 0) return new Colliding(value);
+		return value;
+	}
+
+	private static final class Colliding {
+		private final int value;
+
+		private Colliding(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Colliding && ((Colliding) o).value == value;
+		}
+
+		@Override
+		public int hashCode() {
+			return value % 3;
+		}
+	}
+}
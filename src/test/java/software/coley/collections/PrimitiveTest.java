@@ -0,0 +1,375 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.primitive.*;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for primitive collection types.
+ */
+public class PrimitiveTest {
+	@Test
+	public void test_int_object_map() {
+		Random random = new Random(1);
+		IntObjectMap<String> map = new IntObjectMap<>();
+		Map<Integer, String> expected = new HashMap<>();
+		for (int i = 0; i < 50000; i++) {
+			int key = random.nextInt(2000) - 1000;
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), map.remove(key));
+			} else {
+				String value = "v" + i;
+				assertEquals(expected.put(key, value), map.put(key, value));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		assertEquals(expected, map.asMap());
+		assertEquals(expected.hashCode(), map.hashCode());
+		for (int key = -1000; key < 1000; key++) {
+			assertEquals(expected.containsKey(key), map.containsKey(key));
+			assertEquals(expected.get(key), map.get(key));
+		}
+
+		Map<Integer, String> visited = new HashMap<>();
+		map.forEach(visited::put);
+		assertEquals(expected, visited);
+		assertEquals(expected.size(), map.keys().length);
+
+		// Boxed view writes through
+		map.asMap().put(5000, "x");
+		assertEquals("x", map.get(5000));
+		map.asMap().entrySet().iterator().next().setValue("y");
+		assertTrue(map.asMap().containsValue("y"));
+		assertEquals("computed", map.computeIfAbsent(6000, k -> "computed"));
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertTrue(map.asMap().isEmpty());
+	}
+
+	@Test
+	public void test_long_object_map() {
+		LongObjectMap<String> map = new LongObjectMap<>(4);
+		for (long i = 0; i < 1000; i++) map.put(i << 32, "v" + i);
+		assertEquals(1000, map.size());
+		for (long i = 0; i < 1000; i++) assertEquals("v" + i, map.get(i << 32));
+		for (long i = 0; i < 1000; i += 2) map.remove(i << 32);
+		assertEquals(500, map.size());
+		for (long i = 0; i < 1000; i++) assertEquals(i % 2 == 1, map.containsKey(i << 32));
+		assertNull(map.get(0));
+
+		// Zero keys and null values are supported
+		LongObjectMap<String> zero = new LongObjectMap<>();
+		zero.put(0, null);
+		assertEquals(Collections.singletonMap(0L, null), zero.asMap());
+	}
+
+	@Test
+	public void test_int_int_map() {
+		Random random = new Random(2);
+		IntIntMap map = new IntIntMap();
+		Map<Integer, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 50000; i++) {
+			int key = random.nextInt(2000) - 1000;
+			switch (random.nextInt(3)) {
+				case 0:
+					Integer prior = expected.remove(key);
+					assertEquals(prior == null ? 0 : prior, map.remove(key));
+					break;
+				case 1:
+					assertEquals(expected.merge(key, 3, Integer::sum).intValue(), map.addTo(key, 3));
+					break;
+				default:
+					prior = expected.put(key, i);
+					assertEquals(prior == null ? 0 : prior, map.put(key, i));
+			}
+		}
+		assertEquals(expected, map.asMap());
+		assertEquals(expected.hashCode(), map.hashCode());
+		assertEquals(0, map.get(Integer.MAX_VALUE));
+		assertEquals(-1, map.getOrDefault(Integer.MAX_VALUE, -1));
+		assertNull(map.asMap().get(Integer.MAX_VALUE));
+
+		IntIntMap copy = new IntIntMap();
+		map.forEach(copy::put);
+		assertEquals(map, copy);
+	}
+
+	@Test
+	public void test_long_long_map() {
+		LongLongMap map = new LongLongMap();
+		for (long i = -500; i < 500; i++) map.addTo(i * 1_000_000_007L, i);
+		assertEquals(1000, map.size());
+		for (long i = -500; i < 500; i++) assertEquals(i, map.get(i * 1_000_000_007L));
+		assertTrue(map.containsKey(0));
+		assertEquals(0, map.remove(0));
+		assertFalse(map.containsKey(0));
+		assertEquals(999, map.asMap().size());
+	}
+
+	@Test
+	public void test_int_list() {
+		IntList list = IntList.of(5, 3, 9);
+		list.add(1);
+		list.add(0, 7);
+		assertEquals(Arrays.asList(7, 5, 3, 9, 1), list.asList());
+		assertEquals(Arrays.asList(7, 5, 3, 9, 1).hashCode(), list.hashCode());
+		assertEquals(3, list.removeAt(2));
+		assertEquals(-1, list.indexOf(3));
+		list.sort();
+		assertArrayEquals(new int[]{1, 5, 7, 9}, list.toArray());
+		assertEquals(2, list.binarySearch(7));
+		assertEquals(-3, list.binarySearch(6));
+		assertEquals(22, list.stream().sum());
+
+		// Boxed view writes through
+		list.asList().add(100);
+		list.asList().set(0, 2);
+		assertEquals(IntList.of(2, 5, 7, 9, 100), list);
+		assertThrows(IndexOutOfBoundsException.class, () -> list.get(5));
+	}
+
+	@Test
+	public void test_other_lists() {
+		LongList longs = LongList.of(3L, Long.MAX_VALUE, -1L);
+		longs.sort();
+		assertEquals(Arrays.asList(-1L, 3L, Long.MAX_VALUE), longs.asList());
+
+		DoubleList doubles = DoubleList.of(Double.NaN, 0.0, -0.0, 1.5);
+		assertTrue(doubles.contains(Double.NaN));
+		assertEquals(1, doubles.indexOf(0.0));
+		assertEquals(2, doubles.indexOf(-0.0));
+		doubles.sort();
+		assertEquals(Arrays.asList(-0.0, 0.0, 1.5, Double.NaN), doubles.asList());
+		assertEquals(3, doubles.binarySearch(Double.NaN));
+
+		CharList chars = CharList.of('c', 'a', 'b');
+		chars.sort();
+		assertEquals("abc", chars.stream().mapToObj(c -> String.valueOf((char) c)).collect(Collectors.joining()));
+		assertEquals("[a, b, c]", chars.toString());
+	}
+
+	@Test
+	public void test_int_set() {
+		Random random = new Random(3);
+		IntSet set = new IntSet();
+		Set<Integer> expected = new HashSet<>();
+		for (int i = 0; i < 50000; i++) {
+			int value = random.nextInt(2000) - 1000;
+			if (random.nextBoolean()) assertEquals(expected.add(value), set.add(value));
+			else assertEquals(expected.remove(value), set.remove(value));
+		}
+		assertEquals(expected, set.asSet());
+		assertEquals(expected.hashCode(), set.hashCode());
+		assertEquals(expected.size(), set.stream().count());
+		int[] sorted = set.toSortedArray();
+		assertEquals(expected.stream().sorted().collect(Collectors.toList()),
+				Arrays.stream(sorted).boxed().collect(Collectors.toList()));
+
+		LongSet longs = LongSet.of(0, 1, 1L << 40, 1);
+		assertEquals(3, longs.size());
+		assertTrue(longs.contains(1L << 40));
+		assertEquals(new HashSet<>(Arrays.asList(0L, 1L, 1L << 40)), longs.asSet());
+	}
+
+	@Test
+	public void test_int_bitmap() {
+		Random random = new Random(5);
+		IntBitmap bitmap = new IntBitmap();
+		TreeSet<Integer> expected = new TreeSet<>();
+		for (int i = 0; i < 200000; i++) {
+			// Sparse, dense and negative values, so containers switch between kinds
+			int value = random.nextInt(3) == 0 ? random.nextInt() : random.nextInt(20000) - (1 << 16);
+			if (random.nextInt(4) != 0) assertEquals(expected.add(value), bitmap.add(value));
+			else assertEquals(expected.remove(value), bitmap.remove(value));
+		}
+		bitmap.addRange(-70000, 70000);
+		for (int i = -70000; i <= 70000; i++) expected.add(i);
+		for (int i = 0; i < 1000; i++) {
+			int value = random.nextInt(140000) - 70000;
+			assertEquals(expected.remove(value), bitmap.remove(value));
+		}
+		assertBitmap(expected, bitmap);
+		bitmap.optimize();
+		assertBitmap(expected, bitmap);
+
+		IntBitmap full = IntBitmap.ofRange(Integer.MIN_VALUE, Integer.MAX_VALUE);
+		assertEquals(1L << 32, full.cardinality());
+		assertEquals(Integer.MIN_VALUE, full.first());
+		assertEquals(Integer.MAX_VALUE, full.last());
+		assertEquals(1L << 31, full.rank(-1));
+		assertEquals(12345, full.select((1L << 31) + 12345));
+		assertEquals(Integer.MAX_VALUE, full.asSet().size());
+		assertThrows(IndexOutOfBoundsException.class, () -> full.select(1L << 32));
+		assertThrows(NoSuchElementException.class, () -> new IntBitmap().first());
+	}
+
+	@Test
+	public void test_int_bitmap_operations() {
+		Random random = new Random(6);
+		for (int round = 0; round < 30; round++) {
+			TreeSet<Integer> expectedA = new TreeSet<>();
+			TreeSet<Integer> expectedB = new TreeSet<>();
+			IntBitmap a = randomBitmap(random, expectedA);
+			IntBitmap b = randomBitmap(random, expectedB);
+
+			TreeSet<Integer> and = new TreeSet<>(expectedA);
+			and.retainAll(expectedB);
+			TreeSet<Integer> or = new TreeSet<>(expectedA);
+			or.addAll(expectedB);
+			TreeSet<Integer> andNot = new TreeSet<>(expectedA);
+			andNot.removeAll(expectedB);
+			TreeSet<Integer> xor = new TreeSet<>(or);
+			xor.removeAll(and);
+			assertBitmap(and, IntBitmap.and(a, b));
+			assertBitmap(or, IntBitmap.or(a, b));
+			assertBitmap(xor, IntBitmap.xor(a, b));
+			assertBitmap(andNot, IntBitmap.andNot(a, b));
+			assertBitmap(and, PrimitiveSets.union(a, b));
+
+			// Static operations do not modify their inputs
+			assertBitmap(expectedA, a);
+			assertBitmap(expectedB, b);
+
+			IntBitmap inPlace = a.copy();
+			inPlace.xor(b);
+			assertBitmap(xor, inPlace);
+			inPlace.or(a);
+			assertBitmap(or, inPlace);
+			inPlace.andNot(b);
+			assertBitmap(andNot, inPlace);
+			inPlace.and(a);
+			assertBitmap(andNot, inPlace);
+			inPlace.xor(inPlace);
+			assertTrue(inPlace.isEmpty());
+			assertBitmap(expectedA, a);
+		}
+	}
+
+	@Test
+	public void test_int_bitmap_serialization() {
+		// Matches the portable format written by other Roaring implementations
+		ByteBuffer small = ByteBuffer.allocate(IntBitmap.of(1, 2, 3).serializedSize());
+		IntBitmap.of(1, 2, 3).serialize(small);
+		assertArrayEquals(new byte[]{0x3A, 0x30, 0, 0, 1, 0, 0, 0, 0, 0, 2, 0, 16, 0, 0, 0, 1, 0, 2, 0, 3, 0},
+				small.array());
+
+		Random random = new Random(7);
+		for (int round = 0; round < 10; round++) {
+			TreeSet<Integer> expected = new TreeSet<>();
+			IntBitmap bitmap = randomBitmap(random, expected);
+			if (round % 2 == 0) bitmap.optimize();
+			ByteBuffer buffer = ByteBuffer.allocateDirect(bitmap.serializedSize() + 3).order(ByteOrder.BIG_ENDIAN);
+			buffer.position(3);
+			bitmap.serialize(buffer);
+			assertEquals(buffer.capacity(), buffer.position());
+			buffer.position(3);
+
+			MappedIntBitmap mapped = new MappedIntBitmap(buffer);
+			assertEquals(3, buffer.position());
+			assertEquals(bitmap.serializedSize(), mapped.serializedSize());
+			assertBitmap(expected, mapped);
+			assertEquals(bitmap, mapped);
+			for (int i = 0; i < 1000; i++) {
+				int value = random.nextInt(1 << 20) - (1 << 19);
+				assertEquals(expected.contains(value), mapped.contains(value));
+			}
+			assertThrows(UnsupportedOperationException.class, () -> mapped.asSet().add(1));
+
+			IntBitmap copy = IntBitmap.deserialize(buffer);
+			assertEquals(buffer.capacity(), buffer.position());
+			assertBitmap(expected, copy);
+			assertBitmap(expected, IntBitmap.or(mapped, new IntBitmap()));
+		}
+		assertThrows(IllegalArgumentException.class, () -> new MappedIntBitmap(ByteBuffer.allocate(8)));
+	}
+
+	@Nonnull
+	private static IntBitmap randomBitmap(@Nonnull Random random, @Nonnull Set<Integer> expected) {
+		IntBitmap bitmap = new IntBitmap();
+		for (int chunk = random.nextInt(6); chunk >= 0; chunk--) {
+			int base = (random.nextInt(16) - 8) << 16;
+			switch (random.nextInt(3)) {
+				case 0:
+					for (int i = random.nextInt(5000); i > 0; i--) {
+						int value = base + random.nextInt(1 << 16);
+						expected.add(value);
+						bitmap.add(value);
+					}
+					break;
+				case 1:
+					for (int i = random.nextInt(60000); i > 0; i--) {
+						int value = base + random.nextInt(1 << 16);
+						expected.add(value);
+						bitmap.add(value);
+					}
+					break;
+				default:
+					for (int i = random.nextInt(20); i > 0; i--) {
+						int first = base + random.nextInt(1 << 17);
+						int last = first + random.nextInt(5000);
+						for (int value = first; value <= last; value++) expected.add(value);
+						bitmap.addRange(first, last);
+					}
+			}
+		}
+		return bitmap;
+	}
+
+	private static void assertBitmap(@Nonnull TreeSet<Integer> expected, @Nonnull AbstractIntBitmap bitmap) {
+		assertEquals(expected.size(), bitmap.cardinality());
+		assertEquals(expected, bitmap.asSet());
+		assertEquals(expected.hashCode(), bitmap.hashCode());
+		int[] values = bitmap.toArray();
+		int index = 0;
+		for (int value : expected) assertEquals(value, values[index++]);
+		if (!expected.isEmpty()) {
+			assertEquals(expected.first(), bitmap.first());
+			assertEquals(expected.last(), bitmap.last());
+			for (int i = 0; i < values.length; i += Math.max(1, values.length / 50)) {
+				assertEquals(values[i], bitmap.select(i));
+				assertEquals(i + 1, bitmap.rank(values[i]));
+				assertEquals(i, bitmap.rank(values[i] - 1));
+			}
+		}
+		assertEquals(expected.size(), bitmap.stream().count());
+	}
+
+	@Test
+	public void test_utilities() {
+		Random random = new Random(4);
+		for (int round = 0; round < 20; round++) {
+			IntList a = new IntList();
+			IntList b = new IntList();
+			for (int i = random.nextInt(50); i > 0; i--) a.add(random.nextInt(30));
+			for (int i = random.nextInt(50); i > 0; i--) b.add(random.nextInt(30));
+			List<Integer> boxedA = new ArrayList<>(a.asList());
+			List<Integer> boxedB = new ArrayList<>(b.asList());
+			assertEquals(Lists.combine(boxedA, boxedB), PrimitiveLists.combine(a, b).asList());
+			assertEquals(Lists.distinct(boxedA), PrimitiveLists.distinct(a).asList());
+			assertEquals(Lists.union(boxedA, boxedB), PrimitiveLists.union(a, b).asList());
+			assertEquals(Lists.disjoint(boxedA, boxedB), PrimitiveLists.disjoint(a, b).asList());
+
+			IntSet setA = new IntSet();
+			IntSet setB = new IntSet();
+			a.forEach(setA::add);
+			b.forEach(setB::add);
+			Set<Integer> boxedSetA = new HashSet<>(boxedA);
+			Set<Integer> boxedSetB = new HashSet<>(boxedB);
+			assertEquals(Sets.combine(boxedSetA, boxedSetB), PrimitiveSets.combine(setA, setB).asSet());
+			assertEquals(Sets.union(boxedSetA, boxedSetB), PrimitiveSets.union(setA, setB).asSet());
+			assertEquals(Sets.disjoint(boxedSetA, boxedSetB), PrimitiveSets.disjoint(setA, setB).asSet());
+		}
+		DoubleList doubles = DoubleList.of(Double.NaN, 1.0, Double.NaN, 0.0, -0.0);
+		assertEquals(DoubleList.of(Double.NaN, 1.0, 0.0, -0.0), PrimitiveLists.distinct(doubles));
+		assertEquals(CharList.of('a', 'b'), PrimitiveLists.union(CharList.of('a', 'b', 'c', 'a'), CharList.of('b', 'a')));
+		assertTrue(PrimitiveLists.combine(null, (IntList) null).isEmpty());
+	}
+}
@@ -0,0 +1,83 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.search.SortedSearchIndex;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for sorted array searching in {@link Lists} and {@link SortedSearchIndex}.
+ */
+public class SearchTest {
+	@Test
+	public void test_binarySearch_primitives() {
+		Random random = new Random(0);
+		for (int size = 0; size < 100; size++) {
+			int[] ints = random.ints(size, 0, 50).sorted().toArray();
+			long[] longs = Arrays.stream(ints).asLongStream().toArray();
+			double[] doubles = Arrays.stream(ints).asDoubleStream().toArray();
+			char[] chars = new char[size];
+			for (int i = 0; i < size; i++) chars[i] = (char) ints[i];
+
+			for (int target = -1; target <= 51; target++) {
+				int expected = Arrays.binarySearch(ints, target);
+				assertSameResult(expected, Lists.binarySearch(ints, target), ints, target);
+				assertSameResult(expected, Lists.binarySearch(longs, target), ints, target);
+				assertSameResult(expected, Lists.binarySearch(doubles, target), ints, target);
+				if (target >= 0)
+					assertSameResult(expected, Lists.binarySearch(chars, (char) target), ints, target);
+			}
+		}
+	}
+
+	@Test
+	public void test_binarySearch_range() {
+		int[] ints = {1, 3, 5, 7, 9};
+		assertEquals(2, Lists.binarySearch(ints, 5, 1, 4));
+		assertEquals(-2, Lists.binarySearch(ints, 1, 1, 4)); // Would insert at the start of the range
+		assertEquals(-5, Lists.binarySearch(ints, 9, 1, 4)); // Would insert at the end of the range
+		assertThrows(IllegalArgumentException.class, () -> Lists.binarySearch(ints, 1, 3, 2));
+		assertThrows(ArrayIndexOutOfBoundsException.class, () -> Lists.binarySearch(ints, 1, 0, 6));
+
+		String[] strings = {"A", "b", "C", "d"};
+		Comparator<String> cmp = String.CASE_INSENSITIVE_ORDER;
+		assertEquals(2, Lists.binarySearch(strings, "c", cmp));
+		assertEquals(-5, Lists.binarySearch(strings, "e", cmp));
+		assertEquals(-1, Lists.binarySearch(strings, " ", cmp));
+	}
+
+	@Test
+	public void test_sortedSearchIndex() {
+		Random random = new Random(0);
+		for (int size = 0; size < 200; size++) {
+			int[] ints = random.ints(size, 0, 500).distinct().sorted().toArray();
+			long[] longs = Arrays.stream(ints).asLongStream().toArray();
+			Integer[] boxed = Arrays.stream(ints).boxed().toArray(Integer[]::new);
+			SortedSearchIndex.OfInt intIndex = SortedSearchIndex.of(ints);
+			SortedSearchIndex.OfLong longIndex = SortedSearchIndex.of(longs);
+			SortedSearchIndex.OfObject<Integer> objIndex = SortedSearchIndex.of(boxed, Comparator.naturalOrder());
+			assertEquals(ints.length, intIndex.size());
+			for (int target = -1; target <= 501; target++) {
+				int expected = Arrays.binarySearch(ints, target);
+				assertEquals(expected, intIndex.indexOf(target));
+				assertEquals(expected, longIndex.indexOf(target));
+				assertEquals(expected, objIndex.indexOf(target));
+				assertEquals(expected >= 0, intIndex.contains(target));
+			}
+		}
+	}
+
+	private static void assertSameResult(int expected, int actual, int[] array, int target) {
+		if (expected >= 0) {
+			// Arrays.binarySearch does not guarantee which duplicate is found
+			assertTrue(actual >= 0);
+			assertEquals(target, array[actual]);
+		} else {
+			assertEquals(expected, actual);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.view.SetView;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for set utilities.
+ */
+public class SetsTest {
+	@Test
+	public void test_operations() {
+		Set<Integer> a = Sets.ofVar(1, 2, 3, 4, 5);
+		Set<Integer> b = Sets.ofVar(4, 5, 6);
+		assertEquals(Sets.ofVar(1, 2, 3, 4, 5, 6), Sets.combine(a, b));
+		assertEquals(Sets.ofVar(4, 5), Sets.union(a, b));
+		assertEquals(Sets.ofVar(4, 5), Sets.union(b, a));
+		assertEquals(Sets.ofVar(1, 2, 3), Sets.disjoint(a, b));
+		assertEquals(Sets.ofVar(6), Sets.disjoint(b, a));
+		assertEquals(Sets.ofVar(1, 2, 3, 6), Sets.symmetricDifference(a, b));
+		assertEquals(Collections.emptySet(), Sets.union(a, Collections.emptySet()));
+		assertEquals(a, Sets.disjoint(a, Collections.emptySet()));
+
+		// Inputs are not modified
+		assertEquals(5, a.size());
+		assertEquals(3, b.size());
+	}
+
+	@Test
+	public void test_views() {
+		Set<Integer> a = new TreeSet<>(Arrays.asList(1, 2, 3, 4, 5));
+		Set<Integer> b = new HashSet<>(Arrays.asList(4, 5, 6));
+
+		SetView<Integer> combined = Sets.combineView(a, b);
+		SetView<Integer> union = Sets.unionView(a, b);
+		SetView<Integer> disjoint = Sets.disjointView(a, b);
+		SetView<Integer> symmetric = Sets.symmetricDifferenceView(a, b);
+		assertEquals(Sets.combine(a, b), combined);
+		assertEquals(Sets.union(a, b), union);
+		assertEquals(Sets.disjoint(a, b), disjoint);
+		assertEquals(Sets.symmetricDifference(a, b), symmetric);
+		assertEquals(6, combined.size());
+		assertEquals(2, union.size());
+		assertEquals(3, disjoint.size());
+		assertEquals(4, symmetric.size());
+		assertEquals(Sets.union(a, b).hashCode(), union.hashCode());
+		assertTrue(symmetric.contains(6));
+		assertFalse(symmetric.contains(4));
+
+		// Views are live
+		b.add(1);
+		assertTrue(union.contains(1));
+		assertFalse(disjoint.contains(1));
+		assertEquals(3, union.size());
+		assertEquals(3, symmetric.size());
+
+		// Materialized copies are not
+		Set<Integer> copy = union.materialize(HashSet::new);
+		assertEquals(union, copy);
+		b.clear();
+		assertTrue(union.isEmpty());
+		assertEquals(a, disjoint);
+		assertEquals(3, copy.size());
+
+		assertThrows(UnsupportedOperationException.class, () -> combined.add(0));
+		assertThrows(UnsupportedOperationException.class, () -> disjoint.remove(1));
+		assertThrows(UnsupportedOperationException.class, combined::clear);
+	}
+}
@@ -0,0 +1,209 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.filter.CountMinSketch;
+import software.coley.collections.filter.Funnel;
+import software.coley.collections.filter.HyperLogLog;
+import software.coley.collections.filter.TopK;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for probabilistic sketch types.
+ */
+public class SketchTest {
+	@Test
+	public void test_hyper_log_log_accuracy() {
+		HyperLogLog<Long> sketch = HyperLogLog.create(Funnel.longs());
+		assertEquals(0, sketch.cardinality());
+		long next = 0;
+		for (long target : new long[]{1, 10, 100, 1000, 10000, 100000, 1000000}) {
+			while (next < target) sketch.add(next++);
+			// Adding duplicates does not change the estimate
+			for (long i = 0; i < target; i += 7) sketch.add(i);
+			long estimate = sketch.cardinality();
+			double error = Math.abs(estimate - target) / (double) target;
+			// Small sets are sparse, and should be near exact
+			double allowed = target <= 1000 ? 0.01 : 4 * sketch.standardError();
+			assertTrue(error <= allowed, "Estimate " + estimate + " for " + target);
+		}
+		assertTrue(sketch.serializedSize() < 17 * 1024);
+	}
+
+	@Test
+	public void test_hyper_log_log_merge_and_serialize() {
+		for (int precision : new int[]{4, 10, 14, 18}) {
+			HyperLogLog<CharSequence> a = HyperLogLog.create(Funnel.strings(), precision);
+			HyperLogLog<CharSequence> b = HyperLogLog.create(Funnel.strings(), precision);
+			HyperLogLog<CharSequence> union = HyperLogLog.create(Funnel.strings(), precision);
+			for (int i = 0; i < 50000; i++) {
+				a.add("a" + i);
+				union.add("a" + i);
+				if (i % 5 == 0) {
+					b.add("b" + i);
+					union.add("b" + i);
+				}
+			}
+			HyperLogLog<CharSequence> merged = a.copy();
+			merged.merge(b);
+			assertEquals(union.cardinality(), merged.cardinality());
+			HyperLogLog<CharSequence> reversed = b.copy();
+			reversed.merge(a);
+			assertEquals(union.cardinality(), reversed.cardinality());
+
+			for (HyperLogLog<CharSequence> sketch : new HyperLogLog[]{a, b, HyperLogLog.create(Funnel.strings(), precision)}) {
+				ByteBuffer buffer = ByteBuffer.allocate(sketch.serializedSize() + 1);
+				buffer.put((byte) 0);
+				sketch.serialize(buffer);
+				assertFalse(buffer.hasRemaining());
+				buffer.position(1);
+				HyperLogLog<CharSequence> copy = HyperLogLog.deserialize(Funnel.strings(), buffer);
+				assertFalse(buffer.hasRemaining());
+				assertEquals(sketch.cardinality(), copy.cardinality());
+			}
+		}
+
+		// Sparse sketches merged into each other stay exact at small sizes
+		HyperLogLog<Integer> small = HyperLogLog.create(Funnel.integers());
+		HyperLogLog<Integer> other = HyperLogLog.create(Funnel.integers());
+		for (int i = 0; i < 100; i++) small.add(i);
+		for (int i = 50; i < 150; i++) other.add(i);
+		small.merge(other);
+		assertEquals(150, small.cardinality());
+
+		assertThrows(IllegalArgumentException.class, () -> small.merge(HyperLogLog.create(Funnel.integers(), 12)));
+		assertThrows(IllegalArgumentException.class, () -> HyperLogLog.create(Funnel.integers(), 3));
+		assertThrows(IllegalArgumentException.class,
+				() -> HyperLogLog.deserialize(Funnel.integers(), ByteBuffer.allocate(32)));
+	}
+
+	@Test
+	public void test_hyper_log_log_collector() {
+		HyperLogLog<Integer> sketch = IntStream.range(0, 500000).parallel()
+				.map(i -> i % 200000)
+				.boxed()
+				.collect(HyperLogLog.collector(Funnel.integers()));
+		assertEquals(200000, sketch.cardinality(), 200000 * 4 * sketch.standardError());
+
+		HyperLogLog<Long> sequential = LongStream.range(0, 5000).boxed()
+				.collect(HyperLogLog.collector(Funnel.longs(), 16));
+		assertEquals(5000, sequential.cardinality(), 50);
+	}
+
+	@Test
+	public void test_count_min_sketch() {
+		CountMinSketch<Integer> sketch = CountMinSketch.create(Funnel.integers(), 0.001, 0.99);
+		Map<Integer, Integer> counts = new HashMap<>();
+		Random random = new Random(2);
+		for (int i = 0; i < 200000; i++) {
+			// Skewed towards low values, so there are a few heavy hitters and a long tail
+			int value = (int) Math.abs(random.nextGaussian() * 1000);
+			counts.merge(value, 1, Integer::sum);
+			sketch.add(value);
+		}
+		assertEquals(200000, sketch.totalCount());
+		long bound = sketch.errorBound();
+		assertTrue(bound <= 0.001 * 200000 + 1);
+		// Estimates are within the bound at the confidence the sketch was created with
+		int outsideBound = 0;
+		for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+			int estimate = sketch.estimate(entry.getKey());
+			assertTrue(estimate >= entry.getValue(), "Underestimated " + entry.getKey());
+			if (estimate > entry.getValue() + bound) outsideBound++;
+		}
+		assertTrue(outsideBound <= counts.size() * 0.01, "Outside bound: " + outsideBound + " of " + counts.size());
+
+		// Merging and serialization
+		CountMinSketch<Integer> other = CountMinSketch.create(Funnel.integers(), 0.001, 0.99);
+		other.add(0, 1000);
+		CountMinSketch<Integer> merged = sketch.copy();
+		merged.merge(other);
+		assertTrue(merged.estimate(0) >= counts.get(0) + 1000);
+		assertThrows(IllegalArgumentException.class,
+				() -> merged.merge(CountMinSketch.create(Funnel.integers(), 0.01, 0.99)));
+		ByteBuffer buffer = ByteBuffer.allocate(merged.serializedSize());
+		merged.serialize(buffer);
+		buffer.flip();
+		CountMinSketch<Integer> copy = CountMinSketch.deserialize(Funnel.integers(), buffer);
+		assertEquals(merged.totalCount(), copy.totalCount());
+		for (int value : counts.keySet()) assertEquals(merged.estimate(value), copy.estimate(value));
+	}
+
+	@Test
+	public void test_count_min_sketch_aging() {
+		CountMinSketch<CharSequence> sketch = CountMinSketch.create(Funnel.strings(), 0.01, 0.9, 1000);
+		for (int i = 0; i < 999; i++) sketch.add("old");
+		assertEquals(999, sketch.estimate("old"));
+		// The addition reaching the period halves all counts
+		assertEquals(0, sketch.add("new"));
+		assertEquals(499, sketch.estimate("old"));
+		assertEquals(500, sketch.totalCount());
+		for (int i = 0; i < 3000; i++) sketch.add("new");
+		assertTrue(sketch.estimate("new") > sketch.estimate("old"));
+		sketch.clear();
+		assertEquals(0, sketch.estimate("new"));
+	}
+
+	@Test
+	public void test_top_k() {
+		TopK<String> topK = new TopK<>(20);
+		Random random = new Random(3);
+		Map<String, Integer> counts = new HashMap<>();
+		for (int i = 0; i < 100000; i++) {
+			// A handful of hot keys among many cold ones
+			String key = random.nextInt(10) < 4 ? "hot" + random.nextInt(5) : "cold" + random.nextInt(10000);
+			counts.merge(key, 1, Integer::sum);
+			topK.add(key);
+		}
+		assertEquals(100000, topK.totalCount());
+		assertEquals(20, topK.size());
+
+		List<TopK.Item<String>> top = topK.top(5);
+		assertEquals(5, top.size());
+		for (TopK.Item<String> item : top) {
+			assertTrue(item.value().startsWith("hot"), "Unexpected " + item);
+			int count = counts.get(item.value());
+			assertTrue(item.count() >= count && item.guaranteedCount() <= count, "Bounds of " + item);
+		}
+		for (int i = 1; i < top.size(); i++) assertTrue(top.get(i - 1).count() >= top.get(i).count());
+
+		List<TopK.Item<String>> heavy = topK.heavyHitters(0.05);
+		assertEquals(5, heavy.size());
+		for (TopK.Item<String> item : heavy) assertTrue(item.guaranteedCount() > 0.05 * 100000);
+
+		// Untracked values are bounded by the smallest tracked count
+		assertTrue(topK.estimate("cold0") >= counts.getOrDefault("cold0", 0));
+		topK.clear();
+		assertEquals(0, topK.size());
+		assertEquals(0, topK.estimate("hot0"));
+	}
+
+	@Test
+	public void test_top_k_in_order_arrivals() {
+		// Values arriving after a frequent value must not displace it
+		TopK<String> topK = new TopK<>(2);
+		topK.add("hot", 10);
+		topK.add("cold");
+		topK.add("new");
+		assertEquals(10, topK.estimate("hot"));
+		assertEquals(new TopK.Item<>("hot", 10, 0), topK.top(1).get(0));
+		assertEquals(new TopK.Item<>("new", 2, 1), topK.top(2).get(1));
+
+		topK = new TopK<>(3);
+		for (int i = 0; i < 100; i++) topK.add("a");
+		topK.add("b");
+		topK.add("c");
+		topK.add("d");
+		assertEquals(100, topK.estimate("a"));
+		assertEquals("a", topK.top(1).get(0).value());
+		assertEquals(3, topK.size());
+	}
+}
@@ -0,0 +1,74 @@
+package software.coley.collections;
+
+import org.junit.jupiter.api.Test;
+import software.coley.collections.sorted.SortedArrayList;
+import software.coley.collections.sorted.SortedList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link SortedList}
+ */
+public class SortedListTest {
+	@Test
+	public void test_add() {
+		SortedList<String> list = new SortedArrayList<>();
+		list.add("c");
+		list.add("a");
+		list.add("b");
+		assertEquals(Lists.ofVar("a", "b", "c"), list);
+		assertThrows(UnsupportedOperationException.class, () -> list.add(0, "z"));
+		assertThrows(UnsupportedOperationException.class, () -> list.set(0, "z"));
+	}
+
+	@Test
+	public void test_addAllSorted() {
+		Random random = new Random(0);
+		List<Integer> expected = new ArrayList<>();
+		SortedList<Integer> list = new SortedArrayList<>();
+		for (int batch = 0; batch < 20; batch++) {
+			List<Integer> items = new ArrayList<>();
+			for (int i = 0; i < 500; i++)
+				items.add(random.nextInt(2000));
+			list.addAllSorted(items);
+			expected.addAll(items);
+			Collections.sort(expected);
+			assertEquals(expected, list);
+		}
+	}
+
+	@Test
+	public void test_lookup() {
+		SortedList<String> list = new SortedArrayList<>(String.CASE_INSENSITIVE_ORDER,
+				Lists.ofVar("b", "B", "a", "c", "d"));
+		assertEquals(Lists.ofVar("a", "b", "B", "c", "d"), list);
+		assertEquals(1, list.indexOf("b"));
+		assertEquals(2, list.indexOf("B"));
+		assertEquals(2, list.lastIndexOf("B"));
+		assertTrue(list.contains("c"));
+		assertFalse(list.contains("C")); // Compares as equal to 'c' but is not equal
+		assertFalse(list.contains(1));
+		assertTrue(list.remove("B"));
+		assertEquals(Lists.ofVar("a", "b", "c", "d"), list);
+	}
+
+	@Test
+	public void test_ranges() {
+		SortedList<Integer> list = new SortedArrayList<>(null, Lists.ofVar(5, 1, 4, 2, 3));
+		assertEquals(Lists.ofVar(3, 4), list.subList(2, 4)); // Index based range
+		assertEquals(Lists.ofVar(2, 3, 4), list.rangeList(2, 5)); // Value based range
+		assertEquals(Lists.ofVar(1, 2), list.headRange(3));
+		assertEquals(Lists.ofVar(4, 5), list.tailRange(4));
+		assertEquals(Collections.emptyList(), list.tailRange(10));
+		assertEquals(Collections.emptyList(), list.rangeList(4, 2));
+
+		// Range views are live
+		list.headRange(3).clear();
+		assertEquals(Lists.ofVar(3, 4, 5), list);
+	}
+}
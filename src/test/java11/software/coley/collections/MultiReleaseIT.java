@@ -0,0 +1,106 @@
+package software.coley.collections;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import software.coley.collections.box.Box;
+import software.coley.collections.box.IntBox;
+import software.coley.collections.box.LongBox;
+import software.coley.collections.internal.BoxAccess;
+import software.coley.collections.internal.Instrumentation;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Java 11 overlays, run against the packaged multi-release jar.
+ */
+public class MultiReleaseIT {
+	@Test
+	public void test_overlays_are_used() {
+		assertTrue(BoxAccess.class.getResource("BoxAccess.class").toString().contains("META-INF/versions/11"));
+		assertTrue(Instrumentation.class.getResource("Instrumentation.class").toString().contains("META-INF/versions/11"));
+		assertTrue(Instrumentation.isJfrAvailable());
+	}
+
+	@Test
+	public void test_box_atomics() throws InterruptedException {
+		IntBox intBox = new IntBox(0);
+		LongBox longBox = new LongBox(0);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Thread thread = new Thread(() -> {
+				for (int j = 0; j < 10000; j++) {
+					intBox.getAndAdd(1);
+					longBox.addAndGet(2);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) thread.join();
+		assertEquals(40000, intBox.get());
+		assertEquals(80000, longBox.get());
+
+		assertTrue(intBox.compareAndSet(40000, 1));
+		assertFalse(intBox.compareAndSet(40000, 2));
+		assertEquals(1, intBox.getAndSet(5));
+		assertEquals(80000, longBox.getAndSet(3));
+		Box<String> box = new Box<>("a");
+		assertTrue(box.compareAndSet("a", "b"));
+		assertFalse(box.compareAndSet("a", "c"));
+		assertEquals("b", box.get());
+	}
+
+	@Test
+	public void test_operations_are_recorded() throws Exception {
+		Path file = Files.createTempFile("operations", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("software.coley.collections.Operation");
+			recording.start();
+			Lists.distinct(IntStream.range(0, 100).map(i -> i % 10).boxed().collect(Collectors.toList()));
+			recording.stop();
+			recording.dump(file);
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+					.filter(e -> e.getEventType().getName().equals("software.coley.collections.Operation"))
+					.filter(e -> "Lists.distinct".equals(e.getString("operation")))
+					.collect(Collectors.toList());
+			assertEquals(1, events.size());
+			assertEquals(100, events.get(0).getInt("inputSize"));
+			assertEquals(10, events.get(0).getInt("resultSize"));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void test_missing_jfr_falls_back() throws Exception {
+		// Simulates a runtime image without the 'jdk.jfr' module by hiding its classes from a fresh copy of the library
+		ClassLoader withoutJfr = new ClassLoader(ClassLoader.getPlatformClassLoader()) {
+			@Override
+			protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+				if (name.startsWith("jdk.jfr.")) throw new ClassNotFoundException(name);
+				return super.loadClass(name, resolve);
+			}
+		};
+		URL jar = Lists.class.getProtectionDomain().getCodeSource().getLocation();
+		try (URLClassLoader loader = new URLClassLoader(new URL[]{jar}, withoutJfr)) {
+			Class<?> instrumentation = loader.loadClass(Instrumentation.class.getName());
+			assertFalse((Boolean) instrumentation.getMethod("isJfrAvailable").invoke(null));
+
+			Class<?> lists = loader.loadClass(Lists.class.getName());
+			Method distinct = lists.getMethod("distinct", List.class);
+			assertEquals(List.of(1, 2), distinct.invoke(null, List.of(1, 2, 1)));
+		}
+	}
+}